@@ -4,6 +4,9 @@ import io.ibj.jsmc.api.exceptions.*;
 
 import java.io.IOException;
 import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * A singleton which manages dependencies within the jsmc ecosystem. Able to load and unload modules with no dependency
@@ -55,6 +58,31 @@ public interface DependencyManager {
      */
     Entry load(String moduleIdentifier) throws ModuleAlreadyLoadedException, ModuleCompilationException, ModuleExecutionException, ModuleNotFoundException, IOException;
 
+    /**
+     * Loads several modules, executes them, and holds them in context of the DependencyManager. A module failing to load
+     * does not keep the others from loading.
+     * <p>
+     * By default, modules are loaded one after another through {@link DependencyManager#load(String)}. Implementations
+     * may prepare modules in parallel, but still execute them on the calling thread in the order passed.
+     *
+     * @param moduleIdentifiers String representations of module identifiers. Meaning specific to manager
+     * @return Futures of the loaded modules' entries keyed by module identifier, in the order passed. A future is
+     * completed exceptionally with the exception {@link DependencyManager#load(String)} would have thrown
+     */
+    default Map<String, CompletableFuture<Entry>> loadAll(Collection<String> moduleIdentifiers) {
+        Map<String, CompletableFuture<Entry>> entries = new LinkedHashMap<>();
+        for (String moduleIdentifier : moduleIdentifiers) {
+            CompletableFuture<Entry> entry = new CompletableFuture<>();
+            try {
+                entry.complete(load(moduleIdentifier));
+            } catch (Exception e) {
+                entry.completeExceptionally(e);
+            }
+            entries.put(moduleIdentifier, entry);
+        }
+        return entries;
+    }
+
     /**
      * Unloads a module from the dependency manager.
      *
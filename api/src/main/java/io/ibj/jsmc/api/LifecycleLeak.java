@@ -0,0 +1,85 @@
+package io.ibj.jsmc.api;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A leak found by a {@link LifecycleTracker}
+ *
+ * @author Joseph Hirschfeld (Ichbinjoe) [joe@ibj.io]
+ * @since 10/18/26
+ */
+public final class LifecycleLeak {
+
+    /**
+     * Kind of a leak
+     */
+    public enum Kind {
+        /**
+         * A lifecycle became unreachable without being closed, so its close callback never ran
+         */
+        UNREACHABLE,
+        /**
+         * A module was unloaded, but is still depended on by consumers outside of the loaded modules
+         */
+        PINNED
+    }
+
+    private final Kind kind;
+    private final String description;
+    private final List<Throwable> creationSites;
+
+    /**
+     * Creates a new LifecycleLeak
+     *
+     * @param kind          kind of the leak
+     * @param description   description of the leaked dependency and, if known, what holds on to it
+     * @param creationSites stack traces of where the leaked lifecycles were created, empty if not recorded
+     */
+    public LifecycleLeak(Kind kind, String description, List<Throwable> creationSites) {
+        if (kind == null)
+            throw new NullPointerException("kind cannot be null");
+        if (description == null)
+            throw new NullPointerException("description cannot be null");
+        if (creationSites == null)
+            throw new NullPointerException("creationSites cannot be null");
+        this.kind = kind;
+        this.description = description;
+        this.creationSites = Collections.unmodifiableList(creationSites);
+    }
+
+    /**
+     * Returns the kind of the leak
+     *
+     * @return kind
+     */
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * Returns a description of the leaked dependency and, if known, what holds on to it
+     *
+     * @return description
+     */
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * Returns the stack traces of where the leaked lifecycles were created. Empty if the tracker does not record them.
+     *
+     * @return creation sites
+     */
+    public List<Throwable> getCreationSites() {
+        return creationSites;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return kind + ": " + description;
+    }
+}
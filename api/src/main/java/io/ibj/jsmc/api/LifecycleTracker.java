@@ -0,0 +1,190 @@
+package io.ibj.jsmc.api;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Opt-in tracker of {@link DependencyLifecycle}s which were never closed. Once installed, every
+ * {@link SimpleDependencyLifecycle} registers itself on creation and unregisters itself when closed. Leaks are found in
+ * two ways:
+ * <ul>
+ * <li>Lifecycles are only weakly referenced, so a lifecycle which becomes unreachable while still open is enqueued by
+ * the garbage collector, and reported on the next {@link #poll()}.</li>
+ * <li>A module still depended on after being unloaded is usually pinned by a lifecycle which was not closed, but stays
+ * reachable. {@link #checkReleased(Dependency, String, Collection)} reports such modules.</li>
+ * </ul>
+ * Tracking a lifecycle costs a set insertion and removal, plus a stack trace if creation sites are recorded. Nothing is
+ * tracked while no tracker is installed.
+ *
+ * @author Joseph Hirschfeld (Ichbinjoe) [joe@ibj.io]
+ * @since 10/18/26
+ */
+public final class LifecycleTracker {
+
+    private static volatile LifecycleTracker installed;
+
+    private final boolean recordCreationSites;
+    private final Consumer<LifecycleLeak> reporter;
+    private final ReferenceQueue<DependencyLifecycle> queue = new ReferenceQueue<>();
+    // records have to stay strongly reachable themselves to ever be enqueued
+    private final Set<Record> open = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Creates a new LifecycleTracker
+     *
+     * @param recordCreationSites whether to record a stack trace of where every lifecycle is created
+     * @param reporter            receiver of found leaks
+     */
+    public LifecycleTracker(boolean recordCreationSites, Consumer<LifecycleLeak> reporter) {
+        if (reporter == null)
+            throw new NullPointerException("reporter cannot be null");
+        this.recordCreationSites = recordCreationSites;
+        this.reporter = reporter;
+    }
+
+    /**
+     * Installs a tracker, which tracks every lifecycle created from then on
+     *
+     * @param tracker tracker to install, or null to stop tracking
+     */
+    public static void install(LifecycleTracker tracker) {
+        installed = tracker;
+    }
+
+    /**
+     * Returns the installed tracker
+     *
+     * @return installed tracker, or null if none is installed
+     */
+    public static LifecycleTracker getInstalled() {
+        return installed;
+    }
+
+    /**
+     * Starts tracking a lifecycle. The returned record has to be closed once the lifecycle is closed.
+     *
+     * @param lifecycle lifecycle to track
+     * @param parent    dependency the lifecycle was handed out by
+     * @return record of the lifecycle
+     */
+    public Record track(DependencyLifecycle lifecycle, Dependency parent) {
+        Record record = new Record(lifecycle, parent);
+        open.add(record);
+        return record;
+    }
+
+    /**
+     * Returns the amount of tracked lifecycles which were not closed yet
+     *
+     * @return open lifecycles
+     */
+    public int getOpenCount() {
+        return open.size();
+    }
+
+    /**
+     * Reports every lifecycle which was found unreachable while still open since the last poll. Only takes as long as
+     * there are such lifecycles, so it is cheap enough to poll frequently.
+     *
+     * @return amount of lifecycles reported
+     */
+    public int poll() {
+        int reported = 0;
+        Record record;
+        while ((record = (Record) queue.poll()) != null) {
+            if (!open.remove(record))
+                continue;
+            reporter.accept(new LifecycleLeak(LifecycleLeak.Kind.UNREACHABLE,
+                    "Lifecycle of " + record.describeParent() + " became unreachable without being closed",
+                    record.site == null ? Collections.emptyList() : Collections.singletonList(record.site)));
+            reported++;
+        }
+        return reported;
+    }
+
+    /**
+     * Checks whether an unloaded module was released. A module which is still depended on, but is not a dependency of
+     * any of the still loaded modules, is reported along with where its open lifecycles were created.
+     *
+     * @param dependency unloaded dependency
+     * @param identifier identifier the dependency was loaded as
+     * @param roots      dependencies which are still loaded
+     * @return true if the module was reported as pinned
+     */
+    public boolean checkReleased(Dependency dependency, String identifier, Collection<Dependency> roots) {
+        Collection<DependencyConsumer> dependents = dependency.getDependents();
+        if (dependents.isEmpty())
+            return false;
+
+        // shared with a module which is still loaded, so it is depended on for good reason
+        Set<Dependency> reachable = Collections.newSetFromMap(new IdentityHashMap<>());
+        Deque<Dependency> pending = new ArrayDeque<>(roots);
+        while (!pending.isEmpty()) {
+            Dependency d = pending.pop();
+            if (!reachable.add(d))
+                continue;
+            if (d == dependency)
+                return false;
+            if (d instanceof DependencyConsumer)
+                pending.addAll(((DependencyConsumer) d).getDependencies());
+        }
+
+        List<Throwable> sites = new ArrayList<>();
+        for (Record record : open)
+            if (record.parent.get() == dependency && record.site != null)
+                sites.add(record.site);
+        List<String> holders = new ArrayList<>();
+        for (DependencyConsumer dependent : dependents)
+            holders.add(describe(dependent));
+        reporter.accept(new LifecycleLeak(LifecycleLeak.Kind.PINNED, "Module '" + identifier +
+                "' is still depended on after being unloaded, by " + String.join(", ", holders), sites));
+        return true;
+    }
+
+    private static String describe(Object o) {
+        if (o instanceof Loggable)
+            return ((Loggable) o).getLogger().getName() + " (" + o.getClass().getSimpleName() + ")";
+        return String.valueOf(o);
+    }
+
+    /**
+     * Record of a tracked lifecycle
+     */
+    public final class Record extends WeakReference<DependencyLifecycle> {
+
+        private final WeakReference<Dependency> parent;
+        private final String parentType;
+        private final Throwable site;
+
+        private Record(DependencyLifecycle lifecycle, Dependency parent) {
+            super(lifecycle, queue);
+            this.parent = new WeakReference<>(parent);
+            this.parentType = parent.getClass().getName();
+            this.site = recordCreationSites ?
+                    new Throwable("Lifecycle created on thread '" + Thread.currentThread().getName() + "'") : null;
+        }
+
+        /**
+         * Stops tracking the lifecycle, as it was closed
+         */
+        public void close() {
+            open.remove(this);
+            clear();
+        }
+
+        private String describeParent() {
+            Dependency d = parent.get();
+            return d == null ? parentType + " (collected)" : describe(d);
+        }
+    }
+}
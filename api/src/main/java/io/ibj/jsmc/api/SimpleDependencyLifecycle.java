@@ -1,8 +1,15 @@
 package io.ibj.jsmc.api;
 
+import java.util.concurrent.atomic.AtomicBoolean;
+
 /**
  * A dependency lifecycle which enforces a simple contract with an optional close callback. It is recommended to use this
  * lifecycle unless special needs are required which are outside of the scope of this lifecycle's functions.
+ * <p>
+ * The lifecycle is safe to use from multiple threads. The close callback is run at most once, even if the lifecycle is
+ * closed concurrently.
+ * <p>
+ * If a {@link LifecycleTracker} is installed, the lifecycle is tracked from its creation until it is closed.
  *
  * @see DependencyLifecycle
  *
@@ -14,7 +21,8 @@ public final class SimpleDependencyLifecycle implements DependencyLifecycle {
     private final Dependency parent;
     private final Object export;
     private final Runnable onClose;
-    private boolean closed = false;
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+    private final LifecycleTracker.Record record;
 
     /**
      * Creates a simple lifecycle with single dependency parent, static export object, and optional close callback
@@ -28,6 +36,8 @@ public final class SimpleDependencyLifecycle implements DependencyLifecycle {
         this.parent = parent;
         this.export = export;
         this.onClose = onClose;
+        LifecycleTracker tracker = LifecycleTracker.getInstalled();
+        this.record = tracker == null ? null : tracker.track(this, parent);
     }
 
     /**
@@ -44,7 +54,7 @@ public final class SimpleDependencyLifecycle implements DependencyLifecycle {
      */
     @Override
     public Object getDependencyExports() {
-        if (closed) throw new IllegalStateException("Dependency lifecycle was already closed");
+        if (closed.get()) throw new IllegalStateException("Dependency lifecycle was already closed");
         return export;
     }
 
@@ -61,8 +71,10 @@ public final class SimpleDependencyLifecycle implements DependencyLifecycle {
      */
     @Override
     public void close() throws Exception {
-        if (closed) throw new IllegalStateException("Dependency lifecycle was already closed");
-        closed = true;
+        if (!closed.compareAndSet(false, true))
+            throw new IllegalStateException("Dependency lifecycle was already closed");
+        if (record != null)
+            record.close();
         if (onClose != null)
             onClose.run();
     }
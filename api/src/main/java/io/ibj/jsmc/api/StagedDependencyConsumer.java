@@ -0,0 +1,44 @@
+package io.ibj.jsmc.api;
+
+import io.ibj.jsmc.api.exceptions.ModuleCompilationException;
+import io.ibj.jsmc.api.exceptions.ModuleExecutionException;
+import io.ibj.jsmc.api.exceptions.ModuleNotFoundException;
+
+import java.io.IOException;
+import java.util.Collection;
+
+/**
+ * A {@link DependencyConsumer} which is able to split its reevaluation into a teardown and a rebuild stage, so that a
+ * whole set of affected consumers can be reevaluated once each in dependency order.
+ * <p>
+ * During a reevaluation, every affected consumer is torn down first, dependents before their dependencies. Afterwards,
+ * every affected consumer is rebuilt, dependencies before their dependents. Unlike
+ * {@link DependencyConsumer#reevaluate(Collection)}, neither stage may trigger reevaluation of other consumers - the
+ * caller is responsible for reaching every affected consumer.
+ *
+ * @author Joseph Hirschfeld (Ichbinjoe) [joe@ibj.io]
+ * @since 10/18/26
+ */
+public interface StagedDependencyConsumer extends DependencyConsumer {
+
+    /**
+     * Releases any state which was built from the consumer's dependencies
+     *
+     * @param reevaluatedConsumers every consumer affected by the reevaluation
+     * @throws ModuleExecutionException if state fails to be released properly
+     */
+    void teardown(Collection<DependencyConsumer> reevaluatedConsumers) throws ModuleExecutionException;
+
+    /**
+     * Builds the consumer's state again after its dependencies have been rebuilt. Consumers which build their state
+     * lazily may do nothing here
+     *
+     * @param reevaluatedConsumers every consumer affected by the reevaluation
+     * @throws ModuleExecutionException   if a module fails to execute properly
+     * @throws IOException                if an IO related exception is thrown
+     * @throws ModuleCompilationException if a module is recompiled and throws an exception
+     * @throws ModuleNotFoundException    if a module dependency was lost
+     */
+    void rebuild(Collection<DependencyConsumer> reevaluatedConsumers) throws ModuleExecutionException, IOException, ModuleCompilationException, ModuleNotFoundException;
+
+}
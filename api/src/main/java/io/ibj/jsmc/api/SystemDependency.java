@@ -1,8 +1,8 @@
 package io.ibj.jsmc.api;
 
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * A dependency which is unable to pull dependents of its own, only permitted to be a dependency with a static export
@@ -21,7 +21,7 @@ public final class SystemDependency implements Dependency {
      */
     public SystemDependency(Object export) {
         this.export = export;
-        lifecycleMap = new HashMap<>();
+        lifecycleMap = new ConcurrentHashMap<>();
     }
 
     /**
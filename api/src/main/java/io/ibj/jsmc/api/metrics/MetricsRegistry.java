@@ -0,0 +1,86 @@
+package io.ibj.jsmc.api.metrics;
+
+import javax.management.*;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Holds the {@link ModuleMetrics} of every module by module name. Modules look up their metrics once, and record into
+ * them directly afterwards, so the registry itself is never on the recording path. A module which is reloaded keeps
+ * counting into the same metrics.
+ *
+ * @author Joseph Hirschfeld (Ichbinjoe) [joe@ibj.io]
+ * @since 10/18/26
+ */
+public class MetricsRegistry implements MetricsRegistryMXBean {
+
+    private final Map<String, ModuleMetrics> modules = new ConcurrentHashMap<>();
+    private ObjectName registeredName;
+
+    /**
+     * Returns the metrics of a module, creating them if the module has none yet
+     *
+     * @param name name of the module
+     * @return module metrics
+     */
+    public ModuleMetrics metrics(String name) {
+        if (name == null)
+            throw new NullPointerException("name cannot be null");
+        return modules.computeIfAbsent(name, ModuleMetrics::new);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<ModuleStatistics> getModules() {
+        List<ModuleStatistics> statistics = new ArrayList<>(modules.size());
+        for (ModuleMetrics m : modules.values())
+            statistics.add(m.snapshot());
+        statistics.sort(Comparator.comparing(ModuleStatistics::getName));
+        return statistics;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Modules which already looked up their metrics keep recording into their old, now unlisted metrics until they are
+     * recreated.
+     */
+    @Override
+    public void reset() {
+        modules.clear();
+    }
+
+    /**
+     * Registers the registry with the platform MBean server under the passed name
+     *
+     * @param name object name to register under, such as <code>io.ibj.jsmc:type=Metrics</code>
+     * @throws JMException           if the registry could not be registered
+     * @throws IllegalStateException if the registry is already registered
+     */
+    public synchronized void registerMBean(String name) throws JMException {
+        if (registeredName != null)
+            throw new IllegalStateException("Registry is already registered as " + registeredName);
+        ObjectName objectName = new ObjectName(name);
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+        registeredName = objectName;
+    }
+
+    /**
+     * Unregisters the registry from the platform MBean server, if it was registered
+     *
+     * @throws JMException if the registry could not be unregistered
+     */
+    public synchronized void unregisterMBean() throws JMException {
+        if (registeredName == null)
+            return;
+        ObjectName objectName = registeredName;
+        registeredName = null;
+        ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+    }
+}
@@ -0,0 +1,24 @@
+package io.ibj.jsmc.api.metrics;
+
+import java.util.List;
+
+/**
+ * JMX view of a {@link MetricsRegistry}
+ *
+ * @author Joseph Hirschfeld (Ichbinjoe) [joe@ibj.io]
+ * @since 10/18/26
+ */
+public interface MetricsRegistryMXBean {
+
+    /**
+     * Returns a snapshot of the metrics of every module
+     *
+     * @return module statistics, sorted by module name
+     */
+    List<ModuleStatistics> getModules();
+
+    /**
+     * Forgets the metrics of every module
+     */
+    void reset();
+}
@@ -0,0 +1,141 @@
+package io.ibj.jsmc.api.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runtime counters of a single module. Every record method only increments striped counters, so recording is cheap
+ * enough to be left on and is safe from any thread. Reads are not atomic across counters, and may be slightly out of date
+ * while the module is in use.
+ *
+ * @author Joseph Hirschfeld (Ichbinjoe) [joe@ibj.io]
+ * @since 10/18/26
+ */
+public final class ModuleMetrics {
+
+    private final String name;
+    private final long createdNanos = System.nanoTime();
+
+    private final LongAdder compiles = new LongAdder();
+    private final LongAdder compileNanos = new LongAdder();
+    private final LongAdder evaluations = new LongAdder();
+    private final LongAdder evaluationNanos = new LongAdder();
+    private final LongAdder requires = new LongAdder();
+    private final LongAdder depends = new LongAdder();
+    private final LongAdder closes = new LongAdder();
+    private final LongAdder reports = new LongAdder();
+    private final LongAdder asyncSubmits = new LongAdder();
+    private final LongAdder asyncCompletions = new LongAdder();
+    private final LongAdder asyncLatencyNanos = new LongAdder();
+    private final LongAccumulator asyncMaxLatencyNanos = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Creates new, empty metrics for a module
+     *
+     * @param name name of the module
+     */
+    public ModuleMetrics(String name) {
+        if (name == null)
+            throw new NullPointerException("name cannot be null");
+        this.name = name;
+    }
+
+    /**
+     * Records a compilation of the module
+     *
+     * @param nanos time taken to compile, in nanoseconds
+     */
+    public void recordCompile(long nanos) {
+        compiles.increment();
+        compileNanos.add(nanos);
+    }
+
+    /**
+     * Records an evaluation (run) of the module
+     *
+     * @param nanos time taken to evaluate, in nanoseconds
+     */
+    public void recordEvaluation(long nanos) {
+        evaluations.increment();
+        evaluationNanos.add(nanos);
+    }
+
+    /**
+     * Records a <code>require()</code> call made by the module
+     */
+    public void recordRequire() {
+        requires.increment();
+    }
+
+    /**
+     * Records a new lifecycle handed out by the module
+     */
+    public void recordDepend() {
+        depends.increment();
+    }
+
+    /**
+     * Records a lifecycle of the module being closed
+     */
+    public void recordClose() {
+        closes.increment();
+    }
+
+    /**
+     * Records an error reported by the module
+     */
+    public void recordReport() {
+        reports.increment();
+    }
+
+    /**
+     * Records a piece of asynchronous work submitted by the module
+     */
+    public void recordAsyncSubmit() {
+        asyncSubmits.increment();
+    }
+
+    /**
+     * Records the completion of a piece of asynchronous work submitted by the module
+     *
+     * @param latencyNanos time from submitting the work to its result being handed back, in nanoseconds
+     */
+    public void recordAsyncCompletion(long latencyNanos) {
+        asyncCompletions.increment();
+        asyncLatencyNanos.add(latencyNanos);
+        asyncMaxLatencyNanos.accumulate(latencyNanos);
+    }
+
+    /**
+     * Returns the name of the module
+     *
+     * @return module name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Takes a snapshot of the current values of every counter
+     *
+     * @return snapshot of the counters
+     */
+    public ModuleStatistics snapshot() {
+        long depends = this.depends.sum();
+        long closes = this.closes.sum();
+        long reports = this.reports.sum();
+        // completions first, so a completion racing the snapshot never makes the queue depth negative
+        long asyncCompletions = this.asyncCompletions.sum();
+        long asyncSubmits = this.asyncSubmits.sum();
+        double minutes = (System.nanoTime() - createdNanos) / (double) TimeUnit.MINUTES.toNanos(1);
+        return new ModuleStatistics(name,
+                compiles.sum(), TimeUnit.NANOSECONDS.toMicros(compileNanos.sum()),
+                evaluations.sum(), TimeUnit.NANOSECONDS.toMicros(evaluationNanos.sum()),
+                requires.sum(), depends, closes, Math.max(0, depends - closes),
+                reports, minutes > 0 ? reports / minutes : 0,
+                asyncSubmits, Math.max(0, asyncSubmits - asyncCompletions),
+                TimeUnit.NANOSECONDS.toMicros(asyncLatencyNanos.sum()),
+                TimeUnit.NANOSECONDS.toMicros(asyncMaxLatencyNanos.get()));
+    }
+}
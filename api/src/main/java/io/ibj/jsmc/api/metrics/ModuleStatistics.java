@@ -0,0 +1,208 @@
+package io.ibj.jsmc.api.metrics;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * Snapshot of the {@link ModuleMetrics} of a single module
+ *
+ * @author Joseph Hirschfeld (Ichbinjoe) [joe@ibj.io]
+ * @since 10/18/26
+ */
+public final class ModuleStatistics {
+
+    private final String name;
+    private final long compileCount;
+    private final long compileMicros;
+    private final long evaluationCount;
+    private final long evaluationMicros;
+    private final long requireCount;
+    private final long dependCount;
+    private final long closeCount;
+    private final long liveLifecycles;
+    private final long reportCount;
+    private final double reportsPerMinute;
+    private final long asyncSubmitCount;
+    private final long asyncQueueDepth;
+    private final long asyncLatencyMicros;
+    private final long asyncMaxLatencyMicros;
+
+    /**
+     * Creates a new snapshot
+     *
+     * @param name                  name of the module
+     * @param compileCount          times the module was compiled
+     * @param compileMicros         total time spent compiling the module, in microseconds
+     * @param evaluationCount       times the module was evaluated
+     * @param evaluationMicros      total time spent evaluating the module, in microseconds
+     * @param requireCount          <code>require()</code> calls made by the module
+     * @param dependCount           lifecycles handed out by the module
+     * @param closeCount            lifecycles of the module which were closed
+     * @param liveLifecycles        lifecycles of the module which are still open
+     * @param reportCount           errors reported by the module
+     * @param reportsPerMinute      errors reported by the module per minute, since its metrics were created
+     * @param asyncSubmitCount      pieces of asynchronous work submitted by the module
+     * @param asyncQueueDepth       pieces of asynchronous work submitted by the module which have not completed yet
+     * @param asyncLatencyMicros    total latency of the module's completed asynchronous work, in microseconds
+     * @param asyncMaxLatencyMicros highest latency of the module's completed asynchronous work, in microseconds
+     */
+    @ConstructorProperties({"name", "compileCount", "compileMicros", "evaluationCount", "evaluationMicros",
+            "requireCount", "dependCount", "closeCount", "liveLifecycles", "reportCount", "reportsPerMinute",
+            "asyncSubmitCount", "asyncQueueDepth", "asyncLatencyMicros", "asyncMaxLatencyMicros"})
+    public ModuleStatistics(String name, long compileCount, long compileMicros, long evaluationCount,
+                            long evaluationMicros, long requireCount, long dependCount, long closeCount,
+                            long liveLifecycles, long reportCount, double reportsPerMinute, long asyncSubmitCount,
+                            long asyncQueueDepth, long asyncLatencyMicros, long asyncMaxLatencyMicros) {
+        this.name = name;
+        this.compileCount = compileCount;
+        this.compileMicros = compileMicros;
+        this.evaluationCount = evaluationCount;
+        this.evaluationMicros = evaluationMicros;
+        this.requireCount = requireCount;
+        this.dependCount = dependCount;
+        this.closeCount = closeCount;
+        this.liveLifecycles = liveLifecycles;
+        this.reportCount = reportCount;
+        this.reportsPerMinute = reportsPerMinute;
+        this.asyncSubmitCount = asyncSubmitCount;
+        this.asyncQueueDepth = asyncQueueDepth;
+        this.asyncLatencyMicros = asyncLatencyMicros;
+        this.asyncMaxLatencyMicros = asyncMaxLatencyMicros;
+    }
+
+    /**
+     * Returns the name of the module
+     *
+     * @return module name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the times the module was compiled
+     *
+     * @return compile count
+     */
+    public long getCompileCount() {
+        return compileCount;
+    }
+
+    /**
+     * Returns the total time spent compiling the module, in microseconds
+     *
+     * @return compile time
+     */
+    public long getCompileMicros() {
+        return compileMicros;
+    }
+
+    /**
+     * Returns the times the module was evaluated
+     *
+     * @return evaluation count
+     */
+    public long getEvaluationCount() {
+        return evaluationCount;
+    }
+
+    /**
+     * Returns the total time spent evaluating the module, in microseconds
+     *
+     * @return evaluation time
+     */
+    public long getEvaluationMicros() {
+        return evaluationMicros;
+    }
+
+    /**
+     * Returns the <code>require()</code> calls made by the module
+     *
+     * @return require count
+     */
+    public long getRequireCount() {
+        return requireCount;
+    }
+
+    /**
+     * Returns the lifecycles handed out by the module
+     *
+     * @return depend count
+     */
+    public long getDependCount() {
+        return dependCount;
+    }
+
+    /**
+     * Returns the lifecycles of the module which were closed
+     *
+     * @return close count
+     */
+    public long getCloseCount() {
+        return closeCount;
+    }
+
+    /**
+     * Returns the lifecycles of the module which are still open
+     *
+     * @return live lifecycle count
+     */
+    public long getLiveLifecycles() {
+        return liveLifecycles;
+    }
+
+    /**
+     * Returns the errors reported by the module
+     *
+     * @return report count
+     */
+    public long getReportCount() {
+        return reportCount;
+    }
+
+    /**
+     * Returns the errors reported by the module per minute, since its metrics were created
+     *
+     * @return report rate
+     */
+    public double getReportsPerMinute() {
+        return reportsPerMinute;
+    }
+
+    /**
+     * Returns the pieces of asynchronous work submitted by the module
+     *
+     * @return async submit count
+     */
+    public long getAsyncSubmitCount() {
+        return asyncSubmitCount;
+    }
+
+    /**
+     * Returns the pieces of asynchronous work submitted by the module which have not completed yet, whether they are
+     * queued, running, or waiting for their result to be handed back
+     *
+     * @return async queue depth
+     */
+    public long getAsyncQueueDepth() {
+        return asyncQueueDepth;
+    }
+
+    /**
+     * Returns the total latency of the module's completed asynchronous work, from submission to the result being handed
+     * back, in microseconds
+     *
+     * @return total async latency
+     */
+    public long getAsyncLatencyMicros() {
+        return asyncLatencyMicros;
+    }
+
+    /**
+     * Returns the highest latency of the module's completed asynchronous work, in microseconds
+     *
+     * @return highest async latency
+     */
+    public long getAsyncMaxLatencyMicros() {
+        return asyncMaxLatencyMicros;
+    }
+}
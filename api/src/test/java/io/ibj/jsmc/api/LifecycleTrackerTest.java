@@ -0,0 +1,124 @@
+package io.ibj.jsmc.api;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Tests {@link LifecycleTracker}
+ *
+ * @author Joseph Hirschfeld [Ichbinjoe] (joe@ibj.io)
+ * @since 10/18/26
+ */
+public class LifecycleTrackerTest {
+
+    private static class LoadedModule implements Dependency, DependencyConsumer {
+
+        private final Dependency dependency;
+
+        private LoadedModule(Dependency dependency) {
+            this.dependency = dependency;
+        }
+
+        @Override
+        public DependencyLifecycle depend(DependencyConsumer dependencyConsumer) {
+            return new SimpleDependencyLifecycle(this, null);
+        }
+
+        @Override
+        public Collection<DependencyConsumer> getDependents() {
+            return Collections.emptySet();
+        }
+
+        @Override
+        public Collection<Dependency> getDependencies() {
+            return Collections.singleton(dependency);
+        }
+
+        @Override
+        public void reevaluate(Collection<DependencyConsumer> previouslyEvaluatedConsumers) {
+        }
+    }
+
+    private final List<LifecycleLeak> leaks = new ArrayList<>();
+    private final LifecycleTracker tracker = new LifecycleTracker(true, leaks::add);
+
+    @After
+    public void uninstall() {
+        LifecycleTracker.install(null);
+    }
+
+    @Test
+    public void testClosedLifecycleIsNoLongerTracked() throws Exception {
+        LifecycleTracker.install(tracker);
+        SimpleDependencyLifecycle lifecycle = new SimpleDependencyLifecycle(mock(Dependency.class), new Object());
+        assertEquals(1, tracker.getOpenCount());
+
+        lifecycle.close();
+
+        assertEquals(0, tracker.getOpenCount());
+    }
+
+    @Test
+    public void testNothingIsTrackedWithoutInstalledTracker() throws Exception {
+        new SimpleDependencyLifecycle(mock(Dependency.class), new Object());
+
+        assertEquals(0, tracker.getOpenCount());
+    }
+
+    @Test
+    public void testUnreachableOpenLifecycleIsReported() throws Exception {
+        LifecycleTracker.install(tracker);
+        new SimpleDependencyLifecycle(mock(Dependency.class), new Object());
+
+        for (int i = 0; i < 50 && leaks.isEmpty(); i++) {
+            System.gc();
+            Thread.sleep(10);
+            tracker.poll();
+        }
+
+        assertEquals(1, leaks.size());
+        assertEquals(LifecycleLeak.Kind.UNREACHABLE, leaks.get(0).getKind());
+        assertEquals(1, leaks.get(0).getCreationSites().size());
+        assertEquals(0, tracker.getOpenCount());
+    }
+
+    @Test
+    public void testUnloadedModuleStillDependedOnIsReportedAsPinned() throws Exception {
+        LifecycleTracker.install(tracker);
+        SystemDependency dependency = new SystemDependency(new Object());
+        DependencyLifecycle forgotten = dependency.depend(mock(DependencyConsumer.class));
+
+        assertTrue(tracker.checkReleased(dependency, "forgotten", Collections.emptySet()));
+
+        assertEquals(1, leaks.size());
+        assertEquals(LifecycleLeak.Kind.PINNED, leaks.get(0).getKind());
+        assertEquals(1, leaks.get(0).getCreationSites().size());
+        forgotten.close();
+    }
+
+    @Test
+    public void testUnloadedModuleSharedWithLoadedModuleIsNotReported() throws Exception {
+        SystemDependency dependency = new SystemDependency(new Object());
+        LoadedModule loaded = new LoadedModule(dependency);
+        dependency.depend(loaded);
+
+        assertFalse(tracker.checkReleased(dependency, "shared", Collections.singleton(loaded)));
+        assertTrue(leaks.isEmpty());
+    }
+
+    @Test
+    public void testReleasedModuleIsNotReported() throws Exception {
+        assertFalse(tracker.checkReleased(new SystemDependency(new Object()), "released", Collections.emptySet()));
+        assertTrue(leaks.isEmpty());
+    }
+}
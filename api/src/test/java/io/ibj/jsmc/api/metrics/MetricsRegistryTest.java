@@ -0,0 +1,92 @@
+package io.ibj.jsmc.api.metrics;
+
+import org.junit.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests {@link MetricsRegistry} and {@link ModuleMetrics}
+ *
+ * @author Joseph Hirschfeld [Ichbinjoe] (joe@ibj.io)
+ * @since 10/18/26
+ */
+public class MetricsRegistryTest {
+
+    @Test(expected = NullPointerException.class)
+    public void testMetricsNullNameThrowsNullPointerException() {
+        new MetricsRegistry().metrics(null);
+    }
+
+    @Test
+    public void testMetricsReturnsSameInstanceForSameName() {
+        MetricsRegistry registry = new MetricsRegistry();
+        assertSame(registry.metrics("a"), registry.metrics("a"));
+    }
+
+    @Test
+    public void testSnapshotReflectsRecordedValues() {
+        MetricsRegistry registry = new MetricsRegistry();
+        ModuleMetrics m = registry.metrics("a");
+        m.recordCompile(2_000_000);
+        m.recordEvaluation(3_000);
+        m.recordEvaluation(1_000);
+        m.recordRequire();
+        m.recordDepend();
+        m.recordDepend();
+        m.recordClose();
+        m.recordReport();
+
+        ModuleStatistics s = m.snapshot();
+        assertEquals("a", s.getName());
+        assertEquals(1, s.getCompileCount());
+        assertEquals(2_000, s.getCompileMicros());
+        assertEquals(2, s.getEvaluationCount());
+        assertEquals(4, s.getEvaluationMicros());
+        assertEquals(1, s.getRequireCount());
+        assertEquals(2, s.getDependCount());
+        assertEquals(1, s.getCloseCount());
+        assertEquals(1, s.getLiveLifecycles());
+        assertEquals(1, s.getReportCount());
+        assertTrue(s.getReportsPerMinute() > 0);
+    }
+
+    @Test
+    public void testGetModulesSortedByNameAndResetClears() {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.metrics("b");
+        registry.metrics("a");
+        List<ModuleStatistics> modules = registry.getModules();
+        assertEquals(2, modules.size());
+        assertEquals("a", modules.get(0).getName());
+        assertEquals("b", modules.get(1).getName());
+
+        registry.reset();
+        assertTrue(registry.getModules().isEmpty());
+    }
+
+    @Test
+    public void testRegisterAndUnregisterMBean() throws Exception {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.metrics("a").recordRequire();
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName("io.ibj.jsmc.test:type=Metrics");
+
+        registry.registerMBean(name.toString());
+        try {
+            assertTrue(server.isRegistered(name));
+            Object modules = server.getAttribute(name, "Modules");
+            assertEquals(1, ((Object[]) modules).length);
+        } finally {
+            registry.unregisterMBean();
+        }
+        assertFalse(server.isRegistered(name));
+    }
+}
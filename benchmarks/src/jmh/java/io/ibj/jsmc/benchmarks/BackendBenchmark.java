@@ -0,0 +1,92 @@
+package io.ibj.jsmc.benchmarks;
+
+import io.ibj.jsmc.api.Dependency;
+import io.ibj.jsmc.api.DependencyConsumer;
+import io.ibj.jsmc.api.DependencyLifecycle;
+import io.ibj.jsmc.api.SystemDependency;
+import io.ibj.jsmc.api.metrics.ModuleMetrics;
+import io.ibj.jsmc.core.backend.CompiledModule;
+import io.ibj.jsmc.core.backend.ScriptBackend;
+import io.ibj.jsmc.core.backend.ScriptBackends;
+import io.ibj.jsmc.core.compiler.ScriptCompiler;
+import io.ibj.jsmc.core.dependencies.JsScript;
+import io.ibj.jsmc.core.resolvers.SystemDependencyResolver;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the throughput of the script backends, both running a module from scratch and calling a function exported
+ * by a running module, the way event handlers are called.
+ *
+ * @author Joseph Hirschfeld (Ichbinjoe) [joe@ibj.io]
+ * @since 10/18/26
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class BackendBenchmark {
+
+    private static final String SOURCE = "" +
+            "var dep = require('dep');\n" +
+            "function fib(n) { return n < 2 ? n : fib(n - 1) + fib(n - 2); }\n" +
+            "module.exports = { fib: fib, sum: function(a) { var s = 0; for (var i = 0; i < a.length; i++) s += a[i]; return s; } };";
+
+    private static class Consumer implements DependencyConsumer {
+        @Override
+        public Collection<Dependency> getDependencies() {
+            return Collections.emptySet();
+        }
+
+        @Override
+        public void reevaluate(Collection<DependencyConsumer> previouslyEvaluatedConsumers) {
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Backend {
+
+        @Param({"nashorn", "graal"})
+        String backend;
+
+        ScriptBackend scriptBackend;
+        JsScript<Object> script;
+        JsScript<Object> idleScript;
+        DependencyLifecycle lifecycle;
+        Object fib;
+
+        @Setup
+        public void setUp() throws Exception {
+            scriptBackend = ScriptBackends.create(backend, new ScriptCompiler(1, null));
+            SystemDependencyResolver<Object> resolver = new SystemDependencyResolver<>(null);
+            resolver.add("dep", new SystemDependency(new Object()));
+            CompiledModule compiled = scriptBackend.compile(SOURCE, "module.js");
+            script = new JsScript<>(compiled, null, resolver, "module", true, new ModuleMetrics("module"));
+            // only depended upon by the benchmark, so every dependency runs the module again
+            idleScript = new JsScript<>(compiled, null, resolver, "idle", true, new ModuleMetrics("idle"));
+            lifecycle = script.depend(new Consumer());
+            fib = ((Map<?, ?>) lifecycle.getDependencyExports()).get("fib");
+        }
+
+        @TearDown
+        public void tearDown() throws Exception {
+            lifecycle.close();
+            if (scriptBackend instanceof AutoCloseable)
+                ((AutoCloseable) scriptBackend).close();
+        }
+    }
+
+    @Benchmark
+    public Object callExport(Backend b) {
+        return b.scriptBackend.call(b.fib, null, 15);
+    }
+
+    @Benchmark
+    public boolean runModule(Backend b) throws Exception {
+        try (DependencyLifecycle lifecycle = b.idleScript.depend(new Consumer())) {
+            return lifecycle.getDependencyExports() != null;
+        }
+    }
+}
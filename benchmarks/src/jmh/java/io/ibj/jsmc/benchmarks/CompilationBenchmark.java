@@ -0,0 +1,51 @@
+package io.ibj.jsmc.benchmarks;
+
+import io.ibj.jsmc.core.compiler.ScriptCompiler;
+import org.openjdk.jmh.annotations.*;
+
+import javax.script.CompiledScript;
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures compiling scripts of different sizes, from one thread as well as from several threads sharing a compiler
+ *
+ * @author Joseph Hirschfeld (Ichbinjoe) [joe@ibj.io]
+ * @since 10/18/26
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CompilationBenchmark {
+
+    @Param({"10", "500"})
+    public int functions;
+
+    @Param({"1", "4"})
+    public int engines;
+
+    private ScriptCompiler compiler;
+    private String source;
+
+    @Setup
+    public void setUp() {
+        compiler = new ScriptCompiler(engines, null);
+        StringBuilder builder = new StringBuilder("var exports = {};\n");
+        for (int i = 0; i < functions; i++)
+            builder.append("exports.f").append(i).append(" = function(a, b) { var c = a * ").append(i)
+                    .append("; for (var j = 0; j < b; j++) c += j; return c + '").append(i).append("'; };\n");
+        builder.append("module.exports = exports;\n");
+        source = builder.toString();
+    }
+
+    @Benchmark
+    public CompiledScript compile() throws Exception {
+        return compiler.compile(new StringReader(source), "bench.js");
+    }
+
+    @Benchmark
+    @Threads(4)
+    public CompiledScript compileConcurrently() throws Exception {
+        return compiler.compile(new StringReader(source), "bench.js");
+    }
+}
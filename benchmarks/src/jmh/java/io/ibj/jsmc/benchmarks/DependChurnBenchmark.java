@@ -0,0 +1,101 @@
+package io.ibj.jsmc.benchmarks;
+
+import io.ibj.jsmc.api.Dependency;
+import io.ibj.jsmc.api.DependencyConsumer;
+import io.ibj.jsmc.api.DependencyLifecycle;
+import io.ibj.jsmc.api.SystemDependency;
+import io.ibj.jsmc.core.compiler.ScriptCompiler;
+import io.ibj.jsmc.core.dependencies.JsScript;
+import io.ibj.jsmc.core.dependencies.LogicalModule;
+import io.ibj.jsmc.core.resolvers.SystemDependencyResolver;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.StringReader;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures opening and closing lifecycles on scripts. When nothing else holds the script, every depend runs the script
+ * and every close tears it down again. When the script is held elsewhere, only the lifecycles themselves are churned.
+ *
+ * @author Joseph Hirschfeld (Ichbinjoe) [joe@ibj.io]
+ * @since 10/18/26
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DependChurnBenchmark {
+
+    private static class Consumer implements DependencyConsumer {
+        @Override
+        public Collection<Dependency> getDependencies() {
+            return Collections.emptySet();
+        }
+
+        @Override
+        public void reevaluate(Collection<DependencyConsumer> previouslyEvaluatedConsumers) {
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Script {
+
+        JsScript<Object> script;
+        LogicalModule module;
+
+        @Setup
+        public void setUp() throws Exception {
+            SystemDependencyResolver<Object> resolver = new SystemDependencyResolver<>(null);
+            resolver.add("dep", new SystemDependency(new Object()));
+            script = new JsScript<>(new ScriptCompiler(1, null).compile(new StringReader(
+                    "var dep = require('dep');\n" +
+                    "module.exports = { dep: dep };\n" +
+                    "module.disable = function() {};"), "churn.js"), null, resolver, "churn", true);
+            module = new LogicalModule();
+            module.setInternalDependency(script);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class HeldScript extends Script {
+
+        private DependencyLifecycle held;
+
+        @Setup
+        public void hold() throws Exception {
+            held = script.depend(new Consumer());
+        }
+
+        @TearDown
+        public void release() throws Exception {
+            held.close();
+        }
+    }
+
+    @Benchmark
+    public Object unheld(Script s) throws Exception {
+        try (DependencyLifecycle lifecycle = s.script.depend(new Consumer())) {
+            return lifecycle.getDependencyExports();
+        }
+    }
+
+    @Benchmark
+    public Object unheldThroughLogicalModule(Script s) throws Exception {
+        try (DependencyLifecycle lifecycle = s.module.depend(new Consumer())) {
+            return lifecycle.getDependencyExports();
+        }
+    }
+
+    @Benchmark
+    public Object held(HeldScript s) throws Exception {
+        try (DependencyLifecycle lifecycle = s.script.depend(new Consumer())) {
+            return lifecycle.getDependencyExports();
+        }
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Object heldConcurrently(HeldScript s) throws Exception {
+        return held(s);
+    }
+}
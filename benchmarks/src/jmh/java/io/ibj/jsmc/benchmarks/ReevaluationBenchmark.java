@@ -0,0 +1,55 @@
+package io.ibj.jsmc.benchmarks;
+
+import io.ibj.jsmc.api.SystemDependency;
+import io.ibj.jsmc.core.BasicDependencyManager;
+import io.ibj.jsmc.core.compiler.ScriptCompiler;
+import io.ibj.jsmc.core.resolvers.SystemDependencyResolver;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures replacing a system dependency every module of a synthetic tree depends on, which reevaluates and runs every
+ * module of the tree again. The width and depth of the tree control the fan-out of the reevaluation.
+ *
+ * @author Joseph Hirschfeld (Ichbinjoe) [joe@ibj.io]
+ * @since 10/18/26
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ReevaluationBenchmark {
+
+    @Param({"2", "4"})
+    public int width;
+
+    @Param({"2", "3"})
+    public int depth;
+
+    private SyntheticModuleTree tree;
+    private SystemDependencyResolver<Path> system;
+    private BasicDependencyManager<Path> manager;
+    private int generation;
+
+    @Setup
+    public void setUp() throws Exception {
+        tree = new SyntheticModuleTree(width, depth);
+        system = new SystemDependencyResolver<>(null);
+        system.add(SyntheticModuleTree.BASE_MODULE, new SystemDependency(generation));
+        manager = tree.newDependencyManager(new ScriptCompiler(1, null), system);
+        for (String module : tree.getTopLevelModules())
+            manager.load(module);
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        tree.close();
+    }
+
+    @Benchmark
+    public int replaceBase() {
+        system.set(SyntheticModuleTree.BASE_MODULE, new SystemDependency(++generation));
+        return manager.getLoadedModules().size();
+    }
+}
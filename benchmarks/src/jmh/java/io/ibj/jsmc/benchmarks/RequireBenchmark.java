@@ -0,0 +1,99 @@
+package io.ibj.jsmc.benchmarks;
+
+import io.ibj.jsmc.api.Dependency;
+import io.ibj.jsmc.api.DependencyConsumer;
+import io.ibj.jsmc.api.DependencyLifecycle;
+import io.ibj.jsmc.api.SystemDependency;
+import io.ibj.jsmc.core.compiler.ScriptCompiler;
+import io.ibj.jsmc.core.resolvers.ModuleResolver;
+import io.ibj.jsmc.core.resolvers.SystemDependencyResolver;
+import jdk.nashorn.api.scripting.ScriptObjectMirror;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures <code>require()</code> calls made by a running script, once for a system dependency and once for every top
+ * level module of a synthetic tree. Every module was already required once by the script, so this measures the cost of
+ * requiring an identifier the script already depends on, which is answered from the script's require cache.
+ *
+ * @author Joseph Hirschfeld (Ichbinjoe) [joe@ibj.io]
+ * @since 10/18/26
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RequireBenchmark {
+
+    @Param({"4"})
+    public int width;
+
+    @Param({"3"})
+    public int depth;
+
+    private SyntheticModuleTree tree;
+    private DependencyLifecycle lifecycle;
+    private ScriptObjectMirror requireSystem;
+    private ScriptObjectMirror requireModules;
+
+    @Setup
+    public void setUp() throws Exception {
+        tree = new SyntheticModuleTree(width, depth);
+
+        StringBuilder source = new StringBuilder("var modules = [");
+        for (String module : tree.getTopLevelModules())
+            source.append('"').append(module).append("\",");
+        source.append("];\n")
+                .append("module.exports = {\n")
+                .append("  system: function() { return require(\"" + SyntheticModuleTree.BASE_MODULE + "\"); },\n")
+                .append("  modules: function() {\n")
+                .append("    var total = 0;\n")
+                .append("    for (var i = 0; i < modules.length; i++) total += require(modules[i]).total;\n")
+                .append("    return total;\n")
+                .append("  }\n")
+                .append("};\n");
+        Path script = Files.createDirectory(tree.getRoot().resolve("node_modules").resolve("bench-require"));
+        Files.write(script.resolve("index.js"), source.toString().getBytes(StandardCharsets.UTF_8));
+
+        SystemDependencyResolver<Path> system = new SystemDependencyResolver<>(null);
+        system.add(SyntheticModuleTree.BASE_MODULE, new SystemDependency(new Object()));
+        ModuleResolver resolver = tree.newModuleResolver(new ScriptCompiler(1, null), true, system);
+        Dependency dependency = resolver.resolve(tree.getRoot(), "bench-require").get();
+
+        lifecycle = dependency.depend(new DependencyConsumer() {
+            @Override
+            public Collection<Dependency> getDependencies() {
+                return Collections.emptySet();
+            }
+
+            @Override
+            public void reevaluate(Collection<DependencyConsumer> previouslyEvaluatedConsumers) {
+            }
+        });
+        ScriptObjectMirror exports = (ScriptObjectMirror) lifecycle.getDependencyExports();
+        requireSystem = (ScriptObjectMirror) exports.get("system");
+        requireModules = (ScriptObjectMirror) exports.get("modules");
+        requireModules.call(null); // runs every module once
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        lifecycle.close();
+        tree.close();
+    }
+
+    @Benchmark
+    public Object systemDependency() {
+        return requireSystem.call(null);
+    }
+
+    @Benchmark
+    public Object topLevelModules() {
+        return requireModules.call(null);
+    }
+}
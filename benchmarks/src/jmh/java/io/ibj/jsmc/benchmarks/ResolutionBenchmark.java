@@ -0,0 +1,76 @@
+package io.ibj.jsmc.benchmarks;
+
+import io.ibj.jsmc.core.compiler.ScriptCompiler;
+import io.ibj.jsmc.api.DependencyResolver;
+import io.ibj.jsmc.core.resolvers.ModuleResolver;
+import io.ibj.jsmc.core.resolvers.ResolverPipeline;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures resolving every module of a synthetic tree, both through new resolvers which need to read and compile every
+ * module, and through resolvers which already cached every module. Warm resolution is measured both through the module
+ * resolver chain and through a {@link ResolverPipeline}, which answers cached dependencies without allocating
+ *
+ * @author Joseph Hirschfeld (Ichbinjoe) [joe@ibj.io]
+ * @since 10/18/26
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ResolutionBenchmark {
+
+    @Param({"4"})
+    public int width;
+
+    @Param({"3"})
+    public int depth;
+
+    @Param({"true", "false"})
+    public boolean indexed;
+
+    private SyntheticModuleTree tree;
+    private ScriptCompiler compiler;
+    private ModuleResolver warmResolver;
+    private ResolverPipeline warmPipeline;
+
+    @Setup
+    public void setUp() throws Exception {
+        tree = new SyntheticModuleTree(width, depth);
+        compiler = new ScriptCompiler(1, null);
+        warmResolver = tree.newModuleResolver(compiler, indexed, null);
+        warmPipeline = tree.newResolverPipeline(compiler, indexed, null);
+        for (String module : tree.getModules()) {
+            warmResolver.resolve(tree.getRoot(), module);
+            warmPipeline.resolve(tree.getRoot(), module);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        tree.close();
+    }
+
+    @Benchmark
+    public void cold(Blackhole blackhole) throws Exception {
+        resolveAll(tree.newModuleResolver(compiler, indexed, null), tree.getRoot(), blackhole);
+    }
+
+    @Benchmark
+    public void warm(Blackhole blackhole) throws Exception {
+        resolveAll(warmResolver, tree.getRoot(), blackhole);
+    }
+
+    @Benchmark
+    public void warmPipeline(Blackhole blackhole) throws Exception {
+        resolveAll(warmPipeline, tree.getRoot(), blackhole);
+    }
+
+    private void resolveAll(DependencyResolver<Path> resolver, Path scope, Blackhole blackhole) throws Exception {
+        for (String module : tree.getModules())
+            blackhole.consume(resolver.resolve(scope, module).get());
+    }
+}
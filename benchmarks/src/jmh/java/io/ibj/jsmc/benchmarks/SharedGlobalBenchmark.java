@@ -0,0 +1,82 @@
+package io.ibj.jsmc.benchmarks;
+
+import io.ibj.jsmc.api.Dependency;
+import io.ibj.jsmc.api.DependencyConsumer;
+import io.ibj.jsmc.api.DependencyLifecycle;
+import io.ibj.jsmc.api.SystemDependency;
+import io.ibj.jsmc.api.metrics.ModuleMetrics;
+import io.ibj.jsmc.core.compiler.ScriptCompiler;
+import io.ibj.jsmc.core.dependencies.JsScript;
+import io.ibj.jsmc.core.resolvers.SystemDependencyResolver;
+import org.openjdk.jmh.annotations.*;
+
+import javax.script.CompiledScript;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures running modules within globals of their own against running them as wrapper functions within a shared
+ * global. Every operation runs and tears down a set of small modules, so running with <code>-Pprofilers=gc</code>
+ * compares the heap allocated per module by either mode through gc.alloc.rate.norm.
+ *
+ * @author Joseph Hirschfeld (Ichbinjoe) [joe@ibj.io]
+ * @since 10/18/26
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SharedGlobalBenchmark {
+
+    private static class Consumer implements DependencyConsumer {
+        @Override
+        public Collection<Dependency> getDependencies() {
+            return Collections.emptySet();
+        }
+
+        @Override
+        public void reevaluate(Collection<DependencyConsumer> previouslyEvaluatedConsumers) {
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Modules {
+
+        @Param({"false", "true"})
+        boolean sharedGlobals;
+
+        @Param({"32"})
+        int modules;
+
+        final List<JsScript<Object>> scripts = new ArrayList<>();
+
+        @Setup
+        public void setUp() throws Exception {
+            ScriptCompiler compiler = new ScriptCompiler(1, null, sharedGlobals);
+            SystemDependencyResolver<Object> resolver = new SystemDependencyResolver<>(null);
+            resolver.add("dep", new SystemDependency(new Object()));
+            for (int i = 0; i < modules; i++) {
+                CompiledScript compiled = compiler.compileModule(
+                        "var dep = require('dep');\n" +
+                        "var counter = 0;\n" +
+                        "module.exports = { id: " + i + ", next: function() { return ++counter; } };",
+                        "module-" + i + ".js");
+                scripts.add(new JsScript<>(compiled, null, resolver, "module-" + i, true,
+                        new ModuleMetrics("module-" + i), sharedGlobals ? compiler.getSharedGlobal() : null));
+            }
+        }
+    }
+
+    @Benchmark
+    public int runModules(Modules m) throws Exception {
+        int exported = 0;
+        for (JsScript<Object> script : m.scripts) {
+            try (DependencyLifecycle lifecycle = script.depend(new Consumer())) {
+                if (lifecycle.getDependencyExports() != null)
+                    exported++;
+            }
+        }
+        return exported;
+    }
+}
@@ -0,0 +1,177 @@
+package io.ibj.jsmc.benchmarks;
+
+import io.ibj.jsmc.api.DependencyResolver;
+import io.ibj.jsmc.core.BasicDependencyManager;
+import io.ibj.jsmc.core.compiler.ScriptCompiler;
+import io.ibj.jsmc.core.resolvers.FileSystemIndex;
+import io.ibj.jsmc.core.resolvers.FileSystemResolver;
+import io.ibj.jsmc.core.resolvers.FileSystemView;
+import io.ibj.jsmc.core.resolvers.ModuleResolver;
+import io.ibj.jsmc.core.resolvers.ResolverPipeline;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A generated node_modules tree on disk. Every module is a directory with a package.json and an index.js requiring each
+ * of its children, which are modules of their own. There are 'width' top level modules, each being the root of a tree
+ * 'depth' modules deep in which every module has 'width' children.
+ * <p>
+ * Every module also requires {@link SyntheticModuleTree#BASE_MODULE}, which is left to the downstream resolver to
+ * supply, so that a change to it reevaluates the whole tree.
+ *
+ * @author Joseph Hirschfeld (Ichbinjoe) [joe@ibj.io]
+ * @since 10/18/26
+ */
+public class SyntheticModuleTree implements AutoCloseable {
+
+    /**
+     * Module every generated module requires, supplied by the downstream resolver
+     */
+    public static final String BASE_MODULE = "bench-base";
+
+    private final Path root;
+    private final List<String> topLevelModules = new ArrayList<>();
+    private final List<String> modules = new ArrayList<>();
+
+    /**
+     * Generates a new tree within a new temporary directory
+     *
+     * @param width children of each module, as well as the amount of top level modules
+     * @param depth depth of each top level module's tree, counting the top level module
+     * @throws IOException if the tree could not be written
+     */
+    public SyntheticModuleTree(int width, int depth) throws IOException {
+        if (width < 1 || depth < 1)
+            throw new IllegalArgumentException("width and depth must be at least 1");
+        root = Files.createTempDirectory("jsmc-bench");
+        Path nodeModules = Files.createDirectory(root.resolve("node_modules"));
+        for (int i = 0; i < width; i++) {
+            String name = "m-" + i;
+            topLevelModules.add(name);
+            write(nodeModules, name, width, depth - 1);
+        }
+    }
+
+    private void write(Path nodeModules, String name, int width, int remainingDepth) throws IOException {
+        modules.add(name);
+        Path module = Files.createDirectory(nodeModules.resolve(name));
+        Files.write(module.resolve("package.json"),
+                ("{\"name\": \"" + name + "\", \"main\": \"index.js\"}").getBytes(StandardCharsets.UTF_8));
+
+        StringBuilder source = new StringBuilder("var base = require(\"" + BASE_MODULE + "\");\n")
+                .append("var children = [];\n");
+        if (remainingDepth > 0) {
+            for (int i = 0; i < width; i++) {
+                String child = name + "-" + i;
+                source.append("children.push(require(\"").append(child).append("\"));\n");
+                write(nodeModules, child, width, remainingDepth - 1);
+            }
+        }
+        source.append("var total = 1;\n")
+                .append("for (var i = 0; i < children.length; i++) total += children[i].total;\n")
+                .append("module.exports = { name: \"").append(name).append("\", total: total };\n");
+        Files.write(module.resolve("index.js"), source.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Returns the root of the tree, containing node_modules
+     *
+     * @return root
+     */
+    public Path getRoot() {
+        return root;
+    }
+
+    /**
+     * Returns the names of the top level modules
+     *
+     * @return top level module names
+     */
+    public List<String> getTopLevelModules() {
+        return Collections.unmodifiableList(topLevelModules);
+    }
+
+    /**
+     * Returns the names of every module within the tree
+     *
+     * @return module names
+     */
+    public List<String> getModules() {
+        return Collections.unmodifiableList(modules);
+    }
+
+    /**
+     * Creates a new, empty module resolver chain over the tree, as the plugin would set it up
+     *
+     * @param compiler   compiler to compile scripts with
+     * @param indexed    whether file system queries go through a {@link FileSystemIndex}
+     * @param downstream resolver supplying {@link SyntheticModuleTree#BASE_MODULE}, may be null if no module is run
+     * @return module resolver
+     */
+    public ModuleResolver newModuleResolver(ScriptCompiler compiler, boolean indexed, DependencyResolver<Path> downstream) {
+        FileSystemView view = indexed ? new FileSystemIndex(root) : FileSystemView.DIRECT;
+        AtomicReference<ModuleResolver> moduleResolver = new AtomicReference<>();
+        FileSystemResolver fileSystemResolver = FileSystemResolver.builder(moduleResolver::get, root)
+                .compiler(compiler).fileSystem(view).build();
+        moduleResolver.set(new ModuleResolver(root, fileSystemResolver, downstream, view));
+        return moduleResolver.get();
+    }
+
+    /**
+     * Creates a new, empty resolver pipeline over the tree, which is shared by all of its scripts
+     *
+     * @param compiler   compiler to compile scripts with
+     * @param indexed    whether file system queries go through a {@link FileSystemIndex}
+     * @param downstream resolver supplying {@link SyntheticModuleTree#BASE_MODULE}, may be null if no module is run
+     * @return resolver pipeline
+     */
+    public ResolverPipeline newResolverPipeline(ScriptCompiler compiler, boolean indexed, DependencyResolver<Path> downstream) {
+        FileSystemView view = indexed ? new FileSystemIndex(root) : FileSystemView.DIRECT;
+        AtomicReference<ResolverPipeline> pipeline = new AtomicReference<>();
+        FileSystemResolver fileSystemResolver = FileSystemResolver.builder(pipeline::get, root)
+                .compiler(compiler).fileSystem(view).build();
+        pipeline.set(new ResolverPipeline(fileSystemResolver, new ModuleResolver(root, fileSystemResolver, downstream, view),
+                downstream));
+        return pipeline.get();
+    }
+
+    /**
+     * Creates a new dependency manager over a new, indexed module resolver chain
+     *
+     * @param compiler   compiler to compile scripts with
+     * @param downstream resolver supplying {@link SyntheticModuleTree#BASE_MODULE}
+     * @return dependency manager
+     */
+    public BasicDependencyManager<Path> newDependencyManager(ScriptCompiler compiler, DependencyResolver<Path> downstream) {
+        return new BasicDependencyManager<>(newModuleResolver(compiler, true, downstream), root);
+    }
+
+    /**
+     * Deletes the tree
+     *
+     * @throws IOException if the tree could not be deleted
+     */
+    @Override
+    public void close() throws IOException {
+        Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                Files.delete(file);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+                Files.delete(dir);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+}
@@ -0,0 +1,63 @@
+package io.ibj.jsmc.bukkit;
+
+import org.bukkit.event.Event;
+
+import java.util.ArrayDeque;
+
+/**
+ * Buffers the events of one batched subscription until they are drained once per tick, applying the overflow policy of
+ * {@link EventOptions} once the buffer is full
+ *
+ * @author Joseph Hirschfeld (Ichbinjoe) [joe@ibj.io]
+ * @since 10/18/26
+ */
+class EventBatch {
+
+    private static final Event[] EMPTY = new Event[0];
+
+    private final int limit;
+    private final EventOptions.Overflow overflow;
+    private final ArrayDeque<Event> events = new ArrayDeque<>();
+
+    EventBatch(EventOptions options) {
+        this.limit = options.getBatchLimit();
+        this.overflow = options.getOverflow();
+    }
+
+    /**
+     * Adds an event to the batch
+     *
+     * @param event event to add
+     * @return batch to deliver right away because the buffer overflowed, or null
+     */
+    synchronized Event[] add(Event event) {
+        Event[] full = null;
+        if (limit > 0 && events.size() >= limit) {
+            switch (overflow) {
+                case DROP_NEWEST:
+                    return null;
+                case DROP_OLDEST:
+                    events.pollFirst();
+                    break;
+                case FLUSH:
+                    full = drain();
+                    break;
+            }
+        }
+        events.addLast(event);
+        return full;
+    }
+
+    /**
+     * Removes all buffered events
+     *
+     * @return buffered events in the order they were fired, or null if there are none
+     */
+    synchronized Event[] drain() {
+        if (events.isEmpty())
+            return null;
+        Event[] drained = events.toArray(EMPTY);
+        events.clear();
+        return drained;
+    }
+}
@@ -0,0 +1,335 @@
+package io.ibj.jsmc.bukkit;
+
+import org.bukkit.event.Cancellable;
+import org.bukkit.event.Event;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.plugin.EventExecutor;
+import org.bukkit.plugin.Plugin;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.logging.Level;
+
+/**
+ * Dispatches Bukkit events to script subscribers. Every event type and priority is registered with Bukkit once, on its
+ * first subscription, and fans out to all subscribers of that type and priority. Subscribers are plain
+ * {@link Consumer}s, so scripts never need to extend a Bukkit type in order to listen to an event. Subscriptions may
+ * carry {@link EventOptions}, which filter and rate control events before any script code runs.
+ *
+ * @author Joseph Hirschfeld (Ichbinjoe) [joe@ibj.io]
+ * @since 10/18/26
+ */
+public class EventBridge {
+
+    private final Plugin plugin;
+    private final Map<DispatcherKey, Dispatcher> dispatchers = new ConcurrentHashMap<>();
+    private final List<Subscriber> tickedSubscribers = new CopyOnWriteArrayList<>();
+
+    /**
+     * Creates a new EventBridge, registering its dispatchers on behalf of the passed plugin
+     *
+     * @param plugin plugin to register dispatchers for
+     */
+    public EventBridge(Plugin plugin) {
+        if (plugin == null)
+            throw new NullPointerException("plugin cannot be null");
+        this.plugin = plugin;
+    }
+
+    /**
+     * Subscribes a handler to an event type at a priority. The handler is also passed events which are subtypes of the
+     * type.
+     *
+     * @param type            type of event to subscribe to
+     * @param priority        priority to receive the event at
+     * @param ignoreCancelled whether to skip events which are cancelled by the time they reach the priority
+     * @param handler         handler to pass events to
+     * @return subscription, which unsubscribes the handler once closed
+     */
+    public Subscription subscribe(Class<? extends Event> type, EventPriority priority, boolean ignoreCancelled,
+                                  Consumer<? super Event> handler) {
+        return subscribe(type, priority, ignoreCancelled, EventOptions.NONE, handler);
+    }
+
+    /**
+     * Subscribes a handler to an event type at a priority, filtering and rate controlling events as described by a
+     * script event spec before passing them to the handler
+     *
+     * @param type            type of event to subscribe to
+     * @param priority        priority to receive the event at
+     * @param ignoreCancelled whether to skip events which are cancelled by the time they reach the priority
+     * @param spec            event spec to read {@link EventOptions} from
+     * @param handler         handler to pass events to
+     * @return subscription, which unsubscribes the handler once closed
+     * @throws IllegalArgumentException if the spec does not describe valid event options
+     * @see EventOptions#fromSpec(Map)
+     */
+    public Subscription subscribe(Class<? extends Event> type, EventPriority priority, boolean ignoreCancelled,
+                                  Map<String, ?> spec, Consumer<? super Event> handler) {
+        return subscribe(type, priority, ignoreCancelled, EventOptions.fromSpec(spec), handler);
+    }
+
+    /**
+     * Subscribes a handler to an event type at a priority, filtering and rate controlling events before passing them to
+     * the handler
+     *
+     * @param type            type of event to subscribe to
+     * @param priority        priority to receive the event at
+     * @param ignoreCancelled whether to skip events which are cancelled by the time they reach the priority
+     * @param options         filters and rate control to apply
+     * @param handler         handler to pass events to
+     * @return subscription, which unsubscribes the handler once closed
+     */
+    public Subscription subscribe(Class<? extends Event> type, EventPriority priority, boolean ignoreCancelled,
+                                  EventOptions options, Consumer<? super Event> handler) {
+        if (type == null)
+            throw new NullPointerException("type cannot be null");
+        if (priority == null)
+            throw new NullPointerException("priority cannot be null");
+        if (options == null)
+            throw new NullPointerException("options cannot be null");
+        if (handler == null)
+            throw new NullPointerException("handler cannot be null");
+        if (options.isBatched())
+            throw new IllegalArgumentException("Batched subscriptions have to be made through subscribeBatch");
+        return subscribe(type, priority, new Subscriber(ignoreCancelled, options, handler, null));
+    }
+
+    /**
+     * Subscribes a batch handler to an event type at a priority. Events which pass the filters and rate control read
+     * from a script event spec are buffered, and passed to the handler as one array once per tick.
+     *
+     * @param type            type of event to subscribe to
+     * @param priority        priority to receive the event at
+     * @param ignoreCancelled whether to skip events which are cancelled by the time they reach the priority
+     * @param spec            event spec to read {@link EventOptions} from
+     * @param handler         handler to pass batches of events to
+     * @return subscription, which unsubscribes the handler once closed
+     * @throws IllegalArgumentException if the spec does not describe valid event options
+     * @see EventOptions#fromSpec(Map)
+     */
+    public Subscription subscribeBatch(Class<? extends Event> type, EventPriority priority, boolean ignoreCancelled,
+                                       Map<String, ?> spec, Consumer<? super Event[]> handler) {
+        return subscribeBatch(type, priority, ignoreCancelled, EventOptions.fromSpec(spec), handler);
+    }
+
+    /**
+     * Subscribes a batch handler to an event type at a priority. Events which pass the filters and rate control of the
+     * options are buffered, and passed to the handler as one array once per tick. The batch limit and overflow policy
+     * of the options apply whether or not the options are marked as batched.
+     *
+     * @param type            type of event to subscribe to
+     * @param priority        priority to receive the event at
+     * @param ignoreCancelled whether to skip events which are cancelled by the time they reach the priority
+     * @param options         filters, rate control and batch limit to apply
+     * @param handler         handler to pass batches of events to
+     * @return subscription, which unsubscribes the handler once closed
+     */
+    public Subscription subscribeBatch(Class<? extends Event> type, EventPriority priority, boolean ignoreCancelled,
+                                       EventOptions options, Consumer<? super Event[]> handler) {
+        if (type == null)
+            throw new NullPointerException("type cannot be null");
+        if (priority == null)
+            throw new NullPointerException("priority cannot be null");
+        if (options == null)
+            throw new NullPointerException("options cannot be null");
+        if (handler == null)
+            throw new NullPointerException("handler cannot be null");
+        return subscribe(type, priority, new Subscriber(ignoreCancelled, options, null, handler));
+    }
+
+    private Subscription subscribe(Class<? extends Event> type, EventPriority priority, Subscriber subscriber) {
+        Dispatcher dispatcher = dispatchers.get(new DispatcherKey(type, priority));
+        if (dispatcher == null)
+            dispatcher = register(type, priority);
+        dispatcher.subscribers.add(subscriber);
+        if (subscriber.gate != null || subscriber.batch != null)
+            tickedSubscribers.add(subscriber);
+        Dispatcher d = dispatcher;
+        return () -> {
+            d.subscribers.remove(subscriber);
+            tickedSubscribers.remove(subscriber);
+        };
+    }
+
+    private synchronized Dispatcher register(Class<? extends Event> type, EventPriority priority) {
+        DispatcherKey key = new DispatcherKey(type, priority);
+        Dispatcher dispatcher = dispatchers.get(key);
+        if (dispatcher != null)
+            return dispatcher;
+        dispatcher = new Dispatcher(type);
+        // cancelled events are filtered per subscriber, so the dispatcher itself has to see them
+        plugin.getServer().getPluginManager().registerEvent(type, dispatcher, priority, dispatcher, plugin, false);
+        dispatchers.put(key, dispatcher);
+        return dispatcher;
+    }
+
+    /**
+     * Returns the number of subscribers to an event type at a priority
+     *
+     * @param type     type of event
+     * @param priority priority of event
+     * @return number of subscribers
+     */
+    public int getSubscriberCount(Class<? extends Event> type, EventPriority priority) {
+        Dispatcher dispatcher = dispatchers.get(new DispatcherKey(type, priority));
+        return dispatcher == null ? 0 : dispatcher.subscribers.size();
+    }
+
+    /**
+     * Returns the number of dispatchers registered with Bukkit
+     *
+     * @return number of dispatchers
+     */
+    public int getDispatcherCount() {
+        return dispatchers.size();
+    }
+
+    /**
+     * Advances the rate controls of all subscriptions, passing debounced events which are due, and delivers all
+     * buffered batches. Expected to be called once per server tick.
+     */
+    public void tick() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : tickedSubscribers) {
+            if (subscriber.gate != null)
+                subscriber.gate.tick(now, subscriber);
+            if (subscriber.batch != null)
+                subscriber.deliver(subscriber.batch.drain());
+        }
+    }
+
+    /**
+     * Unregisters every dispatcher from Bukkit and drops all subscribers
+     */
+    public synchronized void close() {
+        List<Dispatcher> registered = new ArrayList<>(dispatchers.values());
+        dispatchers.clear();
+        tickedSubscribers.clear();
+        for (Dispatcher dispatcher : registered) {
+            dispatcher.subscribers.clear();
+            HandlerList.unregisterAll(dispatcher);
+        }
+    }
+
+    /**
+     * Handle to a subscription made through {@link EventBridge#subscribe(Class, EventPriority, boolean, Consumer)}
+     */
+    @FunctionalInterface
+    public interface Subscription extends AutoCloseable {
+
+        /**
+         * Unsubscribes the handler. Closing an already closed subscription does nothing.
+         */
+        @Override
+        void close();
+    }
+
+    private final class Dispatcher implements Listener, EventExecutor {
+
+        private final Class<? extends Event> type;
+        private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+        private Dispatcher(Class<? extends Event> type) {
+            this.type = type;
+        }
+
+        @Override
+        public void execute(Listener listener, Event event) {
+            // handler lists are shared with subtypes which do not declare their own
+            if (!type.isInstance(event))
+                return;
+            long now = 0;
+            for (Subscriber subscriber : subscribers) {
+                if (subscriber.ignoreCancelled && event instanceof Cancellable && ((Cancellable) event).isCancelled())
+                    continue;
+                if (subscriber.filter != null && !subscriber.filter.test(event))
+                    continue;
+                if (subscriber.gate == null) {
+                    subscriber.accept(event);
+                    continue;
+                }
+                if (now == 0)
+                    now = System.nanoTime();
+                subscriber.gate.offer(event, now, subscriber);
+            }
+        }
+    }
+
+    private final class Subscriber implements Consumer<Event> {
+
+        private final boolean ignoreCancelled;
+        private final Predicate<Event> filter;
+        private final EventRateGate gate;
+        private final EventBatch batch;
+        private final Consumer<? super Event> handler;
+        private final Consumer<? super Event[]> batchHandler;
+
+        private Subscriber(boolean ignoreCancelled, EventOptions options, Consumer<? super Event> handler,
+                           Consumer<? super Event[]> batchHandler) {
+            this.ignoreCancelled = ignoreCancelled;
+            this.filter = options.getFilter();
+            this.gate = options.getRate() == EventOptions.Rate.NONE ? null : new EventRateGate(options);
+            this.batch = batchHandler == null ? null : new EventBatch(options);
+            this.handler = handler;
+            this.batchHandler = batchHandler;
+        }
+
+        @Override
+        public void accept(Event event) {
+            if (batch != null) {
+                deliver(batch.add(event));
+                return;
+            }
+            try {
+                handler.accept(event);
+            } catch (Throwable t) {
+                plugin.getLogger().log(Level.SEVERE, "Could not pass event " + event.getEventName() +
+                        " to a script subscriber", t);
+            }
+        }
+
+        private void deliver(Event[] events) {
+            if (events == null)
+                return;
+            try {
+                batchHandler.accept(events);
+            } catch (Throwable t) {
+                plugin.getLogger().log(Level.SEVERE, "Could not pass a batch of " + events.length + " " +
+                        events[0].getEventName() + " events to a script subscriber", t);
+            }
+        }
+    }
+
+    private static final class DispatcherKey {
+
+        private final Class<? extends Event> type;
+        private final EventPriority priority;
+
+        private DispatcherKey(Class<? extends Event> type, EventPriority priority) {
+            this.type = type;
+            this.priority = priority;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof DispatcherKey)) return false;
+            DispatcherKey that = (DispatcherKey) o;
+            return type == that.type && priority == that.priority;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(type, priority);
+        }
+    }
+}
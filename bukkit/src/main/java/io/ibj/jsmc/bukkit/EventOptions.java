@@ -0,0 +1,379 @@
+package io.ibj.jsmc.bukkit;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.EntityType;
+import org.bukkit.entity.Player;
+import org.bukkit.event.Event;
+import org.bukkit.event.block.BlockEvent;
+import org.bukkit.event.entity.EntityEvent;
+import org.bukkit.event.player.PlayerEvent;
+import org.bukkit.event.player.PlayerMoveEvent;
+import org.bukkit.event.world.WorldEvent;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Filters and rate controls applied to an {@link EventBridge} subscription on the Java side, before an event is ever
+ * passed to its handler. Options are usually read from a script's event spec through {@link #fromSpec(Map)}, which
+ * understands the following keys:
+ * <ul>
+ * <li><code>world</code> - world name, or array of world names, the event has to happen in</li>
+ * <li><code>entityType</code> - entity type, or array of entity types, the event has to be about</li>
+ * <li><code>blockChanged</code> - if true, player moves which stay within the same block are dropped</li>
+ * <li><code>sample</code> - only every n-th event is passed</li>
+ * <li><code>throttle</code> - at most one event is passed per the given amount of milliseconds</li>
+ * <li><code>debounce</code> - only the last event of a burst is passed, once no event followed it for the given amount
+ * of milliseconds</li>
+ * <li><code>per</code> - <code>"player"</code> or <code>"entity"</code> to apply the rate control to every player or
+ * entity separately, rather than to the subscription as a whole</li>
+ * <li><code>batch</code> - true, or the most events to buffer per tick, to receive the events of a tick as one array
+ * through {@link EventBridge#subscribeBatch(Class, org.bukkit.event.EventPriority, boolean, EventOptions,
+ * java.util.function.Consumer)}</li>
+ * <li><code>overflow</code> - what to do once a batch is full; <code>"dropOldest"</code> (the default),
+ * <code>"dropNewest"</code> or <code>"flush"</code></li>
+ * </ul>
+ *
+ * @author Joseph Hirschfeld (Ichbinjoe) [joe@ibj.io]
+ * @since 10/18/26
+ */
+public final class EventOptions {
+
+    /**
+     * Options which pass every event
+     */
+    public static final EventOptions NONE = new EventOptions(null, Rate.NONE, 0, false);
+
+    private static final Set<String> SUBSCRIPTION_KEYS =
+            new HashSet<>(Arrays.asList("event", "class", "priority", "ignoreCancelled"));
+
+    private final Predicate<Event> filter;
+    private final Rate rate;
+    private final long amount;
+    private final boolean perSubject;
+    private final boolean batched;
+    private final int batchLimit;
+    private final Overflow overflow;
+
+    /**
+     * Creates new EventOptions
+     *
+     * @param filter     filter events have to pass, or null to pass every event
+     * @param rate       rate control to apply to events which passed the filter
+     * @param amount     amount of events to sample from for {@link Rate#SAMPLE}, interval in milliseconds otherwise
+     * @param perSubject whether to apply the rate control to the player or entity of every event separately
+     */
+    public EventOptions(Predicate<Event> filter, Rate rate, long amount, boolean perSubject) {
+        this(filter, rate, amount, perSubject, false, 0, Overflow.DROP_OLDEST);
+    }
+
+    /**
+     * Creates new EventOptions
+     *
+     * @param filter     filter events have to pass, or null to pass every event
+     * @param rate       rate control to apply to events which passed the filter
+     * @param amount     amount of events to sample from for {@link Rate#SAMPLE}, interval in milliseconds otherwise
+     * @param perSubject whether to apply the rate control to the player or entity of every event separately
+     * @param batched    whether events are to be delivered once per tick in batches
+     * @param batchLimit most events to buffer per batch, or 0 to not limit batches
+     * @param overflow   what to do with events which do not fit into a full batch
+     */
+    public EventOptions(Predicate<Event> filter, Rate rate, long amount, boolean perSubject, boolean batched,
+                        int batchLimit, Overflow overflow) {
+        if (rate == null)
+            throw new NullPointerException("rate cannot be null");
+        if (rate != Rate.NONE && amount < 1)
+            throw new IllegalArgumentException("amount has to be positive, got " + amount);
+        if (batchLimit < 0)
+            throw new IllegalArgumentException("batchLimit cannot be negative, got " + batchLimit);
+        if (overflow == null)
+            throw new NullPointerException("overflow cannot be null");
+        this.filter = filter;
+        this.rate = rate;
+        this.amount = amount;
+        this.perSubject = perSubject;
+        this.batched = batched;
+        this.batchLimit = batchLimit;
+        this.overflow = overflow;
+    }
+
+    /**
+     * Reads EventOptions from a script event spec. Keys describing the subscription itself, such as
+     * <code>event</code> and <code>priority</code>, are ignored.
+     *
+     * @param spec event spec
+     * @return event options
+     * @throws IllegalArgumentException if the spec contains an unknown key, an invalid value, or more than one rate
+     *                                  control
+     */
+    public static EventOptions fromSpec(Map<String, ?> spec) {
+        if (spec == null)
+            throw new NullPointerException("spec cannot be null");
+        Predicate<Event> filter = null;
+        Rate rate = Rate.NONE;
+        long amount = 0;
+        boolean perSubject = false;
+        boolean batched = false;
+        int batchLimit = 0;
+        Overflow overflow = Overflow.DROP_OLDEST;
+        for (Map.Entry<String, ?> e : spec.entrySet()) {
+            String key = e.getKey();
+            Object value = e.getValue();
+            if (SUBSCRIPTION_KEYS.contains(key) || value == null)
+                continue;
+            Rate keyRate = null;
+            switch (key) {
+                case "world":
+                    filter = and(filter, inWorld(strings(value)));
+                    break;
+                case "entityType":
+                    Set<EntityType> types = new HashSet<>();
+                    for (Object type : values(value))
+                        types.add(type instanceof EntityType ? (EntityType) type :
+                                EntityType.valueOf(type.toString().toUpperCase(Locale.ROOT)));
+                    filter = and(filter, ofEntityType(types));
+                    break;
+                case "blockChanged":
+                    if (Boolean.TRUE.equals(value))
+                        filter = and(filter, EventOptions::changesBlock);
+                    break;
+                case "per":
+                    String per = value.toString();
+                    if (!per.equals("player") && !per.equals("entity"))
+                        throw new IllegalArgumentException("per has to be 'player' or 'entity', got '" + per + "'");
+                    perSubject = true;
+                    break;
+                case "batch":
+                    if (value instanceof Number) {
+                        batched = true;
+                        batchLimit = ((Number) value).intValue();
+                        if (batchLimit < 1)
+                            throw new IllegalArgumentException("batch has to be true or positive, got " + value);
+                    } else {
+                        batched = Boolean.TRUE.equals(value);
+                    }
+                    break;
+                case "overflow":
+                    switch (value.toString()) {
+                        case "dropOldest":
+                            overflow = Overflow.DROP_OLDEST;
+                            break;
+                        case "dropNewest":
+                            overflow = Overflow.DROP_NEWEST;
+                            break;
+                        case "flush":
+                            overflow = Overflow.FLUSH;
+                            break;
+                        default:
+                            throw new IllegalArgumentException("overflow has to be 'dropOldest', 'dropNewest' or " +
+                                    "'flush', got '" + value + "'");
+                    }
+                    break;
+                case "sample":
+                    keyRate = Rate.SAMPLE;
+                    break;
+                case "throttle":
+                    keyRate = Rate.THROTTLE;
+                    break;
+                case "debounce":
+                    keyRate = Rate.DEBOUNCE;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown event option '" + key + "'");
+            }
+            if (keyRate != null) {
+                if (rate != Rate.NONE)
+                    throw new IllegalArgumentException("Only one of sample, throttle and debounce may be used");
+                if (!(value instanceof Number))
+                    throw new IllegalArgumentException(key + " has to be a number, got '" + value + "'");
+                rate = keyRate;
+                amount = ((Number) value).longValue();
+            }
+        }
+        if (filter == null && rate == Rate.NONE && !batched)
+            return NONE;
+        return new EventOptions(filter, rate, amount, perSubject, batched, batchLimit, overflow);
+    }
+
+    /**
+     * Returns the filter events have to pass
+     *
+     * @return filter, or null if every event passes
+     */
+    public Predicate<Event> getFilter() {
+        return filter;
+    }
+
+    /**
+     * Returns the rate control applied to events which passed the filter
+     *
+     * @return rate control
+     */
+    public Rate getRate() {
+        return rate;
+    }
+
+    /**
+     * Returns the amount of events to sample from for {@link Rate#SAMPLE}, or the interval in milliseconds otherwise
+     *
+     * @return amount
+     */
+    public long getAmount() {
+        return amount;
+    }
+
+    /**
+     * Returns whether the rate control is applied to the player or entity of every event separately
+     *
+     * @return whether the rate control is applied per subject
+     */
+    public boolean isPerSubject() {
+        return perSubject;
+    }
+
+    /**
+     * Returns whether events are to be delivered once per tick in batches
+     *
+     * @return whether events are batched
+     */
+    public boolean isBatched() {
+        return batched;
+    }
+
+    /**
+     * Returns the most events to buffer per batch
+     *
+     * @return batch limit, or 0 if batches are not limited
+     */
+    public int getBatchLimit() {
+        return batchLimit;
+    }
+
+    /**
+     * Returns what to do with events which do not fit into a full batch
+     *
+     * @return overflow policy
+     */
+    public Overflow getOverflow() {
+        return overflow;
+    }
+
+    /**
+     * Returns the player or entity an event is about
+     *
+     * @param event event
+     * @return subject of the event, or null if the event is not about a player or entity
+     */
+    static Entity subjectOf(Event event) {
+        if (event instanceof PlayerEvent)
+            return ((PlayerEvent) event).getPlayer();
+        if (event instanceof EntityEvent)
+            return ((EntityEvent) event).getEntity();
+        return null;
+    }
+
+    private static World worldOf(Event event) {
+        if (event instanceof BlockEvent)
+            return ((BlockEvent) event).getBlock().getWorld();
+        if (event instanceof WorldEvent)
+            return ((WorldEvent) event).getWorld();
+        Entity subject = subjectOf(event);
+        return subject == null ? null : subject.getWorld();
+    }
+
+    private static Predicate<Event> inWorld(Set<String> worlds) {
+        return event -> {
+            World world = worldOf(event);
+            return world != null && worlds.contains(world.getName());
+        };
+    }
+
+    private static Predicate<Event> ofEntityType(Set<EntityType> types) {
+        return event -> {
+            if (event instanceof EntityEvent)
+                return types.contains(((EntityEvent) event).getEntityType());
+            Entity subject = subjectOf(event);
+            return subject != null && types.contains(subject instanceof Player ? EntityType.PLAYER : subject.getType());
+        };
+    }
+
+    private static boolean changesBlock(Event event) {
+        if (!(event instanceof PlayerMoveEvent))
+            return true;
+        Location from = ((PlayerMoveEvent) event).getFrom();
+        Location to = ((PlayerMoveEvent) event).getTo();
+        return to == null || from.getBlockX() != to.getBlockX() || from.getBlockY() != to.getBlockY() ||
+                from.getBlockZ() != to.getBlockZ() || from.getWorld() != to.getWorld();
+    }
+
+    private static Predicate<Event> and(Predicate<Event> a, Predicate<Event> b) {
+        return a == null ? b : a.and(b);
+    }
+
+    private static Set<String> strings(Object value) {
+        Set<String> strings = new HashSet<>();
+        for (Object o : values(value))
+            strings.add(o.toString());
+        return strings;
+    }
+
+    private static Collection<?> values(Object value) {
+        // script arrays reach java as maps of index to element
+        if (value instanceof Map)
+            return ((Map<?, ?>) value).values();
+        if (value instanceof Collection)
+            return (Collection<?>) value;
+        if (value instanceof Object[])
+            return Arrays.asList((Object[]) value);
+        return Collections.singleton(value);
+    }
+
+    /**
+     * Rate control applied to the events of a subscription
+     */
+    public enum Rate {
+        /**
+         * Every event is passed
+         */
+        NONE,
+        /**
+         * Only every n-th event is passed, starting with the first
+         */
+        SAMPLE,
+        /**
+         * At most one event is passed per interval, starting with the first
+         */
+        THROTTLE,
+        /**
+         * Only the last event of a burst is passed, once no event followed it for an interval. Debounced events are
+         * passed on the main thread.
+         */
+        DEBOUNCE
+    }
+
+    /**
+     * What to do with an event which does not fit into a full batch
+     */
+    public enum Overflow {
+        /**
+         * The oldest event in the batch is dropped to make room
+         */
+        DROP_OLDEST,
+        /**
+         * The event is dropped
+         */
+        DROP_NEWEST,
+        /**
+         * The full batch is delivered right away, on the thread which fired the event, and a new batch is started
+         */
+        FLUSH
+    }
+}
@@ -0,0 +1,107 @@
+package io.ibj.jsmc.bukkit;
+
+import org.bukkit.entity.Entity;
+import org.bukkit.event.Event;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Applies the rate control of {@link EventOptions} to the events of one subscription, keeping state per player or
+ * entity when the options ask for it
+ *
+ * @author Joseph Hirschfeld (Ichbinjoe) [joe@ibj.io]
+ * @since 10/18/26
+ */
+class EventRateGate {
+
+    private static final Object GLOBAL = new Object();
+    private static final long IDLE_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final EventOptions.Rate rate;
+    private final long amount;
+    private final long intervalNanos;
+    private final boolean perSubject;
+    private final Map<Object, State> states = new ConcurrentHashMap<>();
+
+    EventRateGate(EventOptions options) {
+        this.rate = options.getRate();
+        this.amount = options.getAmount();
+        this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(options.getAmount());
+        this.perSubject = options.isPerSubject();
+    }
+
+    /**
+     * Offers an event to the gate, passing it to the sink if the rate control lets it through immediately
+     *
+     * @param event event to offer
+     * @param now   current {@link System#nanoTime()}
+     * @param sink  sink to pass events to
+     */
+    void offer(Event event, long now, Consumer<Event> sink) {
+        State state = states.computeIfAbsent(keyOf(event),
+                k -> new State(rate == EventOptions.Rate.THROTTLE ? now - intervalNanos : 0));
+        state.lastSeen = now;
+        switch (rate) {
+            case SAMPLE:
+                if ((state.counter.getAndIncrement() % amount) == 0)
+                    sink.accept(event);
+                break;
+            case THROTTLE:
+                long last = state.counter.get();
+                if (now - last >= intervalNanos && state.counter.compareAndSet(last, now))
+                    sink.accept(event);
+                break;
+            case DEBOUNCE:
+                state.pending.set(event);
+                break;
+            default:
+                sink.accept(event);
+        }
+    }
+
+    /**
+     * Passes debounced events whose interval elapsed to the sink, and forgets the state of idle players and entities
+     *
+     * @param now  current {@link System#nanoTime()}
+     * @param sink sink to pass events to
+     */
+    void tick(long now, Consumer<Event> sink) {
+        for (Iterator<State> it = states.values().iterator(); it.hasNext(); ) {
+            State state = it.next();
+            long idle = now - state.lastSeen;
+            if (rate == EventOptions.Rate.DEBOUNCE && idle >= intervalNanos) {
+                Event event = state.pending.getAndSet(null);
+                if (event != null)
+                    sink.accept(event);
+            }
+            // sampling phase and throttle windows of subjects which went quiet are not worth keeping around
+            if (idle >= Math.max(IDLE_NANOS, intervalNanos) && state.pending.get() == null)
+                it.remove();
+        }
+    }
+
+    private Object keyOf(Event event) {
+        if (!perSubject)
+            return GLOBAL;
+        Entity subject = EventOptions.subjectOf(event);
+        return subject == null ? GLOBAL : subject.getUniqueId();
+    }
+
+    private static final class State {
+
+        // sampled event count, or time of the last passed event when throttling
+        private final AtomicLong counter;
+        private final AtomicReference<Event> pending = new AtomicReference<>();
+        private volatile long lastSeen;
+
+        private State(long initial) {
+            this.counter = new AtomicLong(initial);
+        }
+    }
+}
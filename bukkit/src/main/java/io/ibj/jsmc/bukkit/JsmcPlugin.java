@@ -1,17 +1,56 @@
 package io.ibj.jsmc.bukkit;
 
 import io.ibj.jsmc.api.DependencyManager;
+import io.ibj.jsmc.api.DependencyResolver;
+import io.ibj.jsmc.api.LifecycleLeak;
+import io.ibj.jsmc.api.LifecycleTracker;
+import io.ibj.jsmc.api.metrics.MetricsRegistry;
 import io.ibj.jsmc.core.BasicDependencyManager;
+import io.ibj.jsmc.core.LazyTypeNamespace;
+import io.ibj.jsmc.core.ReevaluationScheduler;
+import io.ibj.jsmc.core.TimingWheel;
+import io.ibj.jsmc.core.backend.NashornBackend;
+import io.ibj.jsmc.core.backend.ScriptBackend;
+import io.ibj.jsmc.core.backend.ScriptBackends;
+import io.ibj.jsmc.core.compiler.CodeCache;
+import io.ibj.jsmc.core.compiler.JsmcPackage;
+import io.ibj.jsmc.core.compiler.JsonCache;
+import io.ibj.jsmc.core.dependencies.AsyncExecutorDependency;
+import io.ibj.jsmc.core.dependencies.JsScript;
+import io.ibj.jsmc.core.compiler.ScriptCompiler;
+import io.ibj.jsmc.core.resolvers.FileSystemIndex;
 import io.ibj.jsmc.core.resolvers.FileSystemResolver;
+import io.ibj.jsmc.core.resolvers.FileSystemView;
 import io.ibj.jsmc.core.resolvers.ModuleResolver;
+import io.ibj.jsmc.core.resolvers.ModuleWatcher;
+import io.ibj.jsmc.core.resolvers.PackageResolver;
+import io.ibj.jsmc.core.resolvers.PassthroughResolver;
+import io.ibj.jsmc.core.resolvers.ResolverPipeline;
 import io.ibj.jsmc.core.resolvers.SystemDependencyResolver;
 import org.bukkit.configuration.file.YamlConfiguration;
 import org.bukkit.plugin.java.JavaPlugin;
 
+import javax.management.JMException;
 import java.io.File;
+import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 import java.util.logging.Level;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
@@ -30,29 +69,111 @@ public class JsmcPlugin extends JavaPlugin {
     private SystemDependencyResolver<Path> systemDependencyResolver;
     private SystemDependencyResolver<Path> addOnDependencyResolver;
     public ModuleResolver moduleResolver;
+    private ResolverPipeline resolverPipeline;
+    public FileSystemIndex fileSystemIndex;
     public BasicDependencyManager<Path> dependencyManager;
+    public final ReevaluationScheduler reevaluationScheduler;
+    public final MetricsRegistry metrics;
+    public final EventBridge eventBridge;
+    public final TimingWheel timingWheel;
+    public AsyncExecutorDependency asyncExecutor;
+    private ModuleWatcher moduleWatcher;
+    private boolean batchingReevaluations;
+    private ExecutorService loadExecutor;
+    private ScriptBackend scriptBackend;
+    private FileSystem bundleFileSystem;
 
     public JsmcPlugin() {
-        systemDependencyResolver = new SystemDependencyResolver<>(null);
+        reevaluationScheduler = new ReevaluationScheduler();
+        metrics = new MetricsRegistry();
+        eventBridge = new EventBridge(this);
+        timingWheel = new TimingWheel(t -> getLogger().log(Level.SEVERE, "A scheduled task threw an exception", t));
+        systemDependencyResolver = new SystemDependencyResolver<>(null, reevaluationScheduler);
+    }
+
+    /**
+     * Creates a namespace of lazily resolved types, letting scripts expose large sets of Java types without loading them
+     * up front
+     *
+     * @param resolver   function resolving a fully qualified class name, usually wrapping <code>Java.type</code>
+     * @param classNames fully qualified class names of the types, by the property to expose them as
+     * @param missing    value to read types which fail to resolve as, usually <code>undefined</code>
+     * @return type namespace
+     */
+    public LazyTypeNamespace newTypeNamespace(Function<String, Object> resolver, Map<String, String> classNames,
+                                              Object missing) {
+        return new LazyTypeNamespace(resolver, classNames, missing);
+    }
+
+    private void reportLeak(LifecycleLeak leak) {
+        getLogger().warning("Dependency lifecycle leak: " + leak);
+        for (Throwable site : leak.getCreationSites())
+            getLogger().log(Level.WARNING, "Leaked lifecycle was created here", site);
     }
 
     @Override
     public void onDisable() {
-        if (dependencyManager == null)
-            return;
         try {
-            for (DependencyManager.Entry e : dependencyManager.getLoadedModules())
-                dependencyManager.unload(e);
+            metrics.unregisterMBean();
+        } catch (JMException e) {
+            getLogger().log(Level.WARNING, "Unable to unregister the metrics MBean", e);
+        }
+        if (moduleWatcher != null) {
+            try {
+                moduleWatcher.close();
+            } catch (IOException e) {
+                getLogger().log(Level.WARNING, "Unable to stop watching node_modules for changes", e);
+            }
+            moduleWatcher = null;
+        }
+        if (asyncExecutor != null) {
+            asyncExecutor.close();
+            asyncExecutor = null;
+        }
+        if (loadExecutor != null) {
+            loadExecutor.shutdownNow();
+            loadExecutor = null;
+        }
+        // modules are about to be unloaded, there is no point in passing them any more events
+        eventBridge.close();
+        if (batchingReevaluations) {
+            batchingReevaluations = false;
+            flushReevaluations(false);
+        }
+        // every module is unloaded next, modules depending on each other are not leaks then
+        LifecycleTracker.install(null);
+        if (dependencyManager != null) {
+            try {
+                for (DependencyManager.Entry e : dependencyManager.getLoadedModules())
+                    dependencyManager.unload(e);
 
-        } catch (Exception e) {
-            String msg = "" +
-                    ERROR_HEADER +
-                    "A severe exception has occurred! jsmc may not have shut down correctly.\n" +
-                    "jsmc was unable to unload all of it's dependencies safely. This is usually\n" +
-                    "not jsmc's fault, but instead a module on the system unable to shut down\n" +
-                    "cleanly.\n" +
-                    ERROR_HEADER;
-            getLogger().log(Level.SEVERE, msg, e);
+            } catch (Exception e) {
+                String msg = "" +
+                        ERROR_HEADER +
+                        "A severe exception has occurred! jsmc may not have shut down correctly.\n" +
+                        "jsmc was unable to unload all of it's dependencies safely. This is usually\n" +
+                        "not jsmc's fault, but instead a module on the system unable to shut down\n" +
+                        "cleanly.\n" +
+                        ERROR_HEADER;
+                getLogger().log(Level.SEVERE, msg, e);
+            }
+        }
+        // modules can not be called any more once their backend is closed, so it goes last
+        if (scriptBackend instanceof AutoCloseable) {
+            try {
+                ((AutoCloseable) scriptBackend).close();
+            } catch (Exception e) {
+                getLogger().log(Level.WARNING, "Unable to close the script backend", e);
+            }
+        }
+        scriptBackend = null;
+        if (bundleFileSystem != null) {
+            try {
+                bundleFileSystem.close();
+            } catch (IOException e) {
+                getLogger().log(Level.WARNING, "Unable to unmount the bundled modules", e);
+            }
+            bundleFileSystem = null;
         }
     }
 
@@ -87,9 +208,20 @@ public class JsmcPlugin extends JavaPlugin {
         Path rootPath = new File(c.getString("root", "./")).toPath();
         Path node_modules = rootPath.resolve("node_modules");
 
+        if (c.getBoolean("bundle.mount", false)) {
+            try {
+                bundleFileSystem = mountBundle();
+            } catch (IOException e) {
+                getLogger().log(Level.WARNING, "Unable to mount the bundled modules, they are extracted instead", e);
+            }
+        }
+
         if (!Files.exists(node_modules)) {
             try {
-                seedInstall(node_modules);
+                if (bundleFileSystem != null)
+                    Files.createDirectory(node_modules);
+                else
+                    seedInstall(node_modules);
             } catch (IOException e) {
                 String msg = "" +
                         ERROR_HEADER +
@@ -129,10 +261,113 @@ public class JsmcPlugin extends JavaPlugin {
         }
 
 
-        fileSystemResolver = new FileSystemResolver(() -> moduleResolver, rootPath);
-        addOnDependencyResolver = new SystemDependencyResolver<>(systemDependencyResolver);
-        moduleResolver = new ModuleResolver(rootPath, fileSystemResolver, addOnDependencyResolver);
-        dependencyManager = new BasicDependencyManager<>(moduleResolver, rootPath);
+        CodeCache codeCache = null;
+        if (c.getBoolean("cache.enabled", true)) {
+            Path cachePath = getDataFolder().toPath().resolve(c.getString("cache.location", "cache"));
+            codeCache = new CodeCache(cachePath, c.getLong("cache.max-size", 64) * 1024 * 1024);
+            try {
+                codeCache.install();
+            } catch (IOException e) {
+                getLogger().log(Level.WARNING, "Unable to set up the compiled script cache at " + cachePath +
+                        ", scripts will be compiled on every start", e);
+                codeCache = null;
+            }
+        }
+
+        int engines = c.getInt("compiler.engines", 0);
+        if (engines < 1)
+            engines = Runtime.getRuntime().availableProcessors();
+        ScriptCompiler compiler = new ScriptCompiler(engines, codeCache, c.getBoolean("compiler.shared-globals", false));
+        String backendName = c.getString("compiler.backend", "nashorn");
+        try {
+            scriptBackend = ScriptBackends.create(backendName, compiler);
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            getLogger().log(Level.WARNING, "Unable to use the script backend '" + backendName +
+                    "', falling back to nashorn", e);
+            scriptBackend = new NashornBackend(compiler);
+        }
+
+        // modules and their dependencies are resolved and compiled on these threads, but always run on the main thread
+        AtomicInteger loadThreadCount = new AtomicInteger();
+        loadExecutor = Executors.newFixedThreadPool(engines, r -> {
+            Thread t = new Thread(r, "jsmc-loader-" + loadThreadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+
+        // blocking script work runs here, and its results are handed back on the main thread within a budget per tick
+        AsyncExecutorDependency async = asyncExecutor = new AsyncExecutorDependency("jsmc-async",
+                Math.max(1, c.getInt("async.threads", 4)), Math.max(1, c.getInt("async.queue", 1024)),
+                t -> getLogger().log(Level.SEVERE, "Asynchronous script work threw an exception", t),
+                consumer -> consumer instanceof JsScript ? ((JsScript<?>) consumer).getMetrics() :
+                        metrics.metrics(String.valueOf(consumer)));
+        systemDependencyResolver.add("jsmc-async", async);
+        long asyncBudget = TimeUnit.MILLISECONDS.toNanos(c.getLong("async.tick-budget", 5));
+
+        // opt-in, as every lifecycle then costs a set entry and possibly a stack trace
+        LifecycleTracker leakTracker = null;
+        if (c.getBoolean("leaks.track", false)) {
+            leakTracker = new LifecycleTracker(c.getBoolean("leaks.creation-sites", true), this::reportLeak);
+            LifecycleTracker.install(leakTracker);
+        }
+        LifecycleTracker tracker = leakTracker;
+
+        // changes reported within a tick, such as several system dependencies being replaced in a row, are reevaluated
+        // in a single pass once the tick's work is done, rather than tearing down and rebuilding modules once each
+        reevaluationScheduler.beginBatch();
+        batchingReevaluations = true;
+
+        // the one task driving everything jsmc does per tick, rather than a bukkit task per script callback
+        getServer().getScheduler().runTaskTimer(this, () -> {
+            timingWheel.advance();
+            eventBridge.tick();
+            async.drain(asyncBudget);
+            if (batchingReevaluations)
+                flushReevaluations(true);
+            if (tracker != null)
+                tracker.poll();
+        }, 1, 1);
+
+        if (c.getBoolean("metrics.jmx", true)) {
+            try {
+                metrics.registerMBean("io.ibj.jsmc:type=Metrics");
+            } catch (JMException e) {
+                getLogger().log(Level.WARNING, "Unable to expose module metrics over JMX", e);
+            }
+        }
+
+        FileSystemView fileSystemView = FileSystemView.DIRECT;
+        // only node_modules is indexed, as the rest of the root is the server's worlds, logs and plugins
+        if (c.getBoolean("index", true))
+            fileSystemView = fileSystemIndex = new FileSystemIndex(node_modules);
+
+        fileSystemResolver = FileSystemResolver.builder(() -> resolverPipeline, rootPath)
+                .backend(scriptBackend)
+                .fileSystem(fileSystemView)
+                .scheduler(reevaluationScheduler)
+                .prefetchExecutor(loadExecutor)
+                .metrics(metrics)
+                .lazyJsonThreshold(c.getLong("json.lazy-threshold", -1))
+                .jsonCache(codeCache == null ? null : new JsonCache(codeCache.getJsonDirectory()))
+                .build();
+        addOnDependencyResolver = new SystemDependencyResolver<>(systemDependencyResolver, reevaluationScheduler);
+        DependencyResolver<Path> downstreamResolver = addOnDependencyResolver;
+        // packages are consulted in name order, once a module is not found within node_modules
+        List<Path> packages = findPackages(getDataFolder().toPath().resolve(c.getString("packages.location", "packages")));
+        for (int i = packages.size() - 1; i >= 0; i--) {
+            try {
+                downstreamResolver = new PassthroughResolver<>(new PackageResolver(JsmcPackage.open(packages.get(i)),
+                        scriptBackend, () -> resolverPipeline, rootPath, metrics), downstreamResolver);
+            } catch (IOException e) {
+                getLogger().log(Level.WARNING, "Unable to open the module package " + packages.get(i), e);
+            }
+        }
+        moduleResolver = new ModuleResolver(rootPath, fileSystemResolver, downstreamResolver, fileSystemView,
+                bundleFileSystem == null ? null : bundleFileSystem.getPath("/"));
+        // every script shares the pipeline, which routes identifiers by their shape and caches what it found
+        resolverPipeline = new ResolverPipeline(fileSystemResolver, moduleResolver, downstreamResolver,
+                reevaluationScheduler);
+        dependencyManager = new BasicDependencyManager<>(resolverPipeline, rootPath, loadExecutor);
 
         try {
             dependencyManager.load(loaderModuleName); // this should then sequentially load everything else
@@ -145,7 +380,87 @@ public class JsmcPlugin extends JavaPlugin {
                     ERROR_HEADER;
             getLogger().log(Level.SEVERE, msg, e);
             setEnabled(false);
+            return;
+        }
+
+        if (c.getBoolean("watch.enabled", false)) {
+            // modules only live within node_modules, the rest of the root is written to constantly by the server
+            moduleWatcher = new ModuleWatcher(node_modules, c.getLong("watch.debounce", 500),
+                    c.getLong("watch.max-wait", 5000), r -> getServer().getScheduler().runTask(this, r),
+                    this::reloadChanged);
+            try {
+                moduleWatcher.start();
+            } catch (IOException e) {
+                getLogger().log(Level.WARNING, "Unable to watch " + node_modules + " for changes, modules will " +
+                        "not be reloaded automatically", e);
+                moduleWatcher = null;
+            }
+        }
+    }
+
+    private void flushReevaluations(boolean reopen) {
+        try {
+            reevaluationScheduler.endBatch();
+        } catch (Exception e) {
+            getLogger().log(Level.WARNING, "Exception occurred while reevaluating changed modules", e);
+        } finally {
+            if (reopen)
+                reevaluationScheduler.beginBatch();
+        }
+    }
+
+    private void reloadChanged(Set<Path> changedPaths) {
+        if (fileSystemIndex != null)
+            for (Path p : changedPaths)
+                fileSystemIndex.invalidate(p);
+        try {
+            fileSystemResolver.reload(changedPaths);
+        } catch (Exception e) {
+            getLogger().log(Level.WARNING, "Exception occurred while reloading changed modules", e);
+        }
+    }
+
+    private List<Path> findPackages(Path directory) {
+        List<Path> packages = new ArrayList<>();
+        if (!Files.isDirectory(directory))
+            return packages;
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + JsmcPackage.EXTENSION)) {
+            stream.forEach(packages::add);
+        } catch (IOException e) {
+            getLogger().log(Level.WARNING, "Unable to list the module packages within " + directory, e);
+        }
+        Collections.sort(packages);
+        return packages;
+    }
+
+    /**
+     * Mounts the modules bundled with jsmc as a read-only zip file system, rather than extracting them. A zip file system
+     * can only be mounted from a file, so the bundle is copied out of the plugin jar once per version of jsmc.
+     *
+     * @return mounted bundle, with the modules at its root
+     * @throws IOException if the bundle could not be copied or mounted
+     */
+    public FileSystem mountBundle() throws IOException {
+        Path dataFolder = getDataFolder().toPath();
+        Path archive = dataFolder.resolve("package-" + getDescription().getVersion() + ".zip");
+        if (!Files.exists(archive)) {
+            Files.createDirectories(dataFolder);
+            // bundles of previous versions are no longer mounted
+            try (DirectoryStream<Path> stale = Files.newDirectoryStream(dataFolder, "package-*.zip")) {
+                for (Path p : stale)
+                    Files.deleteIfExists(p);
+            }
+            Path tmp = Files.createTempFile(dataFolder, "package", ".tmp");
+            try (InputStream in = getResource("package.zip")) {
+                if (in == null)
+                    throw new FileNotFoundException("package.zip is not bundled with jsmc");
+                Files.copy(in, tmp, StandardCopyOption.REPLACE_EXISTING);
+                Files.move(tmp, archive, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
         }
+        return FileSystems.newFileSystem(archive, (ClassLoader) null);
     }
 
     public void seedInstall(Path node_modules) throws IOException {
@@ -0,0 +1,74 @@
+package io.ibj.jsmc.bukkit;
+
+import org.bukkit.event.Event;
+import org.bukkit.event.HandlerList;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests {@link EventBatch}
+ *
+ * @author Joseph Hirschfeld [Ichbinjoe] (joe@ibj.io)
+ * @since 10/18/26
+ */
+public class EventBatchTest {
+
+    private final Event first = new TestEvent();
+    private final Event second = new TestEvent();
+    private final Event third = new TestEvent();
+
+    @Test
+    public void testEmptyBatchDrainsNothing() {
+        assertNull(batch(0, EventOptions.Overflow.DROP_OLDEST).drain());
+    }
+
+    @Test
+    public void testUnlimitedBatchKeepsEverything() {
+        EventBatch batch = batch(0, EventOptions.Overflow.DROP_NEWEST);
+        assertNull(batch.add(first));
+        assertNull(batch.add(second));
+        assertNull(batch.add(third));
+        assertArrayEquals(new Event[]{first, second, third}, batch.drain());
+        assertNull(batch.drain());
+    }
+
+    @Test
+    public void testDropOldest() {
+        EventBatch batch = batch(2, EventOptions.Overflow.DROP_OLDEST);
+        assertNull(batch.add(first));
+        assertNull(batch.add(second));
+        assertNull(batch.add(third));
+        assertArrayEquals(new Event[]{second, third}, batch.drain());
+    }
+
+    @Test
+    public void testDropNewest() {
+        EventBatch batch = batch(2, EventOptions.Overflow.DROP_NEWEST);
+        assertNull(batch.add(first));
+        assertNull(batch.add(second));
+        assertNull(batch.add(third));
+        assertArrayEquals(new Event[]{first, second}, batch.drain());
+    }
+
+    @Test
+    public void testFlush() {
+        EventBatch batch = batch(2, EventOptions.Overflow.FLUSH);
+        assertNull(batch.add(first));
+        assertNull(batch.add(second));
+        assertArrayEquals(new Event[]{first, second}, batch.add(third));
+        assertArrayEquals(new Event[]{third}, batch.drain());
+    }
+
+    private static EventBatch batch(int limit, EventOptions.Overflow overflow) {
+        return new EventBatch(new EventOptions(null, EventOptions.Rate.NONE, 0, false, true, limit, overflow));
+    }
+
+    private static class TestEvent extends Event {
+
+        @Override
+        public HandlerList getHandlers() {
+            return null;
+        }
+    }
+}
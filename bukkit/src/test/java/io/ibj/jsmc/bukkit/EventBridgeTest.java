@@ -0,0 +1,245 @@
+package io.ibj.jsmc.bukkit;
+
+import org.bukkit.Server;
+import org.bukkit.event.Cancellable;
+import org.bukkit.event.Event;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.plugin.EventExecutor;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.PluginManager;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests {@link EventBridge}
+ *
+ * @author Joseph Hirschfeld [Ichbinjoe] (joe@ibj.io)
+ * @since 10/18/26
+ */
+public class EventBridgeTest {
+
+    private final List<Registration> registrations = new ArrayList<>();
+    private final List<Event> received = new ArrayList<>();
+    private EventBridge bridge;
+
+    @Before
+    public void setup() {
+        Logger logger = Logger.getAnonymousLogger();
+        logger.setUseParentHandlers(false);
+        logger.setLevel(Level.OFF);
+        PluginManager pluginManager = mock(PluginManager.class);
+        doAnswer(invocation -> registrations.add(new Registration(invocation.getArgument(0),
+                invocation.getArgument(1), invocation.getArgument(2), invocation.getArgument(3),
+                invocation.getArgument(5)))).when(pluginManager)
+                .registerEvent(any(), any(), any(), any(), any(), anyBoolean());
+        Server server = mock(Server.class);
+        when(server.getPluginManager()).thenReturn(pluginManager);
+        Plugin plugin = mock(Plugin.class);
+        when(plugin.getServer()).thenReturn(server);
+        when(plugin.getLogger()).thenReturn(logger);
+        bridge = new EventBridge(plugin);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testNullPlugin() {
+        new EventBridge(null);
+    }
+
+    @Test
+    public void testOneExecutorPerTypeAndPriority() throws Exception {
+        List<Event> other = new ArrayList<>();
+        bridge.subscribe(TestEvent.class, EventPriority.NORMAL, false, received::add);
+        bridge.subscribe(TestEvent.class, EventPriority.NORMAL, false, other::add);
+        assertEquals(1, registrations.size());
+        assertEquals(2, bridge.getSubscriberCount(TestEvent.class, EventPriority.NORMAL));
+
+        bridge.subscribe(TestEvent.class, EventPriority.HIGH, false, e -> {
+        });
+        bridge.subscribe(OtherEvent.class, EventPriority.NORMAL, false, e -> {
+        });
+        assertEquals(3, registrations.size());
+        assertEquals(3, bridge.getDispatcherCount());
+        assertEquals(1, bridge.getSubscriberCount(TestEvent.class, EventPriority.HIGH));
+        assertEquals(0, bridge.getSubscriberCount(TestEvent.class, EventPriority.LOW));
+
+        Registration registration = registrations.get(0);
+        assertEquals(TestEvent.class, registration.type);
+        assertEquals(EventPriority.NORMAL, registration.priority);
+        // cancelled events are filtered per subscriber, so bukkit has to pass them to the dispatcher
+        assertFalse(registration.ignoreCancelled);
+
+        Event event = new TestEvent();
+        registration.fire(event);
+        assertEquals(Collections.singletonList(event), received);
+        assertEquals(Collections.singletonList(event), other);
+    }
+
+    @Test
+    public void testEventsOfOtherTypesAreSkipped() throws Exception {
+        bridge.subscribe(TestEvent.class, EventPriority.NORMAL, false, received::add);
+        registrations.get(0).fire(new OtherEvent());
+        assertTrue(received.isEmpty());
+    }
+
+    @Test
+    public void testCancelledEventsAreFilteredPerSubscriber() throws Exception {
+        List<Event> ignoringCancelled = new ArrayList<>();
+        bridge.subscribe(TestEvent.class, EventPriority.NORMAL, false, received::add);
+        bridge.subscribe(TestEvent.class, EventPriority.NORMAL, true, ignoringCancelled::add);
+        assertEquals(1, registrations.size());
+
+        TestEvent cancelled = new TestEvent();
+        cancelled.setCancelled(true);
+        TestEvent event = new TestEvent();
+        registrations.get(0).fire(cancelled);
+        registrations.get(0).fire(event);
+        assertEquals(Arrays.asList(cancelled, event), received);
+        assertEquals(Collections.singletonList(event), ignoringCancelled);
+    }
+
+    @Test
+    public void testFailingSubscriberDoesNotStopDispatch() throws Exception {
+        bridge.subscribe(TestEvent.class, EventPriority.NORMAL, false, e -> {
+            throw new IllegalStateException();
+        });
+        bridge.subscribe(TestEvent.class, EventPriority.NORMAL, false, received::add);
+        Event event = new TestEvent();
+        registrations.get(0).fire(event);
+        assertEquals(Collections.singletonList(event), received);
+    }
+
+    @Test
+    public void testSubscriptionCloseUnsubscribes() throws Exception {
+        List<Event> other = new ArrayList<>();
+        EventBridge.Subscription subscription = bridge.subscribe(TestEvent.class, EventPriority.NORMAL, false,
+                received::add);
+        bridge.subscribe(TestEvent.class, EventPriority.NORMAL, false, other::add);
+        subscription.close();
+        subscription.close();
+        assertEquals(1, bridge.getSubscriberCount(TestEvent.class, EventPriority.NORMAL));
+
+        Event event = new TestEvent();
+        registrations.get(0).fire(event);
+        assertTrue(received.isEmpty());
+        assertEquals(Collections.singletonList(event), other);
+    }
+
+    @Test
+    public void testCloseDropsDispatchers() throws Exception {
+        bridge.subscribe(TestEvent.class, EventPriority.NORMAL, false, received::add);
+        bridge.subscribe(OtherEvent.class, EventPriority.NORMAL, false, received::add);
+        bridge.close();
+        assertEquals(0, bridge.getDispatcherCount());
+        assertEquals(0, bridge.getSubscriberCount(TestEvent.class, EventPriority.NORMAL));
+        registrations.get(0).fire(new TestEvent());
+        registrations.get(1).fire(new OtherEvent());
+        assertTrue(received.isEmpty());
+
+        // subscribing after a close registers a fresh dispatcher with bukkit
+        bridge.subscribe(TestEvent.class, EventPriority.NORMAL, false, received::add);
+        assertEquals(3, registrations.size());
+        Event event = new TestEvent();
+        registrations.get(2).fire(event);
+        assertEquals(Collections.singletonList(event), received);
+    }
+
+    @Test
+    public void testCloseStopsTickedSubscribers() throws Exception {
+        List<Event[]> batches = new ArrayList<>();
+        bridge.subscribeBatch(TestEvent.class, EventPriority.NORMAL, false, EventOptions.NONE, batches::add);
+        registrations.get(0).fire(new TestEvent());
+        bridge.close();
+        bridge.tick();
+        assertTrue(batches.isEmpty());
+    }
+
+    @Test
+    public void testBatchesAreDeliveredOnTick() throws Exception {
+        List<Event[]> batches = new ArrayList<>();
+        bridge.subscribeBatch(TestEvent.class, EventPriority.NORMAL, false, EventOptions.NONE, batches::add);
+        Event first = new TestEvent();
+        Event second = new TestEvent();
+        registrations.get(0).fire(first);
+        registrations.get(0).fire(second);
+        assertTrue(batches.isEmpty());
+
+        bridge.tick();
+        assertEquals(1, batches.size());
+        assertArrayEquals(new Event[]{first, second}, batches.get(0));
+        bridge.tick();
+        assertEquals(1, batches.size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBatchedOptionsRequireBatchSubscription() {
+        bridge.subscribe(TestEvent.class, EventPriority.NORMAL, false,
+                Collections.singletonMap("batch", true), received::add);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testNullHandler() {
+        bridge.subscribe(TestEvent.class, EventPriority.NORMAL, false, null);
+    }
+
+    private static final class Registration {
+
+        private final Class<? extends Event> type;
+        private final Listener listener;
+        private final EventPriority priority;
+        private final EventExecutor executor;
+        private final boolean ignoreCancelled;
+
+        private Registration(Class<? extends Event> type, Listener listener, EventPriority priority,
+                             EventExecutor executor, boolean ignoreCancelled) {
+            this.type = type;
+            this.listener = listener;
+            this.priority = priority;
+            this.executor = executor;
+            this.ignoreCancelled = ignoreCancelled;
+        }
+
+        private void fire(Event event) throws Exception {
+            executor.execute(listener, event);
+        }
+    }
+
+    private static class TestEvent extends Event implements Cancellable {
+
+        private boolean cancelled;
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        @Override
+        public void setCancelled(boolean cancelled) {
+            this.cancelled = cancelled;
+        }
+
+        @Override
+        public HandlerList getHandlers() {
+            return null;
+        }
+    }
+
+    private static class OtherEvent extends Event {
+
+        @Override
+        public HandlerList getHandlers() {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,265 @@
+package io.ibj.jsmc.bukkit;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.EntityType;
+import org.bukkit.entity.Player;
+import org.bukkit.event.Event;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.entity.EntityEvent;
+import org.bukkit.event.player.PlayerEvent;
+import org.bukkit.event.player.PlayerMoveEvent;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests {@link EventOptions}
+ *
+ * @author Joseph Hirschfeld [Ichbinjoe] (joe@ibj.io)
+ * @since 10/18/26
+ */
+public class EventOptionsTest {
+
+    @Test
+    public void testEmptySpecPassesEverything() {
+        Map<String, Object> spec = new HashMap<>();
+        spec.put("event", "PlayerMoveEvent");
+        spec.put("priority", "HIGH");
+        spec.put("ignoreCancelled", true);
+        spec.put("throttle", null);
+        assertSame(EventOptions.NONE, EventOptions.fromSpec(spec));
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testNullSpec() {
+        EventOptions.fromSpec(null);
+    }
+
+    @Test
+    public void testRateControlIsRead() {
+        Map<String, Object> spec = new HashMap<>();
+        spec.put("throttle", 250);
+        spec.put("per", "player");
+        EventOptions options = EventOptions.fromSpec(spec);
+        assertEquals(EventOptions.Rate.THROTTLE, options.getRate());
+        assertEquals(250, options.getAmount());
+        assertTrue(options.isPerSubject());
+        assertNull(options.getFilter());
+        assertFalse(options.isBatched());
+
+        options = EventOptions.fromSpec(Collections.singletonMap("sample", 4d));
+        assertEquals(EventOptions.Rate.SAMPLE, options.getRate());
+        assertEquals(4, options.getAmount());
+        assertFalse(options.isPerSubject());
+
+        options = EventOptions.fromSpec(Collections.singletonMap("debounce", 50L));
+        assertEquals(EventOptions.Rate.DEBOUNCE, options.getRate());
+        assertEquals(50, options.getAmount());
+    }
+
+    @Test
+    public void testBatchIsRead() {
+        EventOptions options = EventOptions.fromSpec(Collections.singletonMap("batch", true));
+        assertTrue(options.isBatched());
+        assertEquals(0, options.getBatchLimit());
+        assertEquals(EventOptions.Overflow.DROP_OLDEST, options.getOverflow());
+
+        Map<String, Object> spec = new HashMap<>();
+        spec.put("batch", 16);
+        spec.put("overflow", "flush");
+        options = EventOptions.fromSpec(spec);
+        assertTrue(options.isBatched());
+        assertEquals(16, options.getBatchLimit());
+        assertEquals(EventOptions.Overflow.FLUSH, options.getOverflow());
+
+        spec.put("overflow", "dropNewest");
+        assertEquals(EventOptions.Overflow.DROP_NEWEST, EventOptions.fromSpec(spec).getOverflow());
+        assertSame(EventOptions.NONE, EventOptions.fromSpec(Collections.singletonMap("batch", false)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownKey() {
+        EventOptions.fromSpec(Collections.singletonMap("wrold", "world"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMoreThanOneRateControl() {
+        Map<String, Object> spec = new HashMap<>();
+        spec.put("sample", 2);
+        spec.put("throttle", 100);
+        EventOptions.fromSpec(spec);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRateControlHasToBeNumber() {
+        EventOptions.fromSpec(Collections.singletonMap("throttle", "100ms"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRateControlHasToBePositive() {
+        EventOptions.fromSpec(Collections.singletonMap("sample", 0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidPer() {
+        Map<String, Object> spec = new HashMap<>();
+        spec.put("throttle", 100);
+        spec.put("per", "world");
+        EventOptions.fromSpec(spec);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidBatchLimit() {
+        EventOptions.fromSpec(Collections.singletonMap("batch", 0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidOverflow() {
+        Map<String, Object> spec = new HashMap<>();
+        spec.put("batch", true);
+        spec.put("overflow", "block");
+        EventOptions.fromSpec(spec);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeBatchLimit() {
+        new EventOptions(null, EventOptions.Rate.NONE, 0, false, true, -1, EventOptions.Overflow.DROP_OLDEST);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testNullRate() {
+        new EventOptions(null, null, 0, false);
+    }
+
+    @Test
+    public void testWorldFilter() {
+        Player inWorld = player(world("world"));
+        Player inNether = player(world("nether"));
+        Player inEnd = player(world("end"));
+
+        Predicate<Event> filter = EventOptions.fromSpec(Collections.singletonMap("world", "world")).getFilter();
+        assertTrue(filter.test(new TestPlayerEvent(inWorld)));
+        assertFalse(filter.test(new TestPlayerEvent(inNether)));
+        assertFalse(filter.test(new TestEvent()));
+
+        // script arrays reach java as maps of index to element
+        Map<String, Object> worlds = new HashMap<>();
+        worlds.put("0", "world");
+        worlds.put("1", "nether");
+        filter = EventOptions.fromSpec(Collections.singletonMap("world", worlds)).getFilter();
+        assertTrue(filter.test(new TestPlayerEvent(inWorld)));
+        assertTrue(filter.test(new TestPlayerEvent(inNether)));
+        assertFalse(filter.test(new TestPlayerEvent(inEnd)));
+    }
+
+    @Test
+    public void testEntityTypeFilter() {
+        Entity zombie = mock(Entity.class);
+        when(zombie.getType()).thenReturn(EntityType.ZOMBIE);
+        Player player = player(world("world"));
+
+        Predicate<Event> filter = EventOptions.fromSpec(Collections.singletonMap("entityType", "zombie")).getFilter();
+        assertTrue(filter.test(new TestEntityEvent(zombie)));
+        assertFalse(filter.test(new TestPlayerEvent(player)));
+        assertFalse(filter.test(new TestEvent()));
+
+        filter = EventOptions.fromSpec(Collections.singletonMap("entityType",
+                Arrays.asList(EntityType.PLAYER, "ZOMBIE"))).getFilter();
+        assertTrue(filter.test(new TestEntityEvent(zombie)));
+        assertTrue(filter.test(new TestPlayerEvent(player)));
+    }
+
+    @Test
+    public void testBlockChangedFilter() {
+        World world = world("world");
+        World nether = world("nether");
+        Player player = player(world);
+        Location from = new Location(world, 10.2, 64, 10.2);
+
+        Predicate<Event> filter = EventOptions.fromSpec(Collections.singletonMap("blockChanged", true)).getFilter();
+        assertFalse(filter.test(new PlayerMoveEvent(player, from, new Location(world, 10.8, 64.5, 10.9))));
+        assertTrue(filter.test(new PlayerMoveEvent(player, from, new Location(world, 11.1, 64, 10.2))));
+        assertTrue(filter.test(new PlayerMoveEvent(player, from, new Location(world, 10.2, 65, 10.2))));
+        assertTrue(filter.test(new PlayerMoveEvent(player, from, new Location(nether, 10.2, 64, 10.2))));
+        assertTrue(filter.test(new PlayerMoveEvent(player, from, null)));
+        assertTrue(filter.test(new TestPlayerEvent(player)));
+
+        assertSame(EventOptions.NONE, EventOptions.fromSpec(Collections.singletonMap("blockChanged", false)));
+    }
+
+    @Test
+    public void testFiltersAreCombined() {
+        Entity zombie = mock(Entity.class);
+        when(zombie.getType()).thenReturn(EntityType.ZOMBIE);
+        when(zombie.getWorld()).thenReturn(world("nether"));
+
+        Map<String, Object> spec = new HashMap<>();
+        spec.put("world", "world");
+        spec.put("entityType", "zombie");
+        assertFalse(EventOptions.fromSpec(spec).getFilter().test(new TestEntityEvent(zombie)));
+        spec.put("world", "nether");
+        assertTrue(EventOptions.fromSpec(spec).getFilter().test(new TestEntityEvent(zombie)));
+    }
+
+    @Test
+    public void testSubjectOf() {
+        Player player = player(world("world"));
+        Entity entity = mock(Entity.class);
+        assertSame(player, EventOptions.subjectOf(new TestPlayerEvent(player)));
+        assertSame(entity, EventOptions.subjectOf(new TestEntityEvent(entity)));
+        assertNull(EventOptions.subjectOf(new TestEvent()));
+    }
+
+    private static World world(String name) {
+        World world = mock(World.class);
+        when(world.getName()).thenReturn(name);
+        return world;
+    }
+
+    private static Player player(World world) {
+        Player player = mock(Player.class);
+        when(player.getWorld()).thenReturn(world);
+        return player;
+    }
+
+    private static class TestEvent extends Event {
+
+        @Override
+        public HandlerList getHandlers() {
+            return null;
+        }
+    }
+
+    private static class TestPlayerEvent extends PlayerEvent {
+
+        private TestPlayerEvent(Player who) {
+            super(who);
+        }
+
+        @Override
+        public HandlerList getHandlers() {
+            return null;
+        }
+    }
+
+    private static class TestEntityEvent extends EntityEvent {
+
+        private TestEntityEvent(Entity what) {
+            super(what);
+        }
+
+        @Override
+        public HandlerList getHandlers() {
+            return null;
+        }
+    }
+}
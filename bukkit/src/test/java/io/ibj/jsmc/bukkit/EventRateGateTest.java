@@ -0,0 +1,192 @@
+package io.ibj.jsmc.bukkit;
+
+import org.bukkit.entity.Player;
+import org.bukkit.event.Event;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.player.PlayerEvent;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests {@link EventRateGate}
+ *
+ * @author Joseph Hirschfeld [Ichbinjoe] (joe@ibj.io)
+ * @since 10/18/26
+ */
+public class EventRateGateTest {
+
+    private final List<Event> passed = new ArrayList<>();
+
+    @Test
+    public void testNonePassesEverything() {
+        EventRateGate gate = new EventRateGate(EventOptions.NONE);
+        Event first = event(null);
+        Event second = event(null);
+        gate.offer(first, 0, passed::add);
+        gate.offer(second, 0, passed::add);
+        assertEquals(Arrays.asList(first, second), passed);
+    }
+
+    @Test
+    public void testSamplePassesEveryNthEvent() {
+        EventRateGate gate = new EventRateGate(new EventOptions(null, EventOptions.Rate.SAMPLE, 3, false));
+        List<Event> events = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            Event event = event(null);
+            events.add(event);
+            gate.offer(event, millis(i), passed::add);
+        }
+        assertEquals(Arrays.asList(events.get(0), events.get(3), events.get(6)), passed);
+    }
+
+    @Test
+    public void testThrottlePassesOneEventPerInterval() {
+        EventRateGate gate = new EventRateGate(new EventOptions(null, EventOptions.Rate.THROTTLE, 100, false));
+        Event first = event(null);
+        Event second = event(null);
+        gate.offer(first, millis(1000), passed::add);
+        gate.offer(event(null), millis(1050), passed::add);
+        gate.offer(event(null), millis(1099), passed::add);
+        gate.offer(second, millis(1100), passed::add);
+        gate.offer(event(null), millis(1150), passed::add);
+        assertEquals(Arrays.asList(first, second), passed);
+    }
+
+    @Test
+    public void testThrottlePassesOneOfConcurrentEvents() throws Exception {
+        EventRateGate gate = new EventRateGate(new EventOptions(null, EventOptions.Rate.THROTTLE, 100, false));
+        AtomicInteger count = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] threads = new Thread[8];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int j = 0; j < 1000; j++)
+                    gate.offer(event(null), millis(1000), e -> count.incrementAndGet());
+            });
+            threads[i].start();
+        }
+        start.countDown();
+        for (Thread thread : threads)
+            thread.join();
+        assertEquals(1, count.get());
+    }
+
+    @Test
+    public void testDebouncePassesLastEventOnTick() {
+        EventRateGate gate = new EventRateGate(new EventOptions(null, EventOptions.Rate.DEBOUNCE, 100, false));
+        Event last = event(null);
+        gate.offer(event(null), millis(1000), passed::add);
+        gate.offer(last, millis(1050), passed::add);
+        assertTrue(passed.isEmpty());
+
+        gate.tick(millis(1100), passed::add);
+        assertTrue(passed.isEmpty());
+        gate.tick(millis(1150), passed::add);
+        assertEquals(Collections.singletonList(last), passed);
+        gate.tick(millis(1300), passed::add);
+        assertEquals(Collections.singletonList(last), passed);
+    }
+
+    @Test
+    public void testPerSubjectKeepsStatePerPlayer() {
+        EventRateGate gate = new EventRateGate(new EventOptions(null, EventOptions.Rate.THROTTLE, 100, true));
+        Player alice = player();
+        Player bob = player();
+        Event fromAlice = event(alice);
+        Event fromBob = event(bob);
+        Event global = event(null);
+        gate.offer(fromAlice, millis(1000), passed::add);
+        gate.offer(event(alice), millis(1010), passed::add);
+        gate.offer(fromBob, millis(1010), passed::add);
+        gate.offer(global, millis(1010), passed::add);
+        gate.offer(event(null), millis(1020), passed::add);
+        assertEquals(Arrays.asList(fromAlice, fromBob, global), passed);
+    }
+
+    @Test
+    public void testSubjectsShareStateWhenNotPerSubject() {
+        EventRateGate gate = new EventRateGate(new EventOptions(null, EventOptions.Rate.THROTTLE, 100, false));
+        Event fromAlice = event(player());
+        gate.offer(fromAlice, millis(1000), passed::add);
+        gate.offer(event(player()), millis(1010), passed::add);
+        assertEquals(Collections.singletonList(fromAlice), passed);
+    }
+
+    @Test
+    public void testIdleStateIsEvicted() {
+        EventRateGate gate = new EventRateGate(new EventOptions(null, EventOptions.Rate.SAMPLE, 3, false));
+        Event first = event(null);
+        Event afterIdle = event(null);
+        gate.offer(first, 0, passed::add);
+        gate.tick(TimeUnit.SECONDS.toNanos(30), passed::add);
+        gate.offer(event(null), TimeUnit.SECONDS.toNanos(30), passed::add);
+        assertEquals(Collections.singletonList(first), passed);
+
+        // the sampling phase starts over once the state went idle
+        gate.tick(TimeUnit.SECONDS.toNanos(90), passed::add);
+        gate.offer(afterIdle, TimeUnit.SECONDS.toNanos(90), passed::add);
+        assertEquals(Arrays.asList(first, afterIdle), passed);
+    }
+
+    @Test
+    public void testPendingStateIsNotEvicted() {
+        EventRateGate gate = new EventRateGate(new EventOptions(null, EventOptions.Rate.DEBOUNCE,
+                TimeUnit.MINUTES.toMillis(2), false));
+        Event pending = event(null);
+        gate.offer(pending, 0, passed::add);
+        gate.tick(TimeUnit.MINUTES.toNanos(1), passed::add);
+        assertTrue(passed.isEmpty());
+        gate.tick(TimeUnit.MINUTES.toNanos(2), passed::add);
+        assertEquals(Collections.singletonList(pending), passed);
+    }
+
+    private static long millis(long millis) {
+        return TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+
+    private static Player player() {
+        Player player = mock(Player.class);
+        when(player.getUniqueId()).thenReturn(UUID.randomUUID());
+        return player;
+    }
+
+    private static Event event(Player player) {
+        return player == null ? new TestEvent() : new TestPlayerEvent(player);
+    }
+
+    private static class TestEvent extends Event {
+
+        @Override
+        public HandlerList getHandlers() {
+            return null;
+        }
+    }
+
+    private static class TestPlayerEvent extends PlayerEvent {
+
+        private TestPlayerEvent(Player who) {
+            super(who);
+        }
+
+        @Override
+        public HandlerList getHandlers() {
+            return null;
+        }
+    }
+}
@@ -5,14 +5,18 @@ import io.ibj.jsmc.api.exceptions.*;
 
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.*;
 
 /**
  * Simple dependency manager which takes a resolver to draw its modules from
+ * <p>
+ * Modules may be loaded and unloaded from multiple threads. If the same module is loaded by several threads at once,
+ * exactly one of them succeeds and the others fail with a {@link ModuleAlreadyLoadedException}.
  *
  * @author Joseph Hirschfeld (Ichbinjoe) [joe@ibj.io]
  * @since 9/13/16
  */
-public class BasicDependencyManager<Scope> implements DependencyManager, DependencyConsumer {
+public class BasicDependencyManager<Scope> implements DependencyManager, StagedDependencyConsumer {
 
    private static class DEntry implements DependencyManager.Entry {
 
@@ -58,6 +62,8 @@ public class BasicDependencyManager<Scope> implements DependencyManager, Depende
     private final DependencyResolver<Scope> dependencyResolver;
     private final Scope resolutionScope;
     private final Map<Dependency, DEntry> loadedModules;
+    private final Set<String> pendingReloads;
+    private final Executor resolutionExecutor;
 
     /**
      * Constructs a new dependency manager with resolver and scope
@@ -65,12 +71,27 @@ public class BasicDependencyManager<Scope> implements DependencyManager, Depende
      * @param resolutionScope scope of module resolution
      */
     public BasicDependencyManager(DependencyResolver<Scope> dependencyResolver, Scope resolutionScope) {
+        this(dependencyResolver, resolutionScope, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructs a new dependency manager with resolver and scope, which resolves modules passed to
+     * {@link BasicDependencyManager#loadAll(Collection)} on the passed executor
+     * @param dependencyResolver internal dependency resolver
+     * @param resolutionScope scope of module resolution
+     * @param resolutionExecutor executor modules are resolved (and thus compiled) on when loaded together
+     */
+    public BasicDependencyManager(DependencyResolver<Scope> dependencyResolver, Scope resolutionScope, Executor resolutionExecutor) {
         if (dependencyResolver == null)
             throw new NullPointerException("dependencyResolver cannot be null");
+        if (resolutionExecutor == null)
+            throw new NullPointerException("resolutionExecutor cannot be null");
 
+        this.resolutionExecutor = resolutionExecutor;
         this.dependencyResolver = dependencyResolver;
         this.resolutionScope = resolutionScope;
-        this.loadedModules = new HashMap<>();
+        this.loadedModules = new ConcurrentHashMap<>();
+        this.pendingReloads = Collections.synchronizedSet(new LinkedHashSet<>());
     }
 
     /**
@@ -87,22 +108,94 @@ public class BasicDependencyManager<Scope> implements DependencyManager, Depende
     @Override
     public Entry load(String identifier) throws ModuleAlreadyLoadedException, ModuleCompilationException, ModuleExecutionException, ModuleNotFoundException, IOException {
         identifier = identifier.toLowerCase();
-        Optional<Dependency> d = dependencyResolver.resolve(resolutionScope, identifier);
+        return load(identifier, dependencyResolver.resolve(resolutionScope, identifier));
+    }
+
+    private Entry load(String identifier, Optional<Dependency> d) throws ModuleAlreadyLoadedException, ModuleExecutionException, ModuleNotFoundException {
         if (d.isPresent()) {
             Dependency dependency = d.get();
             DEntry oldInfo = loadedModules.get(dependency);
             if (oldInfo != null)
                 throw new ModuleAlreadyLoadedException(oldInfo, "Module previously loaded!");
 
+            // depend hands out one lifecycle per consumer, so a thread losing the race below shares the winner's lifecycle
             DependencyLifecycle lifecycle = dependency.depend(this);
             DEntry newInfo = new DEntry(dependency, lifecycle, identifier);
-            loadedModules.put(dependency, newInfo);
+            oldInfo = loadedModules.putIfAbsent(dependency, newInfo);
+            if (oldInfo != null)
+                throw new ModuleAlreadyLoadedException(oldInfo, "Module previously loaded!");
             return newInfo;
         } else {
             throw new ModuleNotFoundException(identifier);
         }
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Every module is resolved on the resolution executor at the same time, while the calling thread executes each module
+     * as soon as it and the modules before it are done. The method returns once every module was loaded or failed to.
+     *
+     * @see BasicDependencyManager#loadAll(Collection, Executor)
+     */
+    @Override
+    public Map<String, CompletableFuture<Entry>> loadAll(Collection<String> identifiers) {
+        BlockingQueue<Runnable> callingThreadTasks = new LinkedBlockingQueue<>();
+        Map<String, CompletableFuture<Entry>> entries = loadAll(identifiers, callingThreadTasks::add);
+
+        CompletableFuture<Void> done = CompletableFuture.allOf(entries.values().toArray(new CompletableFuture<?>[0]));
+        done.whenComplete((v, t) -> callingThreadTasks.add(() -> {})); // wakes the calling thread
+        try {
+            while (!done.isDone())
+                callingThreadTasks.take().run();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return entries;
+    }
+
+    /**
+     * Loads several modules without waiting for them. Every module is resolved on the resolution executor at the same
+     * time, and each module is executed on the evaluation executor as soon as it and the modules before it are done, so
+     * modules are still executed in the order passed. A module failing to load does not keep the others from loading.
+     *
+     * @param identifiers identifiers of the modules to load
+     * @param evaluationExecutor executor modules are executed on, usually the thread owning the dependency graph
+     * @return Futures of the loaded modules' entries keyed by module identifier, in the order passed. A future is
+     * completed exceptionally with the exception {@link BasicDependencyManager#load(String)} would have thrown
+     */
+    public Map<String, CompletableFuture<Entry>> loadAll(Collection<String> identifiers, Executor evaluationExecutor) {
+        if (evaluationExecutor == null)
+            throw new NullPointerException("evaluationExecutor cannot be null");
+
+        Map<String, CompletableFuture<Entry>> entries = new LinkedHashMap<>();
+        CompletableFuture<?> previousEvaluation = CompletableFuture.completedFuture(null);
+        for (String passedIdentifier : identifiers) {
+            String identifier = passedIdentifier.toLowerCase();
+            CompletableFuture<Optional<Dependency>> resolution = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return dependencyResolver.resolve(resolutionScope, identifier);
+                } catch (ModuleCompilationException | IOException e) {
+                    throw new CompletionException(e);
+                }
+            }, resolutionExecutor);
+
+            CompletableFuture<Entry> entry = new CompletableFuture<>();
+            previousEvaluation = CompletableFuture.allOf(previousEvaluation, resolution).handleAsync((v, t) -> {
+                try {
+                    entry.complete(load(identifier, resolution.join()));
+                } catch (CompletionException e) {
+                    entry.completeExceptionally(e.getCause());
+                } catch (Throwable e) { // the entry must complete, or a blocking loadAll would never return
+                    entry.completeExceptionally(e);
+                }
+                return null;
+            }, evaluationExecutor);
+            entries.put(passedIdentifier, entry);
+        }
+        return entries;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -116,6 +209,9 @@ public class BasicDependencyManager<Scope> implements DependencyManager, Depende
         } catch (Exception e) {
             throw new ModuleExecutionException(e, "Exception occurred while closing module lifecycle");
         }
+        LifecycleTracker tracker = LifecycleTracker.getInstalled();
+        if (tracker != null)
+            tracker.checkReleased(presentEntry.getReference(), presentEntry.getIdentifier(), loadedModules.keySet());
     }
 
     /**
@@ -130,18 +226,90 @@ public class BasicDependencyManager<Scope> implements DependencyManager, Depende
 
     /**
      * {@inheritDoc}
+     * <p>
+     * Only modules which were reevaluated, or which no longer resolve to the same dependency, are closed and loaded
+     * again. The manager never marks itself as evaluated - it is the root of every module it loaded, so it needs to
+     * reload whatever was torn down since the last time it was reached.
      */
     @Override
-    public void reevaluate(Collection<DependencyConsumer> previouslyEvaluatedConsumers) throws ModuleExecutionException, IOException, ModuleCompilationException {
-        List<DEntry> entries = new ArrayList<>(loadedModules.values());
-        loadedModules.clear();
-        for (DEntry i : entries) {
+    public void reevaluate(Collection<DependencyConsumer> previouslyEvaluatedConsumers) throws ModuleExecutionException, IOException, ModuleCompilationException, ModuleNotFoundException {
+        ModuleExecutionException closeException = null;
+        try {
+            teardown(previouslyEvaluatedConsumers);
+        } catch (ModuleExecutionException e) {
+            closeException = e;
+        }
+        rebuild(previouslyEvaluatedConsumers);
+        if (closeException != null)
+            throw closeException;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Closes every module which was reevaluated, or which no longer resolves to the same dependency.
+     */
+    @Override
+    public void teardown(Collection<DependencyConsumer> reevaluatedConsumers) throws ModuleExecutionException {
+        List<DEntry> staleEntries = new ArrayList<>();
+        for (DEntry i : loadedModules.values())
+            if (reevaluatedConsumers.contains(i.getReference()) || !isCurrent(i))
+                staleEntries.add(i);
+
+        ModuleExecutionException closeException = null;
+        for (DEntry i : staleEntries) {
+            if (!loadedModules.remove(i.getReference(), i))
+                continue; // unloaded in the meantime
+            pendingReloads.add(i.getIdentifier());
             try {
-                load(i.getIdentifier());
-            } catch (ModuleAlreadyLoadedException | ModuleNotFoundException e) {
+                i.getLifecycle().close();
+            } catch (Exception e) {
+                if (closeException == null)
+                    closeException = new ModuleExecutionException(e, "Exception occurred while closing module lifecycle");
+            }
+        }
+        if (closeException != null)
+            throw closeException;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Loads every module closed by the last teardown again.
+     */
+    @Override
+    public void rebuild(Collection<DependencyConsumer> reevaluatedConsumers) throws ModuleExecutionException, IOException, ModuleCompilationException, ModuleNotFoundException {
+        List<String> identifiers;
+        synchronized (pendingReloads) {
+            identifiers = new ArrayList<>(pendingReloads);
+            pendingReloads.clear();
+        }
+
+        ModuleNotFoundException notFoundException = null;
+        for (String identifier : identifiers) {
+            try {
+                load(identifier);
+            } catch (ModuleNotFoundException e) {
+                // the module was removed, which should not keep the rest from loading
+                if (notFoundException == null)
+                    notFoundException = e;
+            } catch (ModuleAlreadyLoadedException e) {
                 // todo - figure out the best way to handle this condition of exceptions which should rarely happen
                 throw new RuntimeException(e);
             }
         }
+
+        if (notFoundException != null)
+            throw notFoundException;
+    }
+
+    private boolean isCurrent(DEntry entry) {
+        try {
+            Optional<Dependency> d = dependencyResolver.resolve(resolutionScope, entry.getIdentifier());
+            return d.isPresent() && d.get() == entry.getReference();
+        } catch (ModuleCompilationException | IOException e) {
+            // reloading will report the failure
+            return false;
+        }
     }
 }
@@ -0,0 +1,182 @@
+package io.ibj.jsmc.core;
+
+import jdk.nashorn.api.scripting.AbstractJSObject;
+import jdk.nashorn.api.scripting.ScriptObjectMirror;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Script object whose properties are Java types, which are only resolved once a property is first read. Types are
+ * declared up front by name, but declaring a type is only a map entry, so a namespace declaring hundreds of types costs
+ * next to nothing until its types are actually used.
+ * <p>
+ * Types are resolved through a resolver function, usually a script function wrapping <code>Java.type</code>. Types which
+ * fail to resolve are not attempted again, and are dropped from the namespace, so they are neither enumerated nor
+ * reported as members. Reading a missing type, or a property which was never declared, returns the missing value of the
+ * namespace, which scripts pass as <code>undefined</code> so the namespace reads like a plain script object.
+ *
+ * @author Joseph Hirschfeld (Ichbinjoe) [joe@ibj.io]
+ * @since 10/18/26
+ */
+public class LazyTypeNamespace extends AbstractJSObject {
+
+    private static final Object MISSING = new Object();
+
+    private final Function<String, Object> resolver;
+    private final Object missing;
+    private final Map<String, String> classNames;
+    private final Map<String, Object> members = new ConcurrentHashMap<>();
+    // declaration order, so enumerating the namespace is stable
+    private final Set<String> names;
+
+    /**
+     * Creates a new LazyTypeNamespace, reading missing types as null
+     *
+     * @param resolver   function resolving a fully qualified class name into the object to expose it as, throwing if
+     *                   the class does not exist
+     * @param classNames fully qualified class names of the declared types, by the property to expose them as
+     * @see #LazyTypeNamespace(Function, Map, Object)
+     */
+    public LazyTypeNamespace(Function<String, Object> resolver, Map<String, String> classNames) {
+        this(resolver, classNames, null);
+    }
+
+    /**
+     * Creates a new LazyTypeNamespace. Declarations are passed in at construction, as every property of the namespace
+     * is a type, leaving no room for methods on the script side.
+     *
+     * @param resolver   function resolving a fully qualified class name into the object to expose it as, throwing or
+     *                   returning null or undefined if the class does not exist
+     * @param classNames fully qualified class names of the declared types, by the property to expose them as
+     * @param missing    value to read missing types and undeclared properties as, usually script undefined
+     */
+    public LazyTypeNamespace(Function<String, Object> resolver, Map<String, String> classNames, Object missing) {
+        if (resolver == null)
+            throw new NullPointerException("resolver cannot be null");
+        if (classNames == null)
+            throw new NullPointerException("classNames cannot be null");
+        this.resolver = resolver;
+        this.missing = missing;
+        this.classNames = new ConcurrentHashMap<>(classNames);
+        this.names = new LinkedHashSet<>(classNames.keySet());
+    }
+
+    /**
+     * Returns the amount of members which were resolved, attempted to resolve, or set so far
+     *
+     * @return resolved members
+     */
+    public int getResolvedCount() {
+        return members.size();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object getMember(String name) {
+        Object member = resolve(name);
+        return member == MISSING ? missing : member;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean hasMember(String name) {
+        return resolve(name) != MISSING;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void setMember(String name, Object value) {
+        if (value == null || ScriptObjectMirror.isUndefined(value)) {
+            removeMember(name);
+            return;
+        }
+        members.put(name, value);
+        synchronized (names) {
+            names.add(name);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void removeMember(String name) {
+        members.put(name, MISSING);
+        synchronized (names) {
+            names.remove(name);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Enumerating the namespace resolves every declared type.
+     */
+    @Override
+    public Set<String> keySet() {
+        return resolveAll().keySet();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Enumerating the namespace resolves every declared type.
+     */
+    @Override
+    public Collection<Object> values() {
+        return new ArrayList<>(resolveAll().values());
+    }
+
+    private Map<String, Object> resolveAll() {
+        Map<String, Object> resolved = new LinkedHashMap<>();
+        ArrayList<String> declared;
+        synchronized (names) {
+            declared = new ArrayList<>(names);
+        }
+        for (String name : declared) {
+            Object member = resolve(name);
+            if (member != MISSING)
+                resolved.put(name, member);
+        }
+        return resolved;
+    }
+
+    private Object resolve(String name) {
+        Object member = members.get(name);
+        if (member != null)
+            return member;
+        String className = classNames.get(name);
+        if (className == null)
+            return MISSING;
+        try {
+            member = resolver.apply(className);
+        } catch (Exception e) {
+            // Java.type throws ClassNotFoundException without declaring it
+            member = null;
+        }
+        if (member == null || ScriptObjectMirror.isUndefined(member))
+            member = MISSING;
+        Object raced = members.putIfAbsent(name, member);
+        if (raced != null)
+            return raced;
+        if (member == MISSING) {
+            synchronized (names) {
+                names.remove(name);
+            }
+        }
+        return member;
+    }
+}
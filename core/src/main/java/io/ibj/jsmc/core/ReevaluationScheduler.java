@@ -0,0 +1,212 @@
+package io.ibj.jsmc.core;
+
+import io.ibj.jsmc.api.Dependency;
+import io.ibj.jsmc.api.DependencyConsumer;
+import io.ibj.jsmc.api.StagedDependencyConsumer;
+import io.ibj.jsmc.api.exceptions.ModuleCompilationException;
+import io.ibj.jsmc.api.exceptions.ModuleExecutionException;
+import io.ibj.jsmc.api.exceptions.ModuleNotFoundException;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Reevaluates every consumer affected by a set of changed dependencies, once each and in dependency order.
+ * <p>
+ * A reevaluation first collects every consumer which transitively depends on a changed dependency. The collected
+ * consumers are then torn down with dependents before their dependencies, and rebuilt with dependencies before their
+ * dependents. Consumers which are not {@link StagedDependencyConsumer}s are reevaluated through
+ * {@link DependencyConsumer#reevaluate(Collection)} during the rebuild, with every collected consumer already marked
+ * as evaluated so they do not propagate into the rest of the reevaluation.
+ * <p>
+ * Changes reported between {@link #beginBatch()} and the matching {@link #endBatch()} are merged, and reevaluated in a
+ * single pass when the outermost batch ends.
+ * <p>
+ * Reevaluation passes never overlap, as a pass holds the scheduler's lock for its duration. Batches are shared by
+ * every thread using the scheduler.
+ * <p>
+ * Resolvers sharing a scheduler also report through it whenever an identifier may resolve differently than before, so
+ * that anything caching resolutions on top of them can drop its cache.
+ *
+ * @author Joseph Hirschfeld (Ichbinjoe) [joe@ibj.io]
+ * @since 10/18/26
+ */
+public class ReevaluationScheduler {
+
+    private final Set<Dependency> pendingChanges = new LinkedHashSet<>();
+    private int batchDepth = 0;
+    private final List<Runnable> resolutionListeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Adds a listener which is run every time resolutions are reported as changed
+     *
+     * @param listener listener to run
+     * @see #resolutionsChanged()
+     */
+    public void addResolutionListener(Runnable listener) {
+        if (listener == null)
+            throw new NullPointerException("listener cannot be null");
+        resolutionListeners.add(listener);
+    }
+
+    /**
+     * Reports that identifiers may now resolve to different dependencies than before, such as after a resolver evicted
+     * cached dependencies or a system dependency was replaced. Every resolution listener is run on the calling thread
+     */
+    public void resolutionsChanged() {
+        for (Runnable listener : resolutionListeners)
+            listener.run();
+    }
+
+    /**
+     * Starts a batch. Changes are held until the matching {@link #endBatch()} call. Batches may be nested
+     */
+    public synchronized void beginBatch() {
+        batchDepth++;
+    }
+
+    /**
+     * Ends a batch. If this was the outermost batch, every change reported during it is reevaluated at once
+     *
+     * @throws IllegalStateException      if no batch was started
+     * @throws ModuleExecutionException   if a module fails to execute properly
+     * @throws IOException                if an IO related exception is thrown
+     * @throws ModuleCompilationException if a module is recompiled and throws an exception
+     * @throws ModuleNotFoundException    if during reevaluation, a module dependency is lost
+     */
+    public synchronized void endBatch() throws ModuleExecutionException, IOException, ModuleCompilationException, ModuleNotFoundException {
+        if (batchDepth == 0)
+            throw new IllegalStateException("endBatch called without a matching beginBatch");
+        if (--batchDepth > 0 || pendingChanges.isEmpty())
+            return;
+        List<Dependency> changes = new ArrayList<>(pendingChanges);
+        pendingChanges.clear();
+        run(changes);
+    }
+
+    /**
+     * Returns whether or not changes are currently being held for a batch
+     *
+     * @return whether a batch is open
+     */
+    public synchronized boolean isBatching() {
+        return batchDepth > 0;
+    }
+
+    /**
+     * Reevaluates every consumer of the changed dependencies. If a batch is open, the changes are instead held until the
+     * batch ends
+     *
+     * @param changedDependencies dependencies which changed
+     * @throws ModuleExecutionException   if a module fails to execute properly
+     * @throws IOException                if an IO related exception is thrown
+     * @throws ModuleCompilationException if a module is recompiled and throws an exception
+     * @throws ModuleNotFoundException    if during reevaluation, a module dependency is lost
+     */
+    public synchronized void reevaluate(Collection<? extends Dependency> changedDependencies) throws ModuleExecutionException, IOException, ModuleCompilationException, ModuleNotFoundException {
+        if (changedDependencies == null)
+            throw new NullPointerException("changedDependencies cannot be null");
+        if (batchDepth > 0) {
+            pendingChanges.addAll(changedDependencies);
+            return;
+        }
+        run(changedDependencies);
+    }
+
+    private void run(Collection<? extends Dependency> changedDependencies) throws ModuleExecutionException, IOException, ModuleCompilationException, ModuleNotFoundException {
+        List<DependencyConsumer> order = order(collect(changedDependencies));
+        if (order.isEmpty())
+            return;
+
+        Collection<DependencyConsumer> reevaluated = Collections.unmodifiableSet(new HashSet<>(order));
+        Exception firstException = null;
+
+        for (int i = order.size() - 1; i >= 0; i--) {
+            DependencyConsumer consumer = order.get(i);
+            if (!(consumer instanceof StagedDependencyConsumer))
+                continue;
+            try {
+                ((StagedDependencyConsumer) consumer).teardown(reevaluated);
+            } catch (ModuleExecutionException e) {
+                if (firstException == null)
+                    firstException = e;
+            }
+        }
+
+        // unstaged consumers only reevaluate what the collection step could not see
+        Collection<DependencyConsumer> legacySession = new HashSet<>();
+        for (DependencyConsumer consumer : order)
+            if (consumer instanceof StagedDependencyConsumer)
+                legacySession.add(consumer);
+
+        for (DependencyConsumer consumer : order) {
+            try {
+                if (consumer instanceof StagedDependencyConsumer)
+                    ((StagedDependencyConsumer) consumer).rebuild(reevaluated);
+                else
+                    consumer.reevaluate(legacySession);
+            } catch (ModuleExecutionException | IOException | ModuleCompilationException | ModuleNotFoundException e) {
+                if (firstException == null)
+                    firstException = e;
+            }
+        }
+
+        if (firstException instanceof ModuleExecutionException)
+            throw (ModuleExecutionException) firstException;
+        if (firstException instanceof IOException)
+            throw (IOException) firstException;
+        if (firstException instanceof ModuleCompilationException)
+            throw (ModuleCompilationException) firstException;
+        if (firstException instanceof ModuleNotFoundException)
+            throw (ModuleNotFoundException) firstException;
+    }
+
+    /*
+    Collects every consumer which transitively depends on one of the changed dependencies
+     */
+    static Set<DependencyConsumer> collect(Collection<? extends Dependency> changedDependencies) {
+        Set<DependencyConsumer> affected = new LinkedHashSet<>();
+        Deque<Dependency> toVisit = new ArrayDeque<>(changedDependencies);
+        while (!toVisit.isEmpty()) {
+            for (DependencyConsumer consumer : toVisit.pop().getDependents())
+                if (affected.add(consumer) && consumer instanceof Dependency)
+                    toVisit.push((Dependency) consumer);
+        }
+        return affected;
+    }
+
+    /*
+    Orders the consumers so that each comes after every other consumer it depends on. Consumers caught in a dependency
+    cycle are appended in the order they were collected
+     */
+    static List<DependencyConsumer> order(Set<DependencyConsumer> consumers) {
+        Map<DependencyConsumer, Integer> unorderedDependencies = new LinkedHashMap<>();
+        for (DependencyConsumer consumer : consumers)
+            unorderedDependencies.put(consumer, 0);
+        for (DependencyConsumer consumer : consumers)
+            if (consumer instanceof Dependency)
+                for (DependencyConsumer dependent : ((Dependency) consumer).getDependents())
+                    unorderedDependencies.computeIfPresent(dependent, (k, v) -> v + 1);
+
+        List<DependencyConsumer> order = new ArrayList<>(consumers.size());
+        Deque<DependencyConsumer> ready = new ArrayDeque<>();
+        unorderedDependencies.forEach((consumer, count) -> {
+            if (count == 0)
+                ready.add(consumer);
+        });
+        while (!ready.isEmpty()) {
+            DependencyConsumer consumer = ready.poll();
+            order.add(consumer);
+            unorderedDependencies.remove(consumer);
+            if (consumer instanceof Dependency)
+                for (DependencyConsumer dependent : ((Dependency) consumer).getDependents()) {
+                    Integer remaining = unorderedDependencies.computeIfPresent(dependent, (k, v) -> v - 1);
+                    if (remaining != null && remaining == 0)
+                        ready.add(dependent);
+                }
+        }
+        order.addAll(unorderedDependencies.keySet());
+        return order;
+    }
+}
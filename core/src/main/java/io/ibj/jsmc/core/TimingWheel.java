@@ -0,0 +1,234 @@
+package io.ibj.jsmc.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel which schedules tasks by tick. The wheel is driven by calling {@link #advance()} once per
+ * tick, which runs every task due on that tick in one batch.
+ * <p>
+ * The wheel consists of four levels of 64 slots each. Tasks due within the next 64 ticks sit in the slot of the exact
+ * tick they are due on, while tasks due later sit in a coarser slot of a higher level, and are cascaded down into finer
+ * slots as their tick approaches. Scheduling and cancelling a task are both constant time, and a tick only touches the
+ * tasks which are due on it, besides the occasional cascade.
+ * <p>
+ * The wheel may be used from any thread, but tasks are always run on the thread calling {@link #advance()}, without the
+ * wheel's lock held.
+ *
+ * @author Joseph Hirschfeld (Ichbinjoe) [joe@ibj.io]
+ * @since 10/18/26
+ */
+public class TimingWheel {
+
+    private static final int LEVELS = 4;
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int MASK = SLOTS - 1;
+    private static final long MAX_DELTA = (1L << (SLOT_BITS * LEVELS)) - 1;
+
+    private final Consumer<Throwable> exceptionHandler;
+    private final Timeout[][] heads = new Timeout[LEVELS][SLOTS];
+    private final Timeout[][] tails = new Timeout[LEVELS][SLOTS];
+    private long tick = 0;
+    private long nextId = 0;
+    private int size = 0;
+
+    /**
+     * Creates a new TimingWheel
+     *
+     * @param exceptionHandler handler for exceptions thrown by tasks
+     */
+    public TimingWheel(Consumer<Throwable> exceptionHandler) {
+        if (exceptionHandler == null)
+            throw new NullPointerException("exceptionHandler cannot be null");
+        this.exceptionHandler = exceptionHandler;
+    }
+
+    /**
+     * Schedules a task. A delay of 1 runs the task on the next call to {@link #advance()}, a delay of 2 on the call after
+     * that, and so on. Delays below 1 are treated as 1.
+     *
+     * @param task   task to run
+     * @param delay  ticks until the task is run for the first time
+     * @param period ticks between runs of the task, or 0 or less to only run it once
+     * @return timeout, which may be used to cancel the task
+     */
+    public synchronized Timeout schedule(Runnable task, long delay, long period) {
+        if (task == null)
+            throw new NullPointerException("task cannot be null");
+        Timeout timeout = new Timeout(nextId++, task, period);
+        timeout.deadline = tick + Math.max(delay, 1) - 1;
+        insert(timeout);
+        size++;
+        return timeout;
+    }
+
+    /**
+     * Advances the wheel by one tick, running every task due on it
+     */
+    public void advance() {
+        List<Timeout> due = new ArrayList<>();
+        synchronized (this) {
+            int index = (int) (tick & MASK);
+            if (index == 0) {
+                // cascade each level which wrapped around, stopping at the first one which did not
+                for (int level = 1; level < LEVELS; level++)
+                    if (cascade(level, (int) ((tick >>> (SLOT_BITS * level)) & MASK)) != 0)
+                        break;
+            }
+            for (Timeout t = heads[0][index]; t != null; t = t.next)
+                due.add(t);
+            heads[0][index] = tails[0][index] = null;
+            for (Timeout t : due) {
+                t.next = t.prev = null;
+                t.level = -1;
+            }
+            tick++;
+        }
+        for (Timeout t : due) {
+            if (t.cancelled)
+                continue;
+            try {
+                t.task.run();
+            } catch (Throwable e) {
+                exceptionHandler.accept(e);
+            }
+            synchronized (this) {
+                if (t.period > 0 && !t.cancelled) {
+                    t.deadline = tick + t.period - 1;
+                    insert(t);
+                } else if (!t.cancelled) {
+                    t.cancelled = true;
+                    size--;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the amount of scheduled tasks
+     *
+     * @return scheduled tasks
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Returns the amount of times the wheel was advanced
+     *
+     * @return current tick
+     */
+    public synchronized long getTick() {
+        return tick;
+    }
+
+    private int cascade(int level, int index) {
+        Timeout t = heads[level][index];
+        heads[level][index] = tails[level][index] = null;
+        while (t != null) {
+            Timeout next = t.next;
+            t.next = t.prev = null;
+            insert(t);
+            t = next;
+        }
+        return index;
+    }
+
+    private void insert(Timeout t) {
+        long delta = t.deadline - tick;
+        long deadline = t.deadline;
+        if (delta < 0) {
+            deadline = tick;
+            delta = 0;
+        } else if (delta > MAX_DELTA) {
+            // parked as far ahead as the wheel reaches, and cascaded back up until it is in reach
+            deadline = tick + MAX_DELTA;
+            delta = MAX_DELTA;
+        }
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= 1L << (SLOT_BITS * (level + 1)))
+            level++;
+        int index = (int) ((deadline >>> (SLOT_BITS * level)) & MASK);
+        t.level = level;
+        t.index = index;
+        // appended, so tasks due on the same tick run in the order they were scheduled in
+        t.next = null;
+        t.prev = tails[level][index];
+        if (t.prev != null)
+            t.prev.next = t;
+        else
+            heads[level][index] = t;
+        tails[level][index] = t;
+    }
+
+    private synchronized boolean cancel(Timeout t) {
+        if (t.cancelled)
+            return false;
+        t.cancelled = true;
+        size--;
+        if (t.level < 0)
+            return true;
+        if (t.prev != null)
+            t.prev.next = t.next;
+        else
+            heads[t.level][t.index] = t.next;
+        if (t.next != null)
+            t.next.prev = t.prev;
+        else
+            tails[t.level][t.index] = t.prev;
+        t.next = t.prev = null;
+        t.level = -1;
+        return true;
+    }
+
+    /**
+     * Handle to a task scheduled on a {@link TimingWheel}
+     */
+    public final class Timeout {
+
+        private final long id;
+        private final Runnable task;
+        private final long period;
+        private long deadline;
+        private Timeout prev;
+        private Timeout next;
+        private int level = -1;
+        private int index;
+        private volatile boolean cancelled = false;
+
+        private Timeout(long id, Runnable task, long period) {
+            this.id = id;
+            this.task = task;
+            this.period = period;
+        }
+
+        /**
+         * Returns the id of the task, unique within its wheel
+         *
+         * @return id
+         */
+        public long getId() {
+            return id;
+        }
+
+        /**
+         * Returns whether the task is still going to run, either because it has not run yet or because it repeats
+         *
+         * @return whether the task is scheduled
+         */
+        public boolean isScheduled() {
+            return !cancelled;
+        }
+
+        /**
+         * Cancels the task. A repeating task which is currently running finishes its current run.
+         *
+         * @return true if the task was scheduled, false if it was already cancelled or done
+         */
+        public boolean cancel() {
+            return TimingWheel.this.cancel(this);
+        }
+    }
+}
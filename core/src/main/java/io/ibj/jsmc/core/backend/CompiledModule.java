@@ -0,0 +1,40 @@
+package io.ibj.jsmc.core.backend;
+
+import javax.script.ScriptException;
+import java.util.Map;
+
+/**
+ * Module compiled by a {@link ScriptBackend}, which can be evaluated any amount of times. Every evaluation runs against
+ * a fresh module object, so evaluations do not share state besides what the backend's globals share.
+ *
+ * @author Joseph Hirschfeld (Ichbinjoe) [joe@ibj.io]
+ * @since 10/18/26
+ */
+public interface CompiledModule {
+
+    /**
+     * Returns the backend which compiled the module, and which calls the functions it exports
+     *
+     * @return backend
+     */
+    ScriptBackend getBackend();
+
+    /**
+     * Creates a new module object to evaluate the module against, with <code>exports</code> set to an empty object. The
+     * module object exists before the module runs, so a dependency cycle requiring the module while it runs is handed
+     * the module's exports as far as they were set up.
+     *
+     * @return new module object
+     */
+    Map<Object, Object> createModule();
+
+    /**
+     * Runs the module, exposing <code>require</code>, <code>module</code> and <code>exports</code> to it
+     *
+     * @param module  module object created by {@link #createModule()}
+     * @param require require of the module, resolving dependency identifiers into the dependencies' exports
+     * @throws ScriptException  if the module fails to run
+     * @throws RuntimeException if the module throws
+     */
+    void evaluate(Map<Object, Object> module, Require require) throws ScriptException;
+}
@@ -0,0 +1,248 @@
+package io.ibj.jsmc.core.backend;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Source;
+import org.graalvm.polyglot.Value;
+import org.graalvm.polyglot.proxy.ProxyExecutable;
+import org.graalvm.polyglot.proxy.ProxyObject;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Backend running modules on GraalJS. GraalJS is not shipped with jsmc, it has to be on the class path, such as when
+ * running on GraalVM.
+ * <p>
+ * Every module runs as a node.js style wrapper function within one shared context, so modules share the built-in
+ * objects of the context, like they do on Nashorn with shared globals. The context is created in Nashorn compatibility
+ * mode, so modules written against Nashorn, such as those using <code>Java.type</code> and Java bean properties, keep
+ * working.
+ * <p>
+ * A GraalJS context may only be used by one thread at a time. Calls into the context through this backend are
+ * serialized, but modules are expected to be run and called from one thread, such as the server thread, rather than
+ * handing script functions to other threads. Sources are only parsed once a module is first evaluated, so syntax errors
+ * are reported then.
+ *
+ * @author Joseph Hirschfeld (Ichbinjoe) [joe@ibj.io]
+ * @since 10/18/26
+ */
+public class GraalBackend implements ScriptBackend, AutoCloseable {
+
+    // reads and writes members the way scripts do, which for Java objects includes map entries and bean properties
+    private static final String GET = "(function (t, n) { return t[n]; })";
+    private static final String SET = "(function (t, n, v) { t[n] = v; })";
+
+    private final Context context;
+    private Value get;
+    private Value set;
+
+    /**
+     * Creates a new GraalBackend with a context of its own
+     */
+    public GraalBackend() {
+        this(Context.newBuilder("js")
+                .allowAllAccess(true)
+                .allowExperimentalOptions(true)
+                .option("js.nashorn-compat", "true")
+                .build());
+    }
+
+    /**
+     * Creates a new GraalBackend running modules within a context
+     *
+     * @param context context supporting js, which is closed along with the backend
+     */
+    public GraalBackend(Context context) {
+        if (context == null)
+            throw new NullPointerException("context cannot be null");
+        this.context = context;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getName() {
+        return "graal";
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompiledModule compile(String source, String name) {
+        // prepended onto the first line, so line numbers of the module are kept intact
+        return new Module(Source.newBuilder("js", "(function (require, module, exports) {" + source + "\n})",
+                name == null ? "module.js" : name).buildLiteral());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isFunction(Object value) {
+        if (value == null)
+            return false;
+        synchronized (context) {
+            return context.asValue(value).canExecute();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object call(Object function, Object thiz, Object... arguments) {
+        synchronized (context) {
+            Value f = context.asValue(function);
+            if (!f.canExecute())
+                throw new IllegalArgumentException("Not a function: " + function);
+            Object[] callArguments = new Object[arguments.length + 1];
+            callArguments[0] = thiz;
+            System.arraycopy(arguments, 0, callArguments, 1, arguments.length);
+            return f.invokeMember("call", callArguments).as(Object.class);
+        }
+    }
+
+    // only called while holding the context
+    private Value get() {
+        if (get == null)
+            get = context.eval("js", GET);
+        return get;
+    }
+
+    private Value set() {
+        if (set == null)
+            set = context.eval("js", SET);
+        return set;
+    }
+
+    /**
+     * Closes the context, after which no module of this backend can be run or called any more
+     */
+    @Override
+    public void close() {
+        context.close();
+    }
+
+    private final class Module implements CompiledModule {
+
+        private final Source source;
+
+        private Module(Source source) {
+            this.source = source;
+        }
+
+        @Override
+        public ScriptBackend getBackend() {
+            return GraalBackend.this;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Map<Object, Object> createModule() {
+            synchronized (context) {
+                return context.eval("js", "({ exports: {} })").as(Map.class);
+            }
+        }
+
+        @Override
+        public void evaluate(Map<Object, Object> module, Require require) {
+            synchronized (context) {
+                Value wrapper = context.eval(source);
+                Value m = context.asValue(module);
+                Value exports = m.getMember("exports");
+                wrapper.invokeMember("call", exports, new RequireFunction(require), m, exports);
+            }
+        }
+    }
+
+    private static String identifier(Value[] args) {
+        return args.length == 0 ? null : args[0].asString();
+    }
+
+    /*
+    require as exposed to scripts, a function with a lazy function of its own
+     */
+    private final class RequireFunction implements ProxyExecutable, ProxyObject {
+
+        private final Require require;
+        private final ProxyExecutable lazy;
+
+        private RequireFunction(Require require) {
+            this.require = require;
+            this.lazy = args -> new LazyExports(require.lazy(identifier(args)));
+        }
+
+        @Override
+        public Object execute(Value... args) {
+            return require.require(identifier(args));
+        }
+
+        @Override
+        public Object getMember(String key) {
+            return key.equals("lazy") ? lazy : null;
+        }
+
+        @Override
+        public Object getMemberKeys() {
+            return new String[]{"lazy"};
+        }
+
+        @Override
+        public boolean hasMember(String key) {
+            return key.equals("lazy");
+        }
+
+        @Override
+        public void putMember(String key, Value value) {
+            throw new UnsupportedOperationException("require is read-only");
+        }
+    }
+
+    /*
+    Forwards to exports which are only obtained on first use
+     */
+    private final class LazyExports implements ProxyExecutable, ProxyObject {
+
+        private final Supplier<Object> exports;
+
+        private LazyExports(Supplier<Object> exports) {
+            this.exports = exports;
+        }
+
+        private Value target() {
+            return context.asValue(exports.get());
+        }
+
+        @Override
+        public Object execute(Value... args) {
+            return target().execute((Object[]) args);
+        }
+
+        @Override
+        public Object getMember(String key) {
+            return get().execute(target(), key);
+        }
+
+        @Override
+        public Object getMemberKeys() {
+            return target().getMemberKeys().toArray(new String[0]);
+        }
+
+        @Override
+        public boolean hasMember(String key) {
+            return target().hasMember(key) || !get().execute(target(), key).isNull();
+        }
+
+        @Override
+        public void putMember(String key, Value value) {
+            set().execute(target(), key, value);
+        }
+
+        @Override
+        public boolean removeMember(String key) {
+            return target().removeMember(key);
+        }
+    }
+}
@@ -0,0 +1,427 @@
+package io.ibj.jsmc.core.backend;
+
+import io.ibj.jsmc.core.compiler.ScriptCompiler;
+import jdk.nashorn.api.scripting.AbstractJSObject;
+import jdk.nashorn.api.scripting.JSObject;
+import jdk.nashorn.api.scripting.ScriptObjectMirror;
+
+import javax.script.Bindings;
+import javax.script.Compilable;
+import javax.script.CompiledScript;
+import javax.script.ScriptContext;
+import javax.script.ScriptEngine;
+import javax.script.ScriptException;
+import javax.script.SimpleScriptContext;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Backend running modules on Nashorn, compiling them through a {@link ScriptCompiler}. Modules run within a global of
+ * their own, unless the compiler uses shared globals, in which case they run as wrapper functions within the global
+ * shared by every module. Scripts compiled by Nashorn directly can be run through {@link #wrap(CompiledScript,
+ * Bindings)}, whose modules belong to a backend compiling further modules on the same engine.
+ *
+ * @author Joseph Hirschfeld (Ichbinjoe) [joe@ibj.io]
+ * @since 10/18/26
+ */
+public class NashornBackend implements ScriptBackend {
+
+    // forwards members of Java objects through the engine's bean linking, see LazyExports
+    private static final String JAVA_GET = "(function (t, n) { var v = t[n]; " +
+            "return typeof v === 'function' ? Function.prototype.bind.call(v, t) : v; })";
+    private static final String JAVA_SET = "(function (t, n, v) { t[n] = v; })";
+
+    private final ScriptCompiler compiler;
+    // engine and global modules are compiled for when there is no compiler
+    private final ScriptEngine engine;
+    private final Bindings sharedGlobal;
+    private final Map<ScriptEngine, JavaMembers> javaMembers = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a new NashornBackend
+     *
+     * @param compiler compiler to compile modules with
+     */
+    public NashornBackend(ScriptCompiler compiler) {
+        if (compiler == null)
+            throw new NullPointerException("compiler cannot be null");
+        this.compiler = compiler;
+        this.engine = null;
+        this.sharedGlobal = null;
+    }
+
+    private NashornBackend(ScriptEngine engine, Bindings sharedGlobal) {
+        this.compiler = null;
+        this.engine = engine;
+        this.sharedGlobal = sharedGlobal;
+    }
+
+    /**
+     * Wraps a script compiled by Nashorn directly, rather than through a backend, into a module. The module belongs to a
+     * backend of its own, which compiles further modules on the script's engine to run within the same global.
+     *
+     * @param compiledScript compiled script. If a shared global is passed, it has to evaluate to a wrapper function, as
+     *                       compiled by {@link ScriptCompiler#compileModule(String, String)}
+     * @param sharedGlobal   global of the script's engine to run the script within, or null to run the script within a
+     *                       global of its own
+     * @return compiled module
+     */
+    public static CompiledModule wrap(CompiledScript compiledScript, Bindings sharedGlobal) {
+        if (compiledScript == null)
+            throw new NullPointerException("compiledScript cannot be null");
+        return new Module(new NashornBackend(compiledScript.getEngine(), sharedGlobal), compiledScript, sharedGlobal);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getName() {
+        return "nashorn";
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CompiledModule compile(String source, String name) throws ScriptException {
+        if (compiler != null) {
+            CompiledScript compiledScript = compiler.compileModule(source, name);
+            return new Module(this, compiledScript, compiler.isSharedGlobals() ? compiler.getSharedGlobal() : null);
+        }
+        // a backend of wrapped scripts, whose engine compiles one script at a time
+        if (sharedGlobal != null)
+            source = "(function (require, module, exports) {" + source + "\n})";
+        synchronized (engine) {
+            engine.getContext().setAttribute(ScriptEngine.FILENAME, name, ScriptContext.ENGINE_SCOPE);
+            return new Module(this, ((Compilable) engine).compile(source), sharedGlobal);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isFunction(Object value) {
+        return isScriptFunction(value);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object call(Object function, Object thiz, Object... arguments) {
+        return callScriptFunction(function, thiz, arguments);
+    }
+
+    /**
+     * Returns whether a value is a Nashorn function. Functions do not belong to a backend, so this holds for functions
+     * of any NashornBackend
+     *
+     * @param value value to check
+     * @return true if the value is callable
+     */
+    public static boolean isScriptFunction(Object value) {
+        return value instanceof ScriptObjectMirror && ((ScriptObjectMirror) value).isFunction();
+    }
+
+    /**
+     * Calls a Nashorn function
+     *
+     * @param function  function to call
+     * @param thiz      this of the call
+     * @param arguments arguments of the call
+     * @return result of the call
+     * @throws IllegalArgumentException if the function is not a Nashorn function
+     * @see #isScriptFunction(Object)
+     */
+    public static Object callScriptFunction(Object function, Object thiz, Object... arguments) {
+        if (!isScriptFunction(function))
+            throw new IllegalArgumentException("Not a function: " + function);
+        return ((ScriptObjectMirror) function).call(thiz, arguments);
+    }
+
+    private static final class Module implements CompiledModule {
+
+        private final NashornBackend backend;
+        private final CompiledScript compiledScript;
+        private final Bindings sharedGlobal;
+
+        private Module(NashornBackend backend, CompiledScript compiledScript, Bindings sharedGlobal) {
+            this.backend = backend;
+            this.compiledScript = compiledScript;
+            this.sharedGlobal = sharedGlobal;
+        }
+
+        @Override
+        public ScriptBackend getBackend() {
+            return backend;
+        }
+
+        @Override
+        public Map<Object, Object> createModule() {
+            Map<Object, Object> module = new HashMap<>();
+            module.put("exports", sharedGlobal == null ? new Object() :
+                    ((ScriptObjectMirror) sharedGlobal.get("Object")).newObject());
+            return module;
+        }
+
+        @Override
+        public void evaluate(Map<Object, Object> module, Require require) throws ScriptException {
+            SimpleScriptContext ctx = new SimpleScriptContext();
+            RequireFunction requireFunction = new RequireFunction(require, backend, compiledScript.getEngine());
+            if (sharedGlobal == null) {
+                Bindings bindings = compiledScript.getEngine().createBindings();
+                bindings.put("require", requireFunction);
+                bindings.put("module", module);
+                ctx.setBindings(bindings, ScriptContext.ENGINE_SCOPE);
+                compiledScript.eval(ctx);
+                return;
+            }
+            ctx.setBindings(sharedGlobal, ScriptContext.ENGINE_SCOPE);
+            Object wrapper = compiledScript.eval(ctx);
+            if (!isScriptFunction(wrapper))
+                throw new ScriptException("Script did not evaluate to a module wrapper function");
+            Object exports = module.get("exports");
+            callScriptFunction(wrapper, exports, requireFunction, module, exports);
+        }
+    }
+
+    private static String identifier(Object[] args) {
+        return args.length == 0 || args[0] == null ? null : args[0].toString();
+    }
+
+    /*
+    require as exposed to scripts, a function with a lazy function of its own
+     */
+    private static final class RequireFunction extends AbstractJSObject {
+
+        private final Require require;
+        private final JSObject lazy;
+
+        private RequireFunction(Require require, NashornBackend backend, ScriptEngine engine) {
+            this.require = require;
+            this.lazy = new AbstractJSObject() {
+                @Override
+                public Object call(Object thiz, Object... args) {
+                    return new LazyExports(require.lazy(identifier(args)), () -> backend.javaMembers(engine));
+                }
+
+                @Override
+                public boolean isFunction() {
+                    return true;
+                }
+            };
+        }
+
+        @Override
+        public Object call(Object thiz, Object... args) {
+            return require.require(identifier(args));
+        }
+
+        @Override
+        public boolean isFunction() {
+            return true;
+        }
+
+        @Override
+        public Object getMember(String name) {
+            return name.equals("lazy") ? lazy : null;
+        }
+
+        @Override
+        public boolean hasMember(String name) {
+            return name.equals("lazy");
+        }
+
+        @Override
+        public Set<String> keySet() {
+            return Collections.singleton("lazy");
+        }
+    }
+
+    /*
+    Accessors of Java object members, evaluated within a global of their own on an engine. Methods are handed out bound
+    to their object, so scripts calling them convert their arguments like on any other Java call
+     */
+    private static final class JavaMembers {
+
+        private final JSObject get;
+        private final JSObject set;
+
+        private JavaMembers(ScriptEngine engine) throws ScriptException {
+            SimpleScriptContext ctx = new SimpleScriptContext();
+            ctx.setBindings(engine.createBindings(), ScriptContext.ENGINE_SCOPE);
+            this.get = (JSObject) engine.eval(JAVA_GET, ctx);
+            this.set = (JSObject) engine.eval(JAVA_SET, ctx);
+        }
+    }
+
+    private JavaMembers javaMembers(ScriptEngine engine) {
+        return javaMembers.computeIfAbsent(engine, e -> {
+            try {
+                return new JavaMembers(e);
+            } catch (ScriptException ex) {
+                throw new IllegalStateException("Unable to set up Java member access", ex);
+            }
+        });
+    }
+
+    /*
+    Forwards to exports which are only obtained on first use. Script objects and maps are forwarded entirely, other Java
+    objects only forward their members, as resolved by the engine's bean linking. Every operation obtains the exports,
+    including typeof, which asks whether the exports are a function
+     */
+    private static final class LazyExports extends AbstractJSObject {
+
+        private final Supplier<Object> exports;
+        private final Supplier<JavaMembers> javaMembers;
+
+        private LazyExports(Supplier<Object> exports, Supplier<JavaMembers> javaMembers) {
+            this.exports = exports;
+            this.javaMembers = javaMembers;
+        }
+
+        private JSObject target() {
+            Object e = exports.get();
+            if (e instanceof JSObject)
+                return (JSObject) e;
+            throw new IllegalStateException("Lazily required exports are not a script object, and only expose their " +
+                    "members: " + e);
+        }
+
+        private Map<Object, Object> map() {
+            Object e = exports.get();
+            @SuppressWarnings("unchecked")
+            Map<Object, Object> m = e instanceof Map && !(e instanceof JSObject) ? (Map<Object, Object>) e : null;
+            return m;
+        }
+
+        // exports which are neither script objects nor maps, or null
+        private Object java() {
+            Object e = exports.get();
+            return e instanceof JSObject || e instanceof Map ? null : e;
+        }
+
+        @Override
+        public Object call(Object thiz, Object... args) {
+            return target().call(thiz, args);
+        }
+
+        @Override
+        public Object newObject(Object... args) {
+            return target().newObject(args);
+        }
+
+        @Override
+        public Object getMember(String name) {
+            Object j = java();
+            if (j != null)
+                return javaMembers.get().get.call(null, j, name);
+            Map<Object, Object> m = map();
+            return m != null ? m.get(name) : target().getMember(name);
+        }
+
+        @Override
+        public boolean hasMember(String name) {
+            Object j = java();
+            if (j != null)
+                return javaMembers.get().get.call(null, j, name) != null;
+            Map<Object, Object> m = map();
+            return m != null ? m.containsKey(name) : target().hasMember(name);
+        }
+
+        @Override
+        public void setMember(String name, Object value) {
+            Object j = java();
+            if (j != null) {
+                javaMembers.get().set.call(null, j, name, value);
+                return;
+            }
+            Map<Object, Object> m = map();
+            if (m != null)
+                m.put(name, value);
+            else
+                target().setMember(name, value);
+        }
+
+        @Override
+        public void removeMember(String name) {
+            if (java() != null)
+                return;
+            Map<Object, Object> m = map();
+            if (m != null)
+                m.remove(name);
+            else
+                target().removeMember(name);
+        }
+
+        @Override
+        public Object getSlot(int index) {
+            return map() != null || java() != null ? null : target().getSlot(index);
+        }
+
+        @Override
+        public boolean hasSlot(int slot) {
+            return map() == null && java() == null && target().hasSlot(slot);
+        }
+
+        @Override
+        public void setSlot(int index, Object value) {
+            target().setSlot(index, value);
+        }
+
+        @Override
+        public Set<String> keySet() {
+            if (java() != null)
+                return Collections.emptySet();
+            Map<Object, Object> m = map();
+            if (m == null)
+                return target().keySet();
+            Set<String> keys = new LinkedHashSet<>();
+            for (Object key : m.keySet())
+                keys.add(String.valueOf(key));
+            return keys;
+        }
+
+        @Override
+        public Collection<Object> values() {
+            if (java() != null)
+                return Collections.emptySet();
+            Map<Object, Object> m = map();
+            return m != null ? m.values() : target().values();
+        }
+
+        @Override
+        public boolean isFunction() {
+            return map() == null && java() == null && target().isFunction();
+        }
+
+        @Override
+        public boolean isArray() {
+            return map() == null && java() == null && target().isArray();
+        }
+
+        @Override
+        public String getClassName() {
+            Object j = java();
+            if (j != null)
+                return j.getClass().getSimpleName();
+            return map() != null ? "Object" : target().getClassName();
+        }
+
+        @Override
+        public Object getDefaultValue(Class<?> hint) {
+            Object j = java();
+            if (j != null)
+                return String.valueOf(j);
+            return map() != null ? String.valueOf(map()) : AbstractJSObject.getDefaultValue(target(), hint);
+        }
+    }
+}
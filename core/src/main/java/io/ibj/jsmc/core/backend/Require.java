@@ -0,0 +1,31 @@
+package io.ibj.jsmc.core.backend;
+
+import java.util.function.Supplier;
+
+/**
+ * The <code>require</code> of a module. Backends expose it to the module as a function, which has a <code>lazy</code>
+ * function of its own: <code>require(id)</code> calls {@link #require(String)}, while <code>require.lazy(id)</code>
+ * returns an object forwarding to the exports supplied by {@link #lazy(String)}, which are only obtained once the object
+ * is first used.
+ *
+ * @author Joseph Hirschfeld (Ichbinjoe) [joe@ibj.io]
+ * @since 10/18/26
+ */
+public interface Require {
+
+    /**
+     * Resolves and depends on a dependency
+     *
+     * @param identifier identifier of the dependency
+     * @return exports of the dependency
+     */
+    Object require(String identifier);
+
+    /**
+     * Returns a supplier which resolves and depends on a dependency the first time it is called
+     *
+     * @param identifier identifier of the dependency
+     * @return supplier of the exports of the dependency, which returns the same exports on every call
+     */
+    Supplier<Object> lazy(String identifier);
+}
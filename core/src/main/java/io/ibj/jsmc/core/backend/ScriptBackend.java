@@ -0,0 +1,55 @@
+package io.ibj.jsmc.core.backend;
+
+import javax.script.ScriptException;
+
+/**
+ * Script engine modules are compiled and run on. The backend covers everything the module system needs from an engine:
+ * compiling modules, evaluating them, and calling and inspecting the values they export.
+ * <p>
+ * Values handed out by a backend, such as the module object and the exports of a module, are plain Java objects as far
+ * as the rest of the system is concerned. Script objects are exposed as {@link java.util.Map}s, while functions may
+ * only be recognized and called through {@link #isFunction(Object)} and {@link #call(Object, Object, Object...)}.
+ *
+ * @author Joseph Hirschfeld (Ichbinjoe) [joe@ibj.io]
+ * @since 10/18/26
+ */
+public interface ScriptBackend {
+
+    /**
+     * Returns the name the backend is selected by in the configuration
+     *
+     * @return backend name
+     */
+    String getName();
+
+    /**
+     * Compiles the source of a module
+     *
+     * @param source source of the module
+     * @param name   source location to be reported by internal exceptions, may be null
+     * @return compiled module
+     * @throws ScriptException if the module fails to compile. Backends which compile lazily may instead report syntax
+     *                         errors when the module is evaluated.
+     */
+    CompiledModule compile(String source, String name) throws ScriptException;
+
+    /**
+     * Returns whether a value handed out by this backend is a function which can be called
+     *
+     * @param value value to inspect, may be null
+     * @return true if the value can be passed to {@link #call(Object, Object, Object...)}
+     */
+    boolean isFunction(Object value);
+
+    /**
+     * Calls a function handed out by this backend
+     *
+     * @param function  function to call
+     * @param thiz      object to bind as <code>this</code>, or null to leave it unbound
+     * @param arguments arguments to call the function with
+     * @return return value of the function
+     * @throws IllegalArgumentException if the value is not a function of this backend
+     * @throws RuntimeException         if the function throws
+     */
+    Object call(Object function, Object thiz, Object... arguments);
+}
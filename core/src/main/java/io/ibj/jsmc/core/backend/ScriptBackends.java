@@ -0,0 +1,62 @@
+package io.ibj.jsmc.core.backend;
+
+import io.ibj.jsmc.core.compiler.ScriptCompiler;
+
+import java.util.Locale;
+
+/**
+ * Creates {@link ScriptBackend}s by name. Backends other than Nashorn depend on engines which are not shipped with jsmc,
+ * and are only loaded once they are selected.
+ *
+ * @author Joseph Hirschfeld (Ichbinjoe) [joe@ibj.io]
+ * @since 10/18/26
+ */
+public final class ScriptBackends {
+
+    private ScriptBackends() {
+    }
+
+    /**
+     * Creates a backend by name
+     *
+     * @param name     name of the backend, either <code>nashorn</code> or <code>graal</code>
+     * @param compiler compiler the nashorn backend compiles modules with
+     * @return new backend
+     * @throws IllegalArgumentException if no backend has the name
+     * @throws IllegalStateException    if the backend's engine is not available
+     */
+    public static ScriptBackend create(String name, ScriptCompiler compiler) {
+        if (name == null)
+            throw new NullPointerException("name cannot be null");
+        switch (name.toLowerCase(Locale.ROOT)) {
+            case "nashorn":
+                return new NashornBackend(compiler);
+            case "graal":
+            case "graaljs":
+                if (!isGraalAvailable())
+                    throw new IllegalStateException("GraalJS is not on the class path");
+                try {
+                    return new GraalBackend();
+                } catch (IllegalArgumentException e) {
+                    // thrown by the polyglot api if js is not installed
+                    throw new IllegalStateException("GraalJS is not installed", e);
+                }
+            default:
+                throw new IllegalArgumentException("Unknown script backend '" + name + "'");
+        }
+    }
+
+    /**
+     * Returns whether the GraalJS polyglot api is on the class path
+     *
+     * @return true if a graal backend may be created
+     */
+    public static boolean isGraalAvailable() {
+        try {
+            Class.forName("org.graalvm.polyglot.Context", false, ScriptBackends.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package io.ibj.jsmc.core.compiler;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary form of parsed json, in the spirit of CBOR. Every value starts with a tag byte, followed by a variable
+ * length integer for lengths and counts. Strings are written once and referred back to by index afterwards, so the
+ * repeated keys of a table of objects cost a few bytes each, and decode into a single shared String.
+ * <p>
+ * Values decode into the same types Gson parses json into: {@link Map}s, {@link List}s, {@link Double}s, {@link String}s,
+ * {@link Boolean}s and null.
+ *
+ * @author Joseph Hirschfeld (Ichbinjoe) [joe@ibj.io]
+ * @since 10/18/26
+ */
+final class BinaryJson {
+
+    private static final byte[] MAGIC = {'J', 'S', 'M', 'J', 1};
+
+    private static final int NULL = 0;
+    private static final int FALSE = 1;
+    private static final int TRUE = 2;
+    private static final int NUMBER = 3;
+    private static final int STRING = 4;
+    private static final int STRING_REF = 5;
+    private static final int ARRAY = 6;
+    private static final int OBJECT = 7;
+
+    private BinaryJson() {
+    }
+
+    /**
+     * Encodes a parsed json value
+     *
+     * @param value value made up of maps with string keys, lists, numbers, strings, booleans and null
+     * @return encoded value
+     * @throws IllegalArgumentException if the value contains anything else
+     */
+    static byte[] encode(Object value) {
+        Encoder encoder = new Encoder();
+        encoder.out.write(MAGIC, 0, MAGIC.length);
+        encoder.write(value);
+        return encoder.out.toByteArray();
+    }
+
+    /**
+     * Decodes a value encoded by {@link #encode(Object)}
+     *
+     * @param bytes encoded value
+     * @return decoded value
+     * @throws IllegalArgumentException if the bytes are not an encoded value
+     */
+    static Object decode(byte[] bytes) {
+        if (bytes.length < MAGIC.length || !Arrays.equals(Arrays.copyOf(bytes, MAGIC.length), MAGIC))
+            throw new IllegalArgumentException("Not binary json");
+        Decoder decoder = new Decoder(bytes);
+        try {
+            Object value = decoder.read();
+            if (decoder.position != bytes.length)
+                throw new IllegalArgumentException("Unexpected content after binary json value");
+            return value;
+        } catch (ArrayIndexOutOfBoundsException | NegativeArraySizeException e) {
+            throw new IllegalArgumentException("Truncated binary json", e);
+        }
+    }
+
+    private static final class Encoder {
+
+        private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        private final Map<String, Integer> strings = new HashMap<>();
+
+        private void write(Object value) {
+            if (value == null) {
+                out.write(NULL);
+            } else if (value instanceof Boolean) {
+                out.write((Boolean) value ? TRUE : FALSE);
+            } else if (value instanceof Number) {
+                out.write(NUMBER);
+                long bits = Double.doubleToRawLongBits(((Number) value).doubleValue());
+                for (int shift = 56; shift >= 0; shift -= 8)
+                    out.write((int) (bits >>> shift));
+            } else if (value instanceof String) {
+                writeString((String) value);
+            } else if (value instanceof List) {
+                List<?> list = (List<?>) value;
+                out.write(ARRAY);
+                writeLength(list.size());
+                for (Object element : list)
+                    write(element);
+            } else if (value instanceof Map) {
+                Map<?, ?> map = (Map<?, ?>) value;
+                out.write(OBJECT);
+                writeLength(map.size());
+                for (Map.Entry<?, ?> entry : map.entrySet()) {
+                    if (!(entry.getKey() instanceof String))
+                        throw new IllegalArgumentException("Json object keys have to be strings");
+                    writeString((String) entry.getKey());
+                    write(entry.getValue());
+                }
+            } else {
+                throw new IllegalArgumentException("Cannot encode " + value.getClass().getName() + " as json");
+            }
+        }
+
+        private void writeString(String s) {
+            Integer index = strings.get(s);
+            if (index != null) {
+                out.write(STRING_REF);
+                writeLength(index);
+                return;
+            }
+            strings.put(s, strings.size());
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            out.write(STRING);
+            writeLength(bytes.length);
+            out.write(bytes, 0, bytes.length);
+        }
+
+        private void writeLength(int length) {
+            while ((length & ~0x7F) != 0) {
+                out.write((length & 0x7F) | 0x80);
+                length >>>= 7;
+            }
+            out.write(length);
+        }
+    }
+
+    private static final class Decoder {
+
+        private final byte[] bytes;
+        private final List<String> strings = new ArrayList<>();
+        private int position = MAGIC.length;
+
+        private Decoder(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        private Object read() {
+            int tag = bytes[position++];
+            switch (tag) {
+                case NULL:
+                    return null;
+                case FALSE:
+                    return Boolean.FALSE;
+                case TRUE:
+                    return Boolean.TRUE;
+                case NUMBER:
+                    long bits = 0;
+                    for (int i = 0; i < 8; i++)
+                        bits = (bits << 8) | (bytes[position++] & 0xFF);
+                    return Double.longBitsToDouble(bits);
+                case STRING:
+                case STRING_REF:
+                    return readString(tag);
+                case ARRAY: {
+                    int size = readCount();
+                    List<Object> list = new ArrayList<>(size);
+                    for (int i = 0; i < size; i++)
+                        list.add(read());
+                    return list;
+                }
+                case OBJECT: {
+                    int size = readCount();
+                    // sized so that the map never needs to grow
+                    Map<String, Object> map = new LinkedHashMap<>((int) (size * 4L / 3) + 1);
+                    for (int i = 0; i < size; i++) {
+                        int keyTag = bytes[position++];
+                        if (keyTag != STRING && keyTag != STRING_REF)
+                            throw new IllegalArgumentException("Json object key at " + (position - 1) + " is not a string");
+                        String key = readString(keyTag);
+                        map.put(key, read());
+                    }
+                    return map;
+                }
+                default:
+                    throw new IllegalArgumentException("Unknown binary json tag " + tag + " at " + (position - 1));
+            }
+        }
+
+        private String readString(int tag) {
+            int length = readLength();
+            if (tag == STRING_REF) {
+                if (length >= strings.size())
+                    throw new IllegalArgumentException("Unknown string reference " + length);
+                return strings.get(length);
+            }
+            if (length > bytes.length - position)
+                throw new IllegalArgumentException("Truncated binary json");
+            String s = new String(bytes, position, length, StandardCharsets.UTF_8);
+            position += length;
+            strings.add(s);
+            return s;
+        }
+
+        private int readCount() {
+            int count = readLength();
+            // every element takes at least a byte, so a corrupt count is caught before it is allocated for
+            if (count > bytes.length - position)
+                throw new IllegalArgumentException("Truncated binary json");
+            return count;
+        }
+
+        private int readLength() {
+            int length = 0;
+            for (int shift = 0; shift < 32; shift += 7) {
+                int b = bytes[position++];
+                length |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    if (length < 0)
+                        throw new IllegalArgumentException("Negative binary json length");
+                    return length;
+                }
+            }
+            throw new IllegalArgumentException("Malformed binary json length");
+        }
+    }
+}
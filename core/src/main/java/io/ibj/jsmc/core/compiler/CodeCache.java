@@ -0,0 +1,147 @@
+package io.ibj.jsmc.core.compiler;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Persistent on-disk cache of compiled scripts.
+ * <p>
+ * Compiled script classes are stored by Nashorn's persistent code store, which keys every entry by a digest of the
+ * script source and name, and separates entries by engine version and options. Entries which are missing, stale or
+ * unreadable are simply recompiled and rewritten by the engine, so the cache never needs to be cleared by hand.
+ * <p>
+ * The code store location is a JVM wide system property read when an engine is created, so {@link #install()} must
+ * be called before any engine using {@link #getEngineArguments()} is constructed.
+ *
+ * @author Joseph Hirschfeld (Ichbinjoe) [joe@ibj.io]
+ * @since 10/18/26
+ */
+public class CodeCache {
+
+    /**
+     * System property Nashorn reads the persistent code store location from
+     */
+    public static final String CODE_CACHE_PROPERTY = "nashorn.persistent.code.cache";
+
+    private static final String[] ENGINE_ARGUMENTS = new String[]{"--persistent-code-cache"};
+
+    private final Path directory;
+    private final long maxSize;
+
+    /**
+     * Creates a new code cache rooted at a directory, bounded by a maximum size
+     *
+     * @param directory root directory of the cache
+     * @param maxSize   maximum size of the cache in bytes. Anything less than 0 is treated as unbounded
+     */
+    public CodeCache(Path directory, long maxSize) {
+        if (directory == null)
+            throw new NullPointerException("directory cannot be null");
+        this.directory = directory;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Returns the root directory of the cache
+     *
+     * @return cache root
+     */
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Returns the directory compiled scripts are stored in
+     *
+     * @return compiled script directory
+     */
+    public Path getScriptDirectory() {
+        return directory.resolve("scripts");
+    }
+
+    /**
+     * Returns the directory parsed json files are stored in, by a {@link JsonCache}
+     *
+     * @return parsed json directory
+     */
+    public Path getJsonDirectory() {
+        return directory.resolve("json");
+    }
+
+    /**
+     * Returns the maximum size of the cache in bytes
+     *
+     * @return maximum size, or a negative number if unbounded
+     */
+    public long getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Returns the arguments which must be passed to a script engine for it to use this cache
+     *
+     * @return engine arguments
+     */
+    public String[] getEngineArguments() {
+        return ENGINE_ARGUMENTS.clone();
+    }
+
+    /**
+     * Creates the cache directories, trims the cache down to its maximum size and points the script engine's code
+     * store at this cache
+     *
+     * @throws IOException if the cache directory could not be created or trimmed
+     */
+    public void install() throws IOException {
+        Files.createDirectories(getScriptDirectory());
+        Files.createDirectories(getJsonDirectory());
+        prune();
+        System.setProperty(CODE_CACHE_PROPERTY, getScriptDirectory().toAbsolutePath().toString());
+    }
+
+    /**
+     * Deletes the least recently written entries of the cache until it fits within its maximum size
+     *
+     * @return number of bytes freed
+     * @throws IOException if the cache could not be walked
+     */
+    public long prune() throws IOException {
+        if (maxSize < 0 || !Files.isDirectory(directory))
+            return 0;
+
+        List<Path> entries = new ArrayList<>();
+        try (Stream<Path> s = Files.walk(directory)) {
+            s.filter(Files::isRegularFile).forEach(entries::add);
+        }
+
+        long size = 0;
+        List<BasicFileAttributes> attributes = new ArrayList<>(entries.size());
+        for (Path entry : entries) {
+            BasicFileAttributes a = Files.readAttributes(entry, BasicFileAttributes.class);
+            attributes.add(a);
+            size += a.size();
+        }
+        if (size <= maxSize)
+            return 0;
+
+        List<Integer> order = new ArrayList<>(entries.size());
+        for (int i = 0; i < entries.size(); i++)
+            order.add(i);
+        order.sort(Comparator.comparing(i -> attributes.get(i).lastModifiedTime()));
+
+        long freed = 0;
+        for (int i : order) {
+            if (size - freed <= maxSize)
+                break;
+            if (Files.deleteIfExists(entries.get(i)))
+                freed += attributes.get(i).size();
+        }
+        return freed;
+    }
+}
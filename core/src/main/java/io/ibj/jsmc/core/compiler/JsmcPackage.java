@@ -0,0 +1,349 @@
+package io.ibj.jsmc.core.compiler;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * A tree of modules packed into a single file, which is memory-mapped when opened.
+ * <p>
+ * A package is built from a directory laid out like node_modules through {@link #write(Path, Path)}. It holds an index
+ * of every file and directory of the tree by its path relative to the packed directory, using <code>/</code> as the
+ * separator. Directory modules are resolved while packing: the index stores the file their package.json main, index.js
+ * or index.json points to, so loading a module from a package never reads a package.json. json files are stored in a
+ * binary form which decodes without parsing, while scripts are stored as source, as compiled scripts are specific to the
+ * engine, and are compiled once they are loaded.
+ *
+ * @author Joseph Hirschfeld (Ichbinjoe) [joe@ibj.io]
+ * @since 10/18/26
+ */
+public class JsmcPackage {
+
+    /**
+     * File extension of packages
+     */
+    public static final String EXTENSION = ".jsmcpkg";
+
+    /**
+     * Kind of a file within a package
+     */
+    public enum Kind {
+        SCRIPT,
+        JSON
+    }
+
+    private static final byte[] MAGIC = {'J', 'S', 'M', 'P', 1};
+
+    private static final int SCRIPT = 0;
+    private static final int JSON = 1;
+    private static final int DIRECTORY = 2;
+
+    private static final Gson gson = new GsonBuilder().create();
+
+    private static final class Entry {
+        private final int type;
+        private final int offset;
+        private final int length;
+        private final String main;
+
+        private Entry(int type, int offset, int length, String main) {
+            this.type = type;
+            this.offset = offset;
+            this.length = length;
+            this.main = main;
+        }
+    }
+
+    private final Path file;
+    private final ByteBuffer data;
+    private final Map<String, Entry> entries;
+
+    private JsmcPackage(Path file, ByteBuffer data, Map<String, Entry> entries) {
+        this.file = file;
+        this.data = data;
+        this.entries = entries;
+    }
+
+    /**
+     * Opens a package, mapping it into memory
+     *
+     * @param file package file
+     * @return opened package
+     * @throws IOException if the file could not be read or is not a package
+     */
+    public static JsmcPackage open(Path file) throws IOException {
+        if (file == null)
+            throw new NullPointerException("file cannot be null");
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        try {
+            byte[] magic = new byte[MAGIC.length];
+            buffer.get(magic);
+            if (!Arrays.equals(magic, MAGIC))
+                throw new IOException("'" + file + "' is not a jsmc package");
+            int count = buffer.getInt();
+            Map<String, Entry> entries = new HashMap<>(count * 2);
+            for (int i = 0; i < count; i++) {
+                String path = readString(buffer);
+                int type = buffer.get();
+                if (type == DIRECTORY) {
+                    String main = readString(buffer);
+                    entries.put(path, new Entry(type, 0, 0, main.isEmpty() ? null : main));
+                } else if (type == SCRIPT || type == JSON) {
+                    entries.put(path, new Entry(type, buffer.getInt(), buffer.getInt(), null));
+                } else {
+                    throw new IOException("'" + file + "' contains an entry of unknown type " + type);
+                }
+            }
+            ByteBuffer data = buffer.slice();
+            for (Entry e : entries.values())
+                if (e.type != DIRECTORY && (e.offset < 0 || e.length < 0 || e.offset + e.length > data.capacity()))
+                    throw new IOException("'" + file + "' is truncated");
+            return new JsmcPackage(file, data, entries);
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw new IOException("'" + file + "' is truncated", e);
+        }
+    }
+
+    /**
+     * Packs every module within a directory laid out like node_modules into a package
+     *
+     * @param modules directory to pack
+     * @param file    file to write the package to, which is replaced atomically
+     * @throws IOException if the directory could not be read, a package.json main does not exist or a json file is not
+     *                     well formed
+     */
+    public static void write(Path modules, Path file) throws IOException {
+        if (!Files.isDirectory(modules))
+            throw new FileNotFoundException("'" + modules + "' is not a directory");
+        List<Path> paths;
+        try (Stream<Path> walk = Files.walk(modules)) {
+            paths = walk.filter(p -> !p.equals(modules)).sorted().collect(Collectors.toList());
+        }
+
+        ByteArrayOutputStream index = new ByteArrayOutputStream();
+        ByteArrayOutputStream data = new ByteArrayOutputStream();
+        DataOutputStream indexOut = new DataOutputStream(index);
+        int count = 0;
+        for (Path p : paths) {
+            String path = pathOf(modules, p);
+            if (Files.isDirectory(p)) {
+                String main = resolveMain(modules, p);
+                writeString(indexOut, path);
+                indexOut.writeByte(DIRECTORY);
+                writeString(indexOut, main == null ? "" : main);
+            } else {
+                String name = p.getFileName().toString();
+                byte[] content;
+                int type;
+                if (name.endsWith(".js")) {
+                    type = SCRIPT;
+                    content = Files.readAllBytes(p);
+                } else if (name.endsWith(".json")) {
+                    type = JSON;
+                    content = BinaryJson.encode(parseJson(p));
+                } else {
+                    continue;
+                }
+                writeString(indexOut, path);
+                indexOut.writeByte(type);
+                indexOut.writeInt(data.size());
+                indexOut.writeInt(content.length);
+                data.write(content);
+            }
+            count++;
+        }
+
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path tmp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(tmp); DataOutputStream dataOut = new DataOutputStream(out)) {
+                dataOut.write(MAGIC);
+                dataOut.writeInt(count);
+                index.writeTo(dataOut);
+                data.writeTo(dataOut);
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /*
+    Resolves the file a directory module points to, the same way FileSystemResolver bootstraps directories
+     */
+    private static String resolveMain(Path modules, Path directory) throws IOException {
+        Path packageJson = directory.resolve("package.json");
+        if (Files.isRegularFile(packageJson)) {
+            Object contents = parseJson(packageJson);
+            Object main = contents instanceof Map ? ((Map) contents).get("main") : null;
+            if (main instanceof String) {
+                String resolved = resolveFile(modules, directory.resolve((String) main).normalize(), (String) main);
+                if (resolved == null)
+                    throw new FileNotFoundException("'" + main + "' does not exist in the scope of '" + packageJson + "'");
+                return resolved;
+            }
+        }
+        if (Files.isRegularFile(directory.resolve("index.js")))
+            return pathOf(modules, directory.resolve("index.js"));
+        if (Files.isRegularFile(directory.resolve("index.json")))
+            return pathOf(modules, directory.resolve("index.json"));
+        return null;
+    }
+
+    private static String resolveFile(Path modules, Path path, String identifier) throws IOException {
+        if (!path.startsWith(modules))
+            return null;
+        if (Files.isDirectory(path))
+            return resolveMain(modules, path);
+        if (identifier.endsWith(".js") || identifier.endsWith(".json"))
+            return Files.isRegularFile(path) ? pathOf(modules, path) : null;
+        for (String extension : new String[]{".js", ".json"}) {
+            Path candidate = path.resolveSibling(path.getFileName() + extension);
+            if (Files.isRegularFile(candidate))
+                return pathOf(modules, candidate);
+        }
+        return null;
+    }
+
+    private static Object parseJson(Path path) throws IOException {
+        try (Reader r = Files.newBufferedReader(path)) {
+            return gson.fromJson(r, Object.class);
+        } catch (JsonParseException e) {
+            throw new IOException("Failed to parse json at '" + path + "'", e);
+        }
+    }
+
+    private static String pathOf(Path modules, Path path) {
+        StringJoiner joiner = new StringJoiner("/");
+        for (Path name : modules.relativize(path))
+            joiner.add(name.toString());
+        return joiner.toString();
+    }
+
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns the file the package was opened from
+     *
+     * @return package file
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Returns the names of the modules at the top of the package
+     *
+     * @return module names
+     */
+    public Set<String> getModules() {
+        Set<String> modules = new HashSet<>();
+        for (String path : entries.keySet())
+            if (path.indexOf('/') < 0)
+                modules.add(path);
+        return modules;
+    }
+
+    /**
+     * Returns whether the package contains a directory
+     *
+     * @param path path within the package
+     * @return true if the path is a directory
+     */
+    public boolean isDirectory(String path) {
+        Entry e = entries.get(path);
+        return e != null && e.type == DIRECTORY;
+    }
+
+    /**
+     * Returns the file a directory module points to
+     *
+     * @param path path of the directory within the package
+     * @return path of the file within the package, or null if the path is not a directory module
+     */
+    public String getMain(String path) {
+        Entry e = entries.get(path);
+        return e == null ? null : e.main;
+    }
+
+    /**
+     * Returns the kind of a file within the package
+     *
+     * @param path path within the package
+     * @return kind of the file, or null if the path is not a file of the package
+     */
+    public Kind getKind(String path) {
+        Entry e = entries.get(path);
+        if (e == null || e.type == DIRECTORY)
+            return null;
+        return e.type == SCRIPT ? Kind.SCRIPT : Kind.JSON;
+    }
+
+    /**
+     * Reads the source of a script
+     *
+     * @param path path of the script within the package
+     * @return script source
+     * @throws IllegalArgumentException if the path is not a script of the package
+     */
+    public String readScript(String path) {
+        return new String(read(path, SCRIPT), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Decodes a json file
+     *
+     * @param path path of the json file within the package
+     * @return decoded json, made up of maps, lists, doubles, strings, booleans and null
+     * @throws IllegalArgumentException if the path is not a json file of the package
+     */
+    public Object readJson(String path) {
+        return BinaryJson.decode(read(path, JSON));
+    }
+
+    private byte[] read(String path, int type) {
+        Entry e = entries.get(path);
+        if (e == null || e.type != type)
+            throw new IllegalArgumentException("'" + path + "' is not a " + (type == SCRIPT ? "script" : "json file") +
+                    " of " + file);
+        byte[] bytes = new byte[e.length];
+        // a duplicate per read, so reads may happen on any thread
+        ByteBuffer d = data.duplicate();
+        d.position(e.offset);
+        d.get(bytes);
+        return bytes;
+    }
+}
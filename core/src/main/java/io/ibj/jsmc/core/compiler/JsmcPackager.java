@@ -0,0 +1,34 @@
+package io.ibj.jsmc.core.compiler;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Command line tool packing a directory of modules into a {@link JsmcPackage}, such as
+ * <code>java -cp jsmc.jar io.ibj.jsmc.core.compiler.JsmcPackager node_modules modules.jsmcpkg</code>
+ *
+ * @author Joseph Hirschfeld (Ichbinjoe) [joe@ibj.io]
+ * @since 10/18/26
+ */
+public final class JsmcPackager {
+
+    private JsmcPackager() {
+    }
+
+    public static void main(String[] args) {
+        if (args.length != 2) {
+            System.err.println("Usage: JsmcPackager <modules directory> <package" + JsmcPackage.EXTENSION + ">");
+            System.exit(2);
+        }
+        Path modules = Paths.get(args[0]);
+        Path file = Paths.get(args[1]);
+        try {
+            JsmcPackage.write(modules, file);
+            System.out.println("Packed " + JsmcPackage.open(file).getModules().size() + " modules into " + file);
+        } catch (IOException e) {
+            System.err.println("Unable to pack " + modules + ": " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
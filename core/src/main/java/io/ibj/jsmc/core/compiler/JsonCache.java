@@ -0,0 +1,114 @@
+package io.ibj.jsmc.core.compiler;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+
+/**
+ * Persistent on-disk cache of parsed json files.
+ * <p>
+ * Parsed files are stored in a compact binary form, keyed by a digest of the file's content, so an entry is only ever
+ * read back for the exact content it was parsed from. Loading an unchanged file decodes its entry instead of parsing the
+ * json text again. Entries which are missing or unreadable are simply parsed and rewritten.
+ * <p>
+ * Entries are touched whenever they are read, so pruning the cache through {@link CodeCache#prune()} removes entries
+ * which were not used for the longest time.
+ *
+ * @author Joseph Hirschfeld (Ichbinjoe) [joe@ibj.io]
+ * @since 10/18/26
+ */
+public class JsonCache {
+
+    private static final Gson gson = new GsonBuilder().create();
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final Path directory;
+
+    /**
+     * Creates a new json cache storing its entries in a directory
+     *
+     * @param directory directory to store entries in, usually {@link CodeCache#getJsonDirectory()}
+     */
+    public JsonCache(Path directory) {
+        if (directory == null)
+            throw new NullPointerException("directory cannot be null");
+        this.directory = directory;
+    }
+
+    /**
+     * Returns the directory entries are stored in
+     *
+     * @return entry directory
+     */
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Loads a json file, from the cache if the file's content was parsed before
+     *
+     * @param path path of the json file
+     * @return parsed json, made up of maps, lists, doubles, strings, booleans and null
+     * @throws IOException                         if the json file could not be read
+     * @throws com.google.gson.JsonParseException if the json file is not well formed
+     */
+    public Object load(Path path) throws IOException {
+        byte[] content = Files.readAllBytes(path);
+        Path entry = directory.resolve(digest(content) + ".bin");
+        if (Files.isRegularFile(entry)) {
+            try {
+                Object value = BinaryJson.decode(Files.readAllBytes(entry));
+                Files.setLastModifiedTime(entry, FileTime.fromMillis(System.currentTimeMillis()));
+                return value;
+            } catch (IOException | IllegalArgumentException e) {
+                // unreadable entries are parsed and rewritten
+            }
+        }
+
+        Object value;
+        try (Reader r = new InputStreamReader(new ByteArrayInputStream(content), StandardCharsets.UTF_8)) {
+            value = gson.fromJson(r, Map.class);
+        }
+        try {
+            Files.createDirectories(directory);
+            // written aside and moved into place, so a concurrent load never reads a partial entry
+            Path temporary = Files.createTempFile(directory, "entry", ".tmp");
+            try {
+                Files.write(temporary, BinaryJson.encode(value));
+                Files.move(temporary, entry, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temporary);
+            }
+        } catch (IOException e) {
+            // the file is parsed again on its next load
+        }
+        return value;
+    }
+
+    private static String digest(byte[] content) {
+        byte[] hash;
+        try {
+            hash = MessageDigest.getInstance("SHA-256").digest(content);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is required to be supported by every JVM", e);
+        }
+        char[] hex = new char[hash.length * 2];
+        for (int i = 0; i < hash.length; i++) {
+            hex[i * 2] = HEX[(hash[i] >> 4) & 0xF];
+            hex[i * 2 + 1] = HEX[hash[i] & 0xF];
+        }
+        return new String(hex);
+    }
+}
@@ -0,0 +1,166 @@
+package io.ibj.jsmc.core.compiler;
+
+import jdk.nashorn.api.scripting.NashornScriptEngine;
+import jdk.nashorn.api.scripting.NashornScriptEngineFactory;
+
+import javax.script.Bindings;
+import javax.script.CompiledScript;
+import javax.script.ScriptContext;
+import javax.script.ScriptException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Compiles scripts on a pool of script engines, so independent scripts can be compiled at the same time.
+ * <p>
+ * Engines are created lazily up to the size of the pool, and each engine is only ever used by one compilation at a
+ * time. A {@link CompiledScript} keeps a reference to the engine which compiled it, which is able to evaluate it at any
+ * point later on, regardless of whether the engine is currently compiling something else.
+ * <p>
+ * A single compiler is meant to be shared between every resolver which compiles scripts.
+ * <p>
+ * Modules are either compiled to run within a global of their own, or, when the compiler uses shared globals, wrapped
+ * into a node.js style function <code>(function (require, module, exports) {...})</code> which is evaluated within a
+ * single global shared by every module. Creating a global sets up every built-in object, which makes up most of the
+ * memory and evaluation time of a small module, while a wrapped module only costs its function's scope. Built-in objects
+ * are shared as well though, so a module altering them alters them for every other module. A global belongs to a single
+ * engine, so wrapped modules are all compiled one at a time on a dedicated engine rather than on the pool.
+ *
+ * @author Joseph Hirschfeld (Ichbinjoe) [joe@ibj.io]
+ * @since 10/18/26
+ */
+public class ScriptCompiler {
+
+    private final NashornScriptEngineFactory factory = new NashornScriptEngineFactory();
+    private final String[] engineArguments;
+    private final Semaphore permits;
+    private final Queue<NashornScriptEngine> idleEngines;
+    private final boolean sharedGlobals;
+    private NashornScriptEngine sharedEngine;
+    private Bindings sharedGlobal;
+
+    /**
+     * Creates a new compiler with as many engines as there are available processors
+     *
+     * @param codeCache installed code cache to compile scripts through, or null to always compile
+     */
+    public ScriptCompiler(CodeCache codeCache) {
+        this(Runtime.getRuntime().availableProcessors(), codeCache);
+    }
+
+    /**
+     * Creates a new compiler with a maximum amount of engines
+     *
+     * @param engines   maximum amount of engines, and thus concurrent compilations
+     * @param codeCache installed code cache to compile scripts through, or null to always compile
+     * @throws IllegalArgumentException if engines is less than 1
+     */
+    public ScriptCompiler(int engines, CodeCache codeCache) {
+        this(engines, codeCache, false);
+    }
+
+    /**
+     * Creates a new compiler with a maximum amount of engines, which may compile modules to run within shared globals
+     *
+     * @param engines       maximum amount of engines, and thus concurrent compilations
+     * @param codeCache     installed code cache to compile scripts through, or null to always compile
+     * @param sharedGlobals whether modules are wrapped to run within a single shared global, rather than their own. Wrapped
+     *                      modules are compiled on a dedicated engine, so only other scripts are compiled on the pool
+     * @throws IllegalArgumentException if engines is less than 1
+     */
+    public ScriptCompiler(int engines, CodeCache codeCache, boolean sharedGlobals) {
+        if (engines < 1)
+            throw new IllegalArgumentException("A compiler needs at least one engine");
+        this.engineArguments = codeCache == null ? new String[0] : codeCache.getEngineArguments();
+        this.permits = new Semaphore(engines);
+        this.idleEngines = new ConcurrentLinkedQueue<>();
+        this.sharedGlobals = sharedGlobals;
+    }
+
+    /**
+     * Returns whether modules are compiled to run within shared globals
+     *
+     * @return true if modules are wrapped, false if modules run within globals of their own
+     */
+    public boolean isSharedGlobals() {
+        return sharedGlobals;
+    }
+
+    /**
+     * Returns the global shared by every module, creating it if need be
+     *
+     * @return shared global
+     * @throws IllegalStateException if the compiler does not use shared globals
+     * @see #isSharedGlobals()
+     */
+    public synchronized Bindings getSharedGlobal() {
+        if (!sharedGlobals)
+            throw new IllegalStateException("Modules do not run within a shared global");
+        if (sharedGlobal == null)
+            sharedGlobal = getSharedEngine().createBindings();
+        return sharedGlobal;
+    }
+
+    /**
+     * Compiles the source of a module, wrapping it into a function if the compiler uses shared globals. The wrapper is
+     * prepended onto the module's first line, so line numbers of the module are kept intact. Wrapped modules are
+     * compiled on the engine owning the shared global, one at a time.
+     *
+     * @param source source of the module
+     * @param name   Source location to be reported by internal exceptions, may be null
+     * @return Compiled module
+     * @throws ScriptException If the module fails to compile, or the compiling thread was interrupted
+     * @see #isSharedGlobals()
+     */
+    public CompiledScript compileModule(String source, String name) throws ScriptException {
+        if (!sharedGlobals)
+            return compile(new StringReader(source), name);
+        source = "(function (require, module, exports) {" + source + "\n})";
+        synchronized (this) {
+            return compile(getSharedEngine(), new StringReader(source), name);
+        }
+    }
+
+    /**
+     * Compiles a script from the given reader with the passed source, blocking while every engine is in use
+     *
+     * @param r      Reader to compile script from
+     * @param source Source location to be reported by internal exceptions, may be null
+     * @return Compiled script from reader with source
+     * @throws ScriptException If the script fails to compile, or the compiling thread was interrupted
+     */
+    public CompiledScript compile(Reader r, String source) throws ScriptException {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ScriptException("Interrupted while waiting for a script engine");
+        }
+        try {
+            NashornScriptEngine engine = idleEngines.poll();
+            if (engine == null)
+                engine = (NashornScriptEngine) factory.getScriptEngine(engineArguments);
+            try {
+                return compile(engine, r, source);
+            } finally {
+                idleEngines.offer(engine);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    private NashornScriptEngine getSharedEngine() {
+        if (sharedEngine == null)
+            sharedEngine = (NashornScriptEngine) factory.getScriptEngine(engineArguments);
+        return sharedEngine;
+    }
+
+    private static CompiledScript compile(NashornScriptEngine engine, Reader r, String source) throws ScriptException {
+        engine.getContext().setAttribute(NashornScriptEngine.FILENAME, source, ScriptContext.ENGINE_SCOPE);
+        return engine.compile(r);
+    }
+}
@@ -0,0 +1,272 @@
+package io.ibj.jsmc.core.dependencies;
+
+import io.ibj.jsmc.api.Dependency;
+import io.ibj.jsmc.api.DependencyConsumer;
+import io.ibj.jsmc.api.DependencyLifecycle;
+import io.ibj.jsmc.api.SimpleDependencyLifecycle;
+import io.ibj.jsmc.api.metrics.ModuleMetrics;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Dependency which lends its dependents a bounded pool of worker threads for blocking work. Work runs on the pool, while
+ * its result is queued and handed back to the dependent on whichever thread calls {@link #drain(long)}, which is
+ * expected to be the thread the dependents otherwise run on. Results of a dependent whose lifecycle was closed in the
+ * meantime are dropped.
+ * <p>
+ * Once the pool's queue is full, further work is rejected rather than queued. Every dependent gets its own
+ * {@link Handle}, which records the submissions and latencies of the dependent's work into its {@link ModuleMetrics}.
+ *
+ * @author Joseph Hirschfeld (Ichbinjoe) [joe@ibj.io]
+ * @since 10/18/26
+ */
+public class AsyncExecutorDependency implements Dependency, AutoCloseable {
+
+    private final ThreadPoolExecutor executor;
+    private final Queue<Completion> completions = new ConcurrentLinkedQueue<>();
+    private final Map<DependencyConsumer, DependencyLifecycle> lifecycles = new ConcurrentHashMap<>();
+    private final Function<DependencyConsumer, ModuleMetrics> metricsLookup;
+    private final Consumer<Throwable> exceptionHandler;
+
+    /**
+     * Creates a new AsyncExecutorDependency which records into metrics of its own for every dependent
+     *
+     * @param threadName       prefix of the names of the worker threads
+     * @param threads          amount of worker threads
+     * @param queueCapacity    most pieces of work to queue up before rejecting more
+     * @param exceptionHandler handler for exceptions which are not handled by a dependent
+     */
+    public AsyncExecutorDependency(String threadName, int threads, int queueCapacity,
+                                   Consumer<Throwable> exceptionHandler) {
+        this(threadName, threads, queueCapacity, exceptionHandler,
+                consumer -> consumer instanceof JsScript ? ((JsScript<?>) consumer).getMetrics() :
+                        new ModuleMetrics(String.valueOf(consumer)));
+    }
+
+    /**
+     * Creates a new AsyncExecutorDependency
+     *
+     * @param threadName       prefix of the names of the worker threads
+     * @param threads          amount of worker threads
+     * @param queueCapacity    most pieces of work to queue up before rejecting more
+     * @param exceptionHandler handler for exceptions which are not handled by a dependent
+     * @param metricsLookup    function looking up the metrics to record the work of a dependent into
+     */
+    public AsyncExecutorDependency(String threadName, int threads, int queueCapacity,
+                                   Consumer<Throwable> exceptionHandler,
+                                   Function<DependencyConsumer, ModuleMetrics> metricsLookup) {
+        if (threadName == null)
+            throw new NullPointerException("threadName cannot be null");
+        if (exceptionHandler == null)
+            throw new NullPointerException("exceptionHandler cannot be null");
+        if (metricsLookup == null)
+            throw new NullPointerException("metricsLookup cannot be null");
+        if (threads < 1)
+            throw new IllegalArgumentException("threads has to be positive, got " + threads);
+        if (queueCapacity < 1)
+            throw new IllegalArgumentException("queueCapacity has to be positive, got " + queueCapacity);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+            Thread t = new Thread(r, threadName + "-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        this.exceptionHandler = exceptionHandler;
+        this.metricsLookup = metricsLookup;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public DependencyLifecycle depend(DependencyConsumer dependencyConsumer) {
+        if (dependencyConsumer == null)
+            throw new NullPointerException("Dependency consumer may not be null!");
+        return lifecycles.computeIfAbsent(dependencyConsumer, dc -> {
+            Handle handle = new Handle(metricsLookup.apply(dc));
+            return new SimpleDependencyLifecycle(this, handle, () -> {
+                handle.closed = true;
+                lifecycles.remove(dc);
+            });
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Collection<DependencyConsumer> getDependents() {
+        return lifecycles.keySet();
+    }
+
+    /**
+     * Hands completed work back to its dependents until either no completed work is left, or the time budget is used
+     * up. Completed work which does not fit into the budget is handed back on the next call.
+     *
+     * @param budgetNanos time budget, in nanoseconds. At least one piece of completed work is handed back, if any.
+     * @return amount of completed work handed back
+     */
+    public int drain(long budgetNanos) {
+        long start = System.nanoTime();
+        int drained = 0;
+        Completion completion;
+        while ((completion = completions.poll()) != null) {
+            completion.complete();
+            drained++;
+            if (System.nanoTime() - start >= budgetNanos)
+                break;
+        }
+        return drained;
+    }
+
+    /**
+     * Returns the amount of work waiting for a worker thread
+     *
+     * @return queued work
+     */
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * Returns the amount of completed work waiting to be handed back through {@link #drain(long)}
+     *
+     * @return completed work
+     */
+    public int getCompletedDepth() {
+        return completions.size();
+    }
+
+    /**
+     * Stops the worker threads, interrupting running work, and drops all completed work
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+        completions.clear();
+    }
+
+    /**
+     * Export handed to every dependent of an {@link AsyncExecutorDependency}
+     */
+    public final class Handle {
+
+        private final ModuleMetrics metrics;
+        private final AtomicInteger pending = new AtomicInteger();
+        private volatile boolean closed = false;
+
+        private Handle(ModuleMetrics metrics) {
+            this.metrics = metrics;
+        }
+
+        /**
+         * Submits blocking work, passing exceptions it throws to the executor's exception handler
+         *
+         * @param work     work to run on a worker thread
+         * @param onResult callback receiving the result of the work, or null to ignore it
+         * @return true if the work was accepted, false if the executor's queue is full
+         * @see #submit(Callable, Consumer, Consumer)
+         */
+        public boolean submit(Callable<?> work, Consumer<Object> onResult) {
+            return submit(work, onResult, null);
+        }
+
+        /**
+         * Submits blocking work. The work runs on a worker thread, while its callbacks run on the thread draining the
+         * executor.
+         *
+         * @param work     work to run on a worker thread
+         * @param onResult callback receiving the result of the work, or null to ignore it
+         * @param onError  callback receiving the exception thrown by the work, or null to pass it to the executor's
+         *                 exception handler
+         * @return true if the work was accepted, false if the executor's queue is full
+         * @throws IllegalStateException if the lifecycle this handle was handed out with is closed
+         */
+        public boolean submit(Callable<?> work, Consumer<Object> onResult, Consumer<Throwable> onError) {
+            if (work == null)
+                throw new NullPointerException("work cannot be null");
+            if (closed)
+                throw new IllegalStateException("Dependency lifecycle was already closed");
+            long submitted = System.nanoTime();
+            pending.incrementAndGet();
+            try {
+                executor.execute(() -> {
+                    Object result = null;
+                    Throwable error = null;
+                    try {
+                        result = work.call();
+                    } catch (Throwable t) {
+                        error = t;
+                    }
+                    completions.add(new Completion(this, onResult, onError, result, error, submitted));
+                });
+            } catch (RejectedExecutionException e) {
+                pending.decrementAndGet();
+                return false;
+            }
+            metrics.recordAsyncSubmit();
+            return true;
+        }
+
+        /**
+         * Returns the amount of work submitted through this handle which was not handed back yet
+         *
+         * @return pending work
+         */
+        public int getPending() {
+            return pending.get();
+        }
+    }
+
+    private final class Completion {
+
+        private final Handle handle;
+        private final Consumer<Object> onResult;
+        private final Consumer<Throwable> onError;
+        private final Object result;
+        private final Throwable error;
+        private final long submitted;
+
+        private Completion(Handle handle, Consumer<Object> onResult, Consumer<Throwable> onError, Object result,
+                           Throwable error, long submitted) {
+            this.handle = handle;
+            this.onResult = onResult;
+            this.onError = onError;
+            this.result = result;
+            this.error = error;
+            this.submitted = submitted;
+        }
+
+        private void complete() {
+            handle.pending.decrementAndGet();
+            handle.metrics.recordAsyncCompletion(System.nanoTime() - submitted);
+            if (handle.closed)
+                return;
+            try {
+                if (error == null) {
+                    if (onResult != null)
+                        onResult.accept(result);
+                } else if (onError != null) {
+                    onError.accept(error);
+                } else {
+                    exceptionHandler.accept(error);
+                }
+            } catch (Throwable t) {
+                exceptionHandler.accept(t);
+            }
+        }
+    }
+}
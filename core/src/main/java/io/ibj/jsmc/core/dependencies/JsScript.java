@@ -2,12 +2,17 @@ package io.ibj.jsmc.core.dependencies;
 
 import io.ibj.jsmc.api.*;
 import io.ibj.jsmc.api.exceptions.*;
-import jdk.nashorn.api.scripting.ScriptObjectMirror;
+import io.ibj.jsmc.api.metrics.ModuleMetrics;
+import io.ibj.jsmc.core.backend.CompiledModule;
+import io.ibj.jsmc.core.backend.NashornBackend;
+import io.ibj.jsmc.core.backend.Require;
+import io.ibj.jsmc.core.backend.ScriptBackend;
 
 import javax.script.*;
 import java.io.IOException;
 import java.util.*;
-import java.util.function.Function;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
@@ -32,6 +37,13 @@ import java.util.stream.Collectors;
  * resolver is controlled external to this construct - attention should be given to how the object is constructed to
  * know the path which <code>require()</code> takes to resolve dependencies.
  * <p>
+ * <code>require.lazy()</code> resolves the same way, but only once the object it returns is first used. Until then the
+ * dependency is neither resolved nor run, so dependencies a module rarely needs cost nothing while loading it. The
+ * dependency's lifecycle is created on first use and closed along with the module's other dependencies. Any use of the
+ * returned object counts, including <code>typeof</code>, which has to know whether the exports are a function. Lazily
+ * required exports have to be objects or functions, of which Java objects only expose their members, and may no longer
+ * be used once the module requiring them was torn down.
+ * <p>
  * <code>module</code>is an object which encapsulates hooks and feedback to this class. Most prominently is the
  * <code>module.exports</code> object - similar to node.js, this object, (unless <code>module.generator</code> is
  * defined, information later) is used as the object which is passed through the {@link DependencyLifecycle} objects
@@ -61,25 +73,38 @@ import java.util.stream.Collectors;
  * <code>module.loggerName</code> is a string which defines the name of the logger returned by
  * {@link JsScript#getLogger()}. If it is not defined, the <code>defaultLoggerName</code> passed as a constructor
  * argument will be used instead.
+ * <p>
+ * Scripts may be depended on and released from multiple threads. Lifecycles already handed out are looked up without
+ * locking, while running and tearing down the script is guarded by a lock held per script. Since a script holds its
+ * lock while it requires its own dependencies, scripts which require each other in a cycle must not be loaded from
+ * different threads at the same time.
+ * <p>
+ * Scripts are compiled and run by a {@link ScriptBackend}, which also calls the functions a script puts on
+ * <code>module</code>. Whether scripts share a global with each other is up to the backend, but every script always has
+ * a <code>require</code> and <code>module</code> of its own.
  *
  * @author Joseph Hirschfeld (Ichbinjoe) [joe@ibj.io]
  * @since 9/5/16
  */
 // todo - add console support: https://developer.mozilla.org/en-US/docs/Web/API/Console
-public class JsScript<Scope> implements Dependency, DependencyConsumer, Reportable, Loggable {
+public class JsScript<Scope> implements Dependency, StagedDependencyConsumer, Reportable, Loggable {
 
-    private final CompiledScript compiledScript;
+    private final CompiledModule compiledModule;
+    private final ScriptBackend backend;
     private final Scope scope;
     private final DependencyResolver<Scope> resolver;
     private final boolean reportOnErrorExceptions;
 
     private final Map<DependencyConsumer, DependencyLifecycle> dependentLifecycleCache;
     private final Set<DependencyLifecycle> dependencies;
+    private final Map<String, DependencyLifecycle> requireCache = new ConcurrentHashMap<>();
 
     private Logger logger;
     private String loggerName;
 
-    private Bindings internalBindings;
+    private volatile Map<Object, Object> module;
+
+    private final ModuleMetrics metrics;
 
     /**
      * Creates a new JsScript with a compiled script, dependency resolution scope, dependency resolver, and logger name
@@ -93,24 +118,99 @@ public class JsScript<Scope> implements Dependency, DependencyConsumer, Reportab
      */
     public JsScript(CompiledScript compiledScript, Scope scope, DependencyResolver<Scope> resolver,
                     String defaultLoggerName, boolean reportOnErrorExceptions) {
-        if (compiledScript == null) throw new NullPointerException("compiledScript cannot be null");
+        this(compiledScript, scope, resolver, defaultLoggerName, reportOnErrorExceptions,
+                new ModuleMetrics(String.valueOf(defaultLoggerName)));
+    }
 
-        this.compiledScript = compiledScript;
+    /**
+     * Creates a new JsScript which records its evaluations, requires, lifecycles and reports into the passed metrics
+     *
+     * @param compiledScript          Compiled script which is backing the JsScript
+     * @param scope                   Scope of the script
+     * @param resolver                Resolver for this script
+     * @param defaultLoggerName       Default logger name for the script. This can be overwritten by the script
+     * @param reportOnErrorExceptions Whether or not to report exceptions thrown in module.onError. This should be true
+     *                                for production, and false for unit testing (so JUnit exceptions can get through)
+     * @param metrics                 Metrics to record into
+     */
+    public JsScript(CompiledScript compiledScript, Scope scope, DependencyResolver<Scope> resolver,
+                    String defaultLoggerName, boolean reportOnErrorExceptions, ModuleMetrics metrics) {
+        this(compiledScript, scope, resolver, defaultLoggerName, reportOnErrorExceptions, metrics, null);
+    }
+
+    /**
+     * Creates a new JsScript which runs within a shared global, rather than a global of its own. The script is wrapped
+     * through {@link NashornBackend#wrap(CompiledScript, Bindings)}
+     *
+     * @param compiledScript          Compiled script which is backing the JsScript. If a shared global is passed, it
+     *                                has to evaluate to a wrapper function, as compiled by
+     *                                {@link io.ibj.jsmc.core.compiler.ScriptCompiler#compileModule(String, String)}
+     * @param scope                   Scope of the script
+     * @param resolver                Resolver for this script
+     * @param defaultLoggerName       Default logger name for the script. This can be overwritten by the script
+     * @param reportOnErrorExceptions Whether or not to report exceptions thrown in module.onError. This should be true
+     *                                for production, and false for unit testing (so JUnit exceptions can get through)
+     * @param metrics                 Metrics to record into
+     * @param sharedGlobal            Global of the script's engine to run the script within, or null to run the
+     *                                script within a global of its own
+     */
+    public JsScript(CompiledScript compiledScript, Scope scope, DependencyResolver<Scope> resolver,
+                    String defaultLoggerName, boolean reportOnErrorExceptions, ModuleMetrics metrics,
+                    Bindings sharedGlobal) {
+        this(NashornBackend.wrap(compiledScript, sharedGlobal), scope, resolver, defaultLoggerName,
+                reportOnErrorExceptions, metrics);
+    }
+
+    /**
+     * Creates a new JsScript backed by a module compiled by any {@link ScriptBackend}
+     *
+     * @param compiledModule          Compiled module which is backing the JsScript
+     * @param scope                   Scope of the script
+     * @param resolver                Resolver for this script
+     * @param defaultLoggerName       Default logger name for the script. This can be overwritten by the script
+     * @param reportOnErrorExceptions Whether or not to report exceptions thrown in module.onError. This should be true
+     *                                for production, and false for unit testing (so JUnit exceptions can get through)
+     */
+    public JsScript(CompiledModule compiledModule, Scope scope, DependencyResolver<Scope> resolver,
+                    String defaultLoggerName, boolean reportOnErrorExceptions) {
+        this(compiledModule, scope, resolver, defaultLoggerName, reportOnErrorExceptions,
+                new ModuleMetrics(String.valueOf(defaultLoggerName)));
+    }
+
+    /**
+     * Creates a new JsScript backed by a module compiled by any {@link ScriptBackend}
+     *
+     * @param compiledModule          Compiled module which is backing the JsScript
+     * @param scope                   Scope of the script
+     * @param resolver                Resolver for this script
+     * @param defaultLoggerName       Default logger name for the script. This can be overwritten by the script
+     * @param reportOnErrorExceptions Whether or not to report exceptions thrown in module.onError. This should be true
+     *                                for production, and false for unit testing (so JUnit exceptions can get through)
+     * @param metrics                 Metrics to record into
+     */
+    public JsScript(CompiledModule compiledModule, Scope scope, DependencyResolver<Scope> resolver,
+                    String defaultLoggerName, boolean reportOnErrorExceptions, ModuleMetrics metrics) {
+        if (compiledModule == null) throw new NullPointerException("compiledModule cannot be null");
+        if (metrics == null) throw new NullPointerException("metrics cannot be null");
+
+        this.compiledModule = compiledModule;
+        this.backend = compiledModule.getBackend();
         this.scope = scope;
         this.resolver = resolver;
         this.loggerName = defaultLoggerName;
         this.reportOnErrorExceptions = reportOnErrorExceptions;
+        this.metrics = metrics;
 
-        dependentLifecycleCache = new HashMap<>();
-        dependencies = new HashSet<>();
+        dependentLifecycleCache = new ConcurrentHashMap<>();
+        dependencies = ConcurrentHashMap.newKeySet();
     }
 
     private Map getInternalLifecycleObject() throws ModuleExecutionException {
         Map module = getModule();
-        ScriptObjectMirror generator = (ScriptObjectMirror) module.get("generator");
+        Object generator = module.get("generator");
         if (generator == null)
             return generateDefaultExports();
-        return (Map) generator.call(null);
+        return (Map) backend.call(generator, null);
     }
 
     private Map generateDefaultExports() throws ModuleExecutionException {
@@ -120,36 +220,88 @@ public class JsScript<Scope> implements Dependency, DependencyConsumer, Reportab
     }
 
     private Map getModule() throws ModuleExecutionException {
-        refreshInternalBindings();
-        return (Map) internalBindings.get("module");
+        refreshModule();
+        return module;
     }
 
-    private void refreshInternalBindings() throws ModuleExecutionException {
-        if (internalBindings != null) return;
-        internalBindings = compiledScript.getEngine().createBindings();
-        internalBindings.put("require", (Function<String, Object>) path -> {
-            try {
-                Optional<Dependency> dependencyResolve = resolver.resolve(scope, path);
-                if (dependencyResolve.isPresent()) {
-                    DependencyLifecycle dependencyLifecycle = dependencyResolve.get().depend(this);
-                    dependencies.add(dependencyLifecycle);
-                    return dependencyLifecycle.getDependencyExports();
-                } else {
-                    throw new DependencyResolutionFailedException(path);
-                }
-            } catch (ModuleCompilationException | ModuleExecutionException | IOException e) {
-                throw new DependencyResolutionFailedException(path, e);
-            }
-        });
-        HashMap<Object, Object> module = new HashMap<>();
-        module.put("exports", new Object());
-        internalBindings.put("module", module);
-        SimpleScriptContext ctx = new SimpleScriptContext();
-        ctx.setBindings(internalBindings, ScriptContext.ENGINE_SCOPE);
+    private void refreshModule() throws ModuleExecutionException {
+        if (module != null) return;
+        Map<Object, Object> module = compiledModule.createModule();
+        // published before running, so a dependency cycle back to this script sees the module as it is being set up
+        this.module = module;
+        long start = System.nanoTime();
         try {
-            compiledScript.eval(ctx);
-        } catch (ScriptException e) {
+            compiledModule.evaluate(module, new ScriptRequire(module));
+        } catch (ScriptException | RuntimeException e) {
             throw new ModuleExecutionException(e, "Exception occurred while executing script");
+        } finally {
+            metrics.recordEvaluation(System.nanoTime() - start);
+        }
+    }
+
+    private Object require(String path) {
+        metrics.recordRequire();
+        // identifiers required before are answered without resolving them again, until the module is torn down
+        DependencyLifecycle cached = requireCache.get(path);
+        if (cached != null)
+            return cached.getDependencyExports();
+        try {
+            Optional<Dependency> dependencyResolve = resolver.resolve(scope, path);
+            if (dependencyResolve.isPresent()) {
+                DependencyLifecycle dependencyLifecycle = dependencyResolve.get().depend(this);
+                dependencies.add(dependencyLifecycle);
+                requireCache.put(path, dependencyLifecycle);
+                return dependencyLifecycle.getDependencyExports();
+            } else {
+                throw new DependencyResolutionFailedException(path);
+            }
+        } catch (ModuleCompilationException | ModuleExecutionException | IOException e) {
+            throw new DependencyResolutionFailedException(path, e);
+        }
+    }
+
+    /*
+    require of one evaluation of the module. Lazy requires resolve on first use, and refuse to once the module they were
+    required by has been torn down, as its dependencies were closed along with it
+     */
+    private final class ScriptRequire implements Require {
+
+        private final Map<Object, Object> module;
+
+        private ScriptRequire(Map<Object, Object> module) {
+            this.module = module;
+        }
+
+        @Override
+        public Object require(String identifier) {
+            return JsScript.this.require(identifier);
+        }
+
+        @Override
+        public Supplier<Object> lazy(String identifier) {
+            return new Supplier<Object>() {
+                private volatile boolean resolved;
+                private volatile Object exports;
+
+                @Override
+                public Object get() {
+                    if (JsScript.this.module != module)
+                        throw new IllegalStateException("'" + identifier + "' was lazily required by a module which " +
+                                "has since been closed");
+                    if (resolved)
+                        return exports;
+                    synchronized (JsScript.this) {
+                        if (JsScript.this.module != module)
+                            throw new IllegalStateException("'" + identifier + "' was lazily required by a module " +
+                                    "which has since been closed");
+                        if (!resolved) {
+                            exports = JsScript.this.require(identifier);
+                            resolved = true;
+                        }
+                        return exports;
+                    }
+                }
+            };
         }
     }
 
@@ -162,42 +314,47 @@ public class JsScript<Scope> implements Dependency, DependencyConsumer, Reportab
             throw new NullPointerException("dependencyConsumer cannot be null");
 
         DependencyLifecycle dl = dependentLifecycleCache.get(dependencyConsumer);
-        if (dl == null) {
+        if (dl != null)
+            return dl;
+
+        synchronized (this) {
+            dl = dependentLifecycleCache.get(dependencyConsumer);
+            if (dl != null)
+                return dl;
             Map lifecycleObject = getInternalLifecycleObject();
             Object exports = lifecycleObject.get("exports");
             dl = new SimpleDependencyLifecycle(this, exports, () -> {
                 try {
                     Object closeFunction = lifecycleObject.get("close");
-                    if (closeFunction instanceof ScriptObjectMirror) {
-                        ((ScriptObjectMirror) closeFunction).call(null);
-                    }
+                    if (backend.isFunction(closeFunction))
+                        backend.call(closeFunction, null);
                 } catch (Throwable t) {
                     report(new ModuleExecutionException(t, "An exception occurred while closing the script lifecycle"));
                 }
+                metrics.recordClose();
                 releaseLifecycle(dependencyConsumer);
             });
             dependentLifecycleCache.put(dependencyConsumer, dl);
+            metrics.recordDepend();
+            return dl;
         }
-        return dl;
     }
 
-    private void releaseLifecycle(DependencyConsumer consumer) {
+    private synchronized void releaseLifecycle(DependencyConsumer consumer) {
         dependentLifecycleCache.remove(consumer);
         if (dependentLifecycleCache.isEmpty()) closeInternalLifecycle();
     }
 
-    private void closeInternalLifecycle() {
+    private synchronized void closeInternalLifecycle() {
         // first, call any module clean up
-        if (internalBindings != null) {
-            Object module = internalBindings.get("module");
-            if (module != null) {
-                Object disableFunction = ((Map) module).get("disable");
-                if (disableFunction instanceof ScriptObjectMirror) {
-                    try {
-                        ((ScriptObjectMirror) disableFunction).call(module);
-                    } catch (Throwable e) {
-                        report(new ModuleExecutionException(e, "An exception occurred while disabling the module!"));
-                    }
+        Map<Object, Object> module = this.module;
+        if (module != null) {
+            Object disableFunction = module.get("disable");
+            if (backend.isFunction(disableFunction)) {
+                try {
+                    backend.call(disableFunction, module);
+                } catch (Throwable e) {
+                    report(new ModuleExecutionException(e, "An exception occurred while disabling the module!"));
                 }
             }
         }
@@ -209,6 +366,10 @@ public class JsScript<Scope> implements Dependency, DependencyConsumer, Reportab
                 report(new ModuleExecutionException(e, "Exception occurred while attempting to close dependency lifecycle!"));
             }
         }
+        // the next depend will need to run the script again from a clean state
+        dependencies.clear();
+        requireCache.clear();
+        this.module = null;
     }
 
     /**
@@ -234,6 +395,8 @@ public class JsScript<Scope> implements Dependency, DependencyConsumer, Reportab
     public void reevaluate(Collection<DependencyConsumer> previouslyEvaluatedConsumers) throws ModuleNotFoundException, IOException, ModuleExecutionException, ModuleCompilationException {
         if (previouslyEvaluatedConsumers.contains(this)) return;
         previouslyEvaluatedConsumers.add(this);
+        // tear down the running script so that it is run against its new dependencies the next time it is depended on
+        closeInternalLifecycle();
         try {
             reevaluateDependents(previouslyEvaluatedConsumers);
         } catch (ModuleAlreadyLoadedException e) {
@@ -241,6 +404,34 @@ public class JsScript<Scope> implements Dependency, DependencyConsumer, Reportab
         }
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Resets the running script, so that it is run against its new dependencies the next time it is depended on.
+     */
+    @Override
+    public void teardown(Collection<DependencyConsumer> reevaluatedConsumers) {
+        closeInternalLifecycle();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Nothing is done, as state is built lazily on the next depend.
+     */
+    @Override
+    public void rebuild(Collection<DependencyConsumer> reevaluatedConsumers) {
+    }
+
+    /**
+     * Returns the metrics the script records into
+     *
+     * @return module metrics
+     */
+    public ModuleMetrics getMetrics() {
+        return metrics;
+    }
+
     protected void reevaluateDependents(Collection<DependencyConsumer> previouslyEvaluatedConsumers) throws ModuleNotFoundException, ModuleExecutionException, ModuleCompilationException, ModuleAlreadyLoadedException, IOException {
         for (DependencyConsumer dependent : new HashSet<>(getDependents())) // avoid the CME, allow modules to reevaluate relationship.
             dependent.reevaluate(previouslyEvaluatedConsumers);
@@ -257,21 +448,20 @@ public class JsScript<Scope> implements Dependency, DependencyConsumer, Reportab
      */
     @Override
     public void report(Throwable t) {
-        if (internalBindings != null) {
-            Object module = internalBindings.get("module");
-            if (module instanceof Map) {
-                Object onErrorHandler = ((Map) module).get("onError");
-                if (onErrorHandler instanceof ScriptObjectMirror && ((ScriptObjectMirror) onErrorHandler).isFunction()) {
-                    try {
-                        ((ScriptObjectMirror) onErrorHandler).call(module, t);
-                        return;
-                    } catch (Throwable t2) {
-                        if (!reportOnErrorExceptions)
-                            throw t2; // rethrow, as we shouldn't report double errors (unit testing)
-                        logReportedException(new ModuleExecutionException(t2, "An exception occurred while attempting to handle an exception!"));
-                    }
-                } // todo - should probably error instead of silently fail if errorHandler exist but isn't a function...
-            }
+        metrics.recordReport();
+        Map<Object, Object> module = this.module;
+        if (module != null) {
+            Object onErrorHandler = module.get("onError");
+            if (backend.isFunction(onErrorHandler)) {
+                try {
+                    backend.call(onErrorHandler, module, t);
+                    return;
+                } catch (Throwable t2) {
+                    if (!reportOnErrorExceptions)
+                        throw t2; // rethrow, as we shouldn't report double errors (unit testing)
+                    logReportedException(new ModuleExecutionException(t2, "An exception occurred while attempting to handle an exception!"));
+                }
+            } // todo - should probably error instead of silently fail if errorHandler exist but isn't a function...
         }
         logReportedException(t);
     }
@@ -291,16 +481,14 @@ public class JsScript<Scope> implements Dependency, DependencyConsumer, Reportab
     // todo - allow for scripts to define their own loggers, and cast at runtime
     @Override
     public Logger getLogger() {
-        if (internalBindings != null) {
-            Object module = internalBindings.get("module");
-            if (module instanceof Map) {
-                Object loggerName = ((Map) module).get("loggerName");
-                if (loggerName instanceof String) {
-                    String moduleDefinedLoggerName = (String) loggerName;
-                    if (!Objects.equals(moduleDefinedLoggerName, this.loggerName)) {
-                        this.loggerName = moduleDefinedLoggerName;
-                        this.logger = Logger.getLogger(this.loggerName);
-                    }
+        Map<Object, Object> module = this.module;
+        if (module != null) {
+            Object loggerName = module.get("loggerName");
+            if (loggerName instanceof String) {
+                String moduleDefinedLoggerName = (String) loggerName;
+                if (!Objects.equals(moduleDefinedLoggerName, this.loggerName)) {
+                    this.loggerName = moduleDefinedLoggerName;
+                    this.logger = Logger.getLogger(this.loggerName);
                 }
             }
         }
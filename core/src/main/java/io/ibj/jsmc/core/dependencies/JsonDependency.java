@@ -6,8 +6,8 @@ import io.ibj.jsmc.api.DependencyConsumer;
 import io.ibj.jsmc.api.DependencyLifecycle;
 
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * A dependency which is backed by a static(ish) json instance
@@ -26,7 +26,7 @@ public class JsonDependency implements Dependency {
      */
     public JsonDependency(Object object) {
         this.object = object;
-        dependentLifecycleCache = new HashMap<>();
+        dependentLifecycleCache = new ConcurrentHashMap<>();
     }
 
     /**
@@ -0,0 +1,436 @@
+package io.ibj.jsmc.core.dependencies;
+
+import jdk.nashorn.api.scripting.AbstractJSObject;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Read-only script view of a json object or array, which is parsed lazily out of a byte buffer, usually a memory-mapped
+ * file. An object or array is only scanned for its keys or elements once it is first read from, and a value is only
+ * decoded once it is first read. Nested objects and arrays are views themselves, and every value is decoded at most
+ * once, so every consumer of a view shares the same, immutable structure.
+ * <p>
+ * Numbers are exposed as {@link Double}s, like they are when json is parsed eagerly. The buffer is only ever read with
+ * absolute reads, so a view is safe to read from multiple threads.
+ *
+ * @author Joseph Hirschfeld (Ichbinjoe) [joe@ibj.io]
+ * @since 10/18/26
+ */
+public final class LazyJsonObject extends AbstractJSObject {
+
+    private static final Object NULL = new Object();
+
+    private final ByteBuffer buffer;
+    private final int start;
+    private final boolean array;
+    // offsets of the values of the object or array, built on first read
+    private volatile Map<String, Integer> keyOffsets;
+    private volatile int[] elementOffsets;
+    private final Map<Object, Object> values = new ConcurrentHashMap<>();
+
+    private LazyJsonObject(ByteBuffer buffer, int start) {
+        this.buffer = buffer;
+        this.start = start;
+        this.array = buffer.get(start) == '[';
+    }
+
+    /**
+     * Reads a json file into memory, and returns a view of its root. The file is checked to be structurally well formed,
+     * but nothing is decoded. The view is not affected by the file changing afterwards.
+     *
+     * @param path path of the json file
+     * @return view of the root object or array
+     * @throws IOException              if the file could not be read
+     * @throws IllegalArgumentException if the file is not well formed json, or its root is not an object or array
+     */
+    public static LazyJsonObject read(Path path) throws IOException {
+        return of(ByteBuffer.wrap(Files.readAllBytes(path)));
+    }
+
+    /**
+     * Memory-maps a json file, and returns a view of its root. The file is checked to be structurally well formed, but
+     * nothing is decoded. The file must not be modified in place while the view is in use, as reading a view of a file
+     * which was truncated crashes the reading thread with an {@link InternalError}, while replacing the file is safe.
+     *
+     * @param path path of the json file
+     * @return view of the root object or array
+     * @throws IOException              if the file could not be mapped
+     * @throws IllegalArgumentException if the file is not well formed json, or its root is not an object or array
+     */
+    public static LazyJsonObject map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE)
+                throw new IOException("'" + path + "' is too large to be mapped");
+            return of(channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+        }
+    }
+
+    /**
+     * Returns a view of the json root held by a buffer. The buffer is checked to be structurally well formed, but
+     * nothing is decoded.
+     *
+     * @param buffer buffer holding utf-8 encoded json, from its position to its limit
+     * @return view of the root object or array
+     * @throws IllegalArgumentException if the buffer is not well formed json, or its root is not an object or array
+     */
+    public static LazyJsonObject of(ByteBuffer buffer) {
+        ByteBuffer json = buffer.slice();
+        int root = skipWhitespace(json, 0);
+        // a byte order mark is tolerated, as editors like to write one
+        if (root + 2 < json.limit() && (json.get(root) & 0xFF) == 0xEF && (json.get(root + 1) & 0xFF) == 0xBB &&
+                (json.get(root + 2) & 0xFF) == 0xBF)
+            root = skipWhitespace(json, root + 3);
+        if (root >= json.limit() || (json.get(root) != '{' && json.get(root) != '['))
+            throw new IllegalArgumentException("Json root has to be an object or array");
+        if (skipWhitespace(json, skipValue(json, root)) != json.limit())
+            throw new IllegalArgumentException("Unexpected content after json root");
+        return new LazyJsonObject(json, root);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isArray() {
+        return array;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object getMember(String name) {
+        if (array) {
+            if (name.equals("length"))
+                return elementOffsets().length;
+            return null;
+        }
+        Object value = values.get(name);
+        if (value == null) {
+            Integer offset = keyOffsets().get(name);
+            if (offset == null)
+                return null;
+            value = cache(name, offset);
+        }
+        return value == NULL ? null : value;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean hasMember(String name) {
+        return array ? name.equals("length") : keyOffsets().containsKey(name);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object getSlot(int index) {
+        if (!array)
+            return getMember(Integer.toString(index));
+        int[] offsets = elementOffsets();
+        if (index < 0 || index >= offsets.length)
+            return null;
+        Object value = values.get(index);
+        if (value == null)
+            value = cache(index, offsets[index]);
+        return value == NULL ? null : value;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean hasSlot(int index) {
+        return array ? index >= 0 && index < elementOffsets().length : hasMember(Integer.toString(index));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Set<String> keySet() {
+        if (!array)
+            return Collections.unmodifiableSet(keyOffsets().keySet());
+        Set<String> keys = new LinkedHashSet<>();
+        for (int i = 0; i < elementOffsets().length; i++)
+            keys.add(Integer.toString(i));
+        return keys;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Collection<Object> values() {
+        List<Object> all = new ArrayList<>();
+        if (array) {
+            for (int i = 0; i < elementOffsets().length; i++)
+                all.add(getSlot(i));
+        } else {
+            for (String key : keyOffsets().keySet())
+                all.add(getMember(key));
+        }
+        return all;
+    }
+
+    /**
+     * Always throws, as json views are read-only
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void setMember(String name, Object value) {
+        throw new UnsupportedOperationException("Json dependencies are read-only");
+    }
+
+    /**
+     * Always throws, as json views are read-only
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void setSlot(int index, Object value) {
+        throw new UnsupportedOperationException("Json dependencies are read-only");
+    }
+
+    /**
+     * Always throws, as json views are read-only
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void removeMember(String name) {
+        throw new UnsupportedOperationException("Json dependencies are read-only");
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getClassName() {
+        return array ? "Array" : "Object";
+    }
+
+    private Object cache(Object key, int offset) {
+        Object value = decode(offset);
+        Object raced = values.putIfAbsent(key, value == null ? NULL : value);
+        return raced != null ? raced : value == null ? NULL : value;
+    }
+
+    private Object decode(int offset) {
+        switch (buffer.get(offset)) {
+            case '{':
+            case '[':
+                return new LazyJsonObject(buffer, offset);
+            case '"':
+                return decodeString(buffer, offset);
+            case 't':
+                return Boolean.TRUE;
+            case 'f':
+                return Boolean.FALSE;
+            case 'n':
+                return null;
+            default:
+                int end = skipValue(buffer, offset);
+                return Double.valueOf(ascii(buffer, offset, end));
+        }
+    }
+
+    private Map<String, Integer> keyOffsets() {
+        Map<String, Integer> offsets = keyOffsets;
+        if (offsets == null) {
+            synchronized (this) {
+                offsets = keyOffsets;
+                if (offsets == null) {
+                    offsets = new LinkedHashMap<>();
+                    int i = skipWhitespace(buffer, start + 1);
+                    while (buffer.get(i) != '}') {
+                        String key = decodeString(buffer, i).intern();
+                        i = skipWhitespace(buffer, skipValue(buffer, i));
+                        i = skipWhitespace(buffer, i + 1); // ':'
+                        offsets.put(key, i);
+                        i = skipWhitespace(buffer, skipValue(buffer, i));
+                        if (buffer.get(i) == ',')
+                            i = skipWhitespace(buffer, i + 1);
+                    }
+                    keyOffsets = offsets = Collections.unmodifiableMap(offsets);
+                }
+            }
+        }
+        return offsets;
+    }
+
+    private int[] elementOffsets() {
+        int[] offsets = elementOffsets;
+        if (offsets == null) {
+            synchronized (this) {
+                offsets = elementOffsets;
+                if (offsets == null) {
+                    List<Integer> found = new ArrayList<>();
+                    int i = skipWhitespace(buffer, start + 1);
+                    while (buffer.get(i) != ']') {
+                        found.add(i);
+                        i = skipWhitespace(buffer, skipValue(buffer, i));
+                        if (buffer.get(i) == ',')
+                            i = skipWhitespace(buffer, i + 1);
+                    }
+                    offsets = new int[found.size()];
+                    for (int j = 0; j < offsets.length; j++)
+                        offsets[j] = found.get(j);
+                    elementOffsets = offsets;
+                }
+            }
+        }
+        return offsets;
+    }
+
+    private static int skipWhitespace(ByteBuffer b, int i) {
+        while (i < b.limit()) {
+            byte c = b.get(i);
+            if (c != ' ' && c != '\n' && c != '\r' && c != '\t')
+                break;
+            i++;
+        }
+        return i;
+    }
+
+    /*
+    Returns the offset right after the value starting at i, checking the structure of objects and arrays on the way
+     */
+    private static int skipValue(ByteBuffer b, int i) {
+        if (i >= b.limit())
+            throw malformed(i);
+        byte c = b.get(i);
+        if (c == '"') {
+            for (i++; i < b.limit(); i++) {
+                byte s = b.get(i);
+                if (s == '\\')
+                    i++;
+                else if (s == '"')
+                    return i + 1;
+            }
+            throw malformed(i);
+        }
+        if (c == '{' || c == '[') {
+            byte close = c == '{' ? (byte) '}' : (byte) ']';
+            i = skipWhitespace(b, i + 1);
+            if (i < b.limit() && b.get(i) == close)
+                return i + 1;
+            while (true) {
+                if (c == '{') {
+                    if (i >= b.limit() || b.get(i) != '"')
+                        throw malformed(i);
+                    i = skipWhitespace(b, skipValue(b, i));
+                    if (i >= b.limit() || b.get(i) != ':')
+                        throw malformed(i);
+                    i = skipWhitespace(b, i + 1);
+                }
+                i = skipWhitespace(b, skipValue(b, i));
+                if (i >= b.limit())
+                    throw malformed(i);
+                byte next = b.get(i);
+                if (next == close)
+                    return i + 1;
+                if (next != ',')
+                    throw malformed(i);
+                i = skipWhitespace(b, i + 1);
+            }
+        }
+        int end = i;
+        while (end < b.limit()) {
+            byte s = b.get(end);
+            if (s == ',' || s == '}' || s == ']' || s == ' ' || s == '\n' || s == '\r' || s == '\t')
+                break;
+            end++;
+        }
+        if (end == i)
+            throw malformed(i);
+        if (c == 't' || c == 'f' || c == 'n') {
+            String literal = ascii(b, i, end);
+            if (!literal.equals("true") && !literal.equals("false") && !literal.equals("null"))
+                throw malformed(i);
+        } else if (c != '-' && (c < '0' || c > '9')) {
+            throw malformed(i);
+        }
+        return end;
+    }
+
+    private static String decodeString(ByteBuffer b, int i) {
+        int end = skipValue(b, i) - 1;
+        int from = i + 1;
+        StringBuilder escaped = null;
+        int run = from;
+        for (int j = from; j < end; j++) {
+            if (b.get(j) != '\\')
+                continue;
+            if (escaped == null)
+                escaped = new StringBuilder(end - from);
+            escaped.append(utf8(b, run, j));
+            byte e = b.get(++j);
+            switch (e) {
+                case 'b':
+                    escaped.append('\b');
+                    break;
+                case 'f':
+                    escaped.append('\f');
+                    break;
+                case 'n':
+                    escaped.append('\n');
+                    break;
+                case 'r':
+                    escaped.append('\r');
+                    break;
+                case 't':
+                    escaped.append('\t');
+                    break;
+                case 'u':
+                    escaped.append((char) Integer.parseInt(ascii(b, j + 1, j + 5), 16));
+                    j += 4;
+                    break;
+                default:
+                    escaped.append((char) e);
+            }
+            run = j + 1;
+        }
+        if (escaped == null)
+            return utf8(b, from, end);
+        return escaped.append(utf8(b, run, end)).toString();
+    }
+
+    private static String utf8(ByteBuffer b, int from, int to) {
+        byte[] bytes = new byte[to - from];
+        for (int i = 0; i < bytes.length; i++)
+            bytes[i] = b.get(from + i);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static String ascii(ByteBuffer b, int from, int to) {
+        char[] chars = new char[to - from];
+        for (int i = 0; i < chars.length; i++)
+            chars[i] = (char) b.get(from + i);
+        return new String(chars);
+    }
+
+    private static IllegalArgumentException malformed(int offset) {
+        return new IllegalArgumentException("Malformed json at offset " + offset);
+    }
+}
@@ -8,17 +8,21 @@ import io.ibj.jsmc.api.exceptions.ModuleNotFoundException;
 
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * A logical module which delegates its lifecycle state to an internal dependency that is set post-creation
+ * <p>
+ * Lifecycles already handed out are looked up without locking, while the lifecycle held on the internal dependency is
+ * guarded by a lock held per module.
  *
  * @author Joseph Hirschfeld (Ichbinjoe) [joe@ibj.io]
  * @since 9/5/16
  */
-public class LogicalModule implements Dependency, DependencyConsumer {
+public class LogicalModule implements Dependency, StagedDependencyConsumer {
 
-    private Dependency internalMainDependency;
-    private DependencyLifecycle internalLifecycle;
+    private volatile Dependency internalMainDependency;
+    private volatile DependencyLifecycle internalLifecycle;
     private final Map<DependencyConsumer, DependencyLifecycle> dependencyLifecycleMap;
 
     /**
@@ -26,7 +30,7 @@ public class LogicalModule implements Dependency, DependencyConsumer {
      */
     public LogicalModule() {
         this.internalLifecycle = null;
-        this.dependencyLifecycleMap = new HashMap<>();
+        this.dependencyLifecycleMap = new ConcurrentHashMap<>();
     }
 
     /**
@@ -34,28 +38,39 @@ public class LogicalModule implements Dependency, DependencyConsumer {
      * @param dependency internal dependency to set
      * @throws IllegalStateException if internalMainDependency is already set
      */
-    public void setInternalDependency(Dependency dependency) {
+    public synchronized void setInternalDependency(Dependency dependency) {
         if (internalMainDependency != null) throw new IllegalStateException("setInternalDependency called twice!");
         this.internalMainDependency = dependency;
     }
 
-    private Object getInternalExports() throws ModuleExecutionException {
+    /**
+     * Returns the internal dependency of the module
+     * @return internal dependency, or null if not yet set
+     */
+    public Dependency getInternalDependency() {
+        return internalMainDependency;
+    }
+
+    private synchronized Object getInternalExports() throws ModuleExecutionException {
         if (internalLifecycle == null)
             internalLifecycle = internalMainDependency.depend(this);
         return internalLifecycle.getDependencyExports();
     }
 
-    private void releaseLifecycle(DependencyConsumer consumer) {
+    private synchronized void releaseLifecycle(DependencyConsumer consumer) {
         dependencyLifecycleMap.remove(consumer);
         if (dependencyLifecycleMap.isEmpty()) closeInternalLifecycle();
     }
 
-    private void closeInternalLifecycle() {
+    private synchronized void closeInternalLifecycle() {
+        if (internalLifecycle == null) return;
+        DependencyLifecycle lifecycle = internalLifecycle;
+        internalLifecycle = null;
         try {
-            internalLifecycle.close();
+            lifecycle.close();
         } catch (Exception e) {
             Throwable mee = new ModuleExecutionException(e, "Exception occurred while closing an internal lifecycle!");
-            Dependency internalDependency = internalLifecycle.getParentDependency();
+            Dependency internalDependency = lifecycle.getParentDependency();
             if (internalDependency instanceof Reportable)
                 ((Reportable) internalDependency).report(mee);
             else // todo - could we not throw a runtime exception here?
@@ -72,11 +87,17 @@ public class LogicalModule implements Dependency, DependencyConsumer {
             throw new NullPointerException("dependencyConsumer cannot be null");
 
         DependencyLifecycle dl = dependencyLifecycleMap.get(dependencyConsumer);
-        if (dl == null) {
-            dl = new SimpleDependencyLifecycle(this, getInternalExports(), () -> releaseLifecycle(dependencyConsumer));
-            dependencyLifecycleMap.put(dependencyConsumer, dl);
+        if (dl != null)
+            return dl;
+
+        synchronized (this) {
+            dl = dependencyLifecycleMap.get(dependencyConsumer);
+            if (dl == null) {
+                dl = new SimpleDependencyLifecycle(this, getInternalExports(), () -> releaseLifecycle(dependencyConsumer));
+                dependencyLifecycleMap.put(dependencyConsumer, dl);
+            }
+            return dl;
         }
-        return dl;
     }
 
     /**
@@ -115,6 +136,25 @@ public class LogicalModule implements Dependency, DependencyConsumer {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Closes the lifecycle held on the internal dependency, so it is depended on again the next time this module is.
+     */
+    @Override
+    public void teardown(Collection<DependencyConsumer> reevaluatedConsumers) {
+        closeInternalLifecycle();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Nothing is done, as state is built lazily on the next depend.
+     */
+    @Override
+    public void rebuild(Collection<DependencyConsumer> reevaluatedConsumers) {
+    }
+
     protected void reevaluateDependents(Collection<DependencyConsumer> previouslyEvaluatedConsumers) throws ModuleNotFoundException, ModuleExecutionException, ModuleCompilationException, ModuleAlreadyLoadedException, IOException {
         for (DependencyConsumer dependent : new HashSet<>(getDependents())) // avoid the CME, allow modules to reevaluate relationship.
             dependent.reevaluate(previouslyEvaluatedConsumers);
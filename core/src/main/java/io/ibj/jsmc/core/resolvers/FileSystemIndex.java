@@ -0,0 +1,166 @@
+package io.ibj.jsmc.core.resolvers;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An in-memory index of every file and directory beneath a root, built in a single walk of the tree. Queries for paths
+ * beneath the root are answered from the index without touching the disk, while queries outside of the root fall back
+ * to the file system.
+ * <p>
+ * The index does not notice changes made to the tree on its own. Once files are added or removed, the affected paths
+ * must be passed to {@link #invalidate(Path)}, or the entire index dropped with {@link #invalidate()}.
+ *
+ * @author Joseph Hirschfeld (Ichbinjoe) [joe@ibj.io]
+ * @since 10/18/26
+ */
+public class FileSystemIndex implements FileSystemView {
+
+    private final Path root;
+    private volatile Map<Path, Boolean> entries;
+
+    /**
+     * Creates a new index of the tree beneath a root. The tree is walked on the first query
+     *
+     * @param root root of the index
+     */
+    public FileSystemIndex(Path root) {
+        if (root == null)
+            throw new NullPointerException("root cannot be null");
+        this.root = root.toAbsolutePath().normalize();
+    }
+
+    /**
+     * Returns the root of the index
+     *
+     * @return index root
+     */
+    public Path getRoot() {
+        return root;
+    }
+
+    /**
+     * Drops the entire index. It will be rebuilt by the next query
+     */
+    public void invalidate() {
+        entries = null;
+    }
+
+    /**
+     * Drops the index of a single path and everything beneath it, and indexes it again from the disk
+     *
+     * @param path path which has changed
+     */
+    public void invalidate(Path path) {
+        Map<Path, Boolean> e = entries;
+        if (e == null)
+            return;
+        Path p = normalize(path);
+        if (!isIndexed(p))
+            return;
+        e.keySet().removeIf(k -> k.startsWith(p));
+        try {
+            walk(p, e);
+        } catch (IOException ex) {
+            // the tree cannot be trusted anymore, start over on the next query
+            entries = null;
+            return;
+        }
+        // new parents need to be indexed too, otherwise they will look missing
+        for (Path parent = p.getParent(); parent != null && parent.startsWith(root); parent = parent.getParent())
+            if (Files.isDirectory(parent))
+                e.put(parent, true);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean exists(Path path) {
+        Path p = normalize(path);
+        if (!isIndexed(p))
+            return DIRECT.exists(path);
+        return getEntries().containsKey(p);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isDirectory(Path path) {
+        Path p = normalize(path);
+        if (!isIndexed(p))
+            return DIRECT.isDirectory(path);
+        return getEntries().getOrDefault(p, false);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isSameFile(Path path, Path path2) throws IOException {
+        Path p = normalize(path);
+        if (isIndexed(p) && p.equals(normalize(path2)))
+            return true;
+        // a symbolic link and its target are only told apart by the file system
+        return DIRECT.isSameFile(path, path2);
+    }
+
+    // paths of other file systems, such as a mounted zip, can not be beneath the root
+    private boolean isIndexed(Path path) {
+        return path.getFileSystem() == root.getFileSystem() && path.startsWith(root);
+    }
+
+    private Map<Path, Boolean> getEntries() {
+        Map<Path, Boolean> e = entries;
+        if (e == null) {
+            synchronized (this) {
+                e = entries;
+                if (e == null) {
+                    e = new ConcurrentHashMap<>();
+                    try {
+                        walk(root, e);
+                    } catch (IOException ex) {
+                        // root is unreadable, which is the same as an empty tree
+                        e.clear();
+                    }
+                    entries = e;
+                }
+            }
+        }
+        return e;
+    }
+
+    private static void walk(Path start, Map<Path, Boolean> e) throws IOException {
+        if (!Files.exists(start))
+            return;
+        Files.walkFileTree(start, EnumSet.of(FileVisitOption.FOLLOW_LINKS), Integer.MAX_VALUE, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                e.put(dir, true);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                e.put(file, attrs.isDirectory());
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException exc) {
+                // symlink loops and unreadable entries still exist, they just can't be descended into
+                e.put(file, exc instanceof FileSystemLoopException);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private static Path normalize(Path path) {
+        return path.toAbsolutePath().normalize();
+    }
+}
@@ -7,26 +7,38 @@ import io.ibj.jsmc.api.Dependency;
 import io.ibj.jsmc.api.DependencyLifecycle;
 import io.ibj.jsmc.api.DependencyResolver;
 import io.ibj.jsmc.api.exceptions.ModuleCompilationException;
+import io.ibj.jsmc.api.exceptions.ModuleExecutionException;
+import io.ibj.jsmc.api.exceptions.ModuleNotFoundException;
+import io.ibj.jsmc.api.metrics.MetricsRegistry;
+import io.ibj.jsmc.api.metrics.ModuleMetrics;
+import io.ibj.jsmc.core.ReevaluationScheduler;
+import io.ibj.jsmc.core.backend.CompiledModule;
+import io.ibj.jsmc.core.backend.NashornBackend;
+import io.ibj.jsmc.core.backend.ScriptBackend;
+import io.ibj.jsmc.core.compiler.CodeCache;
+import io.ibj.jsmc.core.compiler.JsonCache;
+import io.ibj.jsmc.core.compiler.ScriptCompiler;
 import io.ibj.jsmc.core.dependencies.JsScript;
 import io.ibj.jsmc.core.dependencies.JsonDependency;
+import io.ibj.jsmc.core.dependencies.LazyJsonObject;
 import io.ibj.jsmc.core.dependencies.LogicalModule;
-import jdk.nashorn.api.scripting.NashornScriptEngine;
-import jdk.nashorn.api.scripting.NashornScriptEngineFactory;
 
-import javax.script.CompiledScript;
-import javax.script.ScriptContext;
 import javax.script.ScriptException;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Optional;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * DependencyResolver which loads dependencies from a path
@@ -40,19 +52,204 @@ public class FileSystemResolver implements DependencyResolver<Path> {
         Optional<Dependency> apply(Path p) throws ModuleCompilationException, IOException;
     }
 
-    private final Map<Path, Optional<Dependency>> cachedDependencies = new HashMap<>();
+    /*
+    Resolution of a path which is in progress. Resolving a path may resolve the same path again on the same thread, which
+    must not wait on itself
+     */
+    private static class PendingResolution extends CompletableFuture<Optional<Dependency>> {
+        private final Thread owner = Thread.currentThread();
+    }
+
+    // require calls with a literal identifier, which can be resolved ahead of the script running
+    private static final Pattern literalRequirePattern =
+            Pattern.compile("\\brequire\\s*\\(\\s*(['\"])([^'\"\\\\\\r\\n]+)\\1\\s*\\)");
+
+    // lazily parsed json files up to this size are read into memory rather than mapped, as a mapped file which is
+    // truncated while its view is in use crashes the reading thread
+    private static final long MAX_READ_JSON_SIZE = 64 * 1024 * 1024;
+
+    private final Map<Path, Optional<Dependency>> cachedDependencies = new ConcurrentHashMap<>();
     private final Supplier<DependencyResolver<Path>> pointDependencyResolver;
     private final Path rootPath;
+    private final ScriptBackend backend;
+    private final FileSystemView fileSystem;
+    private final ReevaluationScheduler scheduler;
+    private final Executor prefetchExecutor;
+    private final MetricsRegistry metrics;
+    private final long lazyJsonThreshold;
+    private final JsonCache jsonCache;
+    private final Map<Path, PendingResolution> pendingResolutions = new ConcurrentHashMap<>();
+    private final Set<Path> prefetchedScripts = ConcurrentHashMap.newKeySet();
 
     /**
      * Creates a new FileSystemResolver with a dependencyresolver supplier for new js based files, as well as a fs root
      *
      * @param pointDependencyResolver DependencyResolver supplier to supply a resolver for new JsScript files to use
      * @param rootPath                Local root of the project filesystem
+     * @see #builder(Supplier, Path)
      */
     public FileSystemResolver(Supplier<DependencyResolver<Path>> pointDependencyResolver, Path rootPath) {
-        this.pointDependencyResolver = pointDependencyResolver;
-        this.rootPath = rootPath;
+        this(builder(pointDependencyResolver, rootPath));
+    }
+
+    private FileSystemResolver(Builder builder) {
+        this.pointDependencyResolver = builder.pointDependencyResolver;
+        this.rootPath = builder.rootPath;
+        this.backend = builder.backend != null ? builder.backend : new NashornBackend(new ScriptCompiler((CodeCache) null));
+        this.fileSystem = builder.fileSystem;
+        this.scheduler = builder.scheduler != null ? builder.scheduler : new ReevaluationScheduler();
+        this.prefetchExecutor = builder.prefetchExecutor;
+        this.metrics = builder.metrics;
+        this.lazyJsonThreshold = builder.lazyJsonThreshold;
+        this.jsonCache = builder.jsonCache;
+    }
+
+    /**
+     * Starts building a FileSystemResolver, which is configured like one created through
+     * {@link #FileSystemResolver(Supplier, Path)} unless other settings are given to the builder
+     *
+     * @param pointDependencyResolver DependencyResolver supplier to supply a resolver for new JsScript files to use
+     * @param rootPath                Local root of the project filesystem
+     * @return builder
+     */
+    public static Builder builder(Supplier<DependencyResolver<Path>> pointDependencyResolver, Path rootPath) {
+        return new Builder(pointDependencyResolver, rootPath);
+    }
+
+    /**
+     * Optional settings of a {@link FileSystemResolver}
+     */
+    public static final class Builder {
+
+        private final Supplier<DependencyResolver<Path>> pointDependencyResolver;
+        private final Path rootPath;
+        private ScriptBackend backend;
+        private FileSystemView fileSystem = FileSystemView.DIRECT;
+        private ReevaluationScheduler scheduler;
+        private Executor prefetchExecutor;
+        private MetricsRegistry metrics;
+        private long lazyJsonThreshold = -1;
+        private JsonCache jsonCache;
+
+        private Builder(Supplier<DependencyResolver<Path>> pointDependencyResolver, Path rootPath) {
+            this.pointDependencyResolver = pointDependencyResolver;
+            this.rootPath = rootPath;
+        }
+
+        /**
+         * Compiles and runs scripts on Nashorn through a shared compiler, such as one compiling through a persistent
+         * {@link CodeCache}. By default, every resolver compiles on a compiler of its own
+         *
+         * @param compiler compiler to compile scripts with
+         * @return this builder
+         */
+        public Builder compiler(ScriptCompiler compiler) {
+            if (compiler == null)
+                throw new NullPointerException("compiler cannot be null");
+            return backend(new NashornBackend(compiler));
+        }
+
+        /**
+         * Compiles and runs scripts on any {@link ScriptBackend}
+         *
+         * @param backend backend to compile and run scripts on
+         * @return this builder
+         */
+        public Builder backend(ScriptBackend backend) {
+            if (backend == null)
+                throw new NullPointerException("backend cannot be null");
+            this.backend = backend;
+            return this;
+        }
+
+        /**
+         * Answers file system queries through a view such as a {@link FileSystemIndex}, rather than the file system
+         * directly
+         *
+         * @param fileSystem view to query the file system through
+         * @return this builder
+         */
+        public Builder fileSystem(FileSystemView fileSystem) {
+            if (fileSystem == null)
+                throw new NullPointerException("fileSystem cannot be null");
+            this.fileSystem = fileSystem;
+            return this;
+        }
+
+        /**
+         * Reevaluates modules affected by a {@link FileSystemResolver#reload(Collection)} through a shared scheduler,
+         * rather than one of the resolver's own
+         *
+         * @param scheduler scheduler to reevaluate reloaded modules through
+         * @return this builder
+         */
+        public Builder scheduler(ReevaluationScheduler scheduler) {
+            if (scheduler == null)
+                throw new NullPointerException("scheduler cannot be null");
+            this.scheduler = scheduler;
+            return this;
+        }
+
+        /**
+         * Prefetches the dependencies of every script the resolver compiles. Each <code>require()</code> call of a
+         * script with a literal identifier is resolved on the prefetch executor, so a script's dependency tree is
+         * compiled in parallel before the script runs and requires it. Resolving a path which is still being prefetched
+         * waits for the prefetch instead of compiling it again.
+         *
+         * @param prefetchExecutor executor to prefetch dependencies on, or null to not prefetch
+         * @return this builder
+         */
+        public Builder prefetchExecutor(Executor prefetchExecutor) {
+            this.prefetchExecutor = prefetchExecutor;
+            return this;
+        }
+
+        /**
+         * Records the compile time of every script, as well as the runtime metrics of every script the resolver
+         * creates, into a metrics registry. Scripts are registered under their path relative to the root.
+         *
+         * @param metrics registry to record script metrics into, or null to not register them
+         * @return this builder
+         */
+        public Builder metrics(MetricsRegistry metrics) {
+            this.metrics = metrics;
+            return this;
+        }
+
+        /**
+         * Parses json files of at least a threshold size lazily, rather than up front. Such files are exposed as a
+         * read-only {@link LazyJsonObject}, which only decodes what is read from it, rather than as a map. Files of up
+         * to 64 megabytes are read into memory, larger files are memory-mapped and must not be modified in place while
+         * they are in use. package.json files are always parsed up front.
+         *
+         * @param lazyJsonThreshold size in bytes from which json files are mapped, or a negative number to never map
+         * @return this builder
+         */
+        public Builder lazyJsonThreshold(long lazyJsonThreshold) {
+            this.lazyJsonThreshold = lazyJsonThreshold;
+            return this;
+        }
+
+        /**
+         * Loads json files which are parsed up front through a json cache, so json files which did not change since
+         * they were last parsed are decoded from the cache instead of parsed again.
+         *
+         * @param jsonCache cache to load parsed json files through, or null to always parse
+         * @return this builder
+         */
+        public Builder jsonCache(JsonCache jsonCache) {
+            this.jsonCache = jsonCache;
+            return this;
+        }
+
+        /**
+         * Creates the FileSystemResolver
+         *
+         * @return new FileSystemResolver
+         */
+        public FileSystemResolver build() {
+            return new FileSystemResolver(this);
+        }
     }
 
     /**
@@ -61,16 +258,17 @@ public class FileSystemResolver implements DependencyResolver<Path> {
     @Override
     public Optional<Dependency> resolve(Path requestScope, final String dependencyIdentifier) throws ModuleCompilationException, IOException {
         // todo - should we even allow absolute paths? not sure if it is windows compatible (pretty sure it isn't)
-        if (Files.notExists(requestScope)) throw new IllegalArgumentException("Request scope must exist");
+        if (!fileSystem.exists(requestScope)) throw new IllegalArgumentException("Request scope must exist");
         if (!(dependencyIdentifier.startsWith("./") || dependencyIdentifier.startsWith("../") || dependencyIdentifier.startsWith("/")))
             return Optional.empty();
 
-        if (!Files.isDirectory(requestScope))
+        if (!fileSystem.isDirectory(requestScope))
             requestScope = requestScope.getParent(); // we want to instead operate on directories
 
-        Path requestPath = requestScope.resolve(dependencyIdentifier);
+        // normalized, so every way of reaching a file shares its cache entry
+        Path requestPath = requestScope.resolve(dependencyIdentifier).normalize();
         return resolve(requestPath, p -> {
-            if (Files.exists(p) && Files.isDirectory(p.toRealPath()))
+            if (fileSystem.isDirectory(p))
                 return bootstrapDirectory(p);
             else if (dependencyIdentifier.endsWith(".js"))
                 return resolve(p, this::resolveJs);
@@ -85,30 +283,202 @@ public class FileSystemResolver implements DependencyResolver<Path> {
         });
     }
 
+    /**
+     * Evicts every cached dependency which may be affected by changes to the passed paths, so they are loaded from the
+     * file system again on the next resolution. A cached dependency is affected if its file was changed, if it was
+     * beneath a changed directory, or if it is a directory module whose package.json, index or main dependency changed.
+     *
+     * @param changedPaths paths which were created, modified or deleted
+     * @return dependencies which were evicted from the cache
+     */
+    public Collection<Dependency> invalidate(Collection<Path> changedPaths) {
+        Set<Path> changed = new HashSet<>();
+        for (Path p : changedPaths)
+            changed.add(p.toAbsolutePath().normalize());
+
+        Set<Dependency> evicted = new HashSet<>();
+        Iterator<Map.Entry<Path, Optional<Dependency>>> itr = cachedDependencies.entrySet().iterator();
+        while (itr.hasNext()) {
+            Map.Entry<Path, Optional<Dependency>> e = itr.next();
+            if (isAffected(e.getKey().toAbsolutePath().normalize(), changed)) {
+                itr.remove();
+                e.getValue().ifPresent(evicted::add);
+            }
+        }
+        prefetchedScripts.removeIf(p -> isAffected(p.toAbsolutePath().normalize(), changed));
+
+        // directory modules wrapping an evicted dependency would otherwise keep handing out the stale dependency
+        boolean evictedWrapper = true;
+        while (evictedWrapper) {
+            evictedWrapper = false;
+            itr = cachedDependencies.entrySet().iterator();
+            while (itr.hasNext()) {
+                Optional<Dependency> d = itr.next().getValue();
+                if (d.isPresent() && d.get() instanceof LogicalModule &&
+                        evicted.contains(((LogicalModule) d.get()).getInternalDependency())) {
+                    itr.remove();
+                    evicted.add(d.get());
+                    evictedWrapper = true;
+                }
+            }
+        }
+        // changed paths may also shadow dependencies which were not cached here, such as a new nested node_modules
+        scheduler.resolutionsChanged();
+        return evicted;
+    }
+
+    /**
+     * Evicts every cached dependency affected by changes to the passed paths, and reevaluates everything which depended
+     * on them so that they pick up the changed files. Every affected module is reevaluated once, in dependency order.
+     *
+     * @param changedPaths paths which were created, modified or deleted
+     * @throws ModuleExecutionException   if a module fails to execute properly
+     * @throws IOException                if an IO related exception is thrown
+     * @throws ModuleCompilationException if a changed module fails to compile
+     * @throws ModuleNotFoundException    if a module dependency was removed
+     * @see FileSystemResolver#invalidate(Collection)
+     */
+    public void reload(Collection<Path> changedPaths) throws ModuleExecutionException, IOException, ModuleCompilationException, ModuleNotFoundException {
+        scheduler.reevaluate(invalidate(changedPaths));
+    }
+
+    private static boolean isAffected(Path cached, Set<Path> changed) {
+        for (Path c : changed)
+            if (cached.getFileSystem() == c.getFileSystem() && cached.startsWith(c))
+                return true;
+        String name = cached.getFileName() == null ? "" : cached.getFileName().toString();
+        return changed.contains(cached.resolveSibling(name + ".js")) ||
+                changed.contains(cached.resolveSibling(name + ".json")) ||
+                changed.contains(cached.resolve("package.json")) ||
+                changed.contains(cached.resolve("index.js")) ||
+                changed.contains(cached.resolve("index.json"));
+    }
+
     private Optional<Dependency> resolve(Path path, Resolver resolutionScheme) throws ModuleCompilationException, IOException {
         Optional<Dependency> dependency = cachedDependencies.get(path);
-        if (dependency == null) {
-            dependency = resolutionScheme.apply(path);
-            cachedDependencies.put(path, dependency);
+        if (dependency != null)
+            return dependency;
+
+        PendingResolution resolution = new PendingResolution();
+        PendingResolution existing = pendingResolutions.putIfAbsent(path, resolution);
+        if (existing != null) {
+            if (existing.owner == resolution.owner)
+                return resolutionScheme.apply(path);
+            return await(existing);
+        }
+
+        try {
+            dependency = cachedDependencies.get(path);
+            if (dependency == null) {
+                dependency = resolutionScheme.apply(path);
+                cachedDependencies.put(path, dependency);
+            }
+            resolution.complete(dependency);
+            return dependency;
+        } catch (ModuleCompilationException | IOException | RuntimeException | Error e) {
+            resolution.completeExceptionally(e);
+            throw e;
+        } finally {
+            pendingResolutions.remove(path, resolution);
         }
-        return dependency;
+    }
+
+    private static Optional<Dependency> await(PendingResolution resolution) throws ModuleCompilationException, IOException {
+        try {
+            return resolution.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof ModuleCompilationException)
+                throw (ModuleCompilationException) cause;
+            if (cause instanceof IOException)
+                throw (IOException) cause;
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+            if (cause instanceof Error)
+                throw (Error) cause;
+            throw e;
+        }
+    }
+
+    /*
+    Resolves every literal require of a script on the prefetch executor. Failures are dropped, as they are thrown again
+    when the script requires the dependency itself
+     */
+    private void prefetch(Path path, String source, DependencyResolver<Path> scriptResolver) {
+        Matcher m = literalRequirePattern.matcher(source);
+        while (m.find()) {
+            String identifier = m.group(2);
+            prefetchExecutor.execute(() -> {
+                try {
+                    scriptResolver.resolve(path, identifier);
+                } catch (Exception e) {
+                    // reported when the script runs
+                }
+            });
+        }
+    }
+
+    /*
+    Scripts beneath the root are named relative to it. Scripts on another file system, such as a mounted zip, can not be
+    relativized against the root and are named by their absolute path within their file system
+     */
+    private String nameOf(Path path) {
+        if (path.getFileSystem() != rootPath.getFileSystem())
+            return path.toAbsolutePath().normalize().toString();
+        return rootPath.relativize(path).normalize().toString();
+    }
+
+    /*
+    A pipeline built on this resolver already routes relative identifiers here, so every script shares it. Any other point
+    resolver only answers what this resolver does not
+     */
+    private DependencyResolver<Path> scriptResolver() {
+        DependencyResolver<Path> point = pointDependencyResolver.get();
+        if (point instanceof ResolverPipeline && ((ResolverPipeline) point).getFileResolver() == this)
+            return point;
+        return new PassthroughResolver<>(this, point);
     }
 
     private Optional<Dependency> resolveJs(Path path) throws ModuleCompilationException, IOException {
-        if (!Files.exists(path)) return Optional.empty();
-        try (Reader r = Files.newBufferedReader(path)) {
-            return Optional.of(new JsScript<>(
-                    loadJs(r, rootPath.relativize(path).normalize().toString()),
+        if (!fileSystem.exists(path)) return Optional.empty();
+        String source = new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+        String name = nameOf(path);
+        ModuleMetrics scriptMetrics = metrics != null ? metrics.metrics(name) : new ModuleMetrics(name);
+        try {
+            DependencyResolver<Path> scriptResolver = scriptResolver();
+            long start = System.nanoTime();
+            CompiledModule compiledModule = loadJs(source, name);
+            scriptMetrics.recordCompile(System.nanoTime() - start);
+            JsScript<Path> script = new JsScript<>(
+                    compiledModule,
                     path,
-                    new PassthroughResolver<>(this, pointDependencyResolver.get()),
-                    path.getFileName().toString(), true));
+                    scriptResolver,
+                    path.getFileName().toString(), true, scriptMetrics);
+            if (prefetchExecutor != null && prefetchedScripts.add(path))
+                prefetch(path, source, scriptResolver);
+            return Optional.of(script);
         } catch (ScriptException e) {
             throw new ModuleCompilationException(e, "Failed to compile script at '" + path.toAbsolutePath() + "'");
         }
     }
 
     private Optional<Dependency> resolveJson(Path path) throws ModuleCompilationException, IOException {
-        if (!Files.exists(path)) return Optional.empty();
+        if (!fileSystem.exists(path)) return Optional.empty();
+        // package.json is read as a map while bootstrapping directories, so it is never mapped. Only files on the default
+        // file system can be mapped, zip file systems can not
+        long size;
+        if (lazyJsonThreshold >= 0 && !path.getFileName().toString().equals("package.json") &&
+                path.getFileSystem() == FileSystems.getDefault() && (size = Files.size(path)) >= lazyJsonThreshold) {
+            try {
+                LazyJsonObject json = size <= MAX_READ_JSON_SIZE ? LazyJsonObject.read(path) : LazyJsonObject.map(path);
+                // json parsed up front has to be an object as well
+                if (json.isArray())
+                    throw new IllegalArgumentException("Json root has to be an object");
+                return Optional.of(new JsonDependency(json));
+            } catch (IllegalArgumentException e) {
+                throw new ModuleCompilationException(e, "Failed to parse json at '" + path.toAbsolutePath() + "'");
+            }
+        }
         try {
             return Optional.of(new JsonDependency(loadJson(path)));
         } catch (JsonParseException e) {
@@ -156,30 +526,22 @@ public class FileSystemResolver implements DependencyResolver<Path> {
         return Optional.empty(); // probably normal directory, not a module.
     }
 
-    private final NashornScriptEngine engine = (NashornScriptEngine) new NashornScriptEngineFactory().getScriptEngine();
-    private static final Lock engineLock = new ReentrantLock();
-
     private static final Gson gson = new GsonBuilder().create();
     /**
-     * Loads and compiles a script from the given reader with the passed source
+     * Compiles a module from its source on the backend
      *
-     * @param r      Reader to compile script from
-     * @param source Source location to be reported by internal exceptions
-     * @return Compiled script from reader with source
+     * @param source Source of the module
+     * @param name   Source location to be reported by internal exceptions
+     * @return Compiled module
      * @throws ScriptException If the script fails to compile, or another assorted error
      */
-    private CompiledScript loadJs(Reader r, String source) throws ScriptException {
-        engineLock.lock();
-        try {
-            if (source != null)
-                engine.getContext().setAttribute(NashornScriptEngine.FILENAME, source, ScriptContext.ENGINE_SCOPE);
-            return engine.compile(r);
-        } finally {
-            engineLock.unlock();
-        }
+    private CompiledModule loadJs(String source, String name) throws ScriptException {
+        return backend.compile(source, name);
     }
 
     private Object loadJson(Path p) throws IOException {
+        if (jsonCache != null)
+            return jsonCache.load(p);
         try (Reader r = Files.newBufferedReader(p)) {
             return gson.fromJson(r, Map.class);
         }
@@ -0,0 +1,61 @@
+package io.ibj.jsmc.core.resolvers;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * The file system queries resolvers make while resolving a dependency. Allows for resolution to be answered from
+ * something other than the disk, such as a {@link FileSystemIndex}.
+ *
+ * @author Joseph Hirschfeld (Ichbinjoe) [joe@ibj.io]
+ * @since 10/18/26
+ */
+public interface FileSystemView {
+
+    /**
+     * View which answers every query directly from the file system
+     */
+    FileSystemView DIRECT = new FileSystemView() {
+        @Override
+        public boolean exists(Path path) {
+            return Files.exists(path);
+        }
+
+        @Override
+        public boolean isDirectory(Path path) {
+            return Files.isDirectory(path);
+        }
+
+        @Override
+        public boolean isSameFile(Path path, Path path2) throws IOException {
+            return Files.isSameFile(path, path2);
+        }
+    };
+
+    /**
+     * Returns whether a file or directory exists at the path, following symbolic links
+     *
+     * @param path path to test
+     * @return whether the path exists
+     */
+    boolean exists(Path path);
+
+    /**
+     * Returns whether the path is a directory, following symbolic links
+     *
+     * @param path path to test
+     * @return whether the path is a directory
+     */
+    boolean isDirectory(Path path);
+
+    /**
+     * Returns whether both paths locate the same file
+     *
+     * @param path  first path
+     * @param path2 second path
+     * @return whether the paths locate the same file
+     * @throws IOException if an IO related exception occurs
+     */
+    boolean isSameFile(Path path, Path path2) throws IOException;
+}
@@ -5,6 +5,7 @@ import io.ibj.jsmc.api.DependencyResolver;
 import io.ibj.jsmc.api.exceptions.ModuleCompilationException;
 
 import java.io.IOException;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.*;
@@ -24,6 +25,8 @@ public class ModuleResolver implements DependencyResolver<Path> {
     private final Path rootPath;
     private final DependencyResolver<Path> fileResolver;
     private final DependencyResolver<Path> downstreamResolver;
+    private final FileSystemView fileSystem;
+    private final Path overlay;
 
     /**
      * Creates a new module resolver with a root path, internal file resolver, and a fallback downstream resolver
@@ -32,9 +35,49 @@ public class ModuleResolver implements DependencyResolver<Path> {
      * @param downstreamResolver resolver used when this resolver fails
      */
     public ModuleResolver(Path rootPath, DependencyResolver<Path> fileResolver, DependencyResolver<Path> downstreamResolver) {
+        this(rootPath, fileResolver, downstreamResolver, FileSystemView.DIRECT);
+    }
+
+    /**
+     * Creates a new module resolver which answers its file system queries through a view, such as a
+     * {@link FileSystemIndex}
+     * @param rootPath root path of module resolution
+     * @param fileResolver resolver used to look up files
+     * @param downstreamResolver resolver used when this resolver fails
+     * @param fileSystem view to query the file system through
+     */
+    public ModuleResolver(Path rootPath, DependencyResolver<Path> fileResolver, DependencyResolver<Path> downstreamResolver,
+                          FileSystemView fileSystem) {
+        this(rootPath, fileResolver, downstreamResolver, fileSystem, null);
+    }
+
+    /**
+     * Creates a new module resolver which layers a read-only directory of modules beneath the node_modules of the root,
+     * such as the root of a mounted zip file system. Modules are only resolved from the overlay if no node_modules on
+     * the way to the root contains them, so modules on disk always take precedence.
+     * @param rootPath root path of module resolution
+     * @param fileResolver resolver used to look up files, which has to accept paths of the overlay's file system
+     * @param downstreamResolver resolver used when this resolver fails
+     * @param fileSystem view to query the file system through
+     * @param overlay directory laid out like node_modules, or null for no overlay
+     */
+    public ModuleResolver(Path rootPath, DependencyResolver<Path> fileResolver, DependencyResolver<Path> downstreamResolver,
+                          FileSystemView fileSystem, Path overlay) {
+        if (fileSystem == null)
+            throw new NullPointerException("fileSystem cannot be null");
         this.rootPath = rootPath;
         this.fileResolver = fileResolver;
         this.downstreamResolver = downstreamResolver;
+        this.fileSystem = fileSystem;
+        this.overlay = overlay;
+    }
+
+    /**
+     * Returns the read-only directory of modules layered beneath the node_modules of the root
+     * @return overlay directory, or null if there is none
+     */
+    public Path getOverlay() {
+        return overlay;
     }
 
     /**
@@ -46,7 +89,7 @@ public class ModuleResolver implements DependencyResolver<Path> {
 
         if (validModulePattern.matcher(dependencyIdentifier).matches()) {
             Path nodeModuleResolutionPath;
-            if (Files.isDirectory(requestScope))
+            if (fileSystem.isDirectory(requestScope))
                 nodeModuleResolutionPath = requestScope;
             else
                 nodeModuleResolutionPath = requestScope.getParent();
@@ -60,34 +103,68 @@ public class ModuleResolver implements DependencyResolver<Path> {
     private Optional<Dependency> resolveWithinNodeModules(Path currentDirectory, String identifier) throws ModuleCompilationException, IOException {
         // handles terminal case where .getParentFile() results in popping out of root!! (oh noez)
         if (currentDirectory == null) return Optional.empty();
+        if (isWithinOverlay(currentDirectory))
+            return resolveWithinOverlay(currentDirectory, identifier);
         // handles when we are in a module directory. we can't search there, so we better pop out again
         while (currentDirectory.getFileName().endsWith("node_modules"))
             currentDirectory = currentDirectory.getParent();
 
         // if a file exists which points to a subdirectory 'node_modules', we should try to extract the module from it
         Path nodeModules = currentDirectory.resolve("node_modules");
-        if (Files.isDirectory(nodeModules)) {
+        if (fileSystem.isDirectory(nodeModules)) {
             Optional<Dependency> nodeModuleOptDep = fileResolver.resolve(nodeModules, "./" + identifier);
             if (nodeModuleOptDep.isPresent()) return nodeModuleOptDep;
         }
-        // Detection of pop out of scope.
-        if (Files.isSameFile(currentDirectory, rootPath))
-            return Optional.empty();
+        // Detection of pop out of scope. The overlay lies beneath the node_modules of the root
+        if (fileSystem.isSameFile(currentDirectory, rootPath))
+            return overlay == null ? Optional.empty() : fileResolver.resolve(overlay, "./" + identifier);
 
         // try parent file system
         return resolveWithinNodeModules(currentDirectory.getParent(), identifier);
     }
 
-    public Collection<String> getLoadableModules() throws IOException {
-        Path nodeModules = rootPath.resolve("node_modules");
-        if (!Files.isDirectory(nodeModules))
-            return Collections.EMPTY_SET;
+    /*
+    Modules within the overlay resolve their own node_modules first, then continue on the root as if the overlay was
+    the node_modules of the root
+     */
+    private Optional<Dependency> resolveWithinOverlay(Path currentDirectory, String identifier) throws ModuleCompilationException, IOException {
+        while (!currentDirectory.equals(overlay)) {
+            if (!currentDirectory.getFileName().toString().equals("node_modules")) {
+                Path nodeModules = currentDirectory.resolve("node_modules");
+                if (fileSystem.isDirectory(nodeModules)) {
+                    Optional<Dependency> nodeModuleOptDep = fileResolver.resolve(nodeModules, "./" + identifier);
+                    if (nodeModuleOptDep.isPresent()) return nodeModuleOptDep;
+                }
+            }
+            currentDirectory = currentDirectory.getParent();
+        }
+        return resolveWithinNodeModules(rootPath, identifier);
+    }
 
-        Set<String> ret = new HashSet<>();
+    private boolean isWithinOverlay(Path path) {
+        return overlay != null && path.getFileSystem() == overlay.getFileSystem() && path.startsWith(overlay);
+    }
 
-        Files.newDirectoryStream(nodeModules, path ->
-                ModuleResolver.validModulePattern.matcher(path.getFileName().toString()).matches()
-        ).forEach(p -> ret.add(p.getFileName().toString()));
+    public Collection<String> getLoadableModules() throws IOException {
+        Set<String> ret = new HashSet<>();
+        addModules(rootPath.resolve("node_modules"), ret);
+        if (overlay != null)
+            addModules(overlay, ret);
         return ret;
     }
+
+    private static void addModules(Path nodeModules, Set<String> modules) throws IOException {
+        if (!Files.isDirectory(nodeModules))
+            return;
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(nodeModules, path ->
+                ModuleResolver.validModulePattern.matcher(fileName(path)).matches())) {
+            stream.forEach(p -> modules.add(fileName(p)));
+        }
+    }
+
+    // directories of a zip file system are named with a trailing separator
+    private static String fileName(Path path) {
+        String name = path.getFileName().toString();
+        return name.endsWith("/") ? name.substring(0, name.length() - 1) : name;
+    }
 }
@@ -0,0 +1,184 @@
+package io.ibj.jsmc.core.resolvers;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static java.nio.file.StandardWatchEventKinds.*;
+
+/**
+ * Watches a directory tree for changes, and reports changed paths in debounced batches.
+ * <p>
+ * Changes are collected on a background thread until no further change has been seen for the debounce period, and the
+ * batch is then handed to the change callback through the callback executor. Editors and copies commonly touch a file
+ * several times in a row, which all end up within a single batch. A batch is reported once the maximum wait has passed
+ * since its first change even if changes keep coming, so steady writes can not hold it back forever. If the watch
+ * service loses track of the events of a directory, that directory is reported as changed.
+ *
+ * @author Joseph Hirschfeld (Ichbinjoe) [joe@ibj.io]
+ * @since 10/18/26
+ */
+public class ModuleWatcher implements AutoCloseable {
+
+    private final Path root;
+    private final long debounceMillis;
+    private final long maxWaitMillis;
+    private final Executor callbackExecutor;
+    private final Consumer<Set<Path>> changeCallback;
+    private final Map<WatchKey, Path> watchedDirectories = new ConcurrentHashMap<>();
+
+    private WatchService watchService;
+    private Thread watchThread;
+
+    /**
+     * Creates a new watcher of a directory tree, which reports a batch at the latest ten debounce periods after its first
+     * change
+     *
+     * @param root             root of the tree to watch
+     * @param debounceMillis   quiet period in milliseconds after the last change before a batch is reported
+     * @param callbackExecutor executor the change callback is run on
+     * @param changeCallback   callback accepting each batch of changed paths
+     */
+    public ModuleWatcher(Path root, long debounceMillis, Executor callbackExecutor, Consumer<Set<Path>> changeCallback) {
+        this(root, debounceMillis, debounceMillis * 10, callbackExecutor, changeCallback);
+    }
+
+    /**
+     * Creates a new watcher of a directory tree
+     *
+     * @param root             root of the tree to watch
+     * @param debounceMillis   quiet period in milliseconds after the last change before a batch is reported
+     * @param maxWaitMillis    most milliseconds after the first change of a batch before it is reported
+     * @param callbackExecutor executor the change callback is run on
+     * @param changeCallback   callback accepting each batch of changed paths
+     */
+    public ModuleWatcher(Path root, long debounceMillis, long maxWaitMillis, Executor callbackExecutor,
+                         Consumer<Set<Path>> changeCallback) {
+        if (root == null)
+            throw new NullPointerException("root cannot be null");
+        if (callbackExecutor == null)
+            throw new NullPointerException("callbackExecutor cannot be null");
+        if (changeCallback == null)
+            throw new NullPointerException("changeCallback cannot be null");
+        this.root = root.toAbsolutePath().normalize();
+        this.debounceMillis = debounceMillis;
+        this.maxWaitMillis = maxWaitMillis;
+        this.callbackExecutor = callbackExecutor;
+        this.changeCallback = changeCallback;
+    }
+
+    /**
+     * Registers the tree with the file system and starts watching it
+     *
+     * @throws IOException           if the tree could not be registered
+     * @throws IllegalStateException if the watcher was already started
+     */
+    public synchronized void start() throws IOException {
+        if (watchService != null)
+            throw new IllegalStateException("Watcher was already started");
+        watchService = root.getFileSystem().newWatchService();
+        register(watchService, root, null);
+        watchThread = new Thread(this::watch, "jsmc-module-watcher");
+        watchThread.setDaemon(true);
+        watchThread.start();
+    }
+
+    /**
+     * Stops watching the tree. Batches which have not been reported yet are dropped
+     *
+     * @throws IOException if the watch service failed to close
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (watchService == null)
+            return;
+        watchThread.interrupt();
+        watchService.close();
+        watchService = null;
+        watchThread = null;
+        watchedDirectories.clear();
+    }
+
+    private void watch() {
+        WatchService service = watchService;
+        Set<Path> changed = new HashSet<>();
+        // latest System.nanoTime() the pending batch is reported at
+        long deadline = 0;
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                WatchKey key;
+                if (changed.isEmpty()) {
+                    key = service.take();
+                    deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+                } else {
+                    long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                    key = remaining <= 0 ? null : service.poll(Math.min(debounceMillis, remaining), TimeUnit.MILLISECONDS);
+                }
+                if (key == null) {
+                    Set<Path> batch = Collections.unmodifiableSet(changed);
+                    callbackExecutor.execute(() -> changeCallback.accept(batch));
+                    changed = new HashSet<>();
+                    continue;
+                }
+
+                Path directory = watchedDirectories.get(key);
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    // a directory which is no longer watched was deleted, which its parent already reports
+                    if (directory == null)
+                        continue;
+                    // events of this directory were lost, so anything within it may have changed
+                    if (event.kind() == OVERFLOW) {
+                        changed.add(directory);
+                        continue;
+                    }
+                    Path child = directory.resolve((Path) event.context());
+                    changed.add(child);
+                    if (event.kind() == ENTRY_CREATE && Files.isDirectory(child)) {
+                        try {
+                            register(service, child, changed);
+                        } catch (IOException e) {
+                            changed.add(directory);
+                        }
+                    }
+                }
+                if (!key.reset())
+                    watchedDirectories.remove(key);
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // closing
+        }
+    }
+
+    /*
+    Registers every directory beneath start. If created is not null, everything found is also reported as changed,
+    since it may have been created before the directory was registered
+     */
+    private void register(WatchService service, Path start, Set<Path> created) throws IOException {
+        Files.walkFileTree(start, EnumSet.of(FileVisitOption.FOLLOW_LINKS), Integer.MAX_VALUE, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                watchedDirectories.put(dir.register(service, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY), dir);
+                if (created != null)
+                    created.add(dir);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                if (created != null)
+                    created.add(file);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException exc) {
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+}
@@ -0,0 +1,225 @@
+package io.ibj.jsmc.core.resolvers;
+
+import io.ibj.jsmc.api.Dependency;
+import io.ibj.jsmc.api.DependencyResolver;
+import io.ibj.jsmc.api.exceptions.ModuleCompilationException;
+import io.ibj.jsmc.api.metrics.MetricsRegistry;
+import io.ibj.jsmc.api.metrics.ModuleMetrics;
+import io.ibj.jsmc.core.backend.CompiledModule;
+import io.ibj.jsmc.core.backend.ScriptBackend;
+import io.ibj.jsmc.core.compiler.JsmcPackage;
+import io.ibj.jsmc.core.dependencies.JsScript;
+import io.ibj.jsmc.core.dependencies.JsonDependency;
+import io.ibj.jsmc.core.dependencies.LogicalModule;
+
+import javax.script.ScriptException;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.Optional;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Resolves dependencies from a {@link JsmcPackage}. Resolution is answered from the package's index alone, without
+ * touching the file system.
+ * <p>
+ * Modules at the top of the package are resolved by name from any scope, like modules of the root's node_modules.
+ * Scripts within the package are scoped to paths beneath the package file, such as
+ * <code>modules.jsmcpkg/a/index.js</code>, and resolve relative paths and nested node_modules within the package like
+ * they would on disk. Module names and other non relative identifiers the package does not contain are resolved
+ * through the point dependency resolver, as if they were required from the downstream scope, while relative identifiers
+ * the package does not contain are missing.
+ *
+ * @author Joseph Hirschfeld (Ichbinjoe) [joe@ibj.io]
+ * @since 10/18/26
+ */
+public class PackageResolver implements DependencyResolver<Path> {
+
+    private final JsmcPackage jsmcPackage;
+    private final Path root;
+    private final ScriptBackend backend;
+    private final DependencyResolver<Path> scriptResolver;
+    private final MetricsRegistry metrics;
+    private final Map<String, Optional<Dependency>> cachedDependencies = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a new PackageResolver
+     *
+     * @param jsmcPackage             package to resolve dependencies from
+     * @param backend                 backend to compile and run the package's scripts on
+     * @param pointDependencyResolver DependencyResolver supplier for dependencies the package does not contain
+     * @param downstreamScope         scope to resolve dependencies the package does not contain from, usually the root
+     */
+    public PackageResolver(JsmcPackage jsmcPackage, ScriptBackend backend,
+                           Supplier<DependencyResolver<Path>> pointDependencyResolver, Path downstreamScope) {
+        this(jsmcPackage, backend, pointDependencyResolver, downstreamScope, null);
+    }
+
+    /**
+     * Creates a new PackageResolver which records the compile time and runtime metrics of every script it creates into
+     * a metrics registry. Scripts are registered under their path within the package, prefixed by the package's name.
+     *
+     * @param jsmcPackage             package to resolve dependencies from
+     * @param backend                 backend to compile and run the package's scripts on
+     * @param pointDependencyResolver DependencyResolver supplier for dependencies the package does not contain
+     * @param downstreamScope         scope to resolve dependencies the package does not contain from, usually the root
+     * @param metrics                 registry to record script metrics into, or null to not register them
+     */
+    public PackageResolver(JsmcPackage jsmcPackage, ScriptBackend backend,
+                           Supplier<DependencyResolver<Path>> pointDependencyResolver, Path downstreamScope,
+                           MetricsRegistry metrics) {
+        if (jsmcPackage == null)
+            throw new NullPointerException("jsmcPackage cannot be null");
+        if (backend == null)
+            throw new NullPointerException("backend cannot be null");
+        if (pointDependencyResolver == null)
+            throw new NullPointerException("pointDependencyResolver cannot be null");
+        this.jsmcPackage = jsmcPackage;
+        this.root = jsmcPackage.getFile().toAbsolutePath().normalize();
+        this.backend = backend;
+        // shared by every script of the package. relative identifiers the package does not contain are missing, rather
+        // than being resolved against the downstream scope, where they would name files outside of the package
+        this.scriptResolver = new PassthroughResolver<>(this, (scope, identifier) ->
+                identifier.startsWith("./") || identifier.startsWith("../") ? Optional.empty() :
+                        pointDependencyResolver.get().resolve(downstreamScope, identifier));
+        this.metrics = metrics;
+    }
+
+    /**
+     * Returns the package dependencies are resolved from
+     *
+     * @return package
+     */
+    public JsmcPackage getPackage() {
+        return jsmcPackage;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Optional<Dependency> resolve(Path requestScope, String dependencyIdentifier) throws ModuleCompilationException, IOException {
+        boolean module = ModuleResolver.validModulePattern.matcher(dependencyIdentifier).matches();
+        Path scope = requestScope == null || requestScope.getFileSystem() != root.getFileSystem() ? null :
+                requestScope.toAbsolutePath().normalize();
+        if (scope == null || !scope.startsWith(root))
+            return module ? resolvePath(dependencyIdentifier, dependencyIdentifier) : Optional.empty();
+
+        String current = pathOf(scope);
+        String directory = current.isEmpty() || jsmcPackage.isDirectory(current) ? current : parentOf(current);
+        if (dependencyIdentifier.startsWith("./") || dependencyIdentifier.startsWith("../")) {
+            String path = resolvePath(directory, dependencyIdentifier.split("/"));
+            return path == null ? Optional.empty() : resolvePath(path, dependencyIdentifier);
+        }
+        if (!module)
+            return Optional.empty();
+
+        // nested node_modules first, then the top of the package, which acts as the node_modules of the root
+        for (String d = directory; !d.isEmpty(); d = parentOf(d)) {
+            if (d.equals("node_modules") || d.endsWith("/node_modules"))
+                continue;
+            Optional<Dependency> dependency = resolvePath(d + "/node_modules/" + dependencyIdentifier, dependencyIdentifier);
+            if (dependency.isPresent())
+                return dependency;
+        }
+        return resolvePath(dependencyIdentifier, dependencyIdentifier);
+    }
+
+    /*
+    Resolves a path within the package the way FileSystemResolver resolves a path on disk
+     */
+    private Optional<Dependency> resolvePath(String path, String identifier) throws ModuleCompilationException {
+        if (jsmcPackage.isDirectory(path))
+            return resolveDirectory(path);
+        if (identifier.endsWith(".js") || identifier.endsWith(".json"))
+            return resolveFile(path);
+        Optional<Dependency> d = resolveFile(path + ".js");
+        if (!d.isPresent())
+            return resolveFile(path + ".json");
+        return d;
+    }
+
+    private Optional<Dependency> resolveDirectory(String path) throws ModuleCompilationException {
+        Optional<Dependency> dependency = cachedDependencies.get(path);
+        if (dependency != null)
+            return dependency;
+        String main = jsmcPackage.getMain(path);
+        dependency = Optional.empty();
+        if (main != null) {
+            Optional<Dependency> mainDependency = resolveFile(main);
+            if (mainDependency.isPresent()) {
+                LogicalModule module = new LogicalModule();
+                module.setInternalDependency(mainDependency.get());
+                dependency = Optional.of(module);
+            }
+        }
+        return cache(path, dependency);
+    }
+
+    private Optional<Dependency> resolveFile(String path) throws ModuleCompilationException {
+        Optional<Dependency> dependency = cachedDependencies.get(path);
+        if (dependency != null)
+            return dependency;
+        JsmcPackage.Kind kind = jsmcPackage.getKind(path);
+        if (kind == null)
+            return cache(path, Optional.empty());
+        if (kind == JsmcPackage.Kind.JSON)
+            return cache(path, Optional.of(new JsonDependency(jsmcPackage.readJson(path))));
+
+        String name = root.getFileName() + "/" + path;
+        ModuleMetrics scriptMetrics = metrics != null ? metrics.metrics(name) : new ModuleMetrics(name);
+        try {
+            long start = System.nanoTime();
+            CompiledModule compiledModule = backend.compile(jsmcPackage.readScript(path), name);
+            scriptMetrics.recordCompile(System.nanoTime() - start);
+            String fileName = path.substring(path.lastIndexOf('/') + 1);
+            return cache(path, Optional.of(new JsScript<>(compiledModule, root.resolve(path), scriptResolver, fileName,
+                    true, scriptMetrics)));
+        } catch (ScriptException e) {
+            throw new ModuleCompilationException(e, "Failed to compile script '" + path + "' of '" + root + "'");
+        }
+    }
+
+    // a dependency resolved on two threads at once is only handed out once
+    private Optional<Dependency> cache(String path, Optional<Dependency> dependency) {
+        Optional<Dependency> existing = cachedDependencies.putIfAbsent(path, dependency);
+        return existing != null ? existing : dependency;
+    }
+
+    private String pathOf(Path scope) {
+        StringJoiner joiner = new StringJoiner("/");
+        for (Path name : root.relativize(scope))
+            if (!name.toString().isEmpty())
+                joiner.add(name.toString());
+        return joiner.toString();
+    }
+
+    private static String parentOf(String path) {
+        int i = path.lastIndexOf('/');
+        return i < 0 ? "" : path.substring(0, i);
+    }
+
+    // null if the identifier leaves the package
+    private static String resolvePath(String directory, String[] identifier) {
+        Deque<String> names = new ArrayDeque<>();
+        if (!directory.isEmpty())
+            for (String name : directory.split("/"))
+                names.addLast(name);
+        for (String name : identifier) {
+            if (name.isEmpty() || name.equals("."))
+                continue;
+            if (name.equals("..")) {
+                if (names.isEmpty())
+                    return null;
+                names.removeLast();
+            } else {
+                names.addLast(name);
+            }
+        }
+        return String.join("/", names);
+    }
+}
@@ -0,0 +1,131 @@
+package io.ibj.jsmc.core.resolvers;
+
+import io.ibj.jsmc.api.Dependency;
+import io.ibj.jsmc.api.DependencyResolver;
+import io.ibj.jsmc.api.exceptions.ModuleCompilationException;
+import io.ibj.jsmc.core.ReevaluationScheduler;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolves dependencies by routing every identifier straight to the stage which is able to answer it, instead of trying
+ * a chain of resolvers in turn. Relative and absolute identifiers are resolved by the file stage, module names by the
+ * module stage, and anything else by the downstream stage, which is the same resolver the module stage falls back on.
+ * Identifiers the file stage can not find are still passed on downstream, so a pipeline answers exactly what a
+ * {@link PassthroughResolver} of the file stage and the module stage would.
+ * <p>
+ * Found dependencies are cached by scope and identifier, so resolving them again does not allocate. Resolutions without
+ * a scope are routed the same way, but are never cached. A {@link FileSystemResolver} which is the file stage of the
+ * pipeline supplied to it shares the pipeline between all of its scripts. The cache is dropped whenever resolutions are
+ * reported as changed through the scheduler, or when {@link #invalidate()} is called.
+ *
+ * @author Joseph Hirschfeld (Ichbinjoe) [joe@ibj.io]
+ * @since 10/18/26
+ */
+public class ResolverPipeline implements DependencyResolver<Path> {
+
+    private final DependencyResolver<Path> fileResolver;
+    private final DependencyResolver<Path> moduleResolver;
+    private final DependencyResolver<Path> downstreamResolver;
+    private final Map<Path, Map<String, Optional<Dependency>>> resolutions = new ConcurrentHashMap<>();
+    private int generation = 0;
+
+    /**
+     * Creates a new resolver pipeline, whose cache is only dropped by calling {@link #invalidate()}
+     *
+     * @param fileResolver       resolver for relative and absolute identifiers
+     * @param moduleResolver     resolver for module names
+     * @param downstreamResolver resolver for everything else, or null to not resolve anything else
+     */
+    public ResolverPipeline(DependencyResolver<Path> fileResolver, DependencyResolver<Path> moduleResolver,
+                            DependencyResolver<Path> downstreamResolver) {
+        this(fileResolver, moduleResolver, downstreamResolver, null);
+    }
+
+    /**
+     * Creates a new resolver pipeline which drops its cache every time resolutions are reported as changed through a
+     * scheduler
+     *
+     * @param fileResolver       resolver for relative and absolute identifiers
+     * @param moduleResolver     resolver for module names
+     * @param downstreamResolver resolver for everything else, or null to not resolve anything else
+     * @param scheduler          scheduler the stages report changed resolutions through, or null
+     */
+    public ResolverPipeline(DependencyResolver<Path> fileResolver, DependencyResolver<Path> moduleResolver,
+                            DependencyResolver<Path> downstreamResolver, ReevaluationScheduler scheduler) {
+        if (fileResolver == null)
+            throw new NullPointerException("fileResolver cannot be null");
+        if (moduleResolver == null)
+            throw new NullPointerException("moduleResolver cannot be null");
+        this.fileResolver = fileResolver;
+        this.moduleResolver = moduleResolver;
+        this.downstreamResolver = downstreamResolver;
+        if (scheduler != null)
+            scheduler.addResolutionListener(this::invalidate);
+    }
+
+    /**
+     * Returns the resolver relative and absolute identifiers are routed to
+     *
+     * @return file stage
+     */
+    public DependencyResolver<Path> getFileResolver() {
+        return fileResolver;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Optional<Dependency> resolve(Path requestScope, String dependencyIdentifier) throws ModuleCompilationException, IOException {
+        // resolutions without a scope can not be keyed, so they are never cached
+        if (requestScope == null)
+            return route(null, dependencyIdentifier);
+        Map<String, Optional<Dependency>> scoped = resolutions.get(requestScope);
+        if (scoped != null) {
+            Optional<Dependency> cached = scoped.get(dependencyIdentifier);
+            if (cached != null)
+                return cached;
+        }
+
+        int resolvingGeneration;
+        synchronized (this) {
+            resolvingGeneration = generation;
+        }
+        Optional<Dependency> dependency = route(requestScope, dependencyIdentifier);
+        // misses are not cached, as anything may be added later without being reported
+        if (dependency.isPresent()) {
+            synchronized (this) {
+                // a resolution which raced an invalidation may have resolved a stale dependency
+                if (resolvingGeneration == generation)
+                    resolutions.computeIfAbsent(requestScope, s -> new ConcurrentHashMap<>())
+                            .put(dependencyIdentifier, dependency);
+            }
+        }
+        return dependency;
+    }
+
+    /**
+     * Drops every cached resolution
+     */
+    public synchronized void invalidate() {
+        generation++;
+        resolutions.clear();
+    }
+
+    private Optional<Dependency> route(Path requestScope, String dependencyIdentifier) throws ModuleCompilationException, IOException {
+        if (dependencyIdentifier.startsWith("./") || dependencyIdentifier.startsWith("../") || dependencyIdentifier.startsWith("/")) {
+            Optional<Dependency> dependency = fileResolver.resolve(requestScope, dependencyIdentifier);
+            if (dependency.isPresent() || downstreamResolver == null)
+                return dependency;
+            return downstreamResolver.resolve(requestScope, dependencyIdentifier);
+        }
+        if (ModuleResolver.validModulePattern.matcher(dependencyIdentifier).matches())
+            return moduleResolver.resolve(requestScope, dependencyIdentifier);
+        return downstreamResolver == null ? Optional.empty() : downstreamResolver.resolve(requestScope, dependencyIdentifier);
+    }
+}
@@ -1,15 +1,16 @@
 package io.ibj.jsmc.core.resolvers;
 
 import io.ibj.jsmc.api.Dependency;
-import io.ibj.jsmc.api.DependencyConsumer;
 import io.ibj.jsmc.api.DependencyResolver;
 import io.ibj.jsmc.api.SystemDependencyHook;
 import io.ibj.jsmc.api.exceptions.ModuleCompilationException;
 import io.ibj.jsmc.api.exceptions.ModuleExecutionException;
 import io.ibj.jsmc.api.exceptions.ModuleNotFoundException;
+import io.ibj.jsmc.core.ReevaluationScheduler;
 
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Internal dependency manager which is able to also act as a dependency resolver
@@ -22,14 +23,29 @@ public class SystemDependencyResolver<Scope> implements SystemDependencyHook, De
 
     private final Map<String, Dependency> systemDependencyMap;
     private final DependencyResolver<Scope> parentDependencyResolver;
+    private final ReevaluationScheduler scheduler;
 
     /**
      * Creates an system dependency resolver with a fallback resolver
      * @param parentDependencyResolver fallback resolver
      */
     public SystemDependencyResolver(DependencyResolver<Scope> parentDependencyResolver) {
+        this(parentDependencyResolver, new ReevaluationScheduler());
+    }
+
+    /**
+     * Creates an system dependency resolver with a fallback resolver, which reevaluates the dependents of replaced
+     * dependencies through a shared scheduler. Replacements made during a batch of the scheduler are reevaluated
+     * together when the batch ends
+     * @param parentDependencyResolver fallback resolver
+     * @param scheduler scheduler to reevaluate dependents through
+     */
+    public SystemDependencyResolver(DependencyResolver<Scope> parentDependencyResolver, ReevaluationScheduler scheduler) {
+        if (scheduler == null)
+            throw new NullPointerException("scheduler cannot be null");
         this.parentDependencyResolver = parentDependencyResolver;
-        this.systemDependencyMap = new HashMap<>();
+        this.scheduler = scheduler;
+        this.systemDependencyMap = new ConcurrentHashMap<>();
     }
 
     /**
@@ -83,19 +99,22 @@ public class SystemDependencyResolver<Scope> implements SystemDependencyHook, De
         if (!ModuleResolver.validModulePattern.matcher(label).matches())
             throw new IllegalArgumentException("label does not follow module naming conventions");
 
-        if (!replace && systemDependencyMap.containsKey(label))
+        Dependency previousDependency;
+        if (replace)
+            previousDependency = systemDependencyMap.put(label, object);
+        else if (systemDependencyMap.putIfAbsent(label, object) != null)
             throw new IllegalStateException("Dependency with label " + label + " already exists");
+        else
+            previousDependency = null;
 
-        Dependency previousDependency = systemDependencyMap.put(label, object);
+        if (previousDependency != null)
+            scheduler.resolutionsChanged();
         if (previousDependency != null && reload) {
-            Collection<DependencyConsumer> reevalSession = new HashSet<>();
-            for (DependencyConsumer consumer : previousDependency.getDependents()) {
-                try {
-                    consumer.reevaluate(reevalSession);
-                } catch (ModuleExecutionException | IOException | ModuleCompilationException |
-                        ModuleNotFoundException e) {
-                    throw new RuntimeException("On a module reevaluate, a module was unable to load and reevaluate", e);
-                }
+            try {
+                scheduler.reevaluate(Collections.singleton(previousDependency));
+            } catch (ModuleExecutionException | IOException | ModuleCompilationException |
+                    ModuleNotFoundException e) {
+                throw new RuntimeException("On a module reevaluate, a module was unable to load and reevaluate", e);
             }
         }
     }
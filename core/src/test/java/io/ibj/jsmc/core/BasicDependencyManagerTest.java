@@ -1,5 +1,17 @@
 package io.ibj.jsmc.core;
 
+import io.ibj.jsmc.api.*;
+import io.ibj.jsmc.api.exceptions.ModuleNotFoundException;
+import io.ibj.jsmc.core.resolvers.SystemDependencyResolver;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
 import static org.junit.Assert.*;
 
 /**
@@ -8,4 +20,103 @@ import static org.junit.Assert.*;
  */
 public class BasicDependencyManagerTest {
 
-}
\ No newline at end of file
+    private static class RecordingDependency implements Dependency {
+
+        private final String name;
+        private final List<String> order;
+        private final List<Thread> threads;
+        private final Map<DependencyConsumer, DependencyLifecycle> lifecycles = new HashMap<>();
+
+        private RecordingDependency(String name, List<String> order, List<Thread> threads) {
+            this.name = name;
+            this.order = order;
+            this.threads = threads;
+        }
+
+        @Override
+        public DependencyLifecycle depend(DependencyConsumer dependencyConsumer) {
+            order.add(name);
+            threads.add(Thread.currentThread());
+            return lifecycles.computeIfAbsent(dependencyConsumer, c -> new SimpleDependencyLifecycle(this, name));
+        }
+
+        @Override
+        public Collection<DependencyConsumer> getDependents() {
+            return lifecycles.keySet();
+        }
+    }
+
+    @Test
+    public void testLoadAllRunsInOrderOnCallingThread() throws Exception {
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+        List<Thread> threads = Collections.synchronizedList(new ArrayList<>());
+        SystemDependencyResolver<Object> resolver = new SystemDependencyResolver<>(null);
+        List<String> identifiers = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            resolver.add("module-" + i, new RecordingDependency("module-" + i, order, threads));
+            identifiers.add("module-" + i);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            BasicDependencyManager<Object> manager = new BasicDependencyManager<>(resolver, null, executor);
+            Map<String, CompletableFuture<DependencyManager.Entry>> entries = manager.loadAll(identifiers);
+
+            assertEquals(identifiers, new ArrayList<>(entries.keySet()));
+            for (CompletableFuture<DependencyManager.Entry> entry : entries.values())
+                assertTrue(entry.isDone());
+            assertEquals(identifiers, order);
+            for (Thread t : threads)
+                assertSame(Thread.currentThread(), t);
+            assertEquals(20, manager.getLoadedModules().size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testLoadAllFailureDoesNotStopOthers() throws Exception {
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+        List<Thread> threads = Collections.synchronizedList(new ArrayList<>());
+        SystemDependencyResolver<Object> resolver = new SystemDependencyResolver<>(null);
+        resolver.add("first", new RecordingDependency("first", order, threads));
+        resolver.add("last", new RecordingDependency("last", order, threads));
+
+        BasicDependencyManager<Object> manager = new BasicDependencyManager<>(resolver, null);
+        Map<String, CompletableFuture<DependencyManager.Entry>> entries =
+                manager.loadAll(Arrays.asList("first", "missing", "last"));
+
+        assertEquals("first", entries.get("first").get().getIdentifier());
+        assertEquals("last", entries.get("last").get().getIdentifier());
+        try {
+            entries.get("missing").get();
+            fail("missing module loaded");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof ModuleNotFoundException);
+        }
+        assertEquals(Arrays.asList("first", "last"), order);
+    }
+
+    @Test
+    public void testLoadAllEvaluatesOnEvaluationExecutor() throws Exception {
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+        List<Thread> threads = Collections.synchronizedList(new ArrayList<>());
+        SystemDependencyResolver<Object> resolver = new SystemDependencyResolver<>(null);
+        resolver.add("a", new RecordingDependency("a", order, threads));
+        resolver.add("b", new RecordingDependency("b", order, threads));
+
+        ExecutorService owner = Executors.newSingleThreadExecutor();
+        try {
+            Thread ownerThread = owner.submit(Thread::currentThread).get();
+            BasicDependencyManager<Object> manager = new BasicDependencyManager<>(resolver, null);
+            Map<String, CompletableFuture<DependencyManager.Entry>> entries = manager.loadAll(Arrays.asList("a", "b"), owner);
+
+            CompletableFuture.allOf(entries.values().toArray(new CompletableFuture[0])).get(10, TimeUnit.SECONDS);
+            assertEquals(Arrays.asList("a", "b"), order);
+            for (Thread t : threads)
+                assertSame(ownerThread, t);
+        } finally {
+            owner.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package io.ibj.jsmc.core;
+
+import io.ibj.jsmc.api.*;
+import io.ibj.jsmc.api.exceptions.ModuleAlreadyLoadedException;
+import io.ibj.jsmc.core.compiler.ScriptCompiler;
+import io.ibj.jsmc.core.dependencies.JsScript;
+import io.ibj.jsmc.core.resolvers.FileSystemResolver;
+import io.ibj.jsmc.core.resolvers.SystemDependencyResolver;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Stress tests the dependency graph from multiple threads at once
+ *
+ * @author Joseph Hirschfeld [Ichbinjoe] (joe@ibj.io)
+ * @since 10/18/26
+ */
+public class DependencyGraphConcurrencyTest {
+
+    private static final int THREADS = 8;
+    private static final int ITERATIONS = 300;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static class Consumer implements DependencyConsumer {
+        @Override
+        public Collection<Dependency> getDependencies() {
+            return Collections.emptySet();
+        }
+
+        @Override
+        public void reevaluate(Collection<DependencyConsumer> previouslyEvaluatedConsumers) {
+        }
+    }
+
+    private interface Task {
+        void run(int thread) throws Exception;
+    }
+
+    private static void runConcurrently(Task task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                int thread = i;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    task.run(thread);
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> f : futures)
+                f.get(60, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testScriptRunsOnceWhileDependedOn() throws Exception {
+        AtomicInteger running = new AtomicInteger();
+        SystemDependencyResolver<Object> resolver = new SystemDependencyResolver<>(null);
+        resolver.add("running", new SystemDependency(running));
+
+        JsScript<Object> script = new JsScript<>(new ScriptCompiler(1, null).compile(new StringReader(
+                "var running = require('running');\n" +
+                "running.incrementAndGet();\n" +
+                "module.exports = {};\n" +
+                "module.disable = function() { running.decrementAndGet(); };"), "stress.js"),
+                null, resolver, "stress", false);
+
+        runConcurrently(thread -> {
+            DependencyConsumer consumer = new Consumer();
+            for (int i = 0; i < ITERATIONS; i++) {
+                DependencyLifecycle lifecycle = script.depend(consumer);
+                assertSame(lifecycle, script.depend(consumer));
+                assertEquals(1, running.get());
+                lifecycle.close();
+            }
+        });
+
+        assertEquals(0, running.get());
+        assertTrue(script.getDependents().isEmpty());
+    }
+
+    @Test
+    public void testConcurrentLoadSucceedsOnce() throws Exception {
+        SystemDependencyResolver<Object> resolver = new SystemDependencyResolver<>(null);
+        for (int i = 0; i < ITERATIONS; i++)
+            resolver.add("module-" + i, new SystemDependency(i));
+        BasicDependencyManager<Object> manager = new BasicDependencyManager<>(resolver, null);
+
+        AtomicInteger loaded = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        runConcurrently(thread -> {
+            for (int i = 0; i < ITERATIONS; i++) {
+                try {
+                    manager.load("module-" + i);
+                    loaded.incrementAndGet();
+                } catch (ModuleAlreadyLoadedException e) {
+                    rejected.incrementAndGet();
+                }
+            }
+        });
+
+        assertEquals(ITERATIONS, loaded.get());
+        assertEquals(ITERATIONS * (THREADS - 1), rejected.get());
+        assertEquals(ITERATIONS, manager.getLoadedModules().size());
+
+        runConcurrently(thread -> {
+            for (DependencyManager.Entry e : new ArrayList<>(manager.getLoadedModules()))
+                if (Math.floorMod(e.getIdentifier().hashCode(), THREADS) == thread)
+                    manager.unload(e);
+        });
+        assertTrue(manager.getLoadedModules().isEmpty());
+    }
+
+    @Test
+    public void testConcurrentResolveSharesDependency() throws Exception {
+        Path root = folder.getRoot().toPath();
+        for (int i = 0; i < ITERATIONS; i++)
+            Files.write(root.resolve("file" + i + ".json"), "{}".getBytes(StandardCharsets.UTF_8));
+        FileSystemResolver resolver = new FileSystemResolver(() -> null, root);
+
+        Map<String, Dependency> resolved = new ConcurrentHashMap<>();
+        runConcurrently(thread -> {
+            for (int i = 0; i < ITERATIONS; i++) {
+                // every thread walks the files in a different order
+                String name = "./file" + ((i + thread * 37) % ITERATIONS) + ".json";
+                Dependency d = resolver.resolve(root, name).get();
+                Dependency previous = resolved.putIfAbsent(name, d);
+                assertSame(previous == null ? d : previous, d);
+            }
+        });
+        assertEquals(ITERATIONS, resolved.size());
+    }
+}
@@ -0,0 +1,108 @@
+package io.ibj.jsmc.core;
+
+import org.junit.Test;
+
+import javax.script.ScriptEngine;
+import javax.script.ScriptEngineManager;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests {@link LazyTypeNamespace}
+ *
+ * @author Joseph Hirschfeld [Ichbinjoe] (joe@ibj.io)
+ * @since 10/18/26
+ */
+public class LazyTypeNamespaceTest {
+
+    private final List<String> resolved = new ArrayList<>();
+    private final Map<String, String> classNames = new LinkedHashMap<>();
+
+    private final Function<String, Object> resolver = className -> {
+        resolved.add(className);
+        try {
+            return Class.forName(className);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalArgumentException(e);
+        }
+    };
+
+    private LazyTypeNamespace namespace(String... types) {
+        for (String type : types)
+            classNames.put(type.substring(type.lastIndexOf('.') + 1), type);
+        return new LazyTypeNamespace(resolver, classNames);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testConstructorNullResolverThrowsNullPointerException() {
+        new LazyTypeNamespace(null, classNames);
+    }
+
+    @Test
+    public void testDeclaringDoesNotResolve() {
+        LazyTypeNamespace namespace = namespace("java.lang.String", "java.lang.Integer");
+        assertTrue(resolved.isEmpty());
+        assertEquals(0, namespace.getResolvedCount());
+    }
+
+    @Test
+    public void testTypeIsResolvedOnceOnFirstAccess() {
+        LazyTypeNamespace namespace = namespace("java.lang.String", "java.lang.Integer");
+        assertEquals(String.class, namespace.getMember("String"));
+        assertEquals(String.class, namespace.getMember("String"));
+        assertEquals(Arrays.asList("java.lang.String"), resolved);
+    }
+
+    @Test
+    public void testMissingTypeReadsAsNullAndIsNotRetried() {
+        LazyTypeNamespace namespace = namespace("java.lang.DoesNotExist");
+        assertNull(namespace.getMember("DoesNotExist"));
+        assertFalse(namespace.hasMember("DoesNotExist"));
+        assertEquals(1, resolved.size());
+        assertNull(namespace.getMember("Undeclared"));
+    }
+
+    @Test
+    public void testKeySetContainsResolvableTypesInDeclarationOrder() {
+        LazyTypeNamespace namespace = namespace("java.lang.String", "java.lang.DoesNotExist", "java.util.List");
+        assertEquals(Arrays.asList("String", "List"), new ArrayList<>(namespace.keySet()));
+    }
+
+    @Test
+    public void testRemovedMemberIsNotEnumerated() {
+        LazyTypeNamespace namespace = namespace("java.lang.String", "java.util.List");
+        namespace.removeMember("String");
+        assertFalse(namespace.hasMember("String"));
+        assertEquals(Arrays.asList("List"), new ArrayList<>(namespace.keySet()));
+    }
+
+    @Test
+    public void testMissingTypesReadAsUndefinedFromScript() throws Exception {
+        ScriptEngine engine = new ScriptEngineManager().getEngineByName("nashorn");
+        namespace("java.lang.String", "java.lang.DoesNotExist", "java.util.List");
+        engine.put("resolver", resolver);
+        engine.put("classNames", classNames);
+        engine.eval("var ns = new (Java.type('io.ibj.jsmc.core.LazyTypeNamespace'))(resolver, classNames, undefined)");
+        assertEquals(true, engine.eval("ns.DoesNotExist === undefined && ns.Nope === undefined"));
+        assertEquals(false, engine.eval("'DoesNotExist' in ns"));
+        assertEquals("String,List", engine.eval("var names = []; for (var name in ns) names.push(name); names.join()"));
+    }
+
+    @Test
+    public void testPropertyAccessFromScript() throws Exception {
+        ScriptEngine engine = new ScriptEngineManager().getEngineByName("nashorn");
+        LazyTypeNamespace namespace = namespace("java.lang.String", "java.lang.Integer");
+        engine.put("ns", namespace);
+        assertEquals(true, engine.eval("ns.Integer === ns.Integer && ns.Nope == null && 'String' in ns"));
+        assertEquals(Arrays.asList("java.lang.Integer", "java.lang.String"), resolved);
+    }
+}
@@ -0,0 +1,133 @@
+package io.ibj.jsmc.core;
+
+import io.ibj.jsmc.api.Dependency;
+import io.ibj.jsmc.api.DependencyConsumer;
+import io.ibj.jsmc.api.DependencyLifecycle;
+import io.ibj.jsmc.api.StagedDependencyConsumer;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author Joseph Hirschfeld [Ichbinjoe] (joe@ibj.io)
+ * @since 10/18/26
+ */
+public class ReevaluationSchedulerTest {
+
+    @Rule
+    public ExpectedException exception = ExpectedException.none();
+
+    private final List<String> log = new ArrayList<>();
+
+    private class Node implements Dependency, StagedDependencyConsumer {
+
+        private final String name;
+        private final Set<DependencyConsumer> dependents = new LinkedHashSet<>();
+
+        private Node(String name, Node... dependencies) {
+            this.name = name;
+            for (Node dependency : dependencies)
+                dependency.dependents.add(this);
+        }
+
+        @Override
+        public DependencyLifecycle depend(DependencyConsumer dependencyConsumer) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Collection<DependencyConsumer> getDependents() {
+            return dependents;
+        }
+
+        @Override
+        public Collection<Dependency> getDependencies() {
+            return Collections.emptySet();
+        }
+
+        @Override
+        public void reevaluate(Collection<DependencyConsumer> previouslyEvaluatedConsumers) {
+            fail("staged consumers should not be reevaluated directly");
+        }
+
+        @Override
+        public void teardown(Collection<DependencyConsumer> reevaluatedConsumers) {
+            log.add("teardown " + name);
+        }
+
+        @Override
+        public void rebuild(Collection<DependencyConsumer> reevaluatedConsumers) {
+            log.add("rebuild " + name);
+        }
+    }
+
+    @Test
+    public void testDiamondReevaluatesOnceInOrder() throws Exception {
+        Node root = new Node("root");
+        Node left = new Node("left", root);
+        Node right = new Node("right", root);
+        Node bottom = new Node("bottom", left, right);
+        Node manager = new Node("manager", bottom, left);
+
+        new ReevaluationScheduler().reevaluate(Collections.singleton(root));
+
+        assertEquals(Arrays.asList(
+                "teardown manager", "teardown bottom", "teardown right", "teardown left",
+                "rebuild left", "rebuild right", "rebuild bottom", "rebuild manager"), log);
+    }
+
+    @Test
+    public void testUnaffectedConsumersAreLeftAlone() throws Exception {
+        Node root = new Node("root");
+        Node other = new Node("other");
+        new Node("dependent", root);
+        new Node("otherDependent", other);
+
+        new ReevaluationScheduler().reevaluate(Collections.singleton(root));
+
+        assertEquals(Arrays.asList("teardown dependent", "rebuild dependent"), log);
+    }
+
+    @Test
+    public void testBatchMergesChanges() throws Exception {
+        Node first = new Node("first");
+        Node second = new Node("second");
+        new Node("dependent", first, second);
+
+        ReevaluationScheduler scheduler = new ReevaluationScheduler();
+        scheduler.beginBatch();
+        scheduler.reevaluate(Collections.singleton(first));
+        scheduler.beginBatch();
+        scheduler.reevaluate(Collections.singleton(second));
+        scheduler.endBatch();
+        assertTrue(log.isEmpty());
+        scheduler.endBatch();
+
+        assertEquals(Arrays.asList("teardown dependent", "rebuild dependent"), log);
+        assertFalse(scheduler.isBatching());
+    }
+
+    @Test
+    public void testUnstagedConsumerReevaluatedOnce() throws Exception {
+        Node root = new Node("root");
+        Node staged = new Node("staged", root);
+        DependencyConsumer unstaged = mock(DependencyConsumer.class);
+        root.dependents.add(unstaged);
+        staged.dependents.add(unstaged);
+
+        new ReevaluationScheduler().reevaluate(Collections.singleton(root));
+
+        verify(unstaged, times(1)).reevaluate(any());
+    }
+
+    @Test
+    public void testEndBatchWithoutBeginThrowsIllegalStateException() throws Exception {
+        exception.expect(IllegalStateException.class);
+        new ReevaluationScheduler().endBatch();
+    }
+}
@@ -0,0 +1,123 @@
+package io.ibj.jsmc.core;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests {@link TimingWheel}
+ *
+ * @author Joseph Hirschfeld [Ichbinjoe] (joe@ibj.io)
+ * @since 10/18/26
+ */
+public class TimingWheelTest {
+
+    private final TimingWheel wheel = new TimingWheel(t -> {
+        throw new AssertionError(t);
+    });
+
+    @Test(expected = NullPointerException.class)
+    public void testScheduleNullTaskThrowsNullPointerException() {
+        wheel.schedule(null, 1, 0);
+    }
+
+    @Test
+    public void testTasksRunOnTheirTick() {
+        Random random = new Random(42);
+        List<long[]> runs = new ArrayList<>();
+        // delays spanning every level of the wheel, scheduled from different points of the wheel's rotation
+        for (int i = 0; i < 2000; i++) {
+            long delay = 1 + (long) Math.pow(2, random.nextDouble() * 19);
+            long[] run = {wheel.getTick() + delay, -1};
+            wheel.schedule(() -> run[1] = wheel.getTick(), delay, 0);
+            runs.add(run);
+            if (i % 10 == 0)
+                wheel.advance();
+        }
+        for (int i = 0; i < 1 << 19; i++)
+            wheel.advance();
+        for (long[] run : runs)
+            assertEquals(run[0], run[1]);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void testDelayBelowOneRunsOnNextTick() {
+        AtomicInteger runs = new AtomicInteger();
+        wheel.schedule(runs::incrementAndGet, 0, 0);
+        wheel.advance();
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    public void testPeriodicTaskRepeats() {
+        List<Long> ticks = new ArrayList<>();
+        wheel.schedule(() -> ticks.add(wheel.getTick()), 3, 100);
+        for (int i = 0; i < 303; i++)
+            wheel.advance();
+        assertEquals(4, ticks.size());
+        for (int i = 0; i < ticks.size(); i++)
+            assertEquals(3 + 100L * i, (long) ticks.get(i));
+        assertEquals(1, wheel.size());
+    }
+
+    @Test
+    public void testCancelledTaskDoesNotRun() {
+        AtomicInteger runs = new AtomicInteger();
+        TimingWheel.Timeout timeout = wheel.schedule(runs::incrementAndGet, 100, 0);
+        assertTrue(timeout.isScheduled());
+        assertTrue(timeout.cancel());
+        assertFalse(timeout.isScheduled());
+        assertFalse(timeout.cancel());
+        for (int i = 0; i < 200; i++)
+            wheel.advance();
+        assertEquals(0, runs.get());
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void testTaskCancelledByTaskDueOnSameTickDoesNotRun() {
+        AtomicInteger runs = new AtomicInteger();
+        TimingWheel.Timeout[] second = new TimingWheel.Timeout[1];
+        wheel.schedule(() -> second[0].cancel(), 5, 0);
+        second[0] = wheel.schedule(runs::incrementAndGet, 5, 0);
+        for (int i = 0; i < 10; i++)
+            wheel.advance();
+        assertEquals(0, runs.get());
+    }
+
+    @Test
+    public void testPeriodicTaskCancellingItselfStops() {
+        AtomicInteger runs = new AtomicInteger();
+        TimingWheel.Timeout[] timeout = new TimingWheel.Timeout[1];
+        timeout[0] = wheel.schedule(() -> {
+            if (runs.incrementAndGet() == 3)
+                timeout[0].cancel();
+        }, 1, 1);
+        for (int i = 0; i < 10; i++)
+            wheel.advance();
+        assertEquals(3, runs.get());
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void testThrowingTaskIsReportedAndOthersRun() {
+        List<Throwable> thrown = new ArrayList<>();
+        TimingWheel reporting = new TimingWheel(thrown::add);
+        AtomicInteger runs = new AtomicInteger();
+        reporting.schedule(() -> {
+            throw new IllegalStateException();
+        }, 1, 0);
+        reporting.schedule(runs::incrementAndGet, 1, 0);
+        reporting.advance();
+        assertEquals(1, thrown.size());
+        assertEquals(1, runs.get());
+    }
+}
@@ -0,0 +1,151 @@
+package io.ibj.jsmc.core.backend;
+
+import io.ibj.jsmc.api.DependencyConsumer;
+import io.ibj.jsmc.api.SystemDependency;
+import io.ibj.jsmc.api.exceptions.ModuleExecutionException;
+import io.ibj.jsmc.api.metrics.ModuleMetrics;
+import io.ibj.jsmc.core.compiler.ScriptCompiler;
+import io.ibj.jsmc.core.dependencies.JsScript;
+import io.ibj.jsmc.core.resolvers.SystemDependencyResolver;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import javax.script.CompiledScript;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Tests {@link NashornBackend}
+ *
+ * @author Joseph Hirschfeld [Ichbinjoe] (joe@ibj.io)
+ * @since 10/18/26
+ */
+public class NashornBackendTest {
+
+    @Rule
+    public ExpectedException exception = ExpectedException.none();
+
+    @Test
+    public void testSharedGlobalModulesShareBuiltInsButNotVariables() throws Exception {
+        NashornBackend backend = new NashornBackend(new ScriptCompiler(1, null, true));
+        SystemDependencyResolver<Object> resolver = new SystemDependencyResolver<>(null);
+        resolver.add("test", new SystemDependency("3"));
+        CompiledModule first = backend.compile(
+                "var name = 'first'; Array.prototype.marker = require('test'); exports.name = name;", "first.js");
+        CompiledModule second = backend.compile(
+                "var name = 'second'; module.exports = { name: name, marker: [].marker, global: typeof this.name };",
+                "second.js");
+        JsScript<Object> firstScript = new JsScript<>(first, null, resolver, null, false);
+        JsScript<Object> secondScript = new JsScript<>(second, null, resolver, null, false);
+
+        Map firstExports = (Map) firstScript.depend(mock(DependencyConsumer.class)).getDependencyExports();
+        Map secondExports = (Map) secondScript.depend(mock(DependencyConsumer.class)).getDependencyExports();
+
+        assertEquals("first", firstExports.get("name"));
+        assertEquals("second", secondExports.get("name"));
+        assertEquals("3", secondExports.get("marker"));
+        // the wrapper is called with exports as this, not the global
+        assertEquals("undefined", secondExports.get("global"));
+    }
+
+    @Test
+    public void testSharedGlobalIsSharedAcrossConcurrentCompilations() throws Exception {
+        NashornBackend backend = new NashornBackend(new ScriptCompiler(4, null, true));
+        SystemDependencyResolver<Object> resolver = new SystemDependencyResolver<>(null);
+        resolver.add("test", new SystemDependency("3"));
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<CompiledModule>> readers = new ArrayList<>();
+        CompiledModule writer;
+        try {
+            Future<CompiledModule> writerFuture = executor.submit(() ->
+                    backend.compile("Array.prototype.marker = require('test');", "writer.js"));
+            for (int i = 0; i < 16; i++) {
+                String name = "reader" + i + ".js";
+                readers.add(executor.submit(() -> backend.compile("module.exports = { marker: [].marker };", name)));
+            }
+            writer = writerFuture.get();
+            for (Future<CompiledModule> reader : readers)
+                reader.get();
+        } finally {
+            executor.shutdown();
+        }
+
+        new JsScript<>(writer, null, resolver, null, false).depend(mock(DependencyConsumer.class));
+        for (Future<CompiledModule> reader : readers) {
+            JsScript<Object> script = new JsScript<>(reader.get(), null, resolver, null, false);
+            Map exports = (Map) script.depend(mock(DependencyConsumer.class)).getDependencyExports();
+            assertEquals("3", exports.get("marker"));
+        }
+    }
+
+    @Test
+    public void testSharedGlobalScriptNotEvaluatingToWrapperThrowsModuleExecutionException() throws Exception {
+        ScriptCompiler compiler = new ScriptCompiler(1, null);
+        CompiledScript script = compiler.compileModule("module.exports = 1;", "plain.js");
+        JsScript<Object> subject = new JsScript<>(script, null, null, null, false, new ModuleMetrics("plain"),
+                script.getEngine().createBindings());
+
+        exception.expect(ModuleExecutionException.class);
+        subject.depend(mock(DependencyConsumer.class));
+    }
+
+    @Test
+    public void testWrappedScriptBackendCompilesWithinItsGlobal() throws Exception {
+        ScriptCompiler compiler = new ScriptCompiler(1, null, true);
+        CompiledModule wrapped = NashornBackend.wrap(compiler.compileModule("Object.prototype.shared = 3; " +
+                "module.exports = 1;", "wrapped.js"), compiler.getSharedGlobal());
+        JsScript<Object> first = new JsScript<>(wrapped, null, null, null, false);
+        assertEquals(1, ((Number) first.depend(mock(DependencyConsumer.class)).getDependencyExports()).intValue());
+
+        ScriptBackend backend = wrapped.getBackend();
+        JsScript<Object> second = new JsScript<>(backend.compile("module.exports = { f: function () { " +
+                "return this.shared; } };", "compiled.js"), null, null, null, false);
+        Map exports = (Map) second.depend(mock(DependencyConsumer.class)).getDependencyExports();
+        assertEquals(3, ((Number) backend.call(exports.get("f"), exports)).intValue());
+    }
+
+    @Test
+    public void testTypeofResolvesLazyRequire() throws Exception {
+        NashornBackend backend = new NashornBackend(new ScriptCompiler(1, null));
+        SystemDependencyResolver<Object> resolver = new SystemDependencyResolver<>(null);
+        resolver.add("test", new SystemDependency(new Object()));
+        JsScript<Object> script = new JsScript<>(backend.compile("var test = require.lazy('test'); " +
+                "module.exports = { type: function () { return typeof test; } };", "typeof.js"), null, resolver, null, false);
+        Map exports = (Map) script.depend(mock(DependencyConsumer.class)).getDependencyExports();
+
+        assertTrue(script.getDependencies().isEmpty());
+        assertEquals("object", backend.call(exports.get("type"), exports));
+        assertFalse(script.getDependencies().isEmpty());
+    }
+
+    @Test
+    public void testCallPassesThisAndArguments() throws Exception {
+        NashornBackend backend = new NashornBackend(new ScriptCompiler(1, null));
+        JsScript<Object> script = new JsScript<>(
+                backend.compile("module.exports = { f: function (a, b) { return this.base + a + b; } };", "call.js"),
+                null, null, null, false);
+        Map exports = (Map) script.depend(mock(DependencyConsumer.class)).getDependencyExports();
+        Map thiz = (Map) backend.compile("", "empty.js").createModule();
+        thiz.put("base", 1);
+
+        assertTrue(backend.isFunction(exports.get("f")));
+        assertFalse(backend.isFunction(thiz));
+        assertEquals(6, ((Number) backend.call(exports.get("f"), thiz, 2, 3)).intValue());
+    }
+
+    @Test
+    public void testCallNonFunctionThrowsIllegalArgument() throws Exception {
+        NashornBackend backend = new NashornBackend(new ScriptCompiler(1, null));
+
+        exception.expect(IllegalArgumentException.class);
+        backend.call("not a function", null);
+    }
+}
@@ -0,0 +1,78 @@
+package io.ibj.jsmc.core.compiler;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests {@link CodeCache}
+ *
+ * @author Joseph Hirschfeld [Ichbinjoe] (joe@ibj.io)
+ * @since 10/18/26
+ */
+public class CodeCacheTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testInstallCreatesScriptDirectoryAndPointsEngineAtIt() throws Exception {
+        Path root = folder.getRoot().toPath().resolve("cache");
+        CodeCache cache = new CodeCache(root, -1);
+
+        cache.install();
+
+        assertTrue(Files.isDirectory(cache.getScriptDirectory()));
+        assertEquals(cache.getScriptDirectory().toAbsolutePath().toString(),
+                System.getProperty(CodeCache.CODE_CACHE_PROPERTY));
+    }
+
+    @Test
+    public void testPruneWithinLimitDeletesNothing() throws Exception {
+        Path root = folder.getRoot().toPath();
+        writeEntry(root.resolve("a"), 10, 1000);
+        writeEntry(root.resolve("b"), 10, 2000);
+
+        CodeCache cache = new CodeCache(root, 20);
+
+        assertEquals(0, cache.prune());
+        assertTrue(Files.exists(root.resolve("a")));
+        assertTrue(Files.exists(root.resolve("b")));
+    }
+
+    @Test
+    public void testPruneDeletesOldestEntriesFirst() throws Exception {
+        Path root = folder.getRoot().toPath();
+        Files.createDirectories(root.resolve("version"));
+        writeEntry(root.resolve("version/old"), 10, 1000);
+        writeEntry(root.resolve("version/middle"), 10, 2000);
+        writeEntry(root.resolve("version/new"), 10, 3000);
+
+        CodeCache cache = new CodeCache(root, 15);
+
+        assertEquals(20, cache.prune());
+        assertFalse(Files.exists(root.resolve("version/old")));
+        assertFalse(Files.exists(root.resolve("version/middle")));
+        assertTrue(Files.exists(root.resolve("version/new")));
+    }
+
+    @Test
+    public void testUnboundedCacheNeverPrunes() throws Exception {
+        Path root = folder.getRoot().toPath();
+        writeEntry(root.resolve("a"), 100, 1000);
+
+        assertEquals(0, new CodeCache(root, -1).prune());
+        assertTrue(Files.exists(root.resolve("a")));
+    }
+
+    private static void writeEntry(Path path, int size, long modified) throws Exception {
+        Files.write(path, new byte[size]);
+        Files.setLastModifiedTime(path, FileTime.fromMillis(modified));
+    }
+}
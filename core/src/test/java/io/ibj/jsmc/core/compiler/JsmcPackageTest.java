@@ -0,0 +1,81 @@
+package io.ibj.jsmc.core.compiler;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests {@link JsmcPackage}
+ *
+ * @author Joseph Hirschfeld [Ichbinjoe] (joe@ibj.io)
+ * @since 10/18/26
+ */
+public class JsmcPackageTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Rule
+    public ExpectedException exception = ExpectedException.none();
+
+    @Test
+    public void testPackedTreeIsIndexed() throws Exception {
+        Path modules = folder.newFolder("node_modules").toPath();
+        write(modules.resolve("a/package.json"), "{\"main\": \"lib/main\"}");
+        write(modules.resolve("a/lib/main.js"), "module.exports = 'a'");
+        write(modules.resolve("b/index.json"), "{\"list\": [1, \"two\", null, true]}");
+        write(modules.resolve("c/readme.md"), "not packed");
+
+        Path file = folder.getRoot().toPath().resolve("modules" + JsmcPackage.EXTENSION);
+        JsmcPackage.write(modules, file);
+        JsmcPackage jsmcPackage = JsmcPackage.open(file);
+
+        assertEquals(new HashSet<>(Arrays.asList("a", "b", "c")), jsmcPackage.getModules());
+        assertEquals("a/lib/main.js", jsmcPackage.getMain("a"));
+        assertEquals("b/index.json", jsmcPackage.getMain("b"));
+        assertNull(jsmcPackage.getMain("c"));
+        assertNull(jsmcPackage.getMain("a/lib"));
+        assertTrue(jsmcPackage.isDirectory("a/lib"));
+        assertNull(jsmcPackage.getKind("c/readme.md"));
+
+        assertEquals(JsmcPackage.Kind.SCRIPT, jsmcPackage.getKind("a/lib/main.js"));
+        assertEquals("module.exports = 'a'", jsmcPackage.readScript("a/lib/main.js"));
+        assertEquals(JsmcPackage.Kind.JSON, jsmcPackage.getKind("b/index.json"));
+        assertEquals(Arrays.asList(1.0, "two", null, true), ((Map) jsmcPackage.readJson("b/index.json")).get("list"));
+    }
+
+    @Test
+    public void testMissingMainFailsToPack() throws Exception {
+        Path modules = folder.newFolder("node_modules").toPath();
+        write(modules.resolve("a/package.json"), "{\"main\": \"missing.js\"}");
+
+        exception.expect(FileNotFoundException.class);
+        JsmcPackage.write(modules, folder.getRoot().toPath().resolve("modules" + JsmcPackage.EXTENSION));
+    }
+
+    @Test
+    public void testOpeningOtherFileThrowsIOException() throws Exception {
+        Path file = folder.getRoot().toPath().resolve("modules" + JsmcPackage.EXTENSION);
+        write(file, "not a package");
+
+        exception.expect(IOException.class);
+        JsmcPackage.open(file);
+    }
+
+    private static void write(Path path, String contents) throws Exception {
+        Files.createDirectories(path.getParent());
+        Files.write(path, contents.getBytes(StandardCharsets.UTF_8));
+    }
+}
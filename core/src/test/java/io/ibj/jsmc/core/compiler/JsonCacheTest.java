@@ -0,0 +1,119 @@
+package io.ibj.jsmc.core.compiler;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests {@link JsonCache} and {@link BinaryJson}
+ *
+ * @author Joseph Hirschfeld [Ichbinjoe] (joe@ibj.io)
+ * @since 10/18/26
+ */
+public class JsonCacheTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path writeJson(String name, String json) throws Exception {
+        Path path = folder.getRoot().toPath().resolve(name);
+        Files.write(path, json.getBytes(StandardCharsets.UTF_8));
+        return path;
+    }
+
+    private List<Path> entries(Path directory) throws Exception {
+        try (Stream<Path> s = Files.list(directory)) {
+            return s.collect(Collectors.toList());
+        }
+    }
+
+    @Test
+    public void testBinaryJsonRoundTripsParsedJson() throws Exception {
+        Map<?, ?> value = (Map<?, ?>) new JsonCache(folder.newFolder().toPath()).load(writeJson("a.json",
+                "{\"items\": [{\"id\": 1, \"name\": \"a\"}, {\"id\": 2.5, \"name\": \"\\u00e9\"}], " +
+                        "\"on\": true, \"off\": false, \"none\": null, \"empty\": {}}"));
+
+        Object decoded = BinaryJson.decode(BinaryJson.encode(value));
+
+        assertEquals(value, decoded);
+        List<?> items = (List<?>) ((Map<?, ?>) decoded).get("items");
+        // repeated keys are decoded into a single instance
+        assertSame(((Map<?, ?>) items.get(0)).keySet().iterator().next(),
+                ((Map<?, ?>) items.get(1)).keySet().iterator().next());
+        assertEquals(Arrays.asList("items", "on", "off", "none", "empty"),
+                Arrays.asList(((Map<?, ?>) decoded).keySet().toArray()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDecodingTruncatedBytesThrowsIllegalArgumentException() throws Exception {
+        byte[] bytes = BinaryJson.encode(Collections.singletonMap("key", "value"));
+        BinaryJson.decode(Arrays.copyOf(bytes, bytes.length - 2));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDecodingOversizedCountThrowsIllegalArgumentException() throws Exception {
+        byte[] bytes = BinaryJson.encode(Collections.emptyList());
+        // an array claiming Integer.MAX_VALUE elements, without any following
+        bytes = Arrays.copyOf(bytes, bytes.length + 4);
+        bytes[bytes.length - 5] = (byte) 0xFF;
+        bytes[bytes.length - 4] = (byte) 0xFF;
+        bytes[bytes.length - 3] = (byte) 0xFF;
+        bytes[bytes.length - 2] = (byte) 0xFF;
+        bytes[bytes.length - 1] = 0x07;
+        BinaryJson.decode(bytes);
+    }
+
+    @Test
+    public void testUnchangedFileIsLoadedFromEntry() throws Exception {
+        Path directory = folder.newFolder().toPath();
+        JsonCache cache = new JsonCache(directory);
+        Path json = writeJson("a.json", "{\"a\": 1}");
+
+        cache.load(json);
+        List<Path> entries = entries(directory);
+        assertEquals(1, entries.size());
+        // the entry is read back instead of the json file, as it is keyed by the file's content
+        Files.write(entries.get(0), BinaryJson.encode(Collections.singletonMap("a", 2.0)));
+
+        assertEquals(Collections.singletonMap("a", 2.0), cache.load(json));
+    }
+
+    @Test
+    public void testChangedFileIsParsedAgain() throws Exception {
+        Path directory = folder.newFolder().toPath();
+        JsonCache cache = new JsonCache(directory);
+        Path json = writeJson("a.json", "{\"a\": 1}");
+
+        cache.load(json);
+        writeJson("a.json", "{\"a\": 3}");
+
+        assertEquals(Collections.singletonMap("a", 3.0), cache.load(json));
+        assertEquals(2, entries(directory).size());
+    }
+
+    @Test
+    public void testUnreadableEntryIsParsedAndRewritten() throws Exception {
+        Path directory = folder.newFolder().toPath();
+        JsonCache cache = new JsonCache(directory);
+        Path json = writeJson("a.json", "{\"a\": 1}");
+
+        cache.load(json);
+        Path entry = entries(directory).get(0);
+        Files.write(entry, new byte[]{1, 2, 3});
+
+        assertEquals(Collections.singletonMap("a", 1.0), cache.load(json));
+        assertEquals(Collections.singletonMap("a", 1.0), BinaryJson.decode(Files.readAllBytes(entry)));
+    }
+}
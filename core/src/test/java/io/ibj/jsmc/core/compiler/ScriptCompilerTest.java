@@ -0,0 +1,66 @@
+package io.ibj.jsmc.core.compiler;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import javax.script.CompiledScript;
+import javax.script.ScriptException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests {@link ScriptCompiler}
+ *
+ * @author Joseph Hirschfeld [Ichbinjoe] (joe@ibj.io)
+ * @since 10/18/26
+ */
+public class ScriptCompilerTest {
+
+    @Rule
+    public ExpectedException exception = ExpectedException.none();
+
+    @Test
+    public void testCompiledScriptEvaluates() throws Exception {
+        ScriptCompiler compiler = new ScriptCompiler(1, null);
+        CompiledScript script = compiler.compile(new StringReader("1 + 2"), "test.js");
+        assertEquals(3, ((Number) script.eval()).intValue());
+    }
+
+    @Test
+    public void testConcurrentCompilationsAllEvaluate() throws Exception {
+        ScriptCompiler compiler = new ScriptCompiler(4, null);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<CompiledScript>> futures = new ArrayList<>();
+            for (int i = 0; i < 32; i++) {
+                String source = "var x = " + i + "; x * 2";
+                String name = "script" + i + ".js";
+                futures.add(executor.submit(() -> compiler.compile(new StringReader(source), name)));
+            }
+            for (int i = 0; i < futures.size(); i++)
+                assertEquals(i * 2, ((Number) futures.get(i).get().eval()).intValue());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testSyntaxErrorThrowsScriptException() throws Exception {
+        ScriptCompiler compiler = new ScriptCompiler(1, null);
+        exception.expect(ScriptException.class);
+        compiler.compile(new StringReader("var = ;"), "broken.js");
+    }
+
+    @Test
+    public void testNoEnginesThrowsIllegalArgumentException() throws Exception {
+        exception.expect(IllegalArgumentException.class);
+        new ScriptCompiler(0, null);
+    }
+}
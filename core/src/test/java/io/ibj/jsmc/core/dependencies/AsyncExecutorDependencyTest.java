@@ -0,0 +1,140 @@
+package io.ibj.jsmc.core.dependencies;
+
+import io.ibj.jsmc.api.Dependency;
+import io.ibj.jsmc.api.DependencyConsumer;
+import io.ibj.jsmc.api.DependencyContractTest;
+import io.ibj.jsmc.api.DependencyLifecycle;
+import io.ibj.jsmc.api.metrics.ModuleMetrics;
+import io.ibj.jsmc.api.metrics.ModuleStatistics;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Tests {@link AsyncExecutorDependency}
+ *
+ * @author Joseph Hirschfeld [Ichbinjoe] (joe@ibj.io)
+ * @since 10/18/26
+ */
+public class AsyncExecutorDependencyTest extends DependencyContractTest {
+
+    private final List<Throwable> unhandled = new ArrayList<>();
+    private final ModuleMetrics metrics = new ModuleMetrics("test");
+    private final AsyncExecutorDependency executor =
+            new AsyncExecutorDependency("test-async", 1, 1, unhandled::add, c -> metrics);
+
+    @After
+    public void closeExecutor() {
+        executor.close();
+    }
+
+    @Override
+    public Dependency createNewTestable() {
+        return new AsyncExecutorDependency("test-async", 1, 1, unhandled::add);
+    }
+
+    private AsyncExecutorDependency.Handle handle(DependencyLifecycle lifecycle) {
+        return (AsyncExecutorDependency.Handle) lifecycle.getDependencyExports();
+    }
+
+    private void drainUntil(int expected) throws InterruptedException {
+        int drained = 0;
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (drained < expected && System.nanoTime() < deadline) {
+            drained += executor.drain(TimeUnit.MILLISECONDS.toNanos(5));
+            Thread.sleep(1);
+        }
+        assertEquals(expected, drained);
+    }
+
+    @Test
+    public void testResultIsHandedBackOnDrainingThread() throws Exception {
+        AsyncExecutorDependency.Handle handle = handle(executor.depend(mock(DependencyConsumer.class)));
+        List<Object> results = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+
+        assertTrue(handle.submit(() -> 42, r -> {
+            results.add(r);
+            threads.add(Thread.currentThread());
+        }));
+        drainUntil(1);
+
+        assertEquals(42, results.get(0));
+        assertEquals(Thread.currentThread(), threads.get(0));
+        assertEquals(0, handle.getPending());
+        ModuleStatistics statistics = metrics.snapshot();
+        assertEquals(1, statistics.getAsyncSubmitCount());
+        assertEquals(0, statistics.getAsyncQueueDepth());
+    }
+
+    @Test
+    public void testErrorIsPassedToErrorCallbackOrExceptionHandler() throws Exception {
+        AsyncExecutorDependency.Handle handle = handle(executor.depend(mock(DependencyConsumer.class)));
+        List<Throwable> errors = new ArrayList<>();
+
+        handle.submit(() -> {
+            throw new IllegalStateException();
+        }, null, errors::add);
+        drainUntil(1);
+        handle.submit(() -> {
+            throw new IllegalStateException();
+        }, null);
+        drainUntil(1);
+
+        assertEquals(1, errors.size());
+        assertEquals(1, unhandled.size());
+    }
+
+    @Test
+    public void testWorkIsRejectedOnceQueueIsFull() throws Exception {
+        AsyncExecutorDependency.Handle handle = handle(executor.depend(mock(DependencyConsumer.class)));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        assertTrue(handle.submit(() -> {
+            started.countDown();
+            return release.await(5, TimeUnit.SECONDS);
+        }, null));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        assertTrue(handle.submit(() -> null, null));
+        assertFalse(handle.submit(() -> null, null));
+        assertEquals(2, handle.getPending());
+
+        release.countDown();
+        drainUntil(2);
+        assertEquals(0, handle.getPending());
+    }
+
+    @Test
+    public void testResultOfClosedLifecycleIsDropped() throws Exception {
+        DependencyLifecycle lifecycle = executor.depend(mock(DependencyConsumer.class));
+        AsyncExecutorDependency.Handle handle = handle(lifecycle);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Object> results = new ArrayList<>();
+
+        handle.submit(() -> release.await(5, TimeUnit.SECONDS), results::add);
+        lifecycle.close();
+        release.countDown();
+        drainUntil(1);
+
+        assertTrue(results.isEmpty());
+        assertEquals(0, metrics.snapshot().getAsyncQueueDepth());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testSubmitOnClosedLifecycleThrowsIllegalStateException() throws Exception {
+        DependencyLifecycle lifecycle = executor.depend(mock(DependencyConsumer.class));
+        AsyncExecutorDependency.Handle handle = handle(lifecycle);
+        lifecycle.close();
+        handle.submit(() -> null, null);
+    }
+}
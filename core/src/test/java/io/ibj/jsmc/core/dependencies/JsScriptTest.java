@@ -2,21 +2,32 @@ package io.ibj.jsmc.core.dependencies;
 
 import io.ibj.jsmc.api.*;
 import io.ibj.jsmc.api.exceptions.ModuleExecutionException;
+import io.ibj.jsmc.core.backend.CompiledModule;
+import io.ibj.jsmc.core.backend.NashornBackend;
+import io.ibj.jsmc.core.backend.ScriptBackend;
+import io.ibj.jsmc.core.backend.ScriptBackends;
+import io.ibj.jsmc.core.compiler.ScriptCompiler;
 import io.ibj.jsmc.core.resolvers.SystemDependencyResolver;
-import jdk.nashorn.api.scripting.NashornScriptEngine;
-import jdk.nashorn.api.scripting.NashornScriptEngineFactory;
-import jdk.nashorn.api.scripting.ScriptObjectMirror;
 import lombok.Data;
 import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
 
-import javax.script.CompiledScript;
 import javax.script.ScriptException;
-import java.io.FileReader;
 import java.io.IOException;
-import java.io.Reader;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.IntUnaryOperator;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -29,20 +40,48 @@ import static org.mockito.Mockito.*;
  * @author Joseph Hirschfeld [Ichbinjoe] (joe@ibj.io)
  * @since 1/15/17
  */
+@RunWith(Parameterized.class)
 public class JsScriptTest extends DependencyContractTest {
 
+    /**
+     * Runs every test against each backend available. GraalJS is on the test runtime class path of the build, but is
+     * skipped when the tests are run without it
+     *
+     * @return backends by name
+     */
+    @Parameterized.Parameters(name = "{0}")
+    public static Collection<Object[]> backends() {
+        List<Object[]> backends = new ArrayList<>();
+        backends.add(new Object[]{"nashorn", new NashornBackend(new ScriptCompiler(1, null))});
+        backends.add(new Object[]{"nashorn-shared", new NashornBackend(new ScriptCompiler(1, null, true))});
+        if (ScriptBackends.isGraalAvailable()) {
+            try {
+                backends.add(new Object[]{"graal", ScriptBackends.create("graal", null)});
+            } catch (IllegalStateException e) {
+                // the polyglot api without js, nothing to test against
+            }
+        }
+        return backends;
+    }
+
+    private final ScriptBackend backend;
+
+    public JsScriptTest(String name, ScriptBackend backend) {
+        this.backend = backend;
+    }
+
     @Test
     public void testRequireInjectionReturnsDependencies() throws Exception {
         SystemDependencyResolver<Object> resolver = new SystemDependencyResolver<>(null);
         SystemDependency testDependency = new SystemDependency("3"); // yes, we are exporting 3.
         resolver.add("test", testDependency);
 
-        CompiledScript internalScript = loadTestingResource("require.js");
+        CompiledModule internalScript = loadTestingResource("require.js");
         JsScript script = new JsScript(internalScript, null, resolver, null, false);
 
         DependencyConsumer consumer = mock(DependencyConsumer.class);
         DependencyLifecycle lifecycle = script.depend(consumer);
-        ScriptObjectMirror exports = ((ScriptObjectMirror) lifecycle.getDependencyExports());
+        Map exports = ((Map) lifecycle.getDependencyExports());
 
         assertEquals("3", exports.get("result"));
     }
@@ -54,7 +93,7 @@ public class JsScriptTest extends DependencyContractTest {
         DependencyResolver<Object> resolver = mock(DependencyResolver.class);
         when(resolver.resolve(scope, "test")).thenReturn(Optional.of(testDependency));
 
-        CompiledScript internalScript = loadTestingResource("require.js");
+        CompiledModule internalScript = loadTestingResource("require.js");
         JsScript script = new JsScript(internalScript, scope, resolver, null, false);
 
         DependencyConsumer consumer = mock(DependencyConsumer.class);
@@ -65,16 +104,100 @@ public class JsScriptTest extends DependencyContractTest {
         verify(resolver, atLeastOnce()).resolve(scope, "test");
     }
 
+    @Test
+    public void testLazyRequireResolvesOnFirstUse() throws Exception {
+        // script exports, as a java map only has members on nashorn
+        JsScript testDependency = new JsScript(backend.compile("module.exports = { value: '3' };", null), null,
+                mock(DependencyResolver.class), null, false);
+        DependencyResolver<Object> resolver = mock(DependencyResolver.class);
+        when(resolver.resolve(null, "test")).thenReturn(Optional.of(testDependency));
+
+        JsScript subject = new JsScript(loadTestingResource("require_lazy.js"), null, resolver, null, false);
+        Map exports = (Map) subject.depend(mock(DependencyConsumer.class)).getDependencyExports();
+
+        verify(resolver, never()).resolve(any(), anyString());
+        assertTrue(subject.getDependencies().isEmpty());
+
+        assertEquals("3", backend.call(exports.get("value"), exports));
+        assertEquals("3", backend.call(exports.get("value"), exports));
+        verify(resolver, times(1)).resolve(null, "test");
+        assertEquals(Collections.singleton(testDependency), subject.getDependencies());
+    }
+
+    @Test
+    public void testLazyRequireUnusableOnceModuleClosed() throws Exception {
+        Map<String, Object> testExports = new HashMap<>();
+        testExports.put("value", "3");
+        SystemDependencyResolver<Object> resolver = new SystemDependencyResolver<>(null);
+        resolver.add("test", new SystemDependency(testExports));
+
+        JsScript subject = new JsScript(loadTestingResource("require_lazy.js"), null, resolver, null, false);
+        DependencyLifecycle lifecycle = subject.depend(mock(DependencyConsumer.class));
+        Map exports = (Map) lifecycle.getDependencyExports();
+        backend.call(exports.get("value"), exports);
+        lifecycle.close();
+
+        assertTrue(subject.getDependencies().isEmpty());
+        exception.expect(RuntimeException.class);
+        backend.call(exports.get("value"), exports);
+    }
+
+    public static class LazyJavaHandle {
+        public String getName() {
+            return "handle";
+        }
+
+        public int apply(IntUnaryOperator operator, int value) {
+            return operator.applyAsInt(value);
+        }
+    }
+
+    @Test
+    public void testLazyRequireForwardsJavaExports() throws Exception {
+        SystemDependency handleDependency = new SystemDependency(new LazyJavaHandle());
+        DependencyResolver<Object> resolver = mock(DependencyResolver.class);
+        when(resolver.resolve(null, "handle")).thenReturn(Optional.of(handleDependency));
+
+        JsScript subject = new JsScript(loadTestingResource("require_lazy_java.js"), null, resolver, null, false);
+        Map exports = (Map) subject.depend(mock(DependencyConsumer.class)).getDependencyExports();
+
+        verify(resolver, never()).resolve(any(), anyString());
+        assertEquals(3, ((Number) backend.call(exports.get("apply"), exports)).intValue());
+        assertEquals("handle", backend.call(exports.get("name"), exports));
+        verify(resolver, times(1)).resolve(null, "handle");
+    }
+
+    @Test
+    public void testRepeatedRequireResolvesOnceUntilTeardown() throws Exception {
+        SystemDependency testDependency = new SystemDependency("3");
+        DependencyResolver<Object> resolver = mock(DependencyResolver.class);
+        when(resolver.resolve(null, "test")).thenReturn(Optional.of(testDependency));
+
+        JsScript subject = new JsScript(loadTestingResource("require_repeated.js"), null, resolver, null, false);
+        DependencyConsumer consumer = mock(DependencyConsumer.class);
+        Map exports = (Map) subject.depend(consumer).getDependencyExports();
+
+        assertEquals("3", backend.call(exports.get("get"), exports));
+        assertEquals("3", backend.call(exports.get("get"), exports));
+        verify(resolver, times(1)).resolve(null, "test");
+
+        // a torn down module resolves its dependencies again, as they may have been reloaded
+        subject.teardown(Collections.emptySet());
+        exports = (Map) subject.depend(mock(DependencyConsumer.class)).getDependencyExports();
+        assertEquals("3", backend.call(exports.get("get"), exports));
+        verify(resolver, times(2)).resolve(null, "test");
+    }
+
     @Test
     public void testModuleExportsExposed() throws Exception {
-        CompiledScript internalScript = loadTestingResource("module_exports_exposure.js");
+        CompiledModule internalScript = loadTestingResource("module_exports_exposure.js");
         JsScript subject = new JsScript(internalScript, null, null, null, false);
 
         DependencyConsumer consumer = mock(DependencyConsumer.class);
 
         DependencyLifecycle lifecycle = subject.depend(consumer);
 
-        ScriptObjectMirror exports = (ScriptObjectMirror) lifecycle.getDependencyExports();
+        Map exports = (Map) lifecycle.getDependencyExports();
 
         assertEquals("value", exports.get("key"));
     }
@@ -92,7 +215,7 @@ public class JsScriptTest extends DependencyContractTest {
         SystemDependency testDependency = new SystemDependency(testingHook); // yes, we are exporting 3.
         resolver.add("test", testDependency);
 
-        CompiledScript internalScript = loadTestingResource("module_generator.js");
+        CompiledModule internalScript = loadTestingResource("module_generator.js");
 
         JsScript subject = new JsScript(internalScript, null, resolver, null, false);
 
@@ -100,7 +223,7 @@ public class JsScriptTest extends DependencyContractTest {
 
         DependencyLifecycle lifecycle = subject.depend(consumer);
 
-        ScriptObjectMirror exports = (ScriptObjectMirror) lifecycle.getDependencyExports();
+        Map exports = (Map) lifecycle.getDependencyExports();
 
         assertEquals("value", exports.get("key"));
         assertFalse(testingHook.closeCalled);
@@ -118,7 +241,7 @@ public class JsScriptTest extends DependencyContractTest {
         SystemDependency testDependency = new SystemDependency(testingHook);
         resolver.add("test", testDependency);
 
-        CompiledScript internalScript = loadTestingResource("module_disable.js");
+        CompiledModule internalScript = loadTestingResource("module_disable.js");
 
         JsScript subject = new JsScript(internalScript, null, resolver, null, false);
 
@@ -149,7 +272,7 @@ public class JsScriptTest extends DependencyContractTest {
         SystemDependency testDependency = new SystemDependency(testingHook);
         resolver.add("test", testDependency);
 
-        CompiledScript internalScript = loadTestingResource("module_on_error_exception.js");
+        CompiledModule internalScript = loadTestingResource("module_on_error_exception.js");
 
         JsScript subject = new JsScript(internalScript, null, resolver, null, false);
 
@@ -169,7 +292,7 @@ public class JsScriptTest extends DependencyContractTest {
         SystemDependency testDependency = new SystemDependency(testingHook);
         resolver.add("test", testDependency);
 
-        CompiledScript internalScript = loadTestingResource("module_on_error_exception.js");
+        CompiledModule internalScript = loadTestingResource("module_on_error_exception.js");
 
         JsScript subject = new JsScript(internalScript, null, resolver, "logger1", true);
 
@@ -219,7 +342,7 @@ public class JsScriptTest extends DependencyContractTest {
             SystemDependency testDependency = new SystemDependency(testingHook);
             resolver.add("test", testDependency);
 
-            CompiledScript internalScript = loadTestingResource(testFile);
+            CompiledModule internalScript = loadTestingResource(testFile);
 
             JsScript subject = new JsScript(internalScript, null, resolver, null, false);
 
@@ -237,7 +360,7 @@ public class JsScriptTest extends DependencyContractTest {
 
     @Test
     public void testLoggerNameOverrideToNewName() throws Exception {
-        CompiledScript internalScript = loadTestingResource("module_logger_override.js");
+        CompiledModule internalScript = loadTestingResource("module_logger_override.js");
 
         JsScript subject = new JsScript(internalScript, null, null, "defaultLogger", false);
 
@@ -252,17 +375,14 @@ public class JsScriptTest extends DependencyContractTest {
 
     @Override
     public Dependency createNewTestable() throws Exception {
-        CompiledScript defaultCompiled = loadTestingResource("default.js");
+        CompiledModule defaultCompiled = loadTestingResource("default.js");
 
         return new JsScript(defaultCompiled, null, null, "default.js", false);
     }
 
-    private static final NashornScriptEngine ENGINE = ((NashornScriptEngine) new NashornScriptEngineFactory().getScriptEngine());
-
-    private CompiledScript loadTestingResource(String identifier) throws IOException, ScriptException {
-        try (Reader r = new FileReader(getTestingResource(identifier).getFile())) {
-            return ENGINE.compile(r);
-        }
+    private CompiledModule loadTestingResource(String identifier) throws IOException, ScriptException {
+        byte[] source = Files.readAllBytes(Paths.get(getTestingResource(identifier).getFile()));
+        return backend.compile(new String(source, StandardCharsets.UTF_8), identifier);
     }
 
     private URL getTestingResource(String identifier) {
@@ -0,0 +1,115 @@
+package io.ibj.jsmc.core.dependencies;
+
+import jdk.nashorn.api.scripting.JSObject;
+import jdk.nashorn.api.scripting.NashornScriptEngineFactory;
+import org.junit.Test;
+
+import javax.script.ScriptEngine;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests {@link LazyJsonObject}
+ *
+ * @author Joseph Hirschfeld [Ichbinjoe] (joe@ibj.io)
+ * @since 10/18/26
+ */
+public class LazyJsonObjectTest {
+
+    private static LazyJsonObject parse(String json) {
+        return LazyJsonObject.of(ByteBuffer.wrap(json.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    public void testMembersAreDecodedAndNestedViewsAreShared() throws Exception {
+        LazyJsonObject json = parse("{\"a\": 1.5, \"b\": \"x\", \"c\": {\"d\": [true, false, null]}, \"e\": null}");
+
+        assertEquals(1.5, json.getMember("a"));
+        assertEquals("x", json.getMember("b"));
+        assertNull(json.getMember("e"));
+        assertTrue(json.hasMember("e"));
+        assertFalse(json.hasMember("f"));
+        assertSame(json.getMember("c"), json.getMember("c"));
+
+        JSObject array = (JSObject) ((JSObject) json.getMember("c")).getMember("d");
+        assertTrue(array.isArray());
+        assertEquals(3, array.getMember("length"));
+        assertEquals(true, array.getSlot(0));
+        assertEquals(false, array.getSlot(1));
+        assertNull(array.getSlot(2));
+        assertEquals(new HashSet<>(Arrays.asList("a", "b", "c", "e")), json.keySet());
+    }
+
+    @Test
+    public void testStringsAreUnescaped() throws Exception {
+        LazyJsonObject json = parse("{\"s\": \"a\\\"b\\\\c\\n\\u00e9\", \"u\": \"\u00fc\u4e2d\"}");
+
+        assertEquals("a\"b\\c\n\u00e9", json.getMember("s"));
+        assertEquals("\u00fc\u4e2d", json.getMember("u"));
+    }
+
+    @Test
+    public void testViewIsReadableFromScripts() throws Exception {
+        ScriptEngine engine = new NashornScriptEngineFactory().getScriptEngine();
+        engine.put("json", parse("{\"items\": [{\"id\": 4}, {\"id\": 2}]}"));
+
+        assertEquals(6.0, ((Number) engine.eval(
+                "var t = 0; for (var i = 0; i < json.items.length; i++) t += json.items[i].id; t")).doubleValue(), 0);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testSetMemberThrowsUnsupportedOperationException() throws Exception {
+        parse("{}").setMember("a", 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMalformedJsonThrowsIllegalArgumentException() throws Exception {
+        parse("{\"a\": [1, 2}");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testScalarRootThrowsIllegalArgumentException() throws Exception {
+        parse("\"a\"");
+    }
+
+    @Test
+    public void testMapReadsFile() throws Exception {
+        Path file = Files.createTempFile("lazy", ".json");
+        try {
+            Files.write(file, "{\"name\": \"table\", \"size\": 3}".getBytes(StandardCharsets.UTF_8));
+
+            LazyJsonObject json = LazyJsonObject.map(file);
+
+            assertEquals("table", json.getMember("name"));
+            assertEquals(3.0, json.getMember("size"));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testReadIsUnaffectedByFileChanges() throws Exception {
+        Path file = Files.createTempFile("lazy", ".json");
+        try {
+            Files.write(file, "{\"name\": \"table\", \"size\": 3}".getBytes(StandardCharsets.UTF_8));
+
+            LazyJsonObject json = LazyJsonObject.read(file);
+            Files.write(file, new byte[0]);
+
+            assertEquals("table", json.getMember("name"));
+            assertEquals(3.0, json.getMember("size"));
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
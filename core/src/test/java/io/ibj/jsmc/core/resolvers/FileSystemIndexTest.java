@@ -0,0 +1,104 @@
+package io.ibj.jsmc.core.resolvers;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests {@link FileSystemIndex}
+ *
+ * @author Joseph Hirschfeld [Ichbinjoe] (joe@ibj.io)
+ * @since 10/18/26
+ */
+public class FileSystemIndexTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testIndexAnswersFromTree() throws Exception {
+        Path root = folder.getRoot().toPath();
+        Path module = Files.createDirectories(root.resolve("node_modules/module"));
+        Path index = Files.write(module.resolve("index.js"), new byte[0]);
+
+        FileSystemIndex fileSystemIndex = new FileSystemIndex(root);
+
+        assertTrue(fileSystemIndex.isDirectory(root.resolve("node_modules")));
+        assertTrue(fileSystemIndex.isDirectory(module));
+        assertTrue(fileSystemIndex.exists(index));
+        assertFalse(fileSystemIndex.isDirectory(index));
+        assertFalse(fileSystemIndex.exists(module.resolve("missing.js")));
+        assertTrue(fileSystemIndex.isSameFile(module.resolve("../module"), module));
+    }
+
+    @Test
+    public void testSymbolicLinkIsSameFileAsTarget() throws Exception {
+        Path root = folder.getRoot().toPath();
+        Path target = Files.createDirectories(root.resolve("modules"));
+        Path link = Files.createSymbolicLink(root.resolve("node_modules"), target);
+
+        FileSystemIndex fileSystemIndex = new FileSystemIndex(root);
+
+        assertTrue(fileSystemIndex.isSameFile(link, target));
+        assertTrue(fileSystemIndex.isSameFile(link, root.resolve("node_modules/../node_modules")));
+        assertFalse(fileSystemIndex.isSameFile(link, root));
+    }
+
+    @Test
+    public void testChangesAreInvisibleUntilInvalidated() throws Exception {
+        Path root = folder.getRoot().toPath();
+        Path nodeModules = Files.createDirectories(root.resolve("node_modules"));
+
+        FileSystemIndex fileSystemIndex = new FileSystemIndex(root);
+        Path module = nodeModules.resolve("module");
+        assertFalse(fileSystemIndex.exists(module));
+
+        Files.createDirectories(module);
+        Files.write(module.resolve("index.js"), new byte[0]);
+        assertFalse(fileSystemIndex.exists(module));
+
+        fileSystemIndex.invalidate(module);
+        assertTrue(fileSystemIndex.isDirectory(module));
+        assertTrue(fileSystemIndex.exists(module.resolve("index.js")));
+    }
+
+    @Test
+    public void testInvalidateRemovesDeletedPaths() throws Exception {
+        Path root = folder.getRoot().toPath();
+        Path file = Files.write(root.resolve("file.js"), new byte[0]);
+
+        FileSystemIndex fileSystemIndex = new FileSystemIndex(root);
+        assertTrue(fileSystemIndex.exists(file));
+
+        Files.delete(file);
+        fileSystemIndex.invalidate(file);
+        assertFalse(fileSystemIndex.exists(file));
+    }
+
+    @Test
+    public void testFullInvalidateRebuildsIndex() throws Exception {
+        Path root = folder.getRoot().toPath();
+        FileSystemIndex fileSystemIndex = new FileSystemIndex(root);
+        Path file = root.resolve("file.js");
+        assertFalse(fileSystemIndex.exists(file));
+
+        Files.write(file, new byte[0]);
+        fileSystemIndex.invalidate();
+        assertTrue(fileSystemIndex.exists(file));
+    }
+
+    @Test
+    public void testPathsOutsideRootFallBackToDisk() throws Exception {
+        Path root = Files.createDirectories(folder.getRoot().toPath().resolve("root"));
+        Path outside = Files.write(folder.getRoot().toPath().resolve("outside.js"), new byte[0]);
+
+        FileSystemIndex fileSystemIndex = new FileSystemIndex(root);
+        assertTrue(fileSystemIndex.exists(outside));
+    }
+}
@@ -1,6 +1,33 @@
 package io.ibj.jsmc.core.resolvers;
 
+import io.ibj.jsmc.api.Dependency;
+import io.ibj.jsmc.api.DependencyConsumer;
+import io.ibj.jsmc.api.DependencyLifecycle;
+import io.ibj.jsmc.api.DependencyManager;
+import io.ibj.jsmc.api.exceptions.ModuleCompilationException;
+import io.ibj.jsmc.core.BasicDependencyManager;
+import io.ibj.jsmc.core.compiler.ScriptCompiler;
+import io.ibj.jsmc.core.dependencies.LazyJsonObject;
+import jdk.nashorn.api.scripting.ScriptObjectMirror;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
 import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
 
 /**
  * @author Joseph Hirschfeld [Ichbinjoe] (joe@ibj.io)
@@ -8,4 +35,187 @@ import static org.junit.Assert.*;
  */
 public class FileSystemResolverTest {
 
-}
\ No newline at end of file
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private ModuleResolver moduleResolver;
+
+    @Test
+    public void testResolvesModulesThroughIndex() throws Exception {
+        Path root = folder.getRoot().toPath();
+        write(root.resolve("node_modules/a/package.json"), "{\"main\": \"lib/main.js\"}");
+        write(root.resolve("node_modules/a/lib/main.js"), "module.exports = { b: require(\"b\").value }");
+        write(root.resolve("node_modules/b/index.js"), "module.exports = { value: require(\"./value.json\").v }");
+        write(root.resolve("node_modules/b/value.json"), "{\"v\": \"b\"}");
+
+        FileSystemIndex index = new FileSystemIndex(root);
+        FileSystemResolver fileSystemResolver = FileSystemResolver.builder(() -> moduleResolver, root)
+                .compiler(new ScriptCompiler(1, null)).fileSystem(index).build();
+        moduleResolver = new ModuleResolver(root, fileSystemResolver, null, index);
+
+        Optional<Dependency> a = moduleResolver.resolve(root, "a");
+        assertTrue(a.isPresent());
+
+        DependencyLifecycle lifecycle = a.get().depend(mock(DependencyConsumer.class));
+        assertEquals("b", ((ScriptObjectMirror) lifecycle.getDependencyExports()).get("b"));
+    }
+
+    @Test
+    public void testMissingModuleIsEmpty() throws Exception {
+        Path root = folder.getRoot().toPath();
+        Files.createDirectories(root.resolve("node_modules"));
+
+        FileSystemIndex index = new FileSystemIndex(root);
+        FileSystemResolver fileSystemResolver = FileSystemResolver.builder(() -> moduleResolver, root)
+                .compiler(new ScriptCompiler(1, null)).fileSystem(index).build();
+        moduleResolver = new ModuleResolver(root, fileSystemResolver, null, index);
+
+        assertFalse(moduleResolver.resolve(root, "missing").isPresent());
+    }
+
+    @Test
+    public void testReloadReevaluatesDependents() throws Exception {
+        Path root = folder.getRoot().toPath();
+        write(root.resolve("node_modules/a/index.js"), "module.exports = { b: require(\"b\").value }");
+        write(root.resolve("node_modules/b/index.js"), "module.exports = { value: 1 }");
+        write(root.resolve("node_modules/c/index.js"), "module.exports = { value: 3 }");
+
+        FileSystemIndex index = new FileSystemIndex(root);
+        FileSystemResolver fileSystemResolver = FileSystemResolver.builder(() -> moduleResolver, root)
+                .compiler(new ScriptCompiler(1, null)).fileSystem(index).build();
+        moduleResolver = new ModuleResolver(root, fileSystemResolver, null, index);
+        BasicDependencyManager<Path> manager = new BasicDependencyManager<>(moduleResolver, root);
+
+        DependencyManager.Entry a = manager.load("a");
+        DependencyManager.Entry c = manager.load("c");
+        assertEquals(1, ((ScriptObjectMirror) a.getLifecycle().getDependencyExports()).get("b"));
+
+        Path changed = root.resolve("node_modules/b/index.js");
+        write(changed, "module.exports = { value: 2 }");
+        index.invalidate(changed);
+        fileSystemResolver.reload(Collections.singleton(changed));
+
+        DependencyManager.Entry reloaded = manager.getLoadedModules().stream()
+                .filter(e -> e.getIdentifier().equals("a")).findFirst().get();
+        assertEquals(2, ((ScriptObjectMirror) reloaded.getLifecycle().getDependencyExports()).get("b"));
+        // modules which did not depend on the change are left alone
+        assertTrue(manager.getLoadedModules().contains(c));
+    }
+
+    @Test
+    public void testPrefetchesLiteralRequires() throws Exception {
+        Path root = folder.getRoot().toPath();
+        write(root.resolve("a.js"), "module.exports = { b: require('./b.js'), c: require(\"./c\") }");
+        write(root.resolve("b.js"), "module.exports = 'b'");
+        write(root.resolve("c.json"), "{}");
+
+        FileSystemResolver fileSystemResolver = FileSystemResolver.builder(() -> moduleResolver, root)
+                .compiler(new ScriptCompiler(1, null)).prefetchExecutor(Runnable::run).build();
+        moduleResolver = new ModuleResolver(root, fileSystemResolver, null, FileSystemView.DIRECT);
+
+        assertTrue(fileSystemResolver.resolve(root, "./a.js").isPresent());
+
+        // resolved while a.js was compiled, so they no longer need to be read
+        Files.delete(root.resolve("b.js"));
+        Files.delete(root.resolve("c.json"));
+        assertTrue(fileSystemResolver.resolve(root, "./b.js").isPresent());
+        assertTrue(fileSystemResolver.resolve(root, "./c").isPresent());
+    }
+
+    @Test
+    public void testLazyJsonIsOptIn() throws Exception {
+        Path root = folder.getRoot().toPath();
+        write(root.resolve("table.json"), "{\"rows\": [1, 2]}");
+        write(root.resolve("list.json"), "[1, 2]");
+
+        FileSystemResolver eager = FileSystemResolver.builder(() -> moduleResolver, root)
+                .compiler(new ScriptCompiler(1, null)).build();
+        Object exports = eager.resolve(root, "./table.json").get().depend(mock(DependencyConsumer.class))
+                .getDependencyExports();
+        assertTrue(exports instanceof Map);
+
+        FileSystemResolver lazy = FileSystemResolver.builder(() -> moduleResolver, root)
+                .compiler(new ScriptCompiler(1, null)).lazyJsonThreshold(0).build();
+        exports = lazy.resolve(root, "./table.json").get().depend(mock(DependencyConsumer.class))
+                .getDependencyExports();
+        assertTrue(exports instanceof LazyJsonObject);
+
+        // root arrays are refused either way
+        for (FileSystemResolver resolver : Arrays.asList(eager, lazy)) {
+            try {
+                resolver.resolve(root, "./list.json");
+                fail();
+            } catch (ModuleCompilationException e) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void testResolvesModulesFromZipOverlay() throws Exception {
+        Path root = folder.getRoot().toPath();
+        write(root.resolve("node_modules/b/index.js"), "module.exports = { value: 'disk' }");
+        Path archive = root.resolve("package.zip");
+        zip(archive,
+                "a/package.json", "{\"main\": \"lib/main.js\"}",
+                "a/lib/main.js", "module.exports = { b: require('b').value, c: require('c').value, d: require('./d.json').v }",
+                "a/lib/d.json", "{\"v\": \"d\"}",
+                "a/node_modules/c/index.js", "module.exports = { value: 'nested' }");
+
+        try (FileSystem bundle = FileSystems.newFileSystem(archive, (ClassLoader) null)) {
+            FileSystemIndex index = new FileSystemIndex(root);
+            FileSystemResolver fileSystemResolver = FileSystemResolver.builder(() -> moduleResolver, root)
+                    .compiler(new ScriptCompiler(1, null)).fileSystem(index).build();
+            moduleResolver = new ModuleResolver(root, fileSystemResolver, null, index, bundle.getPath("/"));
+
+            Optional<Dependency> a = moduleResolver.resolve(root, "a");
+            assertTrue(a.isPresent());
+
+            ScriptObjectMirror exports = (ScriptObjectMirror) a.get().depend(mock(DependencyConsumer.class))
+                    .getDependencyExports();
+            assertEquals("disk", exports.get("b"));
+            assertEquals("nested", exports.get("c"));
+            assertEquals("d", exports.get("d"));
+            assertEquals(new HashSet<>(Arrays.asList("a", "b")), moduleResolver.getLoadableModules());
+
+            // only the changed script on disk and its directory module are evicted, the modules within the zip are kept
+            Path changed = root.resolve("node_modules/b/index.js");
+            assertEquals(2, fileSystemResolver.invalidate(Collections.singleton(changed)).size());
+        }
+    }
+
+    @Test
+    public void testModulesOnDiskTakePrecedenceOverZipOverlay() throws Exception {
+        Path root = folder.getRoot().toPath();
+        write(root.resolve("node_modules/a/index.js"), "module.exports = { value: 'disk' }");
+        Path archive = root.resolve("package.zip");
+        zip(archive, "a/index.js", "module.exports = { value: 'zip' }");
+
+        try (FileSystem bundle = FileSystems.newFileSystem(archive, (ClassLoader) null)) {
+            FileSystemResolver fileSystemResolver = FileSystemResolver.builder(() -> moduleResolver, root)
+                    .compiler(new ScriptCompiler(1, null)).build();
+            moduleResolver = new ModuleResolver(root, fileSystemResolver, null, FileSystemView.DIRECT,
+                    bundle.getPath("/"));
+
+            Optional<Dependency> a = moduleResolver.resolve(root, "a");
+            assertTrue(a.isPresent());
+            assertEquals("disk", ((ScriptObjectMirror) a.get().depend(mock(DependencyConsumer.class))
+                    .getDependencyExports()).get("value"));
+        }
+    }
+
+    private static void zip(Path archive, String... entries) throws Exception {
+        try (ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(archive))) {
+            for (int i = 0; i < entries.length; i += 2) {
+                out.putNextEntry(new ZipEntry(entries[i]));
+                out.write(entries[i + 1].getBytes(StandardCharsets.UTF_8));
+                out.closeEntry();
+            }
+        }
+    }
+
+    private static void write(Path path, String contents) throws Exception {
+        Files.createDirectories(path.getParent());
+        Files.write(path, contents.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,71 @@
+package io.ibj.jsmc.core.resolvers;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * @author Joseph Hirschfeld [Ichbinjoe] (joe@ibj.io)
+ * @since 10/18/26
+ */
+public class ModuleWatcherTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testReportsChangesInNewDirectories() throws Exception {
+        Path root = folder.getRoot().toPath().toAbsolutePath().normalize();
+        BlockingQueue<Set<Path>> batches = new LinkedBlockingQueue<>();
+        try (ModuleWatcher watcher = new ModuleWatcher(root, 100, Runnable::run, batches::add)) {
+            watcher.start();
+            Path module = root.resolve("node_modules/a");
+            Files.createDirectories(module);
+            Files.write(module.resolve("index.js"), "module.exports = {}".getBytes());
+
+            boolean seen = false;
+            long deadline = System.currentTimeMillis() + 30000;
+            while (!seen && System.currentTimeMillis() < deadline) {
+                Set<Path> batch = batches.poll(deadline - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+                seen = batch != null && (batch.contains(module.resolve("index.js")) || batch.contains(module));
+            }
+            assertTrue(seen);
+        }
+    }
+
+    @Test
+    public void testSteadyChangesAreReportedAfterMaxWait() throws Exception {
+        Path root = folder.getRoot().toPath().toAbsolutePath().normalize();
+        Path file = root.resolve("index.js");
+        BlockingQueue<Set<Path>> batches = new LinkedBlockingQueue<>();
+        try (ModuleWatcher watcher = new ModuleWatcher(root, 500, 1000, Runnable::run, batches::add)) {
+            watcher.start();
+            // writes every 100 milliseconds never leave a quiet period of the debounce
+            Set<Path> batch = null;
+            long deadline = System.currentTimeMillis() + 30000;
+            for (int i = 0; batch == null && System.currentTimeMillis() < deadline; i++) {
+                Files.write(file, ("module.exports = " + i).getBytes());
+                batch = batches.poll(100, TimeUnit.MILLISECONDS);
+            }
+            assertNotNull(batch);
+            assertTrue(batch.contains(file));
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testStartTwiceFails() throws Exception {
+        try (ModuleWatcher watcher = new ModuleWatcher(folder.getRoot().toPath(), 100, Runnable::run, s -> {})) {
+            watcher.start();
+            watcher.start();
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package io.ibj.jsmc.core.resolvers;
+
+import io.ibj.jsmc.api.Dependency;
+import io.ibj.jsmc.api.DependencyConsumer;
+import io.ibj.jsmc.core.backend.NashornBackend;
+import io.ibj.jsmc.core.compiler.JsmcPackage;
+import io.ibj.jsmc.core.compiler.ScriptCompiler;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Tests {@link PackageResolver}
+ *
+ * @author Joseph Hirschfeld [Ichbinjoe] (joe@ibj.io)
+ * @since 10/18/26
+ */
+public class PackageResolverTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private ModuleResolver moduleResolver;
+
+    @Test
+    public void testResolvesModulesWithinPackage() throws Exception {
+        Path root = folder.newFolder("root").toPath();
+        write(root.resolve("node_modules/d/index.js"), "module.exports = { value: 'disk' }");
+        Path modules = folder.newFolder("packed").toPath();
+        write(modules.resolve("a/package.json"), "{\"main\": \"lib/main.js\"}");
+        write(modules.resolve("a/lib/main.js"), "module.exports = { b: require('b').value, c: require('c').value, " +
+                "d: require('d').value, e: require('../e').v }");
+        write(modules.resolve("a/e.json"), "{\"v\": \"e\"}");
+        write(modules.resolve("a/node_modules/c/index.js"), "module.exports = { value: 'nested' }");
+        write(modules.resolve("b/index.js"), "module.exports = { value: 'top' }");
+        Path file = folder.getRoot().toPath().resolve("modules" + JsmcPackage.EXTENSION);
+        JsmcPackage.write(modules, file);
+
+        FileSystemResolver fileSystemResolver = FileSystemResolver.builder(() -> moduleResolver, root)
+                .compiler(new ScriptCompiler(1, null)).build();
+        PackageResolver packageResolver = new PackageResolver(JsmcPackage.open(file),
+                new NashornBackend(new ScriptCompiler(1, null)), () -> moduleResolver, root);
+        moduleResolver = new ModuleResolver(root, fileSystemResolver, packageResolver);
+
+        Optional<Dependency> a = moduleResolver.resolve(root, "a");
+        assertTrue(a.isPresent());
+        assertSame(a.get(), moduleResolver.resolve(root, "a").get());
+
+        Map exports = (Map) a.get().depend(mock(DependencyConsumer.class)).getDependencyExports();
+        assertEquals("top", exports.get("b"));
+        assertEquals("nested", exports.get("c"));
+        assertEquals("disk", exports.get("d"));
+        assertEquals("e", exports.get("e"));
+    }
+
+    @Test
+    public void testRelativeIdentifiersOutsidePackageAreEmpty() throws Exception {
+        Path modules = folder.newFolder("packed").toPath();
+        write(modules.resolve("a/index.js"), "module.exports = 1");
+        Path file = folder.getRoot().toPath().resolve("modules" + JsmcPackage.EXTENSION);
+        JsmcPackage.write(modules, file);
+
+        PackageResolver packageResolver = new PackageResolver(JsmcPackage.open(file),
+                new NashornBackend(new ScriptCompiler(1, null)), () -> moduleResolver, folder.getRoot().toPath());
+
+        assertFalse(packageResolver.resolve(folder.getRoot().toPath(), "./a").isPresent());
+        assertFalse(packageResolver.resolve(file.resolve("a/index.js"), "../../escape").isPresent());
+        assertFalse(packageResolver.resolve(folder.getRoot().toPath(), "missing").isPresent());
+    }
+
+    @Test
+    public void testMissingRelativeIdentifiersDoNotFallDownstream() throws Exception {
+        Path root = folder.newFolder("root").toPath();
+        write(root.resolve("x.js"), "module.exports = 'disk'");
+        Path modules = folder.newFolder("packed").toPath();
+        write(modules.resolve("a/index.js"), "var x; try { x = require('./x'); } catch (e) { x = 'missing'; } " +
+                "module.exports = { x: x, y: require('y').value }");
+        write(root.resolve("node_modules/y/index.js"), "module.exports = { value: 'disk' }");
+        Path file = folder.getRoot().toPath().resolve("modules" + JsmcPackage.EXTENSION);
+        JsmcPackage.write(modules, file);
+
+        FileSystemResolver fileSystemResolver = FileSystemResolver.builder(() -> moduleResolver, root)
+                .compiler(new ScriptCompiler(1, null)).build();
+        PackageResolver packageResolver = new PackageResolver(JsmcPackage.open(file),
+                new NashornBackend(new ScriptCompiler(1, null)),
+                () -> new PassthroughResolver<>(fileSystemResolver, moduleResolver), root);
+        moduleResolver = new ModuleResolver(root, fileSystemResolver, packageResolver);
+
+        assertFalse(packageResolver.resolve(file.resolve("a/index.js"), "./x").isPresent());
+        Map exports = (Map) moduleResolver.resolve(root, "a").get().depend(mock(DependencyConsumer.class))
+                .getDependencyExports();
+        assertEquals("missing", exports.get("x"));
+        assertEquals("disk", exports.get("y"));
+    }
+
+    private static void write(Path path, String contents) throws Exception {
+        Files.createDirectories(path.getParent());
+        Files.write(path, contents.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,127 @@
+package io.ibj.jsmc.core.resolvers;
+
+import io.ibj.jsmc.api.Dependency;
+import io.ibj.jsmc.api.DependencyResolver;
+import io.ibj.jsmc.core.ReevaluationScheduler;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Optional;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests {@link ResolverPipeline}
+ *
+ * @author Joseph Hirschfeld [Ichbinjoe] (joe@ibj.io)
+ * @since 10/18/26
+ */
+public class ResolverPipelineTest {
+
+    private final Path scope = Paths.get("root", "index.js");
+
+    private DependencyResolver<Path> fileResolver;
+    private DependencyResolver<Path> moduleResolver;
+    private DependencyResolver<Path> downstreamResolver;
+    private ReevaluationScheduler scheduler;
+    private ResolverPipeline pipeline;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() throws Exception {
+        fileResolver = mock(DependencyResolver.class);
+        moduleResolver = mock(DependencyResolver.class);
+        downstreamResolver = mock(DependencyResolver.class);
+        when(fileResolver.resolve(any(), anyString())).thenReturn(Optional.empty());
+        when(moduleResolver.resolve(any(), anyString())).thenReturn(Optional.empty());
+        when(downstreamResolver.resolve(any(), anyString())).thenReturn(Optional.empty());
+        scheduler = new ReevaluationScheduler();
+        pipeline = new ResolverPipeline(fileResolver, moduleResolver, downstreamResolver, scheduler);
+    }
+
+    @Test
+    public void testIdentifiersAreRoutedByShape() throws Exception {
+        Dependency file = mock(Dependency.class);
+        Dependency module = mock(Dependency.class);
+        Dependency other = mock(Dependency.class);
+        when(fileResolver.resolve(scope, "./file")).thenReturn(Optional.of(file));
+        when(moduleResolver.resolve(scope, "module")).thenReturn(Optional.of(module));
+        when(downstreamResolver.resolve(scope, "Other.Label")).thenReturn(Optional.of(other));
+
+        assertSame(file, pipeline.resolve(scope, "./file").get());
+        assertSame(module, pipeline.resolve(scope, "module").get());
+        assertSame(other, pipeline.resolve(scope, "Other.Label").get());
+
+        verify(fileResolver, never()).resolve(scope, "module");
+        verify(fileResolver, never()).resolve(scope, "Other.Label");
+        verify(moduleResolver, never()).resolve(scope, "./file");
+        verify(moduleResolver, never()).resolve(scope, "Other.Label");
+        verify(downstreamResolver, never()).resolve(scope, "./file");
+        verify(downstreamResolver, never()).resolve(scope, "module");
+    }
+
+    @Test
+    public void testMissingFileFallsDownstream() throws Exception {
+        Dependency dependency = mock(Dependency.class);
+        when(downstreamResolver.resolve(scope, "../missing")).thenReturn(Optional.of(dependency));
+
+        assertSame(dependency, pipeline.resolve(scope, "../missing").get());
+        verify(fileResolver).resolve(scope, "../missing");
+    }
+
+    @Test
+    public void testHitsAreCachedAndMissesAreNot() throws Exception {
+        when(moduleResolver.resolve(scope, "module")).thenReturn(Optional.of(mock(Dependency.class)));
+
+        Optional<Dependency> first = pipeline.resolve(scope, "module");
+        assertSame(first, pipeline.resolve(scope, "module"));
+        verify(moduleResolver, times(1)).resolve(scope, "module");
+
+        assertFalse(pipeline.resolve(scope, "missing").isPresent());
+        assertFalse(pipeline.resolve(scope, "missing").isPresent());
+        verify(moduleResolver, times(2)).resolve(scope, "missing");
+    }
+
+    @Test
+    public void testNullScopeIsRoutedWithoutCaching() throws Exception {
+        Dependency dependency = mock(Dependency.class);
+        when(moduleResolver.resolve(null, "module")).thenReturn(Optional.of(dependency));
+
+        assertSame(dependency, pipeline.resolve(null, "module").get());
+        assertSame(dependency, pipeline.resolve(null, "module").get());
+        assertFalse(pipeline.resolve(null, "Other.Label").isPresent());
+        verify(moduleResolver, times(2)).resolve(null, "module");
+        verify(downstreamResolver).resolve(null, "Other.Label");
+    }
+
+    @Test
+    public void testChangedResolutionsDropCache() throws Exception {
+        Dependency before = mock(Dependency.class);
+        Dependency after = mock(Dependency.class);
+        when(moduleResolver.resolve(scope, "module")).thenReturn(Optional.of(before));
+        assertSame(before, pipeline.resolve(scope, "module").get());
+
+        when(moduleResolver.resolve(scope, "module")).thenReturn(Optional.of(after));
+        assertSame(before, pipeline.resolve(scope, "module").get());
+        scheduler.resolutionsChanged();
+        assertSame(after, pipeline.resolve(scope, "module").get());
+    }
+
+    @Test
+    public void testReplacedSystemDependencyDropsCache() throws Exception {
+        SystemDependencyResolver<Path> systemResolver = new SystemDependencyResolver<>(null, scheduler);
+        pipeline = new ResolverPipeline(fileResolver, systemResolver, systemResolver, scheduler);
+        Dependency before = mock(Dependency.class);
+        Dependency after = mock(Dependency.class);
+
+        systemResolver.add("system", before);
+        assertSame(before, pipeline.resolve(scope, "system").get());
+        systemResolver.setSilently("system", after);
+        assertSame(after, pipeline.resolve(scope, "system").get());
+    }
+}
@@ -0,0 +1,7 @@
+var test = require.lazy("test");
+
+module.exports = {
+    value: function () {
+        return test.value;
+    }
+};
@@ -0,0 +1,12 @@
+var handle = require.lazy("handle");
+
+module.exports = {
+    apply: function () {
+        return handle.apply(function (v) {
+            return v + 1;
+        }, 2);
+    },
+    name: function () {
+        return handle.name;
+    }
+};
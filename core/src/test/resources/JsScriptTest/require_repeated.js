@@ -0,0 +1,5 @@
+module.exports = {
+    get: function () {
+        return require("test");
+    }
+};
@@ -1,4 +1,8 @@
-module.exports = {}
+var HashMap = Java.type("java.util.HashMap")
+
+// types are only declared here. They are loaded by the namespace once a script first reads them, so requiring this
+// module costs nothing for the types a script never uses
+var classNames = new HashMap()
 
 function fillIn(pkg, types) {
   if (!(types instanceof Array))
@@ -6,10 +10,7 @@ function fillIn(pkg, types) {
 
   for (typeIdx in types) {
     var type = types[typeIdx]
-    try {
-        module.exports[type] = Java.type(pkg + "." + type)
-    } catch (e) {
-    }
+    classNames.put(type, pkg + "." + type)
   }
 }
 
@@ -178,3 +179,8 @@ fillIn("org.bukkit.scoreboard", ["Criterias", "DisplaySlot", "NameTagVisibility"
 
 fillIn("org.bukkit.util", ["BlockIterator", "BlockVector", "ChatPaginator",
        "EulerAngle", "FileUtil", "NumberConversions", "StringUtil", "Vector"])
+
+// types which do not exist on this server read as undefined, and are left out when enumerating the namespace
+module.exports = require("mc-bukkit-plugin").jsmc.newTypeNamespace(function(className) {
+  return Java.type(className)
+}, classNames, undefined)
@@ -111,6 +111,9 @@ subcommands = [
         sender.sendMessage(usage)
         return
       }
+      // modules may have been dropped in since the file system was last indexed
+      if (plugin.jsmc.fileSystemIndex != null)
+        plugin.jsmc.fileSystemIndex.invalidate()
       for (var m in args) {
         const module = args[m]
         try {
@@ -167,6 +170,37 @@ subcommands = [
       return Java.to(loadedModuleNames().filter(pred), List)
     }
   },
+  {
+    name: "stats",
+    aliases: ["st", "metrics"],
+    desc: "Displays runtime metrics of the modules known to the jsmc system",
+    usage: c.ChatColor.GRAY + "Usage: /jsmc stats [module...]",
+    perm: "jsmc.stats",
+    cmdHandler: (sender, args) => {
+      const lg = c.ChatColor.GRAY
+      const w = c.ChatColor.WHITE
+      let stats = Java.from(plugin.jsmc.metrics.getModules())
+      if (args.length != 0)
+        stats = stats.filter(s => Java.from(args).some(a => s.getName().startsWith(a)))
+      stats.sort((a, b) => b.getEvaluationMicros() - a.getEvaluationMicros())
+      sender.sendMessage(c.ChatColor.DARK_GRAY + "==== /jsmc stats ====")
+      for (const i in stats) {
+        const s = stats[i]
+        sender.sendMessage(c.ChatColor.GREEN + s.getName() + lg +
+          " compile " + w + (s.getCompileMicros() / 1000).toFixed(2) + "ms" + lg + "/" + s.getCompileCount() +
+          " eval " + w + (s.getEvaluationMicros() / 1000).toFixed(2) + "ms" + lg + "/" + s.getEvaluationCount() +
+          " requires " + w + s.getRequireCount() +
+          lg + " lifecycles " + w + s.getLiveLifecycles() + lg + " (" + s.getDependCount() + "+/" + s.getCloseCount() + "-)" +
+          " reports " + w + s.getReportCount() + lg + " (" + s.getReportsPerMinute().toFixed(1) + "/min)" +
+          (s.getAsyncSubmitCount() == 0 ? "" : " async " + w + s.getAsyncQueueDepth() + lg + " queued, " +
+            w + (s.getAsyncLatencyMicros() / 1000 / Math.max(1, s.getAsyncSubmitCount() - s.getAsyncQueueDepth())).toFixed(2) +
+            "ms" + lg + " avg, " + w + (s.getAsyncMaxLatencyMicros() / 1000).toFixed(2) + "ms" + lg + " max"))
+      }
+    },
+    tabHandler: (sender, args) => {
+      return EmptyList
+    }
+  },
   {
     name: "help",
     aliases: ["h", "?"],
@@ -255,8 +289,23 @@ else if ('blacklistModules' in modules)
 else
   shouldEnable = m => !isUs(m)
 
+const toEnable = new ArrayList()
 for (const m in modules) {
   const module = modules[m]
   if (shouldEnable(module))
-    manager.load(module)
+    toEnable.add(module)
+}
+
+// modules are compiled in parallel, but still run one after another on this thread
+const loaded = manager.loadAll(toEnable)
+const loadedItr = loaded.entrySet().iterator()
+while (loadedItr.hasNext()) {
+  const e = loadedItr.next()
+  if (e.getValue().isCompletedExceptionally()) {
+    try {
+      e.getValue().join()
+    } catch (ex) {
+      plugin.jsmc.getLogger().warning("Failed to load module '" + e.getKey() + "' with exception '" + ex.getCause() + "'!")
+    }
+  }
 }
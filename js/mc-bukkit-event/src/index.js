@@ -4,7 +4,9 @@ const c = require("mc-bukkit-consts")
 
 const Class = Java.type("java.lang.Class")
 
-const GenericListener = Java.extend(c.Listener, {})
+// every subscription goes through the plugin's shared event bridge, which registers each event type and priority with
+// bukkit once and fans out to all subscribers, so no listener or executor classes are generated per stream
+const bridge = plugin.jsmc.eventBridge
 
 module.generator = () => {
   const pendingStreams = []
@@ -21,10 +23,13 @@ module.generator = () => {
       let eventType
       let priority
       let ignoreCancelled
+      let options = null
       if (!(Class.class.isInstance(eventspec))) {
         eventType = eventspec.event
         priority = eventspec.priority || c.EventPriority.NORMAL
-        ignoreCancelled = eventspec.ignoreCancelled || true
+        ignoreCancelled = eventspec.ignoreCancelled != null ? eventspec.ignoreCancelled : true
+        // filters and rate controls such as world, throttle and per are applied by the bridge before calling in here
+        options = eventspec
       } else {
         eventType = eventspec
         priority = c.EventPriority.NORMAL
@@ -32,19 +37,25 @@ module.generator = () => {
       }
 
       return bacon.fromBinder(sink => {
-        const listener = new GenericListener() // new listener
-        const MyHandlerType = Java.extend(c.EventExecutor, (listener, event) =>
-          sink(new bacon.Next(event))
-        )
-
-        c.Bukkit.getPluginManager().
-          registerEvent(eventType, listener, priority, new MyHandlerType(), 
-            plugin.jsmc, ignoreCancelled) 
+        let subscription
+        if (options == null) {
+          subscription = bridge.subscribe(eventType, priority, ignoreCancelled, event => sink(new bacon.Next(event)))
+        } else if (options.batch) {
+          // the stream carries one java array of all events which fired during a tick
+          subscription = bridge.subscribeBatch(eventType, priority, ignoreCancelled, options,
+            events => sink(new bacon.Next(events)))
+        } else {
+          subscription = bridge.subscribe(eventType, priority, ignoreCancelled, options,
+            event => sink(new bacon.Next(event)))
+        }
 
         let cleanup = () => {
-          c.HandlerList.unregisterAll(listener)
+          subscription.close()
+          const i = pendingStreams.indexOf(cleanup)
+          if (i != -1)
+            pendingStreams.splice(i, 1)
         }
-        
+
         pendingStreams.push(cleanup)
         return cleanup
       })
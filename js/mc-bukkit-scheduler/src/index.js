@@ -2,11 +2,11 @@ const c = require("mc-bukkit-consts")
 const plugin = require("mc-bukkit-plugin")
 const wrapRunnable = require("../no_translate/wrap_bukkitrunnable.js")
 
-const synch = {
-  now: (br) => br.runTask(plugin.jsmc),
-  later: (br, delay) => br.runTaskLater(plugin.jsmc, delay),
-  timer: (br, delay, period) => br.runTaskTimer(plugin.jsmc, delay, period)
-}
+const HashSet = Java.type("java.util.HashSet")
+
+// sync tasks share the plugin's timing wheel, which runs every task due on a tick from a single bukkit task. As they
+// are not bukkit tasks of their own, only async tasks expose a bukkit taskId
+const wheel = plugin.jsmc.timingWheel
 
 const asynch = {
   now: (br) => br.runTaskAsynchronously(plugin.jsmc),
@@ -25,20 +25,55 @@ function wrapOnEnd(runnable, end) {
   }
 }
 
-function createScheduler(bindings) {
-  const cleanupRunnables = {}
+function createSyncScheduler() {
+  const pending = new HashSet()
+  const create = (r, delay, period) => {
+    let timeout
+    const task = period > 0 ? r : wrapOnEnd(r, () => pending.remove(timeout))
+    timeout = wheel.schedule(task, delay, period)
+    pending.add(timeout)
+
+    const statusObject = {
+      cancel: () => {
+        timeout.cancel()
+        pending.remove(timeout)
+      }
+    }
+
+    Object.defineProperty(statusObject, "scheduled", {
+      get: () => timeout.isScheduled()
+    })
+
+    Object.defineProperty(statusObject, "timeoutId", {
+      get: () => timeout.isScheduled() ? timeout.getId() : -1
+    })
+
+    return statusObject
+  }
+  return {
+    close: () => {
+      pending.forEach(timeout => timeout.cancel())
+      pending.clear()
+    },
+    exports: {
+      now: (r) => create(r, 0, 0),
+      later: (r, delay) => create(r, delay, 0),
+      // bukkit treats a period of 0 as every tick
+      timer: (r, delay, period) => create(r, delay, Math.max(period, 1))
+    }
+  }
+}
+
+function createAsyncScheduler(bindings) {
+  const pending = new HashSet()
   const create = invoker => {
     const internalState = {
     }
-  
-    const cleanupFunc = () => {
-      internalState.task.cancel()
-    }
 
     const statusObject = {
       cancel: () => {
-        cleanupFunc()
-        delete cleanupRunnables[internalState] 
+        internalState.task.cancel()
+        pending.remove(internalState.task)
       }
     }
 
@@ -50,23 +85,20 @@ function createScheduler(bindings) {
       get: () => internalState.task.getTaskId()
     })
 
-    internalState.task = invoker(statusObject.cancel)
-
-    cleanupRunnables[internalState] = cleanupFunc
+    internalState.task = invoker(() => pending.remove(internalState.task))
+    pending.add(internalState.task)
 
     return statusObject
   }
   return {
     close: () => {
-      for (key in cleanupRunnables) {
-        cleanupRunnables[key].cancel()
-        delete cleanupRunnables[key]
-      }
+      pending.forEach(task => task.cancel())
+      pending.clear()
     },
-    exports: { 
+    exports: {
       now: (r) => {
         return create(cleanup => bindings.now(wrapRunnable(
-          wrapOnEnd(r, cleanup)))) 
+          wrapOnEnd(r, cleanup))))
       },
       later: (r, delay) => {
         return create(cleanup => bindings.later(wrapRunnable(
@@ -74,7 +106,7 @@ function createScheduler(bindings) {
       },
 
       timer: (r, delay, period) => {
-        return create(cleanup => bindings.timer(wrapRunnable(r), 
+        return create(cleanup => bindings.timer(wrapRunnable(r),
                                                 delay, period))
       }
     }
@@ -82,8 +114,8 @@ function createScheduler(bindings) {
 }
 
 module.generator = () => {
-  const syncSched = createScheduler(synch)
-  const asyncSched = createScheduler(asynch)
+  const syncSched = createSyncScheduler()
+  const asyncSched = createAsyncScheduler(asynch)
   return {
     exports: {
       sync: syncSched.exports,